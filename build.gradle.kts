@@ -42,6 +42,7 @@ dependencies {
     implementation(libs.bouncy.castle.crypto)
     implementation(libs.aws.s3)
     implementation(libs.stripe)
+    implementation(libs.caffeine)
     implementation(libs.jjwt.api)
     runtimeOnly(libs.bundles.jjwt)
     runtimeOnly(libs.mysql)
@@ -76,3 +77,21 @@ tasks.withType<Test> {
         }
     }))
 }
+
+tasks.test {
+    useJUnitPlatform {
+        excludeTags("benchmark")
+    }
+}
+
+tasks.register<Test>("benchmark") {
+    description = "Runs the throughput benchmarks excluded from the regular test run."
+    group = LifecycleBasePlugin.VERIFICATION_GROUP
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    shouldRunAfter(tasks.test)
+
+    useJUnitPlatform {
+        includeTags("benchmark")
+    }
+}
@@ -1,11 +1,10 @@
 package com.wild.ecommerce.address.model;
 
 import com.wild.ecommerce.common.model.Auditable;
+import com.wild.ecommerce.common.model.TimeOrderedUuid;
 import com.wild.ecommerce.user.model.User;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
@@ -26,7 +25,7 @@ import java.util.UUID;
 public class Address extends Auditable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
 
     @Column(nullable = false)
@@ -7,6 +7,7 @@ import com.wild.ecommerce.address.mapper.AddressMapper;
 import com.wild.ecommerce.address.model.Address;
 import com.wild.ecommerce.address.repository.AddressRepository;
 import com.wild.ecommerce.address.specification.AddressSpecification;
+import com.wild.ecommerce.common.cache.CacheTagService;
 import com.wild.ecommerce.common.dto.PageResponse;
 import com.wild.ecommerce.common.exception.ResourceNotFoundException;
 import com.wild.ecommerce.common.util.BeanUtil;
@@ -16,7 +17,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
@@ -33,10 +33,10 @@ public class AddressServiceImpl implements AddressService {
     private final AddressRepository addressRepository;
     private final UserRepository userRepository;
     private final AddressMapper addressMapper;
+    private final CacheTagService cacheTagService;
 
     @Override
     @Transactional
-    @CacheEvict(value = "addresses", key = "#userEmail")
     public AddressDTO createAddress(CreateAddressRequest request, String userEmail) {
         User user = userRepository.findByEmailIgnoreCase(userEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("User with email: '" + userEmail + "' not found"));
@@ -50,6 +50,7 @@ public class AddressServiceImpl implements AddressService {
         address.setUser(user);
 
         Address savedAddress = addressRepository.save(address);
+        cacheTagService.invalidate(CacheTagService.user(userEmail));
 
         return addressMapper.apply(savedAddress);
     }
@@ -58,7 +59,8 @@ public class AddressServiceImpl implements AddressService {
     @Transactional(readOnly = true)
     @Cacheable(
             value = "addresses",
-            key = "#userEmail + '-' + #pageable.pageNumber + '-' + #pageable.pageSize + '-' + " +
+            key = "@cacheTagService.version('user:' + #userEmail) + '-' + #userEmail + '-' + " +
+                    "#pageable.pageNumber + '-' + #pageable.pageSize + '-' + #pageable.sort + '-' + " +
                     "(#country != null ? #country : 'null') + '-' + " +
                     "(#state != null ? #state : 'null') + '-' + " +
                     "(#city != null ? #city : 'null') + '-' + " +
@@ -107,12 +109,7 @@ public class AddressServiceImpl implements AddressService {
 
     @Override
     @Transactional
-    @Caching(
-            evict = {
-                    @CacheEvict(value = "address", key = "#userEmail + '-' + #id"),
-                    @CacheEvict(value = "addresses", key = "#userEmail")
-            }
-    )
+    @CacheEvict(value = "address", key = "#userEmail + '-' + #id")
     public AddressDTO updateAddress(UUID id, UpdateAddressRequest request, String userEmail) {
         User user = userRepository.findByEmailIgnoreCase(userEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("User with email: '" + userEmail + "' not found"));
@@ -130,18 +127,14 @@ public class AddressServiceImpl implements AddressService {
         BeanUtil.copyNonNullProperties(request, address);
 
         Address updatedAddress = addressRepository.save(address);
+        cacheTagService.invalidate(CacheTagService.user(userEmail));
 
         return addressMapper.apply(updatedAddress);
     }
 
     @Override
     @Transactional
-    @Caching(
-            evict = {
-                    @CacheEvict(value = "address", key = "#userEmail + '-' + #id"),
-                    @CacheEvict(value = "addresses", key = "#userEmail")
-            }
-    )
+    @CacheEvict(value = "address", key = "#userEmail + '-' + #id")
     public void deleteAddress(UUID id, String userEmail) {
         User user = userRepository.findByEmailIgnoreCase(userEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("User with email: '" + userEmail + "' not found"));
@@ -157,5 +150,6 @@ public class AddressServiceImpl implements AddressService {
         }
 
         addressRepository.delete(address);
+        cacheTagService.invalidate(CacheTagService.user(userEmail));
     }
 }
@@ -1,12 +1,11 @@
 package com.wild.ecommerce.cart.model;
 
 import com.wild.ecommerce.common.model.Auditable;
+import com.wild.ecommerce.common.model.TimeOrderedUuid;
 import com.wild.ecommerce.user.model.User;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToMany;
@@ -31,7 +30,7 @@ import java.util.UUID;
 public class Cart extends Auditable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
 
     @OneToMany(mappedBy = "cart", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
@@ -2,13 +2,12 @@ package com.wild.ecommerce.cart.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.wild.ecommerce.common.model.Auditable;
+import com.wild.ecommerce.common.model.TimeOrderedUuid;
 import com.wild.ecommerce.product.model.Product;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
@@ -30,7 +29,7 @@ import java.util.UUID;
 public class CartItem extends Auditable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
 
     @Column(nullable = false, precision = 19, scale = 2)
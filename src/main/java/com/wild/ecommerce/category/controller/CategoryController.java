@@ -4,15 +4,20 @@ import com.wild.ecommerce.category.service.CategoryService;
 import com.wild.ecommerce.category.dto.CategoryDTO;
 import com.wild.ecommerce.category.dto.CreateCategoryRequest;
 import com.wild.ecommerce.category.dto.UpdateCategoryRequest;
+import com.wild.ecommerce.common.cache.CacheTagService;
+import com.wild.ecommerce.common.dto.CursorPageResponse;
 import com.wild.ecommerce.common.dto.PageResponse;
+import com.wild.ecommerce.common.util.HttpCaching;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PagedModel;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -24,7 +29,9 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.Duration;
 import java.util.UUID;
 
 @RestController
@@ -35,6 +42,12 @@ public class CategoryController {
 
     private final CategoryService categoryService;
 
+    @Value("${http.cache.catalog.max-age}")
+    private Duration catalogMaxAge;
+
+    @Value("${http.cache.catalog.s-maxage}")
+    private Duration catalogSharedMaxAge;
+
     @PostMapping
     public ResponseEntity<UUID> createCategory(@Valid @RequestBody CreateCategoryRequest request) {
         CategoryDTO category = categoryService.createCategory(request);
@@ -48,8 +61,19 @@ public class CategoryController {
             @RequestParam(value = "pageSize", defaultValue = "10") int pageSize,
             @RequestParam(value = "sortBy", defaultValue = "id") String sortBy,
             @RequestParam(value = "sortOrder", defaultValue = "ASC") String sortOrder,
-            @RequestParam(value = "name", required = false) String name
+            @RequestParam(value = "name", required = false) String name,
+            WebRequest webRequest
     ) {
+        String etag = HttpCaching.etag(categoryService.getCategoriesVersion());
+
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(catalogCacheControl())
+                    .header(HttpCaching.SURROGATE_KEY, CacheTagService.CATEGORIES)
+                    .build();
+        }
+
         Sort.Direction direction = sortOrder.equalsIgnoreCase("DESC")
                 ? Sort.Direction.DESC
                 : Sort.Direction.ASC;
@@ -60,14 +84,41 @@ public class CategoryController {
         PageResponse<CategoryDTO> categoriesResponse = categoryService.getAllCategories(pageable, name);
         Page<CategoryDTO> categories = categoriesResponse.toPage();
 
-        return new ResponseEntity<>(new PagedModel<>(categories), HttpStatus.OK);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(catalogCacheControl())
+                .header(HttpCaching.SURROGATE_KEY, CacheTagService.CATEGORIES)
+                .body(new PagedModel<>(categories));
+    }
+
+    @GetMapping("scroll")
+    public ResponseEntity<CursorPageResponse<CategoryDTO>> scrollCategories(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "pageSize", defaultValue = "10") int pageSize,
+            @RequestParam(value = "sortBy", defaultValue = "id") String sortBy,
+            @RequestParam(value = "sortOrder", defaultValue = "ASC") String sortOrder,
+            @RequestParam(value = "name", required = false) String name
+    ) {
+        Sort.Direction direction = sortOrder.equalsIgnoreCase("DESC")
+                ? Sort.Direction.DESC
+                : Sort.Direction.ASC;
+
+        CursorPageResponse<CategoryDTO> response = categoryService.scrollCategories(
+                pageSize, Sort.by(direction, sortBy), cursor, name
+        );
+
+        return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
     @GetMapping("{id}")
     public ResponseEntity<CategoryDTO> getCategoryById(@PathVariable("id") UUID id) {
         CategoryDTO category = categoryService.getCategoryById(id);
 
-        return new ResponseEntity<>(category, HttpStatus.OK);
+        return ResponseEntity.ok()
+                .eTag(HttpCaching.etag(category.version()))
+                .cacheControl(catalogCacheControl())
+                .header(HttpCaching.SURROGATE_KEY, CacheTagService.category(id))
+                .body(category);
     }
 
     @PatchMapping("{id}")
@@ -86,4 +137,8 @@ public class CategoryController {
 
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
+
+    private CacheControl catalogCacheControl() {
+        return CacheControl.maxAge(catalogMaxAge).sMaxAge(catalogSharedMaxAge).cachePublic();
+    }
 }
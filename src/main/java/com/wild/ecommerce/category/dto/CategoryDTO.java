@@ -5,6 +5,7 @@ import java.util.UUID;
 public record CategoryDTO(
         UUID id,
         String name,
-        String description
+        String description,
+        long version
 ) {
 }
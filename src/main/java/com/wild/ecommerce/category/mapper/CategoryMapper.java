@@ -14,7 +14,8 @@ public class CategoryMapper implements Function<Category, CategoryDTO> {
         return new CategoryDTO(
                 category.getId(),
                 category.getName(),
-                category.getDescription()
+                category.getDescription(),
+                category.getVersion()
         );
     }
 }
@@ -1,14 +1,14 @@
 package com.wild.ecommerce.category.model;
 
 import com.wild.ecommerce.common.model.Auditable;
+import com.wild.ecommerce.common.model.TimeOrderedUuid;
 import com.wild.ecommerce.product.model.Product;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -27,7 +27,7 @@ import java.util.UUID;
 public class Category extends Auditable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
 
     @Column(nullable = false, unique = true, length = 50)
@@ -38,4 +38,7 @@ public class Category extends Auditable {
 
     @OneToMany(mappedBy = "category")
     private List<Product> products = new ArrayList<>();
+
+    @Version
+    private long version;
 }
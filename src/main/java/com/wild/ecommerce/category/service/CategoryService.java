@@ -3,8 +3,10 @@ package com.wild.ecommerce.category.service;
 import com.wild.ecommerce.category.dto.CategoryDTO;
 import com.wild.ecommerce.category.dto.CreateCategoryRequest;
 import com.wild.ecommerce.category.dto.UpdateCategoryRequest;
+import com.wild.ecommerce.common.dto.CursorPageResponse;
 import com.wild.ecommerce.common.dto.PageResponse;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import java.util.UUID;
 
@@ -14,6 +16,10 @@ public interface CategoryService {
 
     PageResponse<CategoryDTO> getAllCategories(Pageable pageable, String name);
 
+    CursorPageResponse<CategoryDTO> scrollCategories(int pageSize, Sort sort, String cursor, String name);
+
+    String getCategoriesVersion();
+
     CategoryDTO getCategoryById(UUID id);
 
     CategoryDTO updateCategory(UUID id, UpdateCategoryRequest request);
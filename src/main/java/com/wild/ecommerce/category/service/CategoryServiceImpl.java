@@ -7,17 +7,22 @@ import com.wild.ecommerce.category.mapper.CategoryMapper;
 import com.wild.ecommerce.category.dto.CreateCategoryRequest;
 import com.wild.ecommerce.category.dto.UpdateCategoryRequest;
 import com.wild.ecommerce.category.model.Category;
+import com.wild.ecommerce.common.cache.CacheTagService;
+import com.wild.ecommerce.common.dto.CursorPageResponse;
 import com.wild.ecommerce.common.dto.PageResponse;
 import com.wild.ecommerce.common.exception.ResourceAlreadyExistsException;
 import com.wild.ecommerce.common.exception.ResourceNotFoundException;
 import com.wild.ecommerce.common.util.BeanUtil;
+import com.wild.ecommerce.common.util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -31,10 +36,10 @@ public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final CategoryMapper categoryMapper;
+    private final CacheTagService cacheTagService;
 
     @Override
     @Transactional
-    @CacheEvict(value = "categories", allEntries = true)
     public CategoryDTO createCategory(CreateCategoryRequest request) {
         if (categoryRepository.existsByNameIgnoreCase(request.name())) {
             log.warn("Failed to create category - name '{}' already exists", request.name());
@@ -46,6 +51,7 @@ public class CategoryServiceImpl implements CategoryService {
         category.setDescription(request.description());
 
         Category savedCategory = categoryRepository.save(category);
+        cacheTagService.invalidate(CacheTagService.CATEGORIES);
 
         return categoryMapper.apply(savedCategory);
     }
@@ -54,7 +60,9 @@ public class CategoryServiceImpl implements CategoryService {
     @Transactional(readOnly = true)
     @Cacheable(
             value = "categories",
-            key = "#pageable.pageNumber + '-' + #pageable.pageSize + '-' + (#name != null ? #name : 'all')"
+            sync = true,
+            key = "@cacheTagService.version('categories') + '-' + #pageable.pageNumber + '-' + " +
+                    "#pageable.pageSize + '-' + (#name != null ? #name : 'all') + '-' + #pageable.sort"
     )
     public PageResponse<CategoryDTO> getAllCategories(Pageable pageable, String name) {
         Specification<Category> spec = CategorySpecification.filterBy(name);
@@ -67,7 +75,26 @@ public class CategoryServiceImpl implements CategoryService {
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "category", key = "#id")
+    public CursorPageResponse<CategoryDTO> scrollCategories(int pageSize, Sort sort, String cursor, String name) {
+        Sort keysetSort = KeysetCursor.withIdTieBreaker(sort);
+        KeysetScrollPosition position = KeysetCursor.decode(cursor, keysetSort, Category.class);
+
+        Window<Category> window = categoryRepository.findBy(
+                CategorySpecification.filterBy(name),
+                query -> query.sortBy(keysetSort).limit(pageSize).scroll(position)
+        );
+
+        return CursorPageResponse.from(window.map(categoryMapper));
+    }
+
+    @Override
+    public String getCategoriesVersion() {
+        return cacheTagService.version(CacheTagService.CATEGORIES);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(value = "category", key = "#id", sync = true)
     public CategoryDTO getCategoryById(UUID id) {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> {
@@ -80,12 +107,7 @@ public class CategoryServiceImpl implements CategoryService {
 
     @Override
     @Transactional
-    @Caching(
-            evict = {
-                    @CacheEvict(value = "category", key = "#id"),
-                    @CacheEvict(value = "categories", allEntries = true)
-            }
-    )
+    @CacheEvict(value = "category", key = "#id")
     public CategoryDTO updateCategory(UUID id, UpdateCategoryRequest request) {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> {
@@ -102,19 +124,15 @@ public class CategoryServiceImpl implements CategoryService {
 
         BeanUtil.copyNonNullProperties(request, category);
 
-        Category updatedCategory = categoryRepository.save(category);
+        Category updatedCategory = categoryRepository.saveAndFlush(category);
+        cacheTagService.invalidate(CacheTagService.CATEGORIES, CacheTagService.CATALOG, CacheTagService.category(id));
 
         return categoryMapper.apply(updatedCategory);
     }
 
     @Override
     @Transactional
-    @Caching(
-            evict = {
-                    @CacheEvict(value = "category", key = "#id"),
-                    @CacheEvict(value = "categories", allEntries = true)
-            }
-    )
+    @CacheEvict(value = "category", key = "#id")
     public void deleteCategory(UUID id) {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> {
@@ -123,5 +141,6 @@ public class CategoryServiceImpl implements CategoryService {
                 });
 
         categoryRepository.delete(category);
+        cacheTagService.invalidate(CacheTagService.CATEGORIES, CacheTagService.CATALOG, CacheTagService.category(id));
     }
 }
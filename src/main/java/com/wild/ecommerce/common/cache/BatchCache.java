@@ -0,0 +1,19 @@
+package com.wild.ecommerce.common.cache;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Multi-key access for caches that can answer a batch in a single round trip.
+ */
+public interface BatchCache {
+
+    /**
+     * Returns the cached values for the given keys. Keys without a cached value are absent from the result.
+     */
+    Map<Object, Object> getAll(Collection<?> keys);
+
+    void putAll(Map<?, ?> entries);
+
+    void evictAll(Collection<?> keys);
+}
@@ -0,0 +1,13 @@
+package com.wild.ecommerce.common.cache;
+
+public interface CacheInvalidationPublisher {
+
+    void publishEvict(String cacheName, String key);
+
+    void publishClear(String cacheName);
+
+    /**
+     * Routes broadcasts published from other nodes under {@code name} to the listener.
+     */
+    void subscribe(String name, LocalInvalidationListener listener);
+}
@@ -0,0 +1,150 @@
+package com.wild.ecommerce.common.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.wild.ecommerce.common.util.TransactionUtil;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Generation-based invalidation for cached pages.
+ *
+ * <p>Every tag owns a counter in Redis. Cache keys embed the current generation of the tags a page depends on
+ * (see {@link #version(String...)}), so bumping a tag makes all dependent entries unreachable in O(1) without
+ * scanning keys. Orphaned entries simply expire with their cache TTL.</p>
+ *
+ * <p>Generations are kept in a short-lived local cache so an L1 hit does not pay a Redis round trip for its key.
+ * A bump is broadcast on the L1 invalidation channel under {@link #INVALIDATION_NAME}, and other nodes drop their
+ * copy of the tag; a missed broadcast is bounded by the local TTL.</p>
+ *
+ * <p>Tags are {@code catalog}, {@code categories}, {@code category:<id>} and {@code user:<email>}; SpEL cache keys
+ * build the same strings.</p>
+ */
+@Service
+@Slf4j
+public class CacheTagService implements LocalInvalidationListener {
+
+    public static final String CATALOG = "catalog";
+    public static final String CATEGORIES = "categories";
+    public static final String INVALIDATION_NAME = "cache:tags";
+
+    private static final String KEY_PREFIX = "cache:tag:";
+    private static final String INITIAL_GENERATION = "0";
+
+    private final StringRedisTemplate redisTemplate;
+    private final CacheInvalidationPublisher invalidationPublisher;
+    private final Cache<String, String> generations;
+
+    public CacheTagService(
+            StringRedisTemplate redisTemplate,
+            CacheInvalidationPublisher invalidationPublisher,
+            @Value("${cache.tags.local-ttl:5s}") Duration localTtl,
+            @Value("${cache.tags.local-maximum-size:10000}") long localMaximumSize
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.invalidationPublisher = invalidationPublisher;
+        this.generations = Caffeine.newBuilder()
+                .maximumSize(localMaximumSize)
+                .expireAfterWrite(localTtl)
+                .build();
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        invalidationPublisher.subscribe(INVALIDATION_NAME, this);
+    }
+
+    public static String category(UUID categoryId) {
+        return "category:" + categoryId;
+    }
+
+    public static String user(String email) {
+        return "user:" + email;
+    }
+
+    /**
+     * Returns a key prefix that changes whenever one of the given tags is invalidated.
+     */
+    public String version(String... tags) {
+        String[] resolved = new String[tags.length];
+        List<Integer> misses = new ArrayList<>();
+
+        for (int i = 0; i < tags.length; i++) {
+            resolved[i] = generations.getIfPresent(tags[i]);
+
+            if (resolved[i] == null) {
+                misses.add(i);
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            List<String> keys = misses.stream()
+                    .map(i -> KEY_PREFIX + tags[i])
+                    .toList();
+            List<String> loaded = redisTemplate.opsForValue().multiGet(keys);
+
+            for (int j = 0; j < misses.size(); j++) {
+                String generation = loaded != null ? loaded.get(j) : null;
+                int i = misses.get(j);
+
+                resolved[i] = generation != null ? generation : INITIAL_GENERATION;
+                remember(tags[i], resolved[i]);
+            }
+        }
+
+        return "g" + String.join(".", resolved);
+    }
+
+    /**
+     * Bumps the generation of the given tags once the current transaction commits, so that readers cannot
+     * repopulate the new generation with uncommitted state.
+     */
+    public void invalidate(String... tags) {
+        Set<String> distinct = new LinkedHashSet<>(Arrays.asList(tags));
+
+        TransactionUtil.afterCommit(() -> {
+            for (String tag : distinct) {
+                Long generation = redisTemplate.opsForValue().increment(KEY_PREFIX + tag);
+
+                if (generation != null) {
+                    remember(tag, generation.toString());
+                } else {
+                    generations.invalidate(tag);
+                }
+
+                invalidationPublisher.publishEvict(INVALIDATION_NAME, tag);
+            }
+
+            log.debug("Invalidated cache tags {}", distinct);
+        });
+    }
+
+    @Override
+    public void onEvict(String tag) {
+        generations.invalidate(tag);
+    }
+
+    @Override
+    public void onClear() {
+        generations.invalidateAll();
+    }
+
+    /**
+     * Generations only grow, so a reader that fetched before a bump cannot overwrite the bumped value.
+     */
+    private void remember(String tag, String generation) {
+        generations.asMap().merge(tag, generation,
+                (current, candidate) -> Long.parseLong(candidate) > Long.parseLong(current) ? candidate : current);
+    }
+}
@@ -0,0 +1,11 @@
+package com.wild.ecommerce.common.cache;
+
+/**
+ * Node-local state outside the cache manager that follows the same invalidation broadcasts as the L1 caches.
+ */
+public interface LocalInvalidationListener {
+
+    void onEvict(String key);
+
+    void onClear();
+}
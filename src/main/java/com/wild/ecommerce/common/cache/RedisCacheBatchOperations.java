@@ -0,0 +1,116 @@
+package com.wild.ecommerce.common.cache;
+
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.util.ByteUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and writes many entries of a {@link RedisCache} with one MGET or one pipeline, using the same key
+ * prefix, value serializer and TTL as the cache itself.
+ */
+public class RedisCacheBatchOperations implements BatchCache {
+
+    private final RedisCache cache;
+    private final RedisCacheConfiguration configuration;
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisCacheBatchOperations(RedisCache cache, StringRedisTemplate redisTemplate) {
+        this.cache = cache;
+        this.configuration = cache.getCacheConfiguration();
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public Map<Object, Object> getAll(Collection<?> keys) {
+        if (keys.isEmpty()) {
+            return Map.of();
+        }
+
+        List<Object> orderedKeys = new ArrayList<>(keys);
+        byte[][] redisKeys = orderedKeys.stream().map(this::redisKey).toArray(byte[][]::new);
+
+        List<byte[]> values = redisTemplate.execute(
+                (RedisCallback<List<byte[]>>) connection -> connection.stringCommands().mGet(redisKeys)
+        );
+
+        Map<Object, Object> result = new HashMap<>();
+
+        if (values == null) {
+            return result;
+        }
+
+        for (int i = 0; i < orderedKeys.size(); i++) {
+            byte[] bytes = values.get(i);
+
+            if (bytes == null) {
+                continue;
+            }
+
+            Object value = configuration.getValueSerializationPair().read(ByteBuffer.wrap(bytes));
+
+            if (value != null) {
+                result.put(orderedKeys.get(i), value);
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public void putAll(Map<?, ?> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            entries.forEach((key, value) -> {
+                if (value == null) {
+                    return;
+                }
+
+                byte[] bytes = ByteUtils.getBytes(configuration.getValueSerializationPair().write(value));
+                Duration ttl = configuration.getTtlFunction().getTimeToLive(key, value);
+                Expiration expiration = ttl.isZero() || ttl.isNegative()
+                        ? Expiration.persistent()
+                        : Expiration.from(ttl);
+
+                connection.stringCommands().set(redisKey(key), bytes, expiration, RedisStringCommands.SetOption.upsert());
+            });
+
+            return null;
+        });
+    }
+
+    @Override
+    public void evictAll(Collection<?> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        byte[][] redisKeys = keys.stream().map(this::redisKey).toArray(byte[][]::new);
+        redisTemplate.execute((RedisCallback<Long>) connection -> connection.keyCommands().del(redisKeys));
+    }
+
+    private byte[] redisKey(Object key) {
+        String cacheKey = String.valueOf(key);
+
+        if (configuration.usePrefix()) {
+            cacheKey = configuration.getKeyPrefixFor(cache.getName()) + cacheKey;
+        }
+
+        return cacheKey.getBytes(StandardCharsets.UTF_8);
+    }
+}
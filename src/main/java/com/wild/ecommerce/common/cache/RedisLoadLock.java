@@ -0,0 +1,68 @@
+package com.wild.ecommerce.common.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.Nullable;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Short-lived Redis lock that lets a single node load a missing cache entry while the others wait for it to
+ * appear in Redis.
+ */
+@Slf4j
+public class RedisLoadLock {
+
+    private static final String KEY_PREFIX = "cache:lock:";
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class
+    );
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration lease;
+    private final Duration waitTimeout;
+
+    public RedisLoadLock(StringRedisTemplate redisTemplate, Duration lease, Duration waitTimeout) {
+        this.redisTemplate = redisTemplate;
+        this.lease = lease;
+        this.waitTimeout = waitTimeout;
+    }
+
+    /**
+     * Returns the lock token when this node may load the entry, or {@code null} when another node holds the lock.
+     * If Redis cannot be reached the caller is allowed to load, since losing coalescing is better than failing.
+     */
+    public @Nullable String tryAcquire(String cacheName, String key) {
+        String token = UUID.randomUUID().toString();
+
+        try {
+            Boolean acquired = redisTemplate.opsForValue().setIfAbsent(lockKey(cacheName, key), token, lease);
+            return Boolean.TRUE.equals(acquired) ? token : null;
+        } catch (RuntimeException e) {
+            log.warn("Could not acquire cache load lock for {}::{}: {}", cacheName, key, e.getMessage());
+            return token;
+        }
+    }
+
+    public void release(String cacheName, String key, String token) {
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(lockKey(cacheName, key)), token);
+        } catch (RuntimeException e) {
+            log.warn("Could not release cache load lock for {}::{}: {}", cacheName, key, e.getMessage());
+        }
+    }
+
+    public Duration getWaitTimeout() {
+        return waitTimeout;
+    }
+
+    private static String lockKey(String cacheName, String key) {
+        return KEY_PREFIX + cacheName + "::" + key;
+    }
+}
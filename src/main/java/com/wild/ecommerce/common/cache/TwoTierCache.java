@@ -0,0 +1,410 @@
+package com.wild.ecommerce.common.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.jspecify.annotations.Nullable;
+import org.springframework.cache.Cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Cache that answers from an in-heap L1 before falling back to the shared Redis L2.
+ *
+ * <p>Evictions are applied to both tiers and broadcast so that other nodes drop their L1 copy. Puts are not
+ * broadcast; the short L1 TTL bounds how long a node can serve a value another node has replaced.</p>
+ *
+ * <p>Synchronized lookups ({@code @Cacheable(sync = true)}) run one loader per key on this node and hand its
+ * result to every concurrent caller. With a {@link RedisLoadLock} the same applies across nodes: callers that
+ * lose the lock poll Redis for the winner's value before falling back to loading themselves.</p>
+ */
+public class TwoTierCache implements Cache, BatchCache, LocalInvalidationListener {
+
+    private static final Duration LOCK_POLL_INTERVAL = Duration.ofMillis(25);
+
+    private final Cache local;
+    private final Cache remote;
+    private final @Nullable BatchCache remoteBatch;
+    private final boolean localEnabled;
+    private final CacheInvalidationPublisher publisher;
+    private final @Nullable RedisLoadLock loadLock;
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlightLoads = new ConcurrentHashMap<>();
+
+    private final Counter localHits;
+    private final Counter localMisses;
+    private final Counter remoteHits;
+    private final Counter remoteMisses;
+    private final Counter loads;
+    private final Counter localCoalescedLoads;
+    private final Counter distributedCoalescedLoads;
+
+    public TwoTierCache(
+            Cache local,
+            Cache remote,
+            @Nullable BatchCache remoteBatch,
+            boolean localEnabled,
+            CacheInvalidationPublisher publisher,
+            @Nullable RedisLoadLock loadLock,
+            MeterRegistry meterRegistry
+    ) {
+        this.local = local;
+        this.remote = remote;
+        this.remoteBatch = remoteBatch;
+        this.localEnabled = localEnabled;
+        this.publisher = publisher;
+        this.loadLock = loadLock;
+
+        this.localHits = counter(meterRegistry, "l1", "hit");
+        this.localMisses = counter(meterRegistry, "l1", "miss");
+        this.remoteHits = counter(meterRegistry, "l2", "hit");
+        this.remoteMisses = counter(meterRegistry, "l2", "miss");
+
+        this.loads = Counter.builder("cache.loads")
+                .description("Cache misses that ran the value loader")
+                .tag("cache", remote.getName())
+                .register(meterRegistry);
+        this.localCoalescedLoads = coalescedCounter(meterRegistry, "local");
+        this.distributedCoalescedLoads = coalescedCounter(meterRegistry, "distributed");
+    }
+
+    @Override
+    public String getName() {
+        return remote.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    @Override
+    public @Nullable ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+
+        if (localEnabled) {
+            ValueWrapper cached = local.get(localKey);
+
+            if (cached != null) {
+                localHits.increment();
+                return cached;
+            }
+
+            localMisses.increment();
+        }
+
+        ValueWrapper loaded = remote.get(key);
+
+        if (loaded == null) {
+            remoteMisses.increment();
+            return null;
+        }
+
+        remoteHits.increment();
+        putLocal(localKey, loaded.get());
+
+        return loaded;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> @Nullable T get(Object key, @Nullable Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> @Nullable T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+
+        String localKey = localKey(key);
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = inFlightLoads.putIfAbsent(localKey, load);
+
+        if (inFlight != null) {
+            localCoalescedLoads.increment();
+            return (T) await(inFlight, key, valueLoader);
+        }
+
+        try {
+            Object value = loadOnce(key, localKey, valueLoader);
+            load.complete(value);
+            return (T) value;
+        } catch (Throwable e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightLoads.remove(localKey, load);
+        }
+    }
+
+    @Override
+    public Map<Object, Object> getAll(Collection<?> keys) {
+        Map<Object, Object> result = new HashMap<>();
+        List<Object> missing = new ArrayList<>();
+
+        for (Object key : keys) {
+            ValueWrapper cached = localEnabled ? local.get(localKey(key)) : null;
+
+            if (cached != null && cached.get() != null) {
+                localHits.increment();
+                result.put(key, cached.get());
+            } else {
+                missing.add(key);
+            }
+        }
+
+        if (localEnabled) {
+            localMisses.increment(missing.size());
+        }
+
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        Map<Object, Object> loaded;
+
+        if (remoteBatch != null) {
+            loaded = remoteBatch.getAll(missing);
+        } else {
+            loaded = new HashMap<>();
+            for (Object key : missing) {
+                ValueWrapper wrapper = remote.get(key);
+
+                if (wrapper != null && wrapper.get() != null) {
+                    loaded.put(key, wrapper.get());
+                }
+            }
+        }
+
+        remoteHits.increment(loaded.size());
+        remoteMisses.increment(missing.size() - loaded.size());
+        loaded.forEach((key, value) -> putLocal(localKey(key), value));
+        result.putAll(loaded);
+
+        return result;
+    }
+
+    @Override
+    public void putAll(Map<?, ?> entries) {
+        if (remoteBatch != null) {
+            remoteBatch.putAll(entries);
+        } else {
+            entries.forEach(remote::put);
+        }
+
+        entries.forEach((key, value) -> putLocal(localKey(key), value));
+    }
+
+    /**
+     * Evicts the keys from both tiers. Other nodes are told to clear their L1 for this cache instead of receiving
+     * one message per key.
+     */
+    @Override
+    public void evictAll(Collection<?> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        if (remoteBatch != null) {
+            remoteBatch.evictAll(keys);
+        } else {
+            keys.forEach(remote::evict);
+        }
+
+        keys.forEach(key -> evictLocal(localKey(key)));
+        publisher.publishClear(getName());
+    }
+
+    @Override
+    public void put(Object key, @Nullable Object value) {
+        remote.put(key, value);
+        putLocal(localKey(key), value);
+    }
+
+    @Override
+    public @Nullable ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
+        ValueWrapper existing = remote.putIfAbsent(key, value);
+        putLocal(localKey(key), existing != null ? existing.get() : value);
+
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        evictLocal(localKey(key));
+        publisher.publishEvict(getName(), localKey(key));
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = remote.evictIfPresent(key);
+        evictLocal(localKey(key));
+        publisher.publishEvict(getName(), localKey(key));
+
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        clearLocal();
+        publisher.publishClear(getName());
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = remote.invalidate();
+        clearLocal();
+        publisher.publishClear(getName());
+
+        return invalidated;
+    }
+
+    private @Nullable Object loadOnce(Object key, String localKey, Callable<?> valueLoader) {
+        // A caller that just finished loading may have filled the cache between our miss and taking the slot.
+        ValueWrapper loaded = remote.get(key);
+
+        if (loaded != null) {
+            putLocal(localKey, loaded.get());
+            return loaded.get();
+        }
+
+        if (loadLock == null) {
+            return loadAndPut(key, valueLoader);
+        }
+
+        String token = loadLock.tryAcquire(getName(), localKey);
+
+        if (token == null) {
+            loaded = awaitRemote(key, valueLoader);
+
+            if (loaded != null) {
+                distributedCoalescedLoads.increment();
+                putLocal(localKey, loaded.get());
+                return loaded.get();
+            }
+
+            return loadAndPut(key, valueLoader);
+        }
+
+        try {
+            return loadAndPut(key, valueLoader);
+        } finally {
+            loadLock.release(getName(), localKey, token);
+        }
+    }
+
+    private @Nullable Object loadAndPut(Object key, Callable<?> valueLoader) {
+        loads.increment();
+
+        Object value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+
+        if (value != null) {
+            put(key, value);
+        }
+
+        return value;
+    }
+
+    private @Nullable ValueWrapper awaitRemote(Object key, Callable<?> valueLoader) {
+        long deadline = System.nanoTime() + loadLock.getWaitTimeout().toNanos();
+
+        while (System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(LOCK_POLL_INTERVAL);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+
+            ValueWrapper loaded = remote.get(key);
+
+            if (loaded != null) {
+                return loaded;
+            }
+        }
+
+        return null;
+    }
+
+    private static @Nullable Object await(CompletableFuture<Object> load, Object key, Callable<?> valueLoader) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+
+            if (cause instanceof ValueRetrievalException retrievalException) {
+                throw retrievalException;
+            }
+
+            throw new ValueRetrievalException(key, valueLoader, cause);
+        }
+    }
+
+    @Override
+    public void onEvict(String localKey) {
+        local.evict(localKey);
+    }
+
+    @Override
+    public void onClear() {
+        local.invalidate();
+    }
+
+    /**
+     * Keys are normalised to strings so that invalidation messages from other nodes match local entries,
+     * mirroring how the Redis cache turns keys into strings.
+     */
+    static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    private void putLocal(String localKey, @Nullable Object value) {
+        if (localEnabled && value != null) {
+            local.put(localKey, value);
+        }
+    }
+
+    private Counter counter(MeterRegistry meterRegistry, String tier, String result) {
+        return Counter.builder("cache.tier.gets")
+                .description("Cache lookups per tier")
+                .tag("cache", remote.getName())
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private Counter coalescedCounter(MeterRegistry meterRegistry, String scope) {
+        return Counter.builder("cache.loads.coalesced")
+                .description("Cache misses served by a load already running for the same key")
+                .tag("cache", remote.getName())
+                .tag("scope", scope)
+                .register(meterRegistry);
+    }
+}
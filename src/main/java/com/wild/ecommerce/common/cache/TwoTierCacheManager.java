@@ -0,0 +1,163 @@
+package com.wild.ecommerce.common.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.Nullable;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache manager that fronts every cache of the wrapped Redis manager with a bounded Caffeine cache.
+ *
+ * <p>Evictions are broadcast on {@link #CHANNEL} as {@code op|node|cache|key} and applied to the L1 of every
+ * other node subscribed to it. Node-local state that is not a cache, such as an in-memory index, can
+ * {@link #subscribe(String, LocalInvalidationListener) subscribe} to the same broadcasts under its own name.</p>
+ */
+@Slf4j
+public class TwoTierCacheManager implements CacheManager, CacheInvalidationPublisher, MessageListener {
+
+    public static final String CHANNEL = "cache:l1:invalidate";
+
+    private static final String EVICT = "evict";
+    private static final String CLEAR = "clear";
+    private static final String SEPARATOR = "|";
+
+    private final CacheManager remoteCacheManager;
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final @Nullable RedisLoadLock loadLock;
+    private final boolean localEnabled;
+    private final long maximumSize;
+    private final Duration ttl;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+    private final Map<String, LocalInvalidationListener> listeners = new ConcurrentHashMap<>();
+
+    public TwoTierCacheManager(
+            CacheManager remoteCacheManager,
+            StringRedisTemplate redisTemplate,
+            MeterRegistry meterRegistry,
+            @Nullable RedisLoadLock loadLock,
+            boolean localEnabled,
+            long maximumSize,
+            Duration ttl
+    ) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.loadLock = loadLock;
+        this.localEnabled = localEnabled;
+        this.maximumSize = maximumSize;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public @Nullable Cache getCache(String name) {
+        TwoTierCache cache = caches.get(name);
+
+        if (cache != null) {
+            return cache;
+        }
+
+        Cache remote = remoteCacheManager.getCache(name);
+
+        if (remote == null) {
+            return null;
+        }
+
+        return caches.computeIfAbsent(name, _ -> new TwoTierCache(
+                localCache(name), remote, batchOperations(remote), localEnabled, this, loadLock, meterRegistry
+        ));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remoteCacheManager.getCacheNames();
+    }
+
+    @Override
+    public void publishEvict(String cacheName, String key) {
+        publish(String.join(SEPARATOR, EVICT, nodeId, cacheName, key));
+    }
+
+    @Override
+    public void publishClear(String cacheName) {
+        publish(String.join(SEPARATOR, CLEAR, nodeId, cacheName, ""));
+    }
+
+    @Override
+    public void subscribe(String name, LocalInvalidationListener listener) {
+        listeners.put(name, listener);
+    }
+
+    @Override
+    public void onMessage(Message message, byte @Nullable [] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 4);
+
+        if (parts.length != 4 || nodeId.equals(parts[1])) {
+            return;
+        }
+
+        LocalInvalidationListener listener = caches.get(parts[2]);
+
+        if (listener == null) {
+            listener = listeners.get(parts[2]);
+        }
+
+        if (listener == null) {
+            return;
+        }
+
+        switch (parts[0]) {
+            case EVICT -> listener.onEvict(parts[3]);
+            case CLEAR -> listener.onClear();
+            default -> log.warn("Ignoring unknown cache invalidation message: {}", parts[0]);
+        }
+    }
+
+    String getNodeId() {
+        return nodeId;
+    }
+
+    private Cache localCache(String name) {
+        return new CaffeineCache(
+                name,
+                Caffeine.newBuilder()
+                        .maximumSize(maximumSize)
+                        .expireAfterWrite(ttl)
+                        .build(),
+                false
+        );
+    }
+
+    private @Nullable BatchCache batchOperations(Cache remote) {
+        if (remote instanceof RedisCache redisCache) {
+            return new RedisCacheBatchOperations(redisCache, redisTemplate);
+        }
+
+        return remote instanceof BatchCache batchCache ? batchCache : null;
+    }
+
+    private void publish(String message) {
+        // A failed broadcast must not fail the write; other nodes fall back to the L1 TTL.
+        try {
+            redisTemplate.convertAndSend(CHANNEL, message);
+        } catch (RuntimeException e) {
+            log.warn("Failed to broadcast cache invalidation '{}': {}", message, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.wild.ecommerce.common.cache.codec;
+
+import com.wild.ecommerce.address.dto.AddressDTO;
+
+import java.io.IOException;
+
+public class AddressDTOCodec implements ValueCodec<AddressDTO> {
+
+    @Override
+    public int typeId() {
+        return 3;
+    }
+
+    @Override
+    public Class<AddressDTO> type() {
+        return AddressDTO.class;
+    }
+
+    @Override
+    public int version() {
+        return 1;
+    }
+
+    @Override
+    public void write(AddressDTO value, CompactOutput out) throws IOException {
+        out.writeUuid(value.id());
+        out.writeString(value.country());
+        out.writeString(value.state());
+        out.writeString(value.city());
+        out.writeString(value.street());
+        out.writeString(value.postalCode());
+    }
+
+    @Override
+    public AddressDTO read(CompactInput in, int version) throws IOException {
+        return new AddressDTO(
+                in.readUuid(),
+                in.readString(),
+                in.readString(),
+                in.readString(),
+                in.readString(),
+                in.readString()
+        );
+    }
+}
@@ -0,0 +1,46 @@
+package com.wild.ecommerce.common.cache.codec;
+
+import com.wild.ecommerce.category.dto.CategoryDTO;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.IOException;
+
+public class CategoryDTOCodec implements ValueCodec<CategoryDTO> {
+
+    @Override
+    public int typeId() {
+        return 2;
+    }
+
+    @Override
+    public Class<CategoryDTO> type() {
+        return CategoryDTO.class;
+    }
+
+    @Override
+    public int version() {
+        return 2;
+    }
+
+    @Override
+    public void write(CategoryDTO value, CompactOutput out) throws IOException {
+        out.writeUuid(value.id());
+        out.writeString(value.name());
+        out.writeString(value.description());
+        out.writeVarLong(value.version());
+    }
+
+    @Override
+    public CategoryDTO read(CompactInput in, int version) throws IOException {
+        if (version < 2) {
+            throw new SerializationException("Stale schema version " + version + " without entity version");
+        }
+
+        return new CategoryDTO(
+                in.readUuid(),
+                in.readString(),
+                in.readString(),
+                in.readVarLong()
+        );
+    }
+}
@@ -0,0 +1,98 @@
+package com.wild.ecommerce.common.cache.codec;
+
+import org.jspecify.annotations.Nullable;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+public final class CompactInput {
+
+    private final DataInputStream in;
+    private final CompactRedisSerializer serializer;
+
+    CompactInput(DataInputStream in, CompactRedisSerializer serializer) {
+        this.in = in;
+        this.serializer = serializer;
+    }
+
+    public int readByte() throws IOException {
+        return in.readUnsignedByte();
+    }
+
+    public boolean readBoolean() throws IOException {
+        return in.readBoolean();
+    }
+
+    public long readVarLong() throws IOException {
+        long value = 0;
+
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+
+        throw new IOException("Malformed variable-length integer");
+    }
+
+    public int readVarInt() throws IOException {
+        return (int) readVarLong();
+    }
+
+    public int readInt() throws IOException {
+        int value = readVarInt();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public long readLong() throws IOException {
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public byte @Nullable [] readBytes() throws IOException {
+        int length = readVarInt();
+
+        if (length == 0) {
+            return null;
+        }
+
+        byte[] value = new byte[length - 1];
+        in.readFully(value);
+
+        return value;
+    }
+
+    public @Nullable String readString() throws IOException {
+        byte[] value = readBytes();
+        return value != null ? new String(value, StandardCharsets.UTF_8) : null;
+    }
+
+    public @Nullable UUID readUuid() throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+
+        return new UUID(in.readLong(), in.readLong());
+    }
+
+    public @Nullable BigDecimal readBigDecimal() throws IOException {
+        byte[] unscaled = readBytes();
+
+        if (unscaled == null) {
+            return null;
+        }
+
+        return new BigDecimal(new BigInteger(unscaled), readInt());
+    }
+
+    public @Nullable Object readValue() throws IOException {
+        return serializer.readValue(this);
+    }
+}
@@ -0,0 +1,92 @@
+package com.wild.ecommerce.common.cache.codec;
+
+import org.jspecify.annotations.Nullable;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+public final class CompactOutput {
+
+    private final DataOutputStream out;
+    private final CompactRedisSerializer serializer;
+
+    CompactOutput(DataOutputStream out, CompactRedisSerializer serializer) {
+        this.out = out;
+        this.serializer = serializer;
+    }
+
+    public void writeByte(int value) throws IOException {
+        out.writeByte(value);
+    }
+
+    public void writeBoolean(boolean value) throws IOException {
+        out.writeBoolean(value);
+    }
+
+    public void writeVarLong(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+
+        out.writeByte((int) value);
+    }
+
+    public void writeVarInt(int value) throws IOException {
+        writeVarLong(value & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Writes a signed int with zig-zag encoding so small negative values stay small.
+     */
+    public void writeInt(int value) throws IOException {
+        writeVarInt((value << 1) ^ (value >> 31));
+    }
+
+    public void writeLong(long value) throws IOException {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    public void writeBytes(byte @Nullable [] value) throws IOException {
+        if (value == null) {
+            writeVarInt(0);
+            return;
+        }
+
+        writeVarInt(value.length + 1);
+        out.write(value);
+    }
+
+    public void writeString(@Nullable String value) throws IOException {
+        writeBytes(value != null ? value.getBytes(StandardCharsets.UTF_8) : null);
+    }
+
+    public void writeUuid(@Nullable UUID value) throws IOException {
+        out.writeBoolean(value != null);
+
+        if (value != null) {
+            out.writeLong(value.getMostSignificantBits());
+            out.writeLong(value.getLeastSignificantBits());
+        }
+    }
+
+    public void writeBigDecimal(@Nullable BigDecimal value) throws IOException {
+        if (value == null) {
+            writeBytes(null);
+            return;
+        }
+
+        writeBytes(value.unscaledValue().toByteArray());
+        writeInt(value.scale());
+    }
+
+    /**
+     * Writes a nested value, prefixed with its type id and schema version, using the codec registered for it.
+     */
+    public void writeValue(@Nullable Object value) throws IOException {
+        serializer.writeValue(value, this);
+    }
+}
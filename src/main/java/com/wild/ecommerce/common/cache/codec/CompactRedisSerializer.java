@@ -0,0 +1,189 @@
+package com.wild.ecommerce.common.cache.codec;
+
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.Nullable;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Redis value serializer that writes registered cache value types with their {@link ValueCodec} and everything
+ * else with a fallback serializer.
+ *
+ * <p>Compact values start with a three byte header - magic byte, format version and flags - followed by the
+ * type id, schema version and fields of the value, deflated when larger than the compression threshold. Values
+ * without the magic byte are handed to the fallback serializer, so entries written before the rollout stay
+ * readable. Values the node cannot decode (newer format or schema) are treated as cache misses.</p>
+ */
+@Slf4j
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+
+    static final byte MAGIC = (byte) 0xC5;
+    static final int FORMAT_VERSION = 1;
+    static final int FLAG_COMPRESSED = 1;
+
+    private static final int HEADER_LENGTH = 3;
+    private static final int NULL_TYPE_ID = 0;
+
+    private final Map<Class<?>, ValueCodec<?>> codecsByType = new HashMap<>();
+    private final Map<Integer, ValueCodec<?>> codecsById = new HashMap<>();
+    private final RedisSerializer<Object> fallback;
+    private final boolean writeCompact;
+    private final int compressionThreshold;
+
+    public CompactRedisSerializer(
+            List<ValueCodec<?>> codecs,
+            RedisSerializer<Object> fallback,
+            boolean writeCompact,
+            int compressionThreshold
+    ) {
+        for (ValueCodec<?> codec : codecs) {
+            if (codec.typeId() <= NULL_TYPE_ID || codec.typeId() > 0xFF) {
+                throw new IllegalArgumentException("Codec type id out of range: " + codec.typeId());
+            }
+
+            if (codecsById.putIfAbsent(codec.typeId(), codec) != null) {
+                throw new IllegalArgumentException("Duplicate codec type id: " + codec.typeId());
+            }
+
+            codecsByType.put(codec.type(), codec);
+        }
+
+        this.fallback = fallback;
+        this.writeCompact = writeCompact;
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    public byte[] serialize(@Nullable Object value) throws SerializationException {
+        if (!writeCompact || value == null || !codecsByType.containsKey(value.getClass())) {
+            return fallback.serialize(value);
+        }
+
+        byte[] body;
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+            writeValue(value, new CompactOutput(new DataOutputStream(buffer), this));
+            body = buffer.toByteArray();
+        } catch (IOException | SerializationException e) {
+            // Typically a page holding a type without a codec; JSON can still represent it.
+            log.debug("Falling back to JSON for {}: {}", value.getClass().getSimpleName(), e.getMessage());
+            return fallback.serialize(value);
+        }
+
+        int flags = 0;
+
+        if (body.length > compressionThreshold) {
+            byte[] compressed = deflate(body);
+
+            if (compressed.length < body.length) {
+                body = compressed;
+                flags |= FLAG_COMPRESSED;
+            }
+        }
+
+        byte[] result = new byte[HEADER_LENGTH + body.length];
+        result[0] = MAGIC;
+        result[1] = FORMAT_VERSION;
+        result[2] = (byte) flags;
+        System.arraycopy(body, 0, result, HEADER_LENGTH, body.length);
+
+        return result;
+    }
+
+    @Override
+    public @Nullable Object deserialize(byte @Nullable [] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+
+        if (bytes.length < HEADER_LENGTH || bytes[0] != MAGIC) {
+            return fallback.deserialize(bytes);
+        }
+
+        if (bytes[1] > FORMAT_VERSION) {
+            log.debug("Ignoring cache entry written with newer format version {}", bytes[1]);
+            return null;
+        }
+
+        try {
+            ByteArrayInputStream body = new ByteArrayInputStream(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH);
+            DataInputStream in = (bytes[2] & FLAG_COMPRESSED) != 0
+                    ? new DataInputStream(new InflaterInputStream(body))
+                    : new DataInputStream(body);
+
+            return readValue(new CompactInput(in, this));
+        } catch (IOException | SerializationException e) {
+            log.debug("Treating undecodable cache entry as a miss: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    void writeValue(@Nullable Object value, CompactOutput out) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL_TYPE_ID);
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        ValueCodec<Object> codec = (ValueCodec<Object>) codecsByType.get(value.getClass());
+
+        if (codec == null) {
+            throw new SerializationException("No compact codec registered for " + value.getClass().getName());
+        }
+
+        out.writeByte(codec.typeId());
+        out.writeVarInt(codec.version());
+        codec.write(value, out);
+    }
+
+    @Nullable Object readValue(CompactInput in) throws IOException {
+        int typeId = in.readByte();
+
+        if (typeId == NULL_TYPE_ID) {
+            return null;
+        }
+
+        ValueCodec<?> codec = codecsById.get(typeId);
+
+        if (codec == null) {
+            throw new SerializationException("Unknown compact type id " + typeId);
+        }
+
+        int version = in.readVarInt();
+
+        if (version > codec.version()) {
+            throw new SerializationException(
+                    "Unsupported schema version " + version + " for " + codec.type().getSimpleName()
+            );
+        }
+
+        return codec.read(in, version);
+    }
+
+    private static byte[] deflate(byte[] body) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(body.length / 2);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+
+        try (DeflaterOutputStream out = new DeflaterOutputStream(buffer, deflater)) {
+            out.write(body);
+        } catch (IOException e) {
+            throw new SerializationException("Could not compress cache value", e);
+        } finally {
+            deflater.end();
+        }
+
+        return buffer.toByteArray();
+    }
+}
@@ -0,0 +1,62 @@
+package com.wild.ecommerce.common.cache.codec;
+
+import com.wild.ecommerce.common.dto.PageResponse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Encodes a page and its content; every element is written with the codec registered for its own type.
+ */
+@SuppressWarnings("rawtypes")
+public class PageResponseCodec implements ValueCodec<PageResponse> {
+
+    @Override
+    public int typeId() {
+        return 10;
+    }
+
+    @Override
+    public Class<PageResponse> type() {
+        return PageResponse.class;
+    }
+
+    @Override
+    public int version() {
+        return 1;
+    }
+
+    @Override
+    public void write(PageResponse value, CompactOutput out) throws IOException {
+        List<?> content = value.getContent() != null ? value.getContent() : List.of();
+
+        out.writeVarInt(content.size());
+        for (Object element : content) {
+            out.writeValue(element);
+        }
+
+        out.writeVarInt(value.getPageNumber());
+        out.writeVarInt(value.getPageSize());
+        out.writeVarLong(value.getTotalElements());
+        out.writeVarInt(value.getTotalPages());
+    }
+
+    @Override
+    public PageResponse read(CompactInput in, int version) throws IOException {
+        int size = in.readVarInt();
+        List<Object> content = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            content.add(in.readValue());
+        }
+
+        return new PageResponse<>(
+                content,
+                in.readVarInt(),
+                in.readVarInt(),
+                in.readVarLong(),
+                in.readVarInt()
+        );
+    }
+}
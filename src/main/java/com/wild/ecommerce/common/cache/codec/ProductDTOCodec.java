@@ -0,0 +1,56 @@
+package com.wild.ecommerce.common.cache.codec;
+
+import com.wild.ecommerce.product.dto.ProductDTO;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.IOException;
+
+public class ProductDTOCodec implements ValueCodec<ProductDTO> {
+
+    @Override
+    public int typeId() {
+        return 1;
+    }
+
+    @Override
+    public Class<ProductDTO> type() {
+        return ProductDTO.class;
+    }
+
+    @Override
+    public int version() {
+        return 2;
+    }
+
+    @Override
+    public void write(ProductDTO value, CompactOutput out) throws IOException {
+        out.writeUuid(value.id());
+        out.writeString(value.name());
+        out.writeString(value.brand());
+        out.writeString(value.description());
+        out.writeBigDecimal(value.price());
+        out.writeInt(value.stock());
+        out.writeString(value.imageUrl());
+        out.writeString(value.categoryName());
+        out.writeVarLong(value.version());
+    }
+
+    @Override
+    public ProductDTO read(CompactInput in, int version) throws IOException {
+        if (version < 2) {
+            throw new SerializationException("Stale schema version " + version + " without entity version");
+        }
+
+        return new ProductDTO(
+                in.readUuid(),
+                in.readString(),
+                in.readString(),
+                in.readString(),
+                in.readBigDecimal(),
+                in.readInt(),
+                in.readString(),
+                in.readString(),
+                in.readVarLong()
+        );
+    }
+}
@@ -0,0 +1,49 @@
+package com.wild.ecommerce.common.cache.codec;
+
+import com.wild.ecommerce.product.dto.ProductSummaryDTO;
+
+import java.io.IOException;
+
+public class ProductSummaryDTOCodec implements ValueCodec<ProductSummaryDTO> {
+
+    @Override
+    public int typeId() {
+        return 4;
+    }
+
+    @Override
+    public Class<ProductSummaryDTO> type() {
+        return ProductSummaryDTO.class;
+    }
+
+    @Override
+    public int version() {
+        return 1;
+    }
+
+    @Override
+    public void write(ProductSummaryDTO value, CompactOutput out) throws IOException {
+        out.writeUuid(value.id());
+        out.writeString(value.name());
+        out.writeString(value.brand());
+        out.writeBigDecimal(value.price());
+        out.writeInt(value.stock());
+        out.writeString(value.imageUrl());
+        out.writeString(value.categoryName());
+        out.writeVarLong(value.version());
+    }
+
+    @Override
+    public ProductSummaryDTO read(CompactInput in, int version) throws IOException {
+        return new ProductSummaryDTO(
+                in.readUuid(),
+                in.readString(),
+                in.readString(),
+                in.readBigDecimal(),
+                in.readInt(),
+                in.readString(),
+                in.readString(),
+                in.readVarLong()
+        );
+    }
+}
@@ -0,0 +1,25 @@
+package com.wild.ecommerce.common.cache.codec;
+
+import java.io.IOException;
+
+/**
+ * Binary encoding of a single cache value type.
+ *
+ * <p>Fields are written positionally in a fixed order, so a codec must bump {@link #version()} whenever that
+ * order or the set of fields changes, and keep reading every older version it may still find in Redis.</p>
+ */
+public interface ValueCodec<T> {
+
+    /**
+     * Identifier written in front of every encoded value. Must be unique, between 1 and 255, and never reused.
+     */
+    int typeId();
+
+    Class<T> type();
+
+    int version();
+
+    void write(T value, CompactOutput out) throws IOException;
+
+    T read(CompactInput in, int version) throws IOException;
+}
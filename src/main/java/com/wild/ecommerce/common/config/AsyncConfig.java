@@ -0,0 +1,82 @@
+package com.wild.ecommerce.common.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    public static final String PAYMENT_OUTBOX_EXECUTOR = "paymentOutboxExecutor";
+    public static final String STRIPE_WEBHOOK_EXECUTOR = "stripeWebhookExecutor";
+    public static final String PAYMENT_RECONCILIATION_EXECUTOR = "paymentReconciliationExecutor";
+
+    /**
+     * Bounded pool for Stripe calls, so a slow Stripe ties up these threads rather than request threads or
+     * database connections.
+     */
+    @Bean(PAYMENT_OUTBOX_EXECUTOR)
+    public ThreadPoolTaskExecutor paymentOutboxExecutor(
+            @Value("${payment.outbox.executor.pool-size:4}") int poolSize,
+            @Value("${payment.outbox.executor.queue-capacity:500}") int queueCapacity
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("payment-outbox-");
+        // A full queue drops the hand-off; the outbox poller picks the record up instead
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+
+        return executor;
+    }
+
+    /**
+     * Workers applying stored Stripe webhook events, sized to bound how many orders are updated at once.
+     */
+    @Bean(STRIPE_WEBHOOK_EXECUTOR)
+    public ThreadPoolTaskExecutor stripeWebhookExecutor(
+            @Value("${stripe.webhook.executor.pool-size:4}") int poolSize,
+            @Value("${stripe.webhook.executor.queue-capacity:1000}") int queueCapacity
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("stripe-webhook-");
+        // The event is already stored; the webhook poller picks it up instead
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+
+        return executor;
+    }
+
+    /**
+     * Workers looking up payment intents for the reconciler, one batch at a time.
+     */
+    @Bean(PAYMENT_RECONCILIATION_EXECUTOR)
+    public ThreadPoolTaskExecutor paymentReconciliationExecutor(
+            @Value("${payment.reconciliation.parallelism:4}") int poolSize,
+            @Value("${payment.reconciliation.batch-size:200}") int queueCapacity
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("payment-reconciliation-");
+        // Nothing is stored to fall back on, so the scheduler thread does the lookup itself
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+
+        return executor;
+    }
+}
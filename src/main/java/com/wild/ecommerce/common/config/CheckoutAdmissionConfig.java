@@ -0,0 +1,64 @@
+package com.wild.ecommerce.common.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wild.ecommerce.order.admission.CheckoutAdmissionFilter;
+import com.wild.ecommerce.order.admission.CheckoutAdmissionQueue;
+import com.wild.ecommerce.order.admission.GlobalCheckoutLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+
+@Configuration
+public class CheckoutAdmissionConfig {
+
+    @Bean
+    public CheckoutAdmissionQueue checkoutAdmissionQueue(
+            StringRedisTemplate stringRedisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${order.admission.max-concurrent:8}") int maxConcurrent,
+            @Value("${order.admission.queue-capacity:1000}") int queueCapacity,
+            @Value("${order.admission.ticket-ttl:30s}") Duration ticketTtl,
+            @Value("${order.admission.admitted-ttl:15s}") Duration admittedTtl,
+            @Value("${order.admission.global.enabled:false}") boolean globalEnabled,
+            @Value("${order.admission.global.max-concurrent:32}") int globalMaxConcurrent,
+            @Value("${order.admission.global.lease:60s}") Duration globalLease
+    ) {
+        GlobalCheckoutLimiter globalLimiter = globalEnabled
+                ? new GlobalCheckoutLimiter(stringRedisTemplate, globalMaxConcurrent, globalLease)
+                : null;
+
+        return new CheckoutAdmissionQueue(
+                maxConcurrent,
+                queueCapacity,
+                ticketTtl,
+                admittedTtl,
+                globalLimiter,
+                Clock.systemUTC(),
+                meterRegistry
+        );
+    }
+
+    @Bean
+    public FilterRegistrationBean<CheckoutAdmissionFilter> checkoutAdmissionFilter(
+            CheckoutAdmissionQueue checkoutAdmissionQueue,
+            ObjectMapper objectMapper,
+            @Value("${order.admission.enabled:true}") boolean enabled
+    ) {
+        FilterRegistrationBean<CheckoutAdmissionFilter> registration = new FilterRegistrationBean<>(
+                new CheckoutAdmissionFilter(checkoutAdmissionQueue, objectMapper)
+        );
+        registration.addUrlPatterns("/api/v1/orders");
+        registration.setEnabled(enabled);
+        // Ahead of the idempotency filter, so a queued response is never stored as the outcome of a key
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+
+        return registration;
+    }
+}
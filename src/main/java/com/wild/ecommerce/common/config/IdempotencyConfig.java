@@ -0,0 +1,40 @@
+package com.wild.ecommerce.common.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wild.ecommerce.common.idempotency.IdempotencyFilter;
+import com.wild.ecommerce.common.idempotency.IdempotencyStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+
+@Configuration
+public class IdempotencyConfig {
+
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(
+            StringRedisTemplate stringRedisTemplate,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${idempotency.ttl:24h}") Duration ttl,
+            @Value("${idempotency.in-flight-ttl:30s}") Duration inFlightTtl,
+            @Value("${idempotency.wait-timeout:10s}") Duration waitTimeout
+    ) {
+        IdempotencyStore store = new IdempotencyStore(stringRedisTemplate, objectMapper, ttl, inFlightTtl);
+
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(
+                // Renewed three times per expiry, so a single missed renewal does not release a running request
+                new IdempotencyFilter(store, objectMapper, meterRegistry, waitTimeout, inFlightTtl.dividedBy(3))
+        );
+        registration.addUrlPatterns("/api/*");
+        // Behind the security chain and checkout admission, so rejected or queued requests never claim a key
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 2);
+
+        return registration;
+    }
+}
@@ -14,6 +14,11 @@ import java.util.Optional;
 @EnableJpaAuditing(auditorAwareRef = "auditorAware")
 public class JpaConfig {
 
+    /**
+     * Fetch size that makes MySQL Connector/J stream a result set row by row instead of buffering it in the heap.
+     */
+    public static final String STREAMING_FETCH_SIZE = "" + Integer.MIN_VALUE;
+
     @Bean
     public AuditorAware<String> auditorAware() {
         return () -> {
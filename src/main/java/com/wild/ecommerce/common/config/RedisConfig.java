@@ -1,29 +1,61 @@
 package com.wild.ecommerce.common.config;
 
+import com.wild.ecommerce.common.cache.RedisLoadLock;
+import com.wild.ecommerce.common.cache.TwoTierCacheManager;
+import com.wild.ecommerce.common.cache.codec.AddressDTOCodec;
+import com.wild.ecommerce.common.cache.codec.CategoryDTOCodec;
+import com.wild.ecommerce.common.cache.codec.CompactRedisSerializer;
+import com.wild.ecommerce.common.cache.codec.PageResponseCodec;
+import com.wild.ecommerce.common.cache.codec.ProductDTOCodec;
+import com.wild.ecommerce.common.cache.codec.ProductSummaryDTOCodec;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Configuration
 public class RedisConfig {
 
     @Bean
-    public RedisCacheConfiguration redisCacheConfiguration() {
+    public CompactRedisSerializer compactRedisSerializer(
+            @Value("${cache.serializer.compact.enabled:true}") boolean writeCompact,
+            @Value("${cache.serializer.compression-threshold:512}") int compressionThreshold
+    ) {
+        return new CompactRedisSerializer(
+                List.of(
+                        new ProductDTOCodec(),
+                        new ProductSummaryDTOCodec(),
+                        new CategoryDTOCodec(),
+                        new AddressDTOCodec(),
+                        new PageResponseCodec()
+                ),
+                new GenericJackson2JsonRedisSerializer(),
+                writeCompact,
+                compressionThreshold
+        );
+    }
+
+    @Bean
+    public RedisCacheConfiguration redisCacheConfiguration(CompactRedisSerializer compactRedisSerializer) {
         return RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofMinutes(30))
                 .serializeValuesWith(
-                        RedisSerializationContext.SerializationPair.fromSerializer(
-                                new GenericJackson2JsonRedisSerializer()
-                        )
+                        RedisSerializationContext.SerializationPair.fromSerializer(compactRedisSerializer)
                 )
                 .serializeKeysWith(
                         RedisSerializationContext.SerializationPair.fromSerializer(
@@ -54,4 +86,44 @@ public class RedisConfig {
                 .withInitialCacheConfigurations(cacheConfigurations)
                 .build();
     }
+
+    @Bean
+    @Primary
+    public TwoTierCacheManager cacheManager(
+            RedisCacheManager redisCacheManager,
+            StringRedisTemplate stringRedisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${cache.near.enabled:true}") boolean nearCacheEnabled,
+            @Value("${cache.near.maximum-size:10000}") long nearCacheMaximumSize,
+            @Value("${cache.near.ttl:60s}") Duration nearCacheTtl,
+            @Value("${cache.single-flight.distributed:false}") boolean distributedSingleFlight,
+            @Value("${cache.single-flight.lock-lease:10s}") Duration lockLease,
+            @Value("${cache.single-flight.wait-timeout:5s}") Duration lockWaitTimeout
+    ) {
+        RedisLoadLock loadLock = distributedSingleFlight
+                ? new RedisLoadLock(stringRedisTemplate, lockLease, lockWaitTimeout)
+                : null;
+
+        return new TwoTierCacheManager(
+                redisCacheManager,
+                stringRedisTemplate,
+                meterRegistry,
+                loadLock,
+                nearCacheEnabled,
+                nearCacheMaximumSize,
+                nearCacheTtl
+        );
+    }
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            TwoTierCacheManager cacheManager
+    ) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(TwoTierCacheManager.CHANNEL));
+
+        return container;
+    }
 }
@@ -1,6 +1,8 @@
 package com.wild.ecommerce.common.config;
 
 import com.wild.ecommerce.auth.security.JwtAuthenticationFilter;
+import com.wild.ecommerce.common.idempotency.IdempotencyFilter;
+import com.wild.ecommerce.order.admission.CheckoutAdmissionFilter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -52,14 +54,19 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.POST, "/api/v1/categories").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.PUT, "/api/v1/categories/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.DELETE, "/api/v1/categories/**").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/api/v1/products/export").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/api/v1/products/*/stock-buckets").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.GET, "/api/v1/products/**").permitAll()
                         .requestMatchers(HttpMethod.POST, "/api/v1/products").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/api/v1/products/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.PUT, "/api/v1/products/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.DELETE, "/api/v1/products/**").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/api/v1/inventory/**").permitAll()
                         .requestMatchers("/api/v1/carts/**").authenticated()
                         .requestMatchers("/api/v1/addresses/**").authenticated()
                         .requestMatchers("/api/v1/orders/**").authenticated()
                         .requestMatchers("/api/v1/shipping/**").authenticated()
+                        .requestMatchers("/api/v1/shipments/bulk").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(sessionManagement -> sessionManagement
@@ -93,6 +100,8 @@ public class SecurityConfig {
                         HttpHeaders.ACCEPT,
                         HttpHeaders.AUTHORIZATION,
                         "X-Requested-With",
+                        IdempotencyFilter.IDEMPOTENCY_KEY,
+                        CheckoutAdmissionFilter.ADMISSION_TOKEN,
                         HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD,
                         HttpHeaders.ACCESS_CONTROL_REQUEST_HEADERS,
                         HttpHeaders.ACCESS_CONTROL_ALLOW_CREDENTIALS
@@ -106,6 +115,8 @@ public class SecurityConfig {
                         HttpHeaders.ACCEPT,
                         HttpHeaders.AUTHORIZATION,
                         "X-Requested-With",
+                        IdempotencyFilter.IDEMPOTENT_REPLAYED,
+                        HttpHeaders.RETRY_AFTER,
                         HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD,
                         HttpHeaders.ACCESS_CONTROL_REQUEST_HEADERS,
                         HttpHeaders.ACCESS_CONTROL_ALLOW_CREDENTIALS
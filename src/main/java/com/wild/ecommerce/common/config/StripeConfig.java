@@ -1,18 +1,78 @@
 package com.wild.ecommerce.common.config;
 
 import com.stripe.Stripe;
+import com.wild.ecommerce.payment.client.Bulkhead;
+import com.wild.ecommerce.payment.client.CircuitBreaker;
+import com.wild.ecommerce.payment.client.StripeGateway;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Clock;
+import java.time.Duration;
+
 @Configuration
 public class StripeConfig {
 
+    // Read once by the JDK's keep-alive cache, which the Stripe SDK's HttpURLConnection client pools through
+    private static final String KEEP_ALIVE_CONNECTIONS = "http.maxConnections";
+
     @Value("${stripe.api_key}")
     private String apiKey;
 
+    @Value("${stripe.client.max-concurrent:16}")
+    private int maxConcurrent;
+
     @PostConstruct
     public void init() {
         Stripe.apiKey = apiKey;
+
+        // The default of 5 idle connections per host would close most connections the bulkhead allows
+        if (System.getProperty(KEEP_ALIVE_CONNECTIONS) == null) {
+            System.setProperty(KEEP_ALIVE_CONNECTIONS, String.valueOf(maxConcurrent));
+        }
+    }
+
+    @Bean
+    public StripeGateway stripeGateway(
+            MeterRegistry meterRegistry,
+            @Value("${stripe.client.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${stripe.client.read-timeout:10s}") Duration readTimeout,
+            @Value("${stripe.client.deadline:20s}") Duration deadline,
+            @Value("${stripe.client.retry.max-attempts:3}") int maxAttempts,
+            @Value("${stripe.client.retry.initial-backoff:200ms}") Duration initialBackoff,
+            @Value("${stripe.client.retry.max-backoff:2s}") Duration maxBackoff,
+            @Value("${stripe.client.bulkhead-max-wait:100ms}") Duration bulkheadMaxWait,
+            @Value("${stripe.client.circuit-breaker.window-size:50}") int windowSize,
+            @Value("${stripe.client.circuit-breaker.minimum-calls:10}") int minimumCalls,
+            @Value("${stripe.client.circuit-breaker.failure-rate-threshold:50}") double failureRateThreshold,
+            @Value("${stripe.client.circuit-breaker.open-duration:30s}") Duration openDuration,
+            @Value("${stripe.client.circuit-breaker.half-open-calls:3}") int halfOpenCalls
+    ) {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(
+                "stripe",
+                windowSize,
+                minimumCalls,
+                failureRateThreshold,
+                openDuration,
+                halfOpenCalls,
+                Clock.systemUTC(),
+                meterRegistry
+        );
+        Bulkhead bulkhead = new Bulkhead("stripe", maxConcurrent, bulkheadMaxWait, meterRegistry);
+
+        return new StripeGateway(
+                circuitBreaker,
+                bulkhead,
+                meterRegistry,
+                connectTimeout,
+                readTimeout,
+                deadline,
+                maxAttempts,
+                initialBackoff,
+                maxBackoff
+        );
     }
 }
@@ -0,0 +1,22 @@
+package com.wild.ecommerce.common.dto;
+
+import com.wild.ecommerce.common.util.KeysetCursor;
+import org.springframework.data.domain.Window;
+
+import java.util.List;
+
+public record CursorPageResponse<T>(
+        List<T> content,
+        int size,
+        boolean hasNext,
+        String nextCursor
+) {
+
+    public static <T> CursorPageResponse<T> from(Window<T> window) {
+        String nextCursor = window.hasNext() && !window.isEmpty()
+                ? KeysetCursor.encode(window.positionAt(window.size() - 1))
+                : null;
+
+        return new CursorPageResponse<>(window.getContent(), window.size(), window.hasNext(), nextCursor);
+    }
+}
@@ -0,0 +1,12 @@
+package com.wild.ecommerce.common.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class StockConflictException extends RuntimeException {
+
+    public StockConflictException(String message) {
+        super(message);
+    }
+}
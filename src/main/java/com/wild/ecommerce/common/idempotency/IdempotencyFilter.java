@@ -0,0 +1,400 @@
+package com.wild.ecommerce.common.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wild.ecommerce.common.dto.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.Part;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Makes mutating requests that carry an {@code Idempotency-Key} header safe to retry.
+ *
+ * <p>The first request for a key executes and its response (status, body and the headers a client needs) is kept
+ * in Redis; repeats get that response back with {@code Idempotent-Replayed: true} and never reach a controller.
+ * Duplicates arriving while the first is still running wait for it instead of executing in parallel. Keys are
+ * scoped to the caller and the endpoint, so they only need to be unique per client. Server errors are not stored,
+ * which lets the client retry them with the same key.</p>
+ *
+ * <p>The stored response records a hash of the request body, and reusing a key with a different body is answered
+ * with 422 rather than a replay. While the first request runs, its in-flight marker is renewed every
+ * {@code renewInterval}, so slow requests keep the key however long they take.</p>
+ *
+ * <p>Runs after Spring Security so unauthenticated requests never claim a key. If Redis is unavailable the request
+ * executes unguarded.</p>
+ */
+@Slf4j
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final long MIN_POLL_MILLIS = 25;
+    private static final long MAX_POLL_MILLIS = 500;
+    private static final Set<String> SAFE_METHODS = Set.of(
+            HttpMethod.GET.name(),
+            HttpMethod.HEAD.name(),
+            HttpMethod.OPTIONS.name(),
+            HttpMethod.TRACE.name()
+    );
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final Duration waitTimeout;
+    private final Duration renewInterval;
+    private final Counter executed;
+    private final Counter replayed;
+    private final Counter conflicts;
+    private final Counter mismatches;
+    private final Counter bypassed;
+
+    public IdempotencyFilter(
+            IdempotencyStore store,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            Duration waitTimeout,
+            Duration renewInterval
+    ) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.waitTimeout = waitTimeout;
+        this.renewInterval = renewInterval;
+        this.executed = counter(meterRegistry, "executed");
+        this.replayed = counter(meterRegistry, "replayed");
+        this.conflicts = counter(meterRegistry, "conflict");
+        this.mismatches = counter(meterRegistry, "mismatch");
+        this.bypassed = counter(meterRegistry, "bypassed");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return request.getHeader(IDEMPOTENCY_KEY) == null || SAFE_METHODS.contains(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        String key = request.getHeader(IDEMPOTENCY_KEY).trim();
+
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            writeError(request, response, HttpStatus.BAD_REQUEST,
+                    IDEMPOTENCY_KEY + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        String scope = scope(request, key);
+        FingerprintedRequest fingerprinted = fingerprint(request);
+        request = fingerprinted.request();
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        long pollMillis = MIN_POLL_MILLIS;
+
+        while (true) {
+            String token;
+            StoredResponse stored;
+
+            try {
+                token = store.tryBegin(scope);
+                stored = token == null ? store.find(scope) : null;
+            } catch (RuntimeException e) {
+                log.warn("Idempotency store unavailable, executing {} {} unguarded: {}",
+                        request.getMethod(), request.getRequestURI(), e.getMessage());
+                bypassed.increment();
+                filterChain.doFilter(request, response);
+                return;
+            }
+
+            if (token != null) {
+                execute(request, response, filterChain, scope, token, fingerprinted.fingerprint());
+                return;
+            }
+
+            if (stored != null && stored.fingerprint() != null
+                    && !stored.fingerprint().equals(fingerprinted.fingerprint())) {
+                mismatches.increment();
+                writeError(request, response, HttpStatus.UNPROCESSABLE_ENTITY,
+                        "This " + IDEMPOTENCY_KEY + " was already used with a different request body");
+                return;
+            }
+
+            if (stored != null) {
+                replayed.increment();
+                replay(response, stored);
+                return;
+            }
+
+            if (System.nanoTime() >= deadline) {
+                conflicts.increment();
+                writeError(request, response, HttpStatus.CONFLICT,
+                        "A request with this " + IDEMPOTENCY_KEY + " is still being processed");
+                return;
+            }
+
+            try {
+                Thread.sleep(pollMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ServletException("Interrupted while waiting for an in-flight idempotent request", e);
+            }
+
+            pollMillis = Math.min(pollMillis * 2, MAX_POLL_MILLIS);
+        }
+    }
+
+    private void execute(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain,
+            String scope,
+            String token,
+            String fingerprint
+    ) throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean completed = false;
+
+        executed.increment();
+        Thread renewal = Thread.ofVirtual()
+                .name("idempotency-renewal")
+                .start(() -> renewWhileRunning(scope, token));
+
+        try {
+            filterChain.doFilter(request, wrapper);
+
+            if (wrapper.getStatus() < HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+                store.complete(scope, new StoredResponse(
+                        wrapper.getStatus(),
+                        wrapper.getContentType(),
+                        wrapper.getHeader(HttpHeaders.LOCATION),
+                        wrapper.getContentAsByteArray(),
+                        fingerprint
+                ));
+                completed = true;
+            }
+        } finally {
+            renewal.interrupt();
+
+            if (!completed) {
+                store.abandon(scope, token);
+            }
+
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private void renewWhileRunning(String scope, String token) {
+        try {
+            while (true) {
+                Thread.sleep(renewInterval);
+                store.renew(scope, token);
+            }
+        } catch (InterruptedException e) {
+            // The request finished; its response or abandonment replaces the marker
+        }
+    }
+
+    private void replay(HttpServletResponse response, StoredResponse stored) throws IOException {
+        response.setStatus(stored.status());
+        response.setHeader(IDEMPOTENT_REPLAYED, "true");
+
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+
+        if (stored.location() != null) {
+            response.setHeader(HttpHeaders.LOCATION, stored.location());
+        }
+
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private void writeError(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            HttpStatus status,
+            String message
+    ) throws IOException {
+        var error = new ErrorResponse(
+                LocalDateTime.now(),
+                status.value(),
+                status.getReasonPhrase(),
+                message,
+                request.getRequestURI()
+        );
+
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+
+    private static String scope(HttpServletRequest request, String key) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String caller = authentication != null && authentication.isAuthenticated()
+                ? authentication.getName()
+                : "anonymous";
+
+        return caller + ":" + request.getMethod() + ":" + request.getRequestURI() + ":" + key;
+    }
+
+    /**
+     * Hashes the query string and what the handler will read of the body. Multipart and form posts are parsed by
+     * the container, so their parts and parameters are hashed; any other body is read once and served to the
+     * handler from memory.
+     */
+    private static FingerprintedRequest fingerprint(HttpServletRequest request) throws IOException, ServletException {
+        MessageDigest digest = sha256();
+        String contentType = request.getContentType() != null ? request.getContentType().toLowerCase(Locale.ROOT) : "";
+        update(digest, request.getQueryString());
+
+        if (contentType.startsWith(MediaType.MULTIPART_FORM_DATA_VALUE)) {
+            for (Part part : request.getParts()) {
+                update(digest, part.getName());
+                update(digest, part.getSubmittedFileName());
+
+                try (InputStream content = part.getInputStream()) {
+                    content.transferTo(new DigestOutputStream(OutputStream.nullOutputStream(), digest));
+                }
+            }
+
+            return new FingerprintedRequest(request, HexFormat.of().formatHex(digest.digest()));
+        }
+
+        if (contentType.startsWith(MediaType.APPLICATION_FORM_URLENCODED_VALUE)) {
+            for (Map.Entry<String, String[]> parameter : new TreeMap<>(request.getParameterMap()).entrySet()) {
+                update(digest, parameter.getKey());
+
+                for (String value : parameter.getValue()) {
+                    update(digest, value);
+                }
+            }
+
+            return new FingerprintedRequest(request, HexFormat.of().formatHex(digest.digest()));
+        }
+
+        byte[] body = request.getInputStream().readAllBytes();
+        digest.update(body);
+        String fingerprint = HexFormat.of().formatHex(digest.digest());
+
+        return new FingerprintedRequest(new CachedBodyRequest(request, body), fingerprint);
+    }
+
+    private static void update(MessageDigest digest, @Nullable String value) {
+        // Length-prefixed so that adjacent values cannot run into each other
+        byte[] bytes = value != null ? value.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        digest.update(Integer.toString(value != null ? bytes.length : -1).getBytes(StandardCharsets.US_ASCII));
+        digest.update((byte) ':');
+        digest.update(bytes);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("idempotency.requests")
+                .description("Requests carrying an Idempotency-Key, by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record FingerprintedRequest(HttpServletRequest request, String fingerprint) {
+    }
+
+    /**
+     * Replays a body that was already read for fingerprinting.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream content = new ByteArrayInputStream(body);
+
+            return new ServletInputStream() {
+
+                @Override
+                public boolean isFinished() {
+                    return content.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException("Non-blocking reads are not supported");
+                }
+
+                @Override
+                public int read() {
+                    return content.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return content.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            Charset charset = getCharacterEncoding() != null
+                    ? Charset.forName(getCharacterEncoding())
+                    : StandardCharsets.UTF_8;
+
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
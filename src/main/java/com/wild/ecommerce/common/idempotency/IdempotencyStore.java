@@ -0,0 +1,123 @@
+package com.wild.ecommerce.common.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.Nullable;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Redis state behind {@link IdempotencyFilter}.
+ *
+ * <p>A key holds either an in-flight marker, written with {@code SET NX} by the request that gets to execute, or
+ * the JSON of its {@link StoredResponse}. The marker expires on its own so a crashed node cannot wedge a key; the
+ * executing request renews it for as long as it runs.</p>
+ */
+@Slf4j
+public class IdempotencyStore {
+
+    private static final String KEY_PREFIX = "idempotency:";
+    private static final String IN_FLIGHT_PREFIX = "in-flight:";
+
+    private static final RedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('pexpire', KEYS[1], ARGV[2]) " +
+                    "else return 0 end",
+            Long.class
+    );
+
+    private static final RedisScript<Long> ABANDON_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class
+    );
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration inFlightTtl;
+
+    public IdempotencyStore(
+            StringRedisTemplate redisTemplate,
+            ObjectMapper objectMapper,
+            Duration ttl,
+            Duration inFlightTtl
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.inFlightTtl = inFlightTtl;
+    }
+
+    /**
+     * Marks the key as in flight and returns the marker token, or {@code null} when the key is already taken.
+     */
+    public @Nullable String tryBegin(String scope) {
+        String token = UUID.randomUUID().toString();
+        Boolean acquired = redisTemplate.opsForValue().setIfAbsent(key(scope), IN_FLIGHT_PREFIX + token, inFlightTtl);
+
+        return Boolean.TRUE.equals(acquired) ? token : null;
+    }
+
+    /**
+     * Returns the stored response, or {@code null} while the first request is still in flight or after it was
+     * abandoned.
+     */
+    public @Nullable StoredResponse find(String scope) {
+        String value = redisTemplate.opsForValue().get(key(scope));
+
+        if (value == null || value.startsWith(IN_FLIGHT_PREFIX)) {
+            return null;
+        }
+
+        try {
+            return objectMapper.readValue(value, StoredResponse.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Discarding unreadable idempotent response for {}: {}", scope, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Pushes back the expiry of the in-flight marker. A marker that has since been replaced is left alone.
+     */
+    public void renew(String scope, String token) {
+        try {
+            redisTemplate.execute(
+                    RENEW_SCRIPT,
+                    List.of(key(scope)),
+                    IN_FLIGHT_PREFIX + token,
+                    String.valueOf(inFlightTtl.toMillis())
+            );
+        } catch (RuntimeException e) {
+            log.warn("Could not renew idempotency key {}: {}", scope, e.getMessage());
+        }
+    }
+
+    public void complete(String scope, StoredResponse response) {
+        try {
+            redisTemplate.opsForValue().set(key(scope), objectMapper.writeValueAsString(response), ttl);
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Could not store idempotent response for {}: {}", scope, e.getMessage());
+        }
+    }
+
+    /**
+     * Drops the in-flight marker so the next retry executes again. A marker that has since been replaced is kept.
+     */
+    public void abandon(String scope, String token) {
+        try {
+            redisTemplate.execute(ABANDON_SCRIPT, List.of(key(scope)), IN_FLIGHT_PREFIX + token);
+        } catch (RuntimeException e) {
+            log.warn("Could not release idempotency key {}: {}", scope, e.getMessage());
+        }
+    }
+
+    private static String key(String scope) {
+        return KEY_PREFIX + scope;
+    }
+}
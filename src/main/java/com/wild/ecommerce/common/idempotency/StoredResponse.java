@@ -0,0 +1,18 @@
+package com.wild.ecommerce.common.idempotency;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * The first response produced for an idempotency key, replayed verbatim for every repeat of the request.
+ *
+ * <p>{@code fingerprint} hashes the request body that produced it; it is {@code null} for entries stored before
+ * fingerprints were recorded.</p>
+ */
+public record StoredResponse(
+        int status,
+        @Nullable String contentType,
+        @Nullable String location,
+        byte[] body,
+        @Nullable String fingerprint
+) {
+}
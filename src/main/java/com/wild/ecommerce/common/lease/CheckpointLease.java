@@ -0,0 +1,80 @@
+package com.wild.ecommerce.common.lease;
+
+import com.wild.ecommerce.payment.model.ReconciliationCheckpoint;
+import com.wild.ecommerce.payment.repository.ReconciliationCheckpointRepository;
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.Nullable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Runs a scheduled job on one node at a time by leasing its row in {@code reconciliation_checkpoints}. Jobs that walk
+ * orders in ID order can also keep their position in the row, so a run that stops part way resumes from it.
+ */
+@Component
+@RequiredArgsConstructor
+public class CheckpointLease {
+
+    private final ReconciliationCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Creates the job's row if needed and leases it to {@code owner}; returns false while another node holds it.
+     */
+    public boolean acquire(String name, String owner, Duration lease) {
+        createIfAbsent(name);
+
+        LocalDateTime now = LocalDateTime.now();
+
+        return Boolean.TRUE.equals(transactionTemplate.execute(_ ->
+                checkpointRepository.acquire(name, owner, now, now.plus(lease)) > 0
+        ));
+    }
+
+    /**
+     * Extends the lease and leaves the recorded position alone; returns false when it has passed to another node.
+     */
+    public boolean renew(String name, String owner, Duration lease) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(_ ->
+                checkpointRepository.renew(name, owner, LocalDateTime.now().plus(lease)) > 0
+        ));
+    }
+
+    /**
+     * Records the last order processed, or {@code null} to start the next pass over, and extends the lease; returns
+     * false when it has passed to another node.
+     */
+    public boolean advance(String name, String owner, @Nullable UUID lastOrderId, Duration lease) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(_ ->
+                checkpointRepository.advance(name, owner, lastOrderId, LocalDateTime.now().plus(lease)) > 0
+        ));
+    }
+
+    public @Nullable UUID lastOrderId(String name) {
+        return transactionTemplate.execute(_ -> checkpointRepository.findLastOrderId(name));
+    }
+
+    public void release(String name, String owner) {
+        transactionTemplate.executeWithoutResult(_ -> checkpointRepository.release(name, owner));
+    }
+
+    private void createIfAbsent(String name) {
+        if (Boolean.TRUE.equals(transactionTemplate.execute(_ -> checkpointRepository.existsById(name)))) {
+            return;
+        }
+
+        ReconciliationCheckpoint checkpoint = new ReconciliationCheckpoint();
+        checkpoint.setName(name);
+
+        try {
+            transactionTemplate.executeWithoutResult(_ -> checkpointRepository.saveAndFlush(checkpoint));
+        } catch (DataIntegrityViolationException e) {
+            // Another node created it first
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.wild.ecommerce.common.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+
+/**
+ * Line-oriented formats used for bulk imports and exports.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum DataFormat {
+    CSV("text/csv"),
+    NDJSON("application/x-ndjson");
+
+    private final String mediaType;
+
+    public static DataFormat fromMediaType(MediaType mediaType) {
+        for (DataFormat format : values()) {
+            if (MediaType.parseMediaType(format.mediaType).isCompatibleWith(mediaType)) {
+                return format;
+            }
+        }
+
+        throw new IllegalArgumentException("Unsupported data format: " + mediaType);
+    }
+}
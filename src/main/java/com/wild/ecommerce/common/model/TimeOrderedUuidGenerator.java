@@ -0,0 +1,27 @@
+package com.wild.ecommerce.common.model;
+
+import com.wild.ecommerce.common.util.UuidV7;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.util.EnumSet;
+
+public class TimeOrderedUuidGenerator implements BeforeExecutionGenerator {
+
+    @Override
+    public Object generate(
+            SharedSessionContractImplementor session,
+            Object owner,
+            Object currentValue,
+            EventType eventType
+    ) {
+        return UuidV7.randomUuid();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
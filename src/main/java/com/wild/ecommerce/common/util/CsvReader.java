@@ -0,0 +1,105 @@
+package com.wild.ecommerce.common.util;
+
+import org.jspecify.annotations.Nullable;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal streaming RFC 4180 reader: comma separated, double-quote escaping, quoted fields may span lines.
+ * Only the current record is held in memory.
+ */
+public class CsvReader implements Closeable {
+
+    private static final char SEPARATOR = ',';
+    private static final char QUOTE = '"';
+
+    private final BufferedReader reader;
+    private long line = 1;
+    private long recordLine;
+
+    public CsvReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader bufferedReader ? bufferedReader : new BufferedReader(reader);
+    }
+
+    /**
+     * Returns the fields of the next record, or {@code null} at the end of the input.
+     */
+    public @Nullable List<String> readRecord() throws IOException {
+        int c = reader.read();
+
+        if (c == -1) {
+            return null;
+        }
+
+        recordLine = line;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        while (c != -1) {
+            char ch = (char) c;
+
+            if (quoted) {
+                if (ch == QUOTE) {
+                    reader.mark(1);
+                    int next = reader.read();
+
+                    if (next == QUOTE) {
+                        field.append(QUOTE);
+                    } else {
+                        quoted = false;
+                        reader.reset();
+                    }
+                } else {
+                    if (ch == '\n') {
+                        line++;
+                    }
+                    field.append(ch);
+                }
+            } else if (ch == QUOTE && field.isEmpty()) {
+                quoted = true;
+            } else if (ch == SEPARATOR) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (ch == '\r' || ch == '\n') {
+                if (ch == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                }
+                line++;
+                break;
+            } else {
+                field.append(ch);
+            }
+
+            c = reader.read();
+        }
+
+        if (quoted) {
+            throw new IOException("Unterminated quoted field in record starting at line " + recordLine);
+        }
+
+        fields.add(field.toString());
+
+        return fields;
+    }
+
+    /**
+     * Line number (1-based) on which the last record returned by {@link #readRecord()} started.
+     */
+    public long getRecordLine() {
+        return recordLine;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
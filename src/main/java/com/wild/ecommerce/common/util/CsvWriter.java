@@ -0,0 +1,55 @@
+package com.wild.ecommerce.common.util;
+
+import org.jspecify.annotations.Nullable;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Counterpart of {@link CsvReader}: writes comma separated records, quoting fields that contain a separator,
+ * quote or line break.
+ */
+public class CsvWriter implements Flushable {
+
+    private final Writer writer;
+
+    public CsvWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    public void writeRecord(List<?> fields) throws IOException {
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+
+            writeField(fields.get(i));
+        }
+
+        writer.write('\n');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    private void writeField(@Nullable Object field) throws IOException {
+        if (field == null) {
+            return;
+        }
+
+        String value = field.toString();
+
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
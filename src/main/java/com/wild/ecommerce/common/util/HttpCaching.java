@@ -0,0 +1,59 @@
+package com.wild.ecommerce.common.util;
+
+import com.wild.ecommerce.common.exception.PreconditionFailedException;
+import org.jspecify.annotations.Nullable;
+
+import java.util.UUID;
+
+/**
+ * Entity tags and surrogate keys for conditional requests and CDN purging.
+ *
+ * <p>Tags are strong and opaque to clients: entity endpoints use the JPA version column, list endpoints the
+ * {@link com.wild.ecommerce.common.cache.CacheTagService} generation of the tags the page depends on. Surrogate
+ * keys reuse the same tag names so one invalidation event can purge both Redis and the CDN.</p>
+ */
+public final class HttpCaching {
+
+    public static final String SURROGATE_KEY = "Surrogate-Key";
+
+    private HttpCaching() {
+    }
+
+    public static String etag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    public static String etag(String generation) {
+        return "\"" + generation + "\"";
+    }
+
+    public static String product(UUID productId) {
+        return "product:" + productId;
+    }
+
+    /**
+     * Returns the entity version an {@code If-Match} header requires, or {@code null} when the header is absent or
+     * {@code *}. Weak, malformed or multiple tags can never match a single strong version and are rejected.
+     */
+    public static @Nullable Long expectedVersion(@Nullable String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+
+        String tag = ifMatch.trim();
+
+        if (tag.equals("*")) {
+            return null;
+        }
+
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new PreconditionFailedException("If-Match must be a single strong entity tag");
+        }
+
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("If-Match entity tag '" + tag + "' does not match the current version");
+        }
+    }
+}
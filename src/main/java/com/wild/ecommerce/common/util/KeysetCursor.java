@@ -0,0 +1,145 @@
+package com.wild.ecommerce.common.util;
+
+import com.wild.ecommerce.common.exception.InvalidCursorException;
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.BeanUtils;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+public final class KeysetCursor {
+
+    private static final String ID = "id";
+
+    private KeysetCursor() {
+    }
+
+    /**
+     * Appends the entity ID to the sort so that it defines a total order, which keyset paging relies on.
+     */
+    public static Sort withIdTieBreaker(Sort sort) {
+        if (sort.getOrderFor(ID) != null) {
+            return sort;
+        }
+
+        Sort.Direction direction = sort.stream()
+                .findFirst()
+                .map(Sort.Order::getDirection)
+                .orElse(Sort.Direction.ASC);
+
+        return sort.and(Sort.by(direction, ID));
+    }
+
+    /**
+     * Encodes the sort key values of a scroll position into an opaque, URL-safe cursor.
+     */
+    public static String encode(ScrollPosition position) {
+        if (!(position instanceof KeysetScrollPosition keyset)) {
+            throw new IllegalArgumentException("Only keyset positions can be encoded as a cursor");
+        }
+
+        String payload = keyset.getKeys().entrySet().stream()
+                .map(entry -> entry.getValue() == null
+                        ? urlEncode(entry.getKey())
+                        : urlEncode(entry.getKey()) + "=" + urlEncode(entry.getValue().toString()))
+                .collect(Collectors.joining("&"));
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor produced by {@link #encode(ScrollPosition)} back into a keyset position, converting every
+     * key to the type of the matching entity property. A missing cursor yields the position of the first page.
+     */
+    public static KeysetScrollPosition decode(@Nullable String cursor, Sort sort, Class<?> entityType) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+
+        Set<String> sortProperties = sort.stream()
+                .map(Sort.Order::getProperty)
+                .collect(Collectors.toSet());
+
+        try {
+            String payload = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            Map<String, Object> keys = new LinkedHashMap<>();
+
+            for (String pair : payload.split("&")) {
+                int separator = pair.indexOf('=');
+                String property = urlDecode(separator < 0 ? pair : pair.substring(0, separator));
+
+                if (!sortProperties.contains(property)) {
+                    throw new InvalidCursorException("Cursor does not match the requested sort order");
+                }
+
+                Object value = separator < 0
+                        ? null
+                        : convert(urlDecode(pair.substring(separator + 1)), property, entityType);
+                keys.put(property, value);
+            }
+
+            if (!keys.keySet().equals(sortProperties)) {
+                throw new InvalidCursorException("Cursor does not match the requested sort order");
+            }
+
+            return ScrollPosition.forward(keys);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("Malformed cursor");
+        }
+    }
+
+    private static Object convert(String value, String property, Class<?> entityType) {
+        Class<?> type = BeanUtils.findPropertyType(property, entityType);
+
+        if (type == String.class) {
+            return value;
+        }
+        if (type == UUID.class) {
+            return UUID.fromString(value);
+        }
+        if (type == BigDecimal.class) {
+            return new BigDecimal(value);
+        }
+        if (type == Integer.class || type == int.class) {
+            return Integer.valueOf(value);
+        }
+        if (type == Long.class || type == long.class) {
+            return Long.valueOf(value);
+        }
+        if (type == LocalDateTime.class) {
+            return LocalDateTime.parse(value);
+        }
+        if (type.isEnum()) {
+            for (Object constant : type.getEnumConstants()) {
+                if (((Enum<?>) constant).name().equals(value)) {
+                    return constant;
+                }
+            }
+
+            throw new IllegalArgumentException("Unknown constant '" + value + "' for " + type.getSimpleName());
+        }
+
+        throw new InvalidCursorException("Sorting by '" + property + "' is not supported with cursors");
+    }
+
+    private static String urlEncode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static String urlDecode(String value) {
+        return URLDecoder.decode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,103 @@
+package com.wild.ecommerce.common.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.wild.ecommerce.common.model.DataFormat;
+import org.jspecify.annotations.Nullable;
+
+import java.io.BufferedWriter;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Writes a stream of records as CSV (header plus one row per record) or NDJSON (one JSON object per line).
+ * Output is buffered and flushed to the client every {@value #FLUSH_EVERY} records; the target is never closed.
+ */
+public class RecordStreamWriter<T> implements Flushable {
+
+    private static final int FLUSH_EVERY = 1000;
+
+    private final BufferedWriter writer;
+    private final @Nullable CsvWriter csvWriter;
+    private final @Nullable SequenceWriter jsonWriter;
+    private final Function<T, List<?>> columns;
+    private long count;
+
+    private RecordStreamWriter(
+            BufferedWriter writer,
+            @Nullable CsvWriter csvWriter,
+            @Nullable SequenceWriter jsonWriter,
+            Function<T, List<?>> columns
+    ) {
+        this.writer = writer;
+        this.csvWriter = csvWriter;
+        this.jsonWriter = jsonWriter;
+        this.columns = columns;
+    }
+
+    public static <T> RecordStreamWriter<T> open(
+            DataFormat format,
+            OutputStream out,
+            ObjectMapper objectMapper,
+            List<String> header,
+            Function<T, List<?>> columns
+    ) throws IOException {
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+
+        if (format == DataFormat.CSV) {
+            CsvWriter csvWriter = new CsvWriter(writer);
+            csvWriter.writeRecord(header);
+            return new RecordStreamWriter<>(writer, csvWriter, null, columns);
+        }
+
+        SequenceWriter jsonWriter = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n")
+                .writeValues(writer);
+
+        return new RecordStreamWriter<>(writer, null, jsonWriter, columns);
+    }
+
+    public void write(T record) throws IOException {
+        if (csvWriter != null) {
+            csvWriter.writeRecord(columns.apply(record));
+        } else {
+            jsonWriter.write(record);
+        }
+
+        if (++count % FLUSH_EVERY == 0) {
+            flush();
+        }
+    }
+
+    /**
+     * Terminates the last NDJSON line and flushes everything written so far.
+     */
+    public void finish() throws IOException {
+        if (jsonWriter != null && count > 0) {
+            jsonWriter.flush();
+            writer.write('\n');
+        }
+
+        flush();
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (jsonWriter != null) {
+            jsonWriter.flush();
+        }
+
+        writer.flush();
+    }
+}
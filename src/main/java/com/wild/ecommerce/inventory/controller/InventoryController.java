@@ -0,0 +1,43 @@
+package com.wild.ecommerce.inventory.controller;
+
+import com.wild.ecommerce.inventory.dto.InventoryDTO;
+import com.wild.ecommerce.inventory.service.InventoryService;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/inventory")
+@RequiredArgsConstructor
+@Tag(name = "Inventory", description = "Endpoints for reading available-to-sell stock")
+public class InventoryController {
+
+    private final InventoryService inventoryService;
+
+    @GetMapping("{productId}")
+    public ResponseEntity<InventoryDTO> getAvailability(@PathVariable("productId") UUID productId) {
+        InventoryDTO inventory = inventoryService.getAvailability(productId);
+
+        return new ResponseEntity<>(inventory, HttpStatus.OK);
+    }
+
+    @GetMapping
+    public ResponseEntity<List<InventoryDTO>> getAvailability(
+            @RequestParam("productIds") @NotEmpty @Size(max = 100) List<UUID> productIds
+    ) {
+        List<InventoryDTO> inventories = inventoryService.getAvailability(productIds);
+
+        return new ResponseEntity<>(inventories, HttpStatus.OK);
+    }
+}
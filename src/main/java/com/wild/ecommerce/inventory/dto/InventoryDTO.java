@@ -0,0 +1,15 @@
+package com.wild.ecommerce.inventory.dto;
+
+import java.util.UUID;
+
+public record InventoryDTO(
+        UUID productId,
+        int stock,
+        int reserved,
+        int available
+) {
+
+    public InventoryDTO(UUID productId, int stock, int reserved) {
+        this(productId, stock, reserved, Math.max(0, stock - reserved));
+    }
+}
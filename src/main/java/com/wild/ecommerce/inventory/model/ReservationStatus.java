@@ -0,0 +1,7 @@
+package com.wild.ecommerce.inventory.model;
+
+public enum ReservationStatus {
+    ACTIVE,
+    COMMITTED,
+    RELEASED
+}
@@ -0,0 +1,63 @@
+package com.wild.ecommerce.inventory.model;
+
+import com.wild.ecommerce.common.model.Auditable;
+import com.wild.ecommerce.common.model.TimeOrderedUuid;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One order line's hold on a product's stock, mirrored in {@code Product.reserved} while {@code ACTIVE} unless it
+ * was taken from a stock bucket.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "stock_reservations", indexes = {
+        @Index(name = "idx_stock_reservations_order", columnList = "order_id"),
+        @Index(name = "idx_stock_reservations_product_status", columnList = "product_id, status"),
+        @Index(name = "idx_stock_reservations_status_expires", columnList = "status, expires_at")
+})
+public class StockReservation extends Auditable {
+
+    @Id
+    @TimeOrderedUuid
+    private UUID id;
+
+    @Column(name = "product_id", nullable = false)
+    private UUID productId;
+
+    @Column(name = "order_id", nullable = false)
+    private UUID orderId;
+
+    @Column(nullable = false)
+    private int quantity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ReservationStatus status;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    /**
+     * Whether the units came out of a stock bucket instead of being held in {@code Product.reserved}.
+     */
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private boolean bucketed;
+}
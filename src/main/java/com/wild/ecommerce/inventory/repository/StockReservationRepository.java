@@ -0,0 +1,48 @@
+package com.wild.ecommerce.inventory.repository;
+
+import com.wild.ecommerce.inventory.model.ReservationStatus;
+import com.wild.ecommerce.inventory.model.StockReservation;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, UUID> {
+
+    /**
+     * Locks the order's holds so a webhook and the sweeper cannot both settle them.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<StockReservation> findByOrderIdAndStatus(UUID orderId, ReservationStatus status);
+
+    boolean existsByOrderId(UUID orderId);
+
+    @Query("SELECT r.id FROM StockReservation r " +
+            "WHERE r.status = com.wild.ecommerce.inventory.model.ReservationStatus.ACTIVE AND r.expiresAt < :now " +
+            "ORDER BY r.expiresAt")
+    List<UUID> findExpiredIds(@Param("now") LocalDateTime now, Limit limit);
+
+    /**
+     * Locks the given holds by primary key, skipping rows another transaction is already settling, so that
+     * several sweepers can share the backlog without waiting on each other.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_LOCK_TIMEOUT, value = "-2"))
+    @Query("SELECT r FROM StockReservation r WHERE r.id IN :ids AND r.status = :status")
+    List<StockReservation> lockByIdInAndStatus(
+            @Param("ids") Collection<UUID> ids,
+            @Param("status") ReservationStatus status
+    );
+}
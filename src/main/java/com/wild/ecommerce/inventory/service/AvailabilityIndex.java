@@ -0,0 +1,74 @@
+package com.wild.ecommerce.inventory.service;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.wild.ecommerce.inventory.dto.InventoryDTO;
+import com.wild.ecommerce.product.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Node-local view of available-to-sell per product, so product pages do not hit the database for it.
+ *
+ * <p>Writes on this node invalidate entries after commit; writes on other nodes become visible within the TTL.
+ * The guarded updates in the database stay authoritative, so a stale figure can only cause a checkout to be
+ * rejected, never oversold.</p>
+ */
+@Component
+public class AvailabilityIndex {
+
+    private final LoadingCache<UUID, InventoryDTO> entries;
+
+    public AvailabilityIndex(
+            ProductRepository productRepository,
+            @Value("${inventory.availability.ttl:5s}") Duration ttl,
+            @Value("${inventory.availability.maximum-size:100000}") long maximumSize
+    ) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build(new CacheLoader<>() {
+                    @Override
+                    public InventoryDTO load(UUID productId) {
+                        return loadAll(Set.of(productId)).get(productId);
+                    }
+
+                    @Override
+                    public Map<UUID, InventoryDTO> loadAll(Set<? extends UUID> productIds) {
+                        Map<UUID, InventoryDTO> loaded = new HashMap<>();
+
+                        for (InventoryDTO inventory : productRepository.findInventoryByIdIn(Set.copyOf(productIds))) {
+                            loaded.put(inventory.productId(), inventory);
+                        }
+
+                        return loaded;
+                    }
+                });
+    }
+
+    /**
+     * Returns {@code null} when the product does not exist.
+     */
+    public InventoryDTO get(UUID productId) {
+        return entries.get(productId);
+    }
+
+    /**
+     * Loads every missing product with one query; unknown products are left out of the result.
+     */
+    public Map<UUID, InventoryDTO> getAll(Collection<UUID> productIds) {
+        return entries.getAll(productIds);
+    }
+
+    public void invalidate(Collection<UUID> productIds) {
+        entries.invalidateAll(productIds);
+    }
+}
@@ -0,0 +1,43 @@
+package com.wild.ecommerce.inventory.service;
+
+import com.wild.ecommerce.inventory.dto.InventoryDTO;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public interface InventoryService {
+
+    /**
+     * Holds the given quantities for the order until the reservation TTL runs out.
+     */
+    void reserve(UUID orderId, Map<UUID, Integer> quantities);
+
+    /**
+     * Converts the order's active holds into sold stock once its payment has succeeded.
+     *
+     * @return the products that were no longer in stock; when there are any, the order takes nothing and all of
+     * its holds are released, so it cannot be fulfilled
+     */
+    List<UUID> commit(UUID orderId);
+
+    void release(UUID orderId);
+
+    /**
+     * Gives back everything the order took: active holds are released and the units of committed ones go back into
+     * stock. For orders that are withdrawn after their payment went through.
+     */
+    void returnStock(UUID orderId);
+
+    /**
+     * Releases up to {@code batchSize} expired holds and returns how many were released.
+     */
+    int releaseExpired(int batchSize);
+
+    boolean hasReservations(UUID orderId);
+
+    InventoryDTO getAvailability(UUID productId);
+
+    List<InventoryDTO> getAvailability(Collection<UUID> productIds);
+}
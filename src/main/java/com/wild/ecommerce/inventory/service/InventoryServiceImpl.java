@@ -0,0 +1,277 @@
+package com.wild.ecommerce.inventory.service;
+
+import com.wild.ecommerce.common.exception.ResourceNotFoundException;
+import com.wild.ecommerce.common.util.TransactionUtil;
+import com.wild.ecommerce.inventory.dto.InventoryDTO;
+import com.wild.ecommerce.inventory.model.ReservationStatus;
+import com.wild.ecommerce.inventory.model.StockReservation;
+import com.wild.ecommerce.inventory.repository.StockReservationRepository;
+import com.wild.ecommerce.product.service.ProductStockService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Reservation ledger on top of the guarded counters in {@link ProductStockService}.
+ *
+ * <p>Every ledger row moves out of {@code ACTIVE} exactly once and adjusts {@code Product.reserved} in the same
+ * transaction, so the counter always equals the sum of active holds.</p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryServiceImpl implements InventoryService {
+
+    private final StockReservationRepository stockReservationRepository;
+    private final ProductStockService productStockService;
+    private final AvailabilityIndex availabilityIndex;
+
+    @Value("${inventory.reservation.ttl:15m}")
+    private Duration reservationTtl;
+
+    @Override
+    @Transactional
+    public void reserve(UUID orderId, Map<UUID, Integer> quantities) {
+        Set<UUID> bucketed = productStockService.reserveStock(quantities);
+
+        LocalDateTime expiresAt = LocalDateTime.now().plus(reservationTtl);
+        List<StockReservation> reservations = new ArrayList<>();
+
+        quantities.forEach((productId, quantity) -> {
+            StockReservation reservation = new StockReservation();
+            reservation.setProductId(productId);
+            reservation.setOrderId(orderId);
+            reservation.setQuantity(quantity);
+            reservation.setStatus(ReservationStatus.ACTIVE);
+            reservation.setExpiresAt(expiresAt);
+            reservation.setBucketed(bucketed.contains(productId));
+            reservations.add(reservation);
+        });
+
+        stockReservationRepository.saveAll(reservations);
+        invalidateAfterCommit(quantities.keySet());
+
+        log.debug("Reserved {} products for order {} until {}", quantities.size(), orderId, expiresAt);
+    }
+
+    @Override
+    @Transactional
+    public List<UUID> commit(UUID orderId) {
+        List<StockReservation> active = stockReservationRepository.findByOrderIdAndStatus(
+                orderId, ReservationStatus.ACTIVE
+        );
+
+        if (!active.isEmpty()) {
+            return commitHolds(orderId, active);
+        }
+
+        // The payment arrived after the sweeper released the holds, so take whatever stock is still free
+        List<StockReservation> released = stockReservationRepository.findByOrderIdAndStatus(
+                orderId, ReservationStatus.RELEASED
+        );
+
+        if (released.isEmpty()) {
+            return List.of();
+        }
+
+        Map<UUID, Integer> quantities = sumByProduct(released);
+        List<UUID> shortProducts = productStockService.decrementAvailableStock(quantities);
+
+        if (!shortProducts.isEmpty()) {
+            log.error("Order {} was paid after its reservation expired and products {} are no longer in stock",
+                    orderId, shortProducts);
+
+            // The order cannot ship, so the lines that were taken go back and the holds stay released
+            shortProducts.forEach(quantities::remove);
+
+            if (!quantities.isEmpty()) {
+                productStockService.incrementStock(quantities);
+            }
+
+            return shortProducts;
+        }
+
+        settle(released, ReservationStatus.COMMITTED);
+
+        return List.of();
+    }
+
+    @Override
+    @Transactional
+    public void release(UUID orderId) {
+        List<StockReservation> active = stockReservationRepository.findByOrderIdAndStatus(
+                orderId, ReservationStatus.ACTIVE
+        );
+
+        if (active.isEmpty()) {
+            return;
+        }
+
+        releaseHolds(active);
+    }
+
+    @Override
+    @Transactional
+    public void returnStock(UUID orderId) {
+        release(orderId);
+
+        List<StockReservation> committed = stockReservationRepository.findByOrderIdAndStatus(
+                orderId, ReservationStatus.COMMITTED
+        );
+
+        if (committed.isEmpty()) {
+            return;
+        }
+
+        // Sold units left both the product row and its buckets, so they all go back to the row
+        productStockService.incrementStock(sumByProduct(committed));
+        settle(committed, ReservationStatus.RELEASED);
+    }
+
+    @Override
+    @Transactional
+    public int releaseExpired(int batchSize) {
+        List<UUID> expiredIds = stockReservationRepository.findExpiredIds(LocalDateTime.now(), Limit.of(batchSize));
+
+        if (expiredIds.isEmpty()) {
+            return 0;
+        }
+
+        List<StockReservation> expired = stockReservationRepository.lockByIdInAndStatus(
+                expiredIds, ReservationStatus.ACTIVE
+        );
+
+        if (expired.isEmpty()) {
+            return 0;
+        }
+
+        releaseHolds(expired);
+
+        return expired.size();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean hasReservations(UUID orderId) {
+        return stockReservationRepository.existsByOrderId(orderId);
+    }
+
+    @Override
+    public InventoryDTO getAvailability(UUID productId) {
+        InventoryDTO inventory = availabilityIndex.get(productId);
+
+        if (inventory == null) {
+            throw new ResourceNotFoundException("Product with ID '" + productId + "' not found");
+        }
+
+        return inventory;
+    }
+
+    @Override
+    public List<InventoryDTO> getAvailability(Collection<UUID> productIds) {
+        Map<UUID, InventoryDTO> inventories = availabilityIndex.getAll(productIds);
+
+        return productIds.stream()
+                .distinct()
+                .map(inventories::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private List<UUID> commitHolds(UUID orderId, List<StockReservation> active) {
+        // Units taken from stock buckets already left the free stock, only row holds need converting
+        List<StockReservation> held = active.stream()
+                .filter(reservation -> !reservation.isBucketed())
+                .toList();
+
+        List<UUID> shortProducts = held.isEmpty()
+                ? List.of()
+                : productStockService.commitReservedStock(sumByProduct(held));
+
+        if (shortProducts.isEmpty()) {
+            List<StockReservation> taken = active.stream()
+                    .filter(StockReservation::isBucketed)
+                    .toList();
+
+            if (!taken.isEmpty()) {
+                productStockService.commitBucketedStock(sumByProduct(taken));
+            }
+
+            settle(active, ReservationStatus.COMMITTED);
+            return List.of();
+        }
+
+        log.error("Order {} was paid but the held units of products {} are no longer in stock", orderId, shortProducts);
+
+        // The order cannot ship: sold lines go back into stock and every other hold is released
+        List<StockReservation> sold = held.stream()
+                .filter(reservation -> !shortProducts.contains(reservation.getProductId()))
+                .toList();
+        List<StockReservation> unsold = active.stream()
+                .filter(reservation -> !sold.contains(reservation))
+                .toList();
+
+        if (!sold.isEmpty()) {
+            productStockService.incrementStock(sumByProduct(sold));
+            settle(sold, ReservationStatus.RELEASED);
+        }
+
+        releaseHolds(unsold);
+
+        return shortProducts;
+    }
+
+    private void releaseHolds(List<StockReservation> reservations) {
+        // Settled and flushed first, so a counter recount in the stock service no longer sees these holds
+        settle(reservations, ReservationStatus.RELEASED);
+        stockReservationRepository.flush();
+
+        Map<Boolean, List<StockReservation>> byBucketed = reservations.stream()
+                .collect(Collectors.partitioningBy(StockReservation::isBucketed));
+
+        if (!byBucketed.get(false).isEmpty()) {
+            productStockService.releaseReservedStock(sumByProduct(byBucketed.get(false)));
+        }
+
+        if (!byBucketed.get(true).isEmpty()) {
+            productStockService.releaseBucketedStock(sumByProduct(byBucketed.get(true)));
+        }
+    }
+
+    private void settle(List<StockReservation> reservations, ReservationStatus status) {
+        reservations.forEach(reservation -> reservation.setStatus(status));
+        stockReservationRepository.saveAll(reservations);
+        invalidateAfterCommit(sumByProduct(reservations).keySet());
+    }
+
+    private void invalidateAfterCommit(Collection<UUID> productIds) {
+        List<UUID> ids = List.copyOf(productIds);
+
+        TransactionUtil.afterCommit(() -> availabilityIndex.invalidate(ids));
+    }
+
+    private static Map<UUID, Integer> sumByProduct(List<StockReservation> reservations) {
+        Map<UUID, Integer> quantities = new HashMap<>();
+
+        for (StockReservation reservation : reservations) {
+            quantities.merge(reservation.getProductId(), reservation.getQuantity(), Integer::sum);
+        }
+
+        return quantities;
+    }
+}
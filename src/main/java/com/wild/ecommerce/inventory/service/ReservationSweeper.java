@@ -0,0 +1,37 @@
+package com.wild.ecommerce.inventory.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically returns holds of abandoned checkouts to available stock.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReservationSweeper {
+
+    private final InventoryService inventoryService;
+
+    @Value("${inventory.reservation.sweep-batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${inventory.reservation.sweep-interval:30s}")
+    public void releaseExpired() {
+        int total = 0;
+        int released;
+
+        // Each batch commits on its own so a large backlog never holds locks for long
+        do {
+            released = inventoryService.releaseExpired(batchSize);
+            total += released;
+        } while (released == batchSize);
+
+        if (total > 0) {
+            log.info("Released {} expired stock reservations", total);
+        }
+    }
+}
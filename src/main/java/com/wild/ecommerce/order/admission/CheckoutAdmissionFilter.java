@@ -0,0 +1,95 @@
+package com.wild.ecommerce.order.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wild.ecommerce.common.dto.ErrorResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.jspecify.annotations.NonNull;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Puts {@code POST /api/v1/orders} behind the {@link CheckoutAdmissionQueue}.
+ *
+ * <p>Admitted requests run normally. Queued ones get {@code 202 Accepted} with their ticket and a
+ * {@code Retry-After}; the client polls {@code GET /api/v1/orders/admission/{token}} and resubmits the order with
+ * an {@code Admission-Token} header once the ticket is admitted. When the queue is full the request is answered
+ * with {@code 503} and a {@code Retry-After} without touching the database.</p>
+ */
+public class CheckoutAdmissionFilter extends OncePerRequestFilter {
+
+    public static final String ADMISSION_TOKEN = "Admission-Token";
+
+    private final CheckoutAdmissionQueue admissionQueue;
+    private final ObjectMapper objectMapper;
+
+    public CheckoutAdmissionFilter(CheckoutAdmissionQueue admissionQueue, ObjectMapper objectMapper) {
+        this.admissionQueue = admissionQueue;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        // Unauthenticated checkouts are rejected by the controller; they must not take a slot or a place in line
+        if (authentication == null || !authentication.isAuthenticated()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        CheckoutAdmissionQueue.Admission admission = admissionQueue.enter(
+                request.getHeader(ADMISSION_TOKEN),
+                authentication.getName()
+        );
+
+        switch (admission.outcome()) {
+            case ADMITTED -> {
+                try {
+                    filterChain.doFilter(request, response);
+                } finally {
+                    admissionQueue.release(admission.permit());
+                }
+            }
+            case QUEUED -> {
+                response.setStatus(HttpStatus.ACCEPTED.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(admission.retryAfterSeconds()));
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                objectMapper.writeValue(response.getOutputStream(), admission.ticket());
+            }
+            case REJECTED -> {
+                var error = new ErrorResponse(
+                        LocalDateTime.now(),
+                        HttpStatus.SERVICE_UNAVAILABLE.value(),
+                        HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase(),
+                        "Checkout is at capacity, please try again shortly",
+                        request.getRequestURI()
+                );
+
+                response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(admission.retryAfterSeconds()));
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                objectMapper.writeValue(response.getOutputStream(), error);
+            }
+        }
+    }
+}
@@ -0,0 +1,387 @@
+package com.wild.ecommerce.order.admission;
+
+import com.wild.ecommerce.order.dto.AdmissionTicketDTO;
+import com.wild.ecommerce.order.model.AdmissionStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.jspecify.annotations.Nullable;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Per-node waiting room in front of checkout.
+ *
+ * <p>At most {@code maxConcurrent} checkouts run at once, kept below the connection pool size so admitted requests
+ * finish instead of all timing out together. Callers that find no free slot get a ticket in a bounded FIFO queue
+ * and poll it; when a ticket reaches the head and a slot frees up, the slot is held for it for
+ * {@code admittedTtl} while the client resubmits with the ticket token. Once the queue is full, callers are
+ * turned away immediately.</p>
+ *
+ * <p>New arrivals only skip the queue when it is empty, so admission is first come, first served. Tickets whose
+ * client stops polling, or never comes back after admission, expire and give up their place or slot. With a
+ * {@link GlobalCheckoutLimiter} every slot also needs a cluster-wide lease.</p>
+ *
+ * <p>Tickets only exist on the node that issued them, so deployments with several nodes need sticky routing for
+ * checkout, ticket polls and the resubmission.</p>
+ *
+ * <p>Leases are taken and returned outside the monitor, so a slow Redis never blocks callers that only need local
+ * state. A local slot is reserved under the lock first, then committed to the caller or ticket once the lease is
+ * granted, or handed back when the cluster is at its cap.</p>
+ */
+public class CheckoutAdmissionQueue {
+
+    private static final double SERVICE_TIME_WEIGHT = 0.2;
+    private static final long MAX_RETRY_AFTER_SECONDS = 30;
+
+    private final int maxConcurrent;
+    private final int queueCapacity;
+    private final Duration ticketTtl;
+    private final Duration admittedTtl;
+    private final @Nullable GlobalCheckoutLimiter globalLimiter;
+    private final Clock clock;
+
+    private final LinkedHashMap<String, Ticket> waiting = new LinkedHashMap<>();
+    private final Map<String, Ticket> admitted = new HashMap<>();
+    private int permitsInUse;
+    private int promoting;
+    private double averageServiceNanos = Duration.ofSeconds(1).toNanos();
+
+    private final Counter admittedCounter;
+    private final Counter queuedCounter;
+    private final Counter rejectedCounter;
+    private final Counter expiredCounter;
+
+    public CheckoutAdmissionQueue(
+            int maxConcurrent,
+            int queueCapacity,
+            Duration ticketTtl,
+            Duration admittedTtl,
+            @Nullable GlobalCheckoutLimiter globalLimiter,
+            Clock clock,
+            MeterRegistry meterRegistry
+    ) {
+        this.maxConcurrent = maxConcurrent;
+        this.queueCapacity = queueCapacity;
+        this.ticketTtl = ticketTtl;
+        this.admittedTtl = admittedTtl;
+        this.globalLimiter = globalLimiter;
+        this.clock = clock;
+
+        this.admittedCounter = counter(meterRegistry, "admitted");
+        this.queuedCounter = counter(meterRegistry, "queued");
+        this.rejectedCounter = counter(meterRegistry, "rejected");
+        this.expiredCounter = counter(meterRegistry, "expired");
+
+        Gauge.builder("checkout.admission.active", this, CheckoutAdmissionQueue::activeCount)
+                .description("Checkout slots in use or held for admitted tickets")
+                .register(meterRegistry);
+        Gauge.builder("checkout.admission.queue.size", this, CheckoutAdmissionQueue::queueSize)
+                .description("Tickets waiting for a checkout slot")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Decides whether a checkout may run now. A token from an earlier ticket redeems its held slot, or reports the
+     * ticket's place in the queue while it is still waiting.
+     */
+    public Admission enter(@Nullable String token, String caller) {
+        refresh();
+
+        boolean reserved;
+
+        synchronized (this) {
+            Instant now = clock.instant();
+
+            if (token != null) {
+                Ticket ticket = admitted.get(token);
+
+                if (ticket != null && ticket.owner.equals(caller)) {
+                    admitted.remove(token);
+                    admittedCounter.increment();
+                    return Admission.admitted(new Permit(System.nanoTime(), ticket.lease));
+                }
+
+                ticket = waiting.get(token);
+
+                if (ticket != null && ticket.owner.equals(caller)) {
+                    ticket.lastSeen = now;
+                    return Admission.queued(describe(ticket));
+                }
+            }
+
+            reserved = waiting.isEmpty() && permitsInUse < maxConcurrent;
+
+            if (reserved) {
+                permitsInUse++;
+            }
+        }
+
+        if (reserved) {
+            String lease = acquireLease();
+
+            if (lease != null) {
+                admittedCounter.increment();
+                return Admission.admitted(new Permit(System.nanoTime(), lease));
+            }
+        }
+
+        synchronized (this) {
+            if (reserved) {
+                permitsInUse--;
+            }
+
+            if (waiting.size() >= queueCapacity) {
+                rejectedCounter.increment();
+                return Admission.rejected(retryAfterSeconds(waiting.size()));
+            }
+
+            Ticket ticket = new Ticket(UUID.randomUUID().toString(), caller, clock.instant());
+            waiting.put(ticket.token, ticket);
+            queuedCounter.increment();
+
+            return Admission.queued(describe(ticket));
+        }
+    }
+
+    /**
+     * Returns the ticket's current state; polling also keeps a waiting ticket alive.
+     */
+    public AdmissionTicketDTO status(String token, String caller) {
+        refresh();
+
+        synchronized (this) {
+            Ticket ticket = admitted.get(token);
+
+            if (ticket == null) {
+                ticket = waiting.get(token);
+            }
+
+            if (ticket == null || !ticket.owner.equals(caller)) {
+                return new AdmissionTicketDTO(token, AdmissionStatus.EXPIRED, 0, 0);
+            }
+
+            ticket.lastSeen = clock.instant();
+
+            return describe(ticket);
+        }
+    }
+
+    public void release(Permit permit) {
+        long serviceNanos = System.nanoTime() - permit.startedNanos();
+
+        synchronized (this) {
+            averageServiceNanos += SERVICE_TIME_WEIGHT * (serviceNanos - averageServiceNanos);
+            permitsInUse--;
+        }
+
+        releaseLease(permit.lease());
+        refresh();
+    }
+
+    public synchronized int activeCount() {
+        return permitsInUse;
+    }
+
+    public synchronized int queueSize() {
+        return waiting.size();
+    }
+
+    /**
+     * Drops stale tickets, then hands free slots to the head of the queue.
+     */
+    private void refresh() {
+        List<String> expiredLeases;
+        int reserved;
+
+        synchronized (this) {
+            expiredLeases = expire(clock.instant());
+            reserved = Math.min(waiting.size() - promoting, maxConcurrent - permitsInUse);
+
+            if (reserved > 0) {
+                permitsInUse += reserved;
+                promoting += reserved;
+            }
+        }
+
+        expiredLeases.forEach(this::releaseLease);
+
+        if (reserved > 0) {
+            promote(reserved);
+        }
+    }
+
+    private void promote(int reserved) {
+        List<String> leases = new ArrayList<>(reserved);
+
+        while (leases.size() < reserved) {
+            String lease = acquireLease();
+
+            if (lease == null) {
+                break;
+            }
+
+            leases.add(lease);
+        }
+
+        List<String> unused = new ArrayList<>();
+
+        synchronized (this) {
+            promoting -= reserved;
+            permitsInUse -= reserved - leases.size();
+            Instant now = clock.instant();
+
+            for (String lease : leases) {
+                if (waiting.isEmpty()) {
+                    // The tickets expired or were redeemed elsewhere while the leases were taken
+                    permitsInUse--;
+                    unused.add(lease);
+                    continue;
+                }
+
+                Iterator<Ticket> head = waiting.values().iterator();
+                Ticket ticket = head.next();
+                head.remove();
+
+                ticket.lease = lease;
+                ticket.admittedAt = now;
+                admitted.put(ticket.token, ticket);
+            }
+        }
+
+        unused.forEach(this::releaseLease);
+    }
+
+    /**
+     * Removes stale tickets and frees the slots held for admitted ones; returns their leases for the caller to
+     * release once outside the monitor.
+     */
+    private List<String> expire(Instant now) {
+        Instant waitingCutoff = now.minus(ticketTtl);
+        waiting.values().removeIf(ticket -> {
+            boolean stale = ticket.lastSeen.isBefore(waitingCutoff);
+
+            if (stale) {
+                expiredCounter.increment();
+            }
+
+            return stale;
+        });
+
+        List<String> expiredLeases = new ArrayList<>();
+        Instant admittedCutoff = now.minus(admittedTtl);
+        admitted.values().removeIf(ticket -> {
+            boolean stale = ticket.admittedAt.isBefore(admittedCutoff);
+
+            if (stale) {
+                expiredCounter.increment();
+                permitsInUse--;
+                expiredLeases.add(ticket.lease);
+            }
+
+            return stale;
+        });
+
+        return expiredLeases;
+    }
+
+    private @Nullable String acquireLease() {
+        return globalLimiter != null ? globalLimiter.tryAcquire() : GlobalCheckoutLimiter.UNTRACKED;
+    }
+
+    private void releaseLease(String lease) {
+        if (globalLimiter != null) {
+            globalLimiter.release(lease);
+        }
+    }
+
+    private AdmissionTicketDTO describe(Ticket ticket) {
+        if (admitted.containsKey(ticket.token)) {
+            return new AdmissionTicketDTO(ticket.token, AdmissionStatus.ADMITTED, 0, 0);
+        }
+
+        int position = 1;
+
+        for (String token : waiting.keySet()) {
+            if (token.equals(ticket.token)) {
+                break;
+            }
+
+            position++;
+        }
+
+        return new AdmissionTicketDTO(ticket.token, AdmissionStatus.WAITING, position, retryAfterSeconds(position));
+    }
+
+    /**
+     * Rough wait for the given queue position, from the recent average checkout time spread over all slots.
+     */
+    private long retryAfterSeconds(int position) {
+        double seconds = position * averageServiceNanos / maxConcurrent / 1_000_000_000d;
+
+        return Math.clamp((long) Math.ceil(seconds), 1, MAX_RETRY_AFTER_SECONDS);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("checkout.admission.requests")
+                .description("Checkout admission decisions, by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    public enum Outcome {
+        ADMITTED,
+        QUEUED,
+        REJECTED
+    }
+
+    /**
+     * A checkout slot that must be handed back through {@link #release(Permit)}.
+     */
+    public record Permit(long startedNanos, String lease) {
+    }
+
+    public record Admission(
+            Outcome outcome,
+            @Nullable Permit permit,
+            @Nullable AdmissionTicketDTO ticket,
+            long retryAfterSeconds
+    ) {
+
+        static Admission admitted(Permit permit) {
+            return new Admission(Outcome.ADMITTED, permit, null, 0);
+        }
+
+        static Admission queued(AdmissionTicketDTO ticket) {
+            return new Admission(Outcome.QUEUED, null, ticket, ticket.retryAfterSeconds());
+        }
+
+        static Admission rejected(long retryAfterSeconds) {
+            return new Admission(Outcome.REJECTED, null, null, retryAfterSeconds);
+        }
+    }
+
+    private static final class Ticket {
+
+        private final String token;
+        private final String owner;
+        private Instant lastSeen;
+        private Instant admittedAt;
+        private String lease;
+
+        private Ticket(String token, String owner, Instant lastSeen) {
+            this.token = token;
+            this.owner = owner;
+            this.lastSeen = lastSeen;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.wild.ecommerce.order.admission;
+
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.Nullable;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Cluster-wide cap on concurrent checkouts, shared by all nodes through a Redis sorted set of leases scored by
+ * their expiry. Leases held by a node that dies simply expire, so the cap heals without coordination.
+ */
+@Slf4j
+public class GlobalCheckoutLimiter {
+
+    /**
+     * Lease handed out when Redis cannot be reached; the per-node cap still applies.
+     */
+    public static final String UNTRACKED = "";
+
+    private static final String KEY = "checkout:admission:leases";
+
+    private static final RedisScript<Long> ACQUIRE_SCRIPT = new DefaultRedisScript<>("""
+            local time = redis.call('time')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            redis.call('zremrangebyscore', KEYS[1], '-inf', now)
+            if redis.call('zcard', KEYS[1]) < tonumber(ARGV[1]) then
+                redis.call('zadd', KEYS[1], now + tonumber(ARGV[2]), ARGV[3])
+                redis.call('pexpire', KEYS[1], ARGV[2])
+                return 1
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final int maxConcurrent;
+    private final Duration lease;
+
+    public GlobalCheckoutLimiter(StringRedisTemplate redisTemplate, int maxConcurrent, Duration lease) {
+        this.redisTemplate = redisTemplate;
+        this.maxConcurrent = maxConcurrent;
+        this.lease = lease;
+    }
+
+    /**
+     * Returns a lease ID, or {@code null} when the cluster is at its cap.
+     */
+    public @Nullable String tryAcquire() {
+        String leaseId = UUID.randomUUID().toString();
+
+        try {
+            Long acquired = redisTemplate.execute(
+                    ACQUIRE_SCRIPT,
+                    List.of(KEY),
+                    String.valueOf(maxConcurrent),
+                    String.valueOf(lease.toMillis()),
+                    leaseId
+            );
+
+            return acquired != null && acquired == 1 ? leaseId : null;
+        } catch (RuntimeException e) {
+            log.warn("Global checkout limiter unavailable, falling back to the node cap: {}", e.getMessage());
+            return UNTRACKED;
+        }
+    }
+
+    public void release(String leaseId) {
+        if (leaseId.equals(UNTRACKED)) {
+            return;
+        }
+
+        try {
+            redisTemplate.opsForZSet().remove(KEY, leaseId);
+        } catch (RuntimeException e) {
+            log.warn("Could not release checkout lease {}: {}", leaseId, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.wild.ecommerce.order.controller;
+
+import com.wild.ecommerce.order.admission.CheckoutAdmissionQueue;
+import com.wild.ecommerce.order.dto.AdmissionTicketDTO;
+import com.wild.ecommerce.order.model.AdmissionStatus;
+import com.wild.ecommerce.user.model.User;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/orders/admission")
+@RequiredArgsConstructor
+@Tag(name = "Orders", description = "Endpoints for managing orders")
+public class CheckoutAdmissionController {
+
+    private final CheckoutAdmissionQueue checkoutAdmissionQueue;
+
+    @GetMapping("{token}")
+    public ResponseEntity<AdmissionTicketDTO> getTicket(
+            @PathVariable("token") String token,
+            @AuthenticationPrincipal User user
+    ) {
+        AdmissionTicketDTO ticket = checkoutAdmissionQueue.status(token, user.getEmail());
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+
+        if (ticket.status() == AdmissionStatus.WAITING) {
+            response.header(HttpHeaders.RETRY_AFTER, String.valueOf(ticket.retryAfterSeconds()));
+        }
+
+        return response.body(ticket);
+    }
+}
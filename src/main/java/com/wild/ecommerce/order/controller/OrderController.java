@@ -1,10 +1,15 @@
 package com.wild.ecommerce.order.controller;
 
+import com.wild.ecommerce.common.dto.CursorPageResponse;
 import com.wild.ecommerce.common.dto.PageResponse;
+import com.wild.ecommerce.common.model.DataFormat;
 import com.wild.ecommerce.order.dto.CreateOrderRequest;
 import com.wild.ecommerce.order.dto.OrderDTO;
+import com.wild.ecommerce.order.dto.OrderSummaryDTO;
 import com.wild.ecommerce.order.dto.UpdateOrderRequest;
+import com.wild.ecommerce.order.service.OrderExportService;
 import com.wild.ecommerce.order.service.OrderService;
+import com.wild.ecommerce.payment.dto.PaymentDTO;
 import com.wild.ecommerce.user.model.User;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -14,7 +19,10 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PagedModel;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -26,6 +34,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.UUID;
 
@@ -36,6 +45,7 @@ import java.util.UUID;
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderExportService orderExportService;
 
     @PostMapping
     public ResponseEntity<UUID> placeOrder(
@@ -48,7 +58,7 @@ public class OrderController {
     }
 
     @GetMapping
-    public ResponseEntity<PagedModel<OrderDTO>> getAllOrders(
+    public ResponseEntity<PagedModel<OrderSummaryDTO>> getAllOrders(
             @RequestParam(value = "pageNumber", defaultValue = "0") int pageNumber,
             @RequestParam(value = "pageSize", defaultValue = "10") int pageSize,
             @RequestParam(value = "sortBy", defaultValue = "id") String sortBy,
@@ -62,12 +72,48 @@ public class OrderController {
         Sort sort = Sort.by(direction, sortBy);
         Pageable pageable = PageRequest.of(pageNumber, pageSize, sort);
 
-        PageResponse<OrderDTO> ordersResponse = orderService.getAllOrders(pageable, user.getEmail());
-        Page<OrderDTO> orders = ordersResponse.toPage();
+        PageResponse<OrderSummaryDTO> ordersResponse = orderService.getAllOrders(pageable, user.getEmail());
+        Page<OrderSummaryDTO> orders = ordersResponse.toPage();
 
         return new ResponseEntity<>(new PagedModel<>(orders), HttpStatus.OK);
     }
 
+    @GetMapping("export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(value = "format", defaultValue = "NDJSON") DataFormat format,
+            @AuthenticationPrincipal User user
+    ) {
+        String userEmail = user.getEmail();
+        StreamingResponseBody body = out -> orderExportService.exportOrders(userEmail, format, out);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("orders." + format.name().toLowerCase())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    @GetMapping("scroll")
+    public ResponseEntity<CursorPageResponse<OrderSummaryDTO>> scrollOrders(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "pageSize", defaultValue = "10") int pageSize,
+            @RequestParam(value = "sortBy", defaultValue = "id") String sortBy,
+            @RequestParam(value = "sortOrder", defaultValue = "ASC") String sortOrder,
+            @AuthenticationPrincipal User user
+    ) {
+        Sort.Direction direction = sortOrder.equalsIgnoreCase("DESC")
+                ? Sort.Direction.DESC
+                : Sort.Direction.ASC;
+
+        CursorPageResponse<OrderSummaryDTO> response = orderService.scrollOrders(
+                pageSize, Sort.by(direction, sortBy), cursor, user.getEmail()
+        );
+
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
     @GetMapping("{id}")
     public ResponseEntity<OrderDTO> getOrderById(
             @PathVariable("id") UUID id,
@@ -78,6 +124,19 @@ public class OrderController {
         return new ResponseEntity<>(order, HttpStatus.OK);
     }
 
+    @GetMapping("{id}/payment")
+    public ResponseEntity<PaymentDTO> getPayment(
+            @PathVariable("id") UUID id,
+            @AuthenticationPrincipal User user
+    ) {
+        PaymentDTO payment = orderService.getPayment(id, user.getEmail());
+
+        // The PaymentIntent is created after checkout commits; 202 tells the client to poll again
+        boolean pending = payment.stripePaymentId() == null && payment.stripeResponseMessage() == null;
+
+        return new ResponseEntity<>(payment, pending ? HttpStatus.ACCEPTED : HttpStatus.OK);
+    }
+
     @PatchMapping("{id}")
     public ResponseEntity<OrderDTO> updateOrder(
             @PathVariable("id") UUID id,
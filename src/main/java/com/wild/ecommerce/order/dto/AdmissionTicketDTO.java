@@ -0,0 +1,11 @@
+package com.wild.ecommerce.order.dto;
+
+import com.wild.ecommerce.order.model.AdmissionStatus;
+
+public record AdmissionTicketDTO(
+        String token,
+        AdmissionStatus status,
+        int position,
+        long retryAfterSeconds
+) {
+}
@@ -0,0 +1,19 @@
+package com.wild.ecommerce.order.dto;
+
+import com.wild.ecommerce.order.model.Status;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record OrderExportRow(
+        UUID orderId,
+        LocalDateTime orderDate,
+        Status status,
+        BigDecimal totalAmount,
+        UUID productId,
+        String productName,
+        int quantity,
+        BigDecimal price
+) {
+}
@@ -0,0 +1,10 @@
+package com.wild.ecommerce.order.dto;
+
+import java.util.UUID;
+
+public record OrderShipmentRow(
+        UUID orderId,
+        String carrier,
+        String trackingNumber
+) {
+}
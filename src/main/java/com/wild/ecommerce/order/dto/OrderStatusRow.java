@@ -0,0 +1,11 @@
+package com.wild.ecommerce.order.dto;
+
+import com.wild.ecommerce.order.model.Status;
+
+import java.util.UUID;
+
+public record OrderStatusRow(
+        UUID orderId,
+        Status status
+) {
+}
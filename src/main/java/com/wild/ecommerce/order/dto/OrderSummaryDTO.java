@@ -0,0 +1,23 @@
+package com.wild.ecommerce.order.dto;
+
+import com.wild.ecommerce.order.model.Status;
+import com.wild.ecommerce.payment.model.PaymentMethod;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record OrderSummaryDTO(
+        UUID id,
+        Status status,
+        BigDecimal totalAmount,
+        LocalDateTime orderDate,
+        int itemCount,
+        String itemsPreview,
+        PaymentMethod paymentMethod,
+        String trackingNumber,
+        String carrier,
+        LocalDateTime shippedDate,
+        LocalDateTime deliveredDate
+) {
+}
@@ -0,0 +1,9 @@
+package com.wild.ecommerce.order.dto;
+
+import java.util.UUID;
+
+public record PendingPaymentRow(
+        UUID orderId,
+        String stripePaymentId
+) {
+}
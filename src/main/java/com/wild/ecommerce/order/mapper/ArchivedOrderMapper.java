@@ -0,0 +1,69 @@
+package com.wild.ecommerce.order.mapper;
+
+import com.wild.ecommerce.address.mapper.AddressMapper;
+import com.wild.ecommerce.order.dto.OrderDTO;
+import com.wild.ecommerce.order.dto.OrderItemDTO;
+import com.wild.ecommerce.order.model.ArchivedOrder;
+import com.wild.ecommerce.order.model.ArchivedOrderItem;
+import com.wild.ecommerce.payment.dto.PaymentDTO;
+import com.wild.ecommerce.product.mapper.ProductMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Function;
+
+/**
+ * Maps an archived order to the same {@link OrderDTO} a live order produces, so clients cannot tell them apart.
+ */
+@Component
+@RequiredArgsConstructor
+public class ArchivedOrderMapper implements Function<ArchivedOrder, OrderDTO> {
+
+    private final ProductMapper productMapper;
+    private final AddressMapper addressMapper;
+
+    @Override
+    public OrderDTO apply(ArchivedOrder order) {
+        return new OrderDTO(
+                order.getId(),
+                order.getEmail(),
+                order.getTotalAmount(),
+                order.getStatus(),
+                order.getOrderDate(),
+                order.getOrderItems().stream()
+                        .map(this::toItemDTO)
+                        .toList(),
+                toPaymentDTO(order),
+                order.getAddress() != null
+                        ? addressMapper.apply(order.getAddress())
+                        : null
+        );
+    }
+
+    public PaymentDTO toPaymentDTO(ArchivedOrder order) {
+        if (order.getPaymentId() == null) {
+            return null;
+        }
+
+        return new PaymentDTO(
+                order.getPaymentId(),
+                order.getStripePaymentId(),
+                order.getStripeName(),
+                order.getStripeStatus(),
+                order.getStripeResponseMessage(),
+                order.getPaymentMethod().name()
+        );
+    }
+
+    private OrderItemDTO toItemDTO(ArchivedOrderItem item) {
+        return new OrderItemDTO(
+                item.getId(),
+                item.getQuantity(),
+                item.getPrice(),
+                item.getTotal(),
+                item.getProduct() != null
+                        ? productMapper.apply(item.getProduct())
+                        : null
+        );
+    }
+}
@@ -0,0 +1,28 @@
+package com.wild.ecommerce.order.mapper;
+
+import com.wild.ecommerce.order.dto.OrderSummaryDTO;
+import com.wild.ecommerce.order.model.OrderSummary;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Function;
+
+@Component
+public class OrderSummaryMapper implements Function<OrderSummary, OrderSummaryDTO> {
+
+    @Override
+    public OrderSummaryDTO apply(OrderSummary summary) {
+        return new OrderSummaryDTO(
+                summary.getId(),
+                summary.getStatus(),
+                summary.getTotalAmount(),
+                summary.getOrderDate(),
+                summary.getItemCount(),
+                summary.getItemsPreview(),
+                summary.getPaymentMethod(),
+                summary.getTrackingNumber(),
+                summary.getCarrier(),
+                summary.getShippedDate(),
+                summary.getDeliveredDate()
+        );
+    }
+}
@@ -0,0 +1,7 @@
+package com.wild.ecommerce.order.model;
+
+public enum AdmissionStatus {
+    WAITING,
+    ADMITTED,
+    EXPIRED
+}
@@ -0,0 +1,87 @@
+package com.wild.ecommerce.order.model;
+
+import com.wild.ecommerce.address.model.Address;
+import com.wild.ecommerce.common.model.Auditable;
+import com.wild.ecommerce.payment.model.PaymentMethod;
+import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * An order in a terminal state that was moved out of {@code orders} once it got old, with its payment flattened
+ * into the same row. Rows are only written by the archival queries in
+ * {@link com.wild.ecommerce.order.repository.ArchivedOrderRepository} and never change afterwards.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "orders_archive", indexes = {
+        @Index(name = "idx_orders_archive_email_order_date", columnList = "email, order_date")
+})
+public class ArchivedOrder extends Auditable {
+
+    /**
+     * Same as the original order's ID.
+     */
+    @Id
+    private UUID id;
+
+    @Column(nullable = false)
+    private String email;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Enumerated(EnumType.STRING)
+    private Status status;
+
+    @Column(name = "order_date", nullable = false)
+    private LocalDateTime orderDate;
+    private String trackingNumber;
+    private String carrier;
+    private LocalDateTime shippedDate;
+    private LocalDateTime deliveredDate;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+
+    @Column(name = "address_id", nullable = false)
+    private UUID addressId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "address_id", insertable = false, updatable = false)
+    private Address address;
+
+    private UUID paymentId;
+
+    @Enumerated(EnumType.STRING)
+    private PaymentMethod paymentMethod;
+    private String stripePaymentId;
+    private String stripeName;
+    private String stripeStatus;
+    private String stripeResponseMessage;
+
+    @OneToMany(mappedBy = "order", cascade = CascadeType.REMOVE, fetch = FetchType.LAZY)
+    private List<ArchivedOrderItem> orderItems = new ArrayList<>();
+}
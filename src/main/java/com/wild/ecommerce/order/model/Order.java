@@ -2,6 +2,7 @@ package com.wild.ecommerce.order.model;
 
 import com.wild.ecommerce.address.model.Address;
 import com.wild.ecommerce.common.model.Auditable;
+import com.wild.ecommerce.common.model.TimeOrderedUuid;
 import com.wild.ecommerce.payment.model.Payment;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
@@ -9,9 +10,8 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
@@ -33,11 +33,14 @@ import java.util.UUID;
 @Getter
 @Setter
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_order_date", columnList = "order_date"),
+        @Index(name = "idx_orders_status", columnList = "status")
+})
 public class Order extends Auditable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
 
     @Column(nullable = false)
@@ -49,7 +52,7 @@ public class Order extends Auditable {
     @Enumerated(EnumType.STRING)
     private Status status;
 
-    @Column(nullable = false)
+    @Column(name = "order_date", nullable = false)
     private LocalDateTime orderDate;
     private String trackingNumber;
     private String carrier;
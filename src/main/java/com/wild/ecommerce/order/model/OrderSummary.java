@@ -0,0 +1,73 @@
+package com.wild.ecommerce.order.model;
+
+import com.wild.ecommerce.payment.model.PaymentMethod;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Denormalized copy of an order for the order-history pages, kept in step with {@link Order} on every write so a
+ * page is a single read of this table with no joins or lazy loads.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "order_summaries", indexes = {
+        @Index(name = "idx_order_summaries_email_order_date", columnList = "email, order_date"),
+        @Index(name = "idx_order_summaries_email_id", columnList = "email, id")
+})
+public class OrderSummary {
+
+    /**
+     * Same as the order's ID.
+     */
+    @Id
+    private UUID id;
+
+    @Version
+    private Long version;
+
+    @Column(nullable = false)
+    private String email;
+
+    @Enumerated(EnumType.STRING)
+    private Status status;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(name = "order_date", nullable = false)
+    private LocalDateTime orderDate;
+
+    @Column(nullable = false)
+    private int itemCount;
+
+    /**
+     * The first few product names, enough for a one-line preview.
+     */
+    @Column(length = 255)
+    private String itemsPreview;
+
+    @Enumerated(EnumType.STRING)
+    private PaymentMethod paymentMethod;
+
+    private String trackingNumber;
+    private String carrier;
+    private LocalDateTime shippedDate;
+    private LocalDateTime deliveredDate;
+}
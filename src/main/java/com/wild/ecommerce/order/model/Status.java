@@ -6,5 +6,9 @@ public enum Status {
     SHIPPED,
     DELIVERED,
     FAILED,
-    CANCELLED
+    CANCELLED,
+    /**
+     * Paid, but the stock ran out before the payment was applied, so the order cannot ship and must be refunded.
+     */
+    NEEDS_REFUND
 }
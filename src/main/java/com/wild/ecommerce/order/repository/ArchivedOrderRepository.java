@@ -0,0 +1,58 @@
+package com.wild.ecommerce.order.repository;
+
+import com.wild.ecommerce.common.config.JpaConfig;
+import com.wild.ecommerce.order.dto.OrderExportRow;
+import com.wild.ecommerce.order.model.ArchivedOrder;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, UUID> {
+
+    /**
+     * Copies the given orders and their payments into the archive in one statement. Must run before the originals
+     * are deleted, in the same transaction.
+     */
+    @Modifying
+    @Query("INSERT INTO ArchivedOrder (id, email, totalAmount, status, orderDate, trackingNumber, carrier, " +
+            "shippedDate, deliveredDate, archivedAt, addressId, paymentId, paymentMethod, stripePaymentId, " +
+            "stripeName, stripeStatus, stripeResponseMessage, createdBy, createdAt, updatedBy, updatedAt) " +
+            "SELECT o.id, o.email, o.totalAmount, o.status, o.orderDate, o.trackingNumber, o.carrier, " +
+            "o.shippedDate, o.deliveredDate, LOCAL DATETIME, a.id, p.id, p.paymentMethod, p.stripePaymentId, " +
+            "p.stripeName, p.stripeStatus, p.stripeResponseMessage, o.createdBy, o.createdAt, o.updatedBy, o.updatedAt " +
+            "FROM Order o JOIN o.address a LEFT JOIN o.payment p " +
+            "WHERE o.id IN :ids")
+    int copyOrders(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query("INSERT INTO ArchivedOrderItem (id, quantity, price, productId, orderId) " +
+            "SELECT i.id, i.quantity, i.price, p.id, o.id " +
+            "FROM OrderItem i JOIN i.order o LEFT JOIN i.product p " +
+            "WHERE o.id IN :ids")
+    int copyItems(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT o FROM ArchivedOrder o LEFT JOIN FETCH o.orderItems i LEFT JOIN FETCH i.product WHERE o.id = :id")
+    Optional<ArchivedOrder> findByIdWithItems(@Param("id") UUID id);
+
+    @Query("SELECT new com.wild.ecommerce.order.dto.OrderExportRow(" +
+            "o.id, o.orderDate, o.status, o.totalAmount, p.id, p.name, i.quantity, i.price) " +
+            "FROM ArchivedOrderItem i JOIN i.order o LEFT JOIN i.product p " +
+            "WHERE o.email = :email " +
+            "ORDER BY o.orderDate, o.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = JpaConfig.STREAMING_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<OrderExportRow> streamExportRowsByEmail(@Param("email") String email);
+}
@@ -1,21 +1,109 @@
 package com.wild.ecommerce.order.repository;
 
+import com.wild.ecommerce.common.config.JpaConfig;
+import com.wild.ecommerce.order.dto.OrderExportRow;
+import com.wild.ecommerce.order.dto.OrderStatusRow;
+import com.wild.ecommerce.order.dto.PendingPaymentRow;
 import com.wild.ecommerce.order.model.Order;
+import com.wild.ecommerce.order.model.Status;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, UUID> {
 
     Page<Order> findByEmail(Pageable pageable, String email);
 
+    Window<Order> findByEmail(String email, ScrollPosition position, Sort sort, Limit limit);
+
     @Query("SELECT o FROM Order o LEFT JOIN FETCH o.orderItems WHERE o.id = :id")
     Optional<Order> findByIdWithItems(@Param("id") UUID id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id = :id")
+    Optional<Order> findByIdForUpdate(@Param("id") UUID id);
+
+    @Query("SELECT o.id FROM Order o " +
+            "WHERE NOT EXISTS (SELECT 1 FROM OrderSummary s WHERE s.id = o.id) " +
+            "ORDER BY o.id")
+    List<UUID> findIdsWithoutSummary(Limit limit);
+
+    @Query("SELECT DISTINCT o FROM Order o " +
+            "LEFT JOIN FETCH o.orderItems i LEFT JOIN FETCH i.product LEFT JOIN FETCH o.payment " +
+            "WHERE o.id IN :ids")
+    List<Order> findAllWithItemsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT o.id FROM Order o WHERE o.status IN :statuses AND o.orderDate < :cutoff ORDER BY o.orderDate")
+    List<UUID> findArchivableIds(
+            @Param("statuses") Collection<Status> statuses,
+            @Param("cutoff") LocalDateTime cutoff,
+            Limit limit
+    );
+
+    /**
+     * The next page of pending orders placed before {@code cutoff} that have a Stripe payment intent, keyed by order ID
+     * so each page starts where the last one ended.
+     */
+    @Query("SELECT new com.wild.ecommerce.order.dto.PendingPaymentRow(o.id, p.stripePaymentId) " +
+            "FROM Order o JOIN o.payment p " +
+            "WHERE o.status = com.wild.ecommerce.order.model.Status.PENDING " +
+            "AND o.id > :after AND o.orderDate < :cutoff AND p.stripePaymentId IS NOT NULL " +
+            "ORDER BY o.id")
+    List<PendingPaymentRow> findPendingPaymentsAfter(
+            @Param("after") UUID after,
+            @Param("cutoff") LocalDateTime cutoff,
+            Limit limit
+    );
+
+    @Query("SELECT new com.wild.ecommerce.order.dto.OrderStatusRow(o.id, o.status) FROM Order o WHERE o.id IN :ids")
+    List<OrderStatusRow> findStatusesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Moves the given orders from {@code SHIPPED} to {@code DELIVERED} in one statement; orders in any other status
+     * are skipped.
+     */
+    @Modifying
+    @Query("UPDATE Order o SET o.status = com.wild.ecommerce.order.model.Status.DELIVERED, " +
+            "o.deliveredDate = :deliveredDate " +
+            "WHERE o.id IN :ids AND o.status = com.wild.ecommerce.order.model.Status.SHIPPED")
+    int markDelivered(@Param("ids") Collection<UUID> ids, @Param("deliveredDate") LocalDateTime deliveredDate);
+
+    @Query("SELECT p.id FROM Order o JOIN o.payment p WHERE o.id IN :ids")
+    List<UUID> findPaymentIdsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query("DELETE FROM OrderItem i WHERE i.order.id IN :ids")
+    int deleteItemsByOrderIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT new com.wild.ecommerce.order.dto.OrderExportRow(" +
+            "o.id, o.orderDate, o.status, o.totalAmount, p.id, p.name, i.quantity, i.price) " +
+            "FROM OrderItem i JOIN i.order o LEFT JOIN i.product p " +
+            "WHERE o.email = :email " +
+            "ORDER BY o.orderDate, o.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = JpaConfig.STREAMING_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<OrderExportRow> streamExportRowsByEmail(@Param("email") String email);
 }
@@ -0,0 +1,74 @@
+package com.wild.ecommerce.order.repository;
+
+import com.wild.ecommerce.order.dto.OrderShipmentRow;
+import com.wild.ecommerce.order.model.Status;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Marks orders shipped with one JDBC batch per call. Each order gets its own carrier and tracking number, which a
+ * single JPQL update cannot express; with {@code rewriteBatchedStatements} the batch still costs one round trip.
+ *
+ * <p>Runs in the caller's transaction and bypasses the persistence context, so callers must not hold the same orders
+ * as loaded entities.</p>
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderShipmentBatchRepository {
+
+    private static final String SHIP_ORDER = "UPDATE orders "
+            + "SET status = ?, carrier = ?, tracking_number = ?, shipped_date = ? "
+            + "WHERE id = ? AND status = ?";
+
+    private static final String SHIP_SUMMARY = "UPDATE order_summaries "
+            + "SET status = ?, carrier = ?, tracking_number = ?, shipped_date = ?, version = version + 1 "
+            + "WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Moves confirmed orders to {@code SHIPPED} and returns the update count per order, in the order given. An order
+     * that is no longer confirmed is left alone and gets a count of 0.
+     */
+    public int[] markShipped(List<OrderShipmentRow> shipments, LocalDateTime shippedDate) {
+        return jdbcTemplate.batchUpdate(SHIP_ORDER, shipments.stream()
+                .map(shipment -> new Object[]{
+                        Status.SHIPPED.name(),
+                        shipment.carrier(),
+                        shipment.trackingNumber(),
+                        shippedDate,
+                        toBytes(shipment.orderId()),
+                        Status.CONFIRMED.name()
+                })
+                .toList());
+    }
+
+    /**
+     * Copies the shipment onto the order summaries. Orders without a summary are left to the summary backfill.
+     */
+    public void markSummariesShipped(List<OrderShipmentRow> shipments, LocalDateTime shippedDate) {
+        jdbcTemplate.batchUpdate(SHIP_SUMMARY, shipments.stream()
+                .map(shipment -> new Object[]{
+                        Status.SHIPPED.name(),
+                        shipment.carrier(),
+                        shipment.trackingNumber(),
+                        shippedDate,
+                        toBytes(shipment.orderId())
+                })
+                .toList());
+    }
+
+    // The BINARY(16) layout Hibernate stores UUIDs in
+    private static byte[] toBytes(UUID id) {
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+}
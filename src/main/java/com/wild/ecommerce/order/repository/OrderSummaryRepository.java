@@ -0,0 +1,50 @@
+package com.wild.ecommerce.order.repository;
+
+import com.wild.ecommerce.order.model.OrderSummary;
+import com.wild.ecommerce.order.model.Status;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.UUID;
+
+@Repository
+public interface OrderSummaryRepository extends JpaRepository<OrderSummary, UUID> {
+
+    Page<OrderSummary> findByEmail(String email, Pageable pageable);
+
+    Window<OrderSummary> findByEmail(String email, ScrollPosition position, Sort sort, Limit limit);
+
+    /**
+     * Copies an order's status and shipping fields without reading the summary first.
+     */
+    @Modifying
+    @Query("UPDATE OrderSummary s SET s.status = :status, s.trackingNumber = :trackingNumber, " +
+            "s.carrier = :carrier, s.shippedDate = :shippedDate, s.deliveredDate = :deliveredDate, " +
+            "s.version = s.version + 1 " +
+            "WHERE s.id = :id")
+    int updateStatus(
+            @Param("id") UUID id,
+            @Param("status") Status status,
+            @Param("trackingNumber") String trackingNumber,
+            @Param("carrier") String carrier,
+            @Param("shippedDate") LocalDateTime shippedDate,
+            @Param("deliveredDate") LocalDateTime deliveredDate
+    );
+
+    @Modifying
+    @Query("UPDATE OrderSummary s SET s.status = com.wild.ecommerce.order.model.Status.DELIVERED, " +
+            "s.deliveredDate = :deliveredDate, s.version = s.version + 1 " +
+            "WHERE s.id IN :ids")
+    int markDelivered(@Param("ids") Collection<UUID> ids, @Param("deliveredDate") LocalDateTime deliveredDate);
+}
@@ -0,0 +1,15 @@
+package com.wild.ecommerce.order.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Moves old orders in terminal states from {@code orders} and {@code order_items} to their archive tables.
+ */
+public interface OrderArchiveService {
+
+    /**
+     * Archives up to {@code batchSize} delivered, cancelled or failed orders placed before {@code cutoff}, oldest
+     * first, and returns how many were moved.
+     */
+    int archive(LocalDateTime cutoff, int batchSize);
+}
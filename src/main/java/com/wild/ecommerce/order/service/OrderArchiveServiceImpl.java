@@ -0,0 +1,53 @@
+package com.wild.ecommerce.order.service;
+
+import com.wild.ecommerce.order.model.Status;
+import com.wild.ecommerce.order.repository.ArchivedOrderRepository;
+import com.wild.ecommerce.order.repository.OrderRepository;
+import com.wild.ecommerce.payment.repository.PaymentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderArchiveServiceImpl implements OrderArchiveService {
+
+    private static final Set<Status> TERMINAL_STATUSES = EnumSet.of(Status.DELIVERED, Status.CANCELLED, Status.FAILED);
+
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final PaymentRepository paymentRepository;
+
+    @Override
+    @Transactional
+    public int archive(LocalDateTime cutoff, int batchSize) {
+        List<UUID> ids = orderRepository.findArchivableIds(TERMINAL_STATUSES, cutoff, Limit.of(batchSize));
+
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        List<UUID> paymentIds = orderRepository.findPaymentIdsByIdIn(ids);
+
+        // Set-based copies and deletes; nothing is loaded into the persistence context
+        int archived = archivedOrderRepository.copyOrders(ids);
+        int items = archivedOrderRepository.copyItems(ids);
+
+        orderRepository.deleteItemsByOrderIdIn(ids);
+        orderRepository.deleteAllByIdInBatch(ids);
+        paymentRepository.deleteAllByIdInBatch(paymentIds);
+
+        log.info("Archived {} orders with {} items placed before {}", archived, items, cutoff);
+
+        return archived;
+    }
+}
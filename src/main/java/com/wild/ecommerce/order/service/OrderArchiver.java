@@ -0,0 +1,77 @@
+package com.wild.ecommerce.order.service;
+
+import com.wild.ecommerce.common.lease.CheckpointLease;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Periodically moves cold orders to the archive tables, one batch per transaction so row locks stay short.
+ *
+ * <p>Only the node holding the {@value #CHECKPOINT} lease archives, so two nodes never copy the same batch. The
+ * lease is renewed after every batch and released at the end of the run.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderArchiver {
+
+    static final String CHECKPOINT = "order-archive";
+
+    private final OrderArchiveService orderArchiveService;
+    private final CheckpointLease checkpointLease;
+    private final String owner = UUID.randomUUID().toString();
+
+    @Value("${order.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${order.archive.min-age:365d}")
+    private Duration minAge;
+
+    @Value("${order.archive.batch-size:500}")
+    private int batchSize;
+
+    @Value("${order.archive.lease:5m}")
+    private Duration lease;
+
+    @Scheduled(cron = "${order.archive.cron:0 30 3 * * *}")
+    public void archive() {
+        if (!enabled) {
+            return;
+        }
+
+        if (!checkpointLease.acquire(CHECKPOINT, owner, lease)) {
+            log.debug("Order archival is running on another node");
+            return;
+        }
+
+        LocalDateTime cutoff = LocalDateTime.now().minus(minAge);
+        long start = System.currentTimeMillis();
+        int total = 0;
+        int archived;
+
+        try {
+            do {
+                archived = orderArchiveService.archive(cutoff, batchSize);
+                total += archived;
+
+                if (!checkpointLease.renew(CHECKPOINT, owner, lease)) {
+                    log.warn("Lost the order archival lease after {} orders", total);
+                    return;
+                }
+            } while (archived == batchSize);
+        } finally {
+            checkpointLease.release(CHECKPOINT, owner);
+        }
+
+        if (total > 0) {
+            log.info("Archived {} orders placed before {} in {} ms", total, cutoff, System.currentTimeMillis() - start);
+        }
+    }
+}
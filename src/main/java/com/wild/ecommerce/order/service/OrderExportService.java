@@ -0,0 +1,10 @@
+package com.wild.ecommerce.order.service;
+
+import com.wild.ecommerce.common.model.DataFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface OrderExportService {
+    void exportOrders(String userEmail, DataFormat format, OutputStream out) throws IOException;
+}
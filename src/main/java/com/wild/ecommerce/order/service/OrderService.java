@@ -1,10 +1,14 @@
 package com.wild.ecommerce.order.service;
 
+import com.wild.ecommerce.common.dto.CursorPageResponse;
 import com.wild.ecommerce.common.dto.PageResponse;
 import com.wild.ecommerce.order.dto.CreateOrderRequest;
 import com.wild.ecommerce.order.dto.OrderDTO;
+import com.wild.ecommerce.order.dto.OrderSummaryDTO;
 import com.wild.ecommerce.order.dto.UpdateOrderRequest;
+import com.wild.ecommerce.payment.dto.PaymentDTO;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import java.util.UUID;
 
@@ -12,10 +16,17 @@ public interface OrderService {
 
     OrderDTO placeOrder(CreateOrderRequest request, String userEmail);
 
-    PageResponse<OrderDTO> getAllOrders(Pageable pageable, String userEmail);
+    PageResponse<OrderSummaryDTO> getAllOrders(Pageable pageable, String userEmail);
+
+    CursorPageResponse<OrderSummaryDTO> scrollOrders(int pageSize, Sort sort, String cursor, String userEmail);
 
     OrderDTO getOrderById(UUID id, String userEmail);
 
+    /**
+     * Returns the order's payment; its Stripe fields stay empty until the PaymentIntent has been created.
+     */
+    PaymentDTO getPayment(UUID orderId, String userEmail);
+
     OrderDTO updateOrder(UUID id, UpdateOrderRequest request, String userEmail);
 
     void deleteOrder(UUID id, String userEmail);
@@ -1,44 +1,63 @@
 package com.wild.ecommerce.order.service;
 
-import com.stripe.exception.StripeException;
-import com.stripe.model.PaymentIntent;
-import com.wild.ecommerce.address.mapper.AddressMapper;
 import com.wild.ecommerce.address.model.Address;
 import com.wild.ecommerce.address.repository.AddressRepository;
 import com.wild.ecommerce.cart.model.Cart;
 import com.wild.ecommerce.cart.model.CartItem;
 import com.wild.ecommerce.cart.repository.CartRepository;
+import com.wild.ecommerce.common.dto.CursorPageResponse;
 import com.wild.ecommerce.common.dto.PageResponse;
-import com.wild.ecommerce.common.exception.PaymentProcessingException;
+import com.wild.ecommerce.common.exception.InvalidSortException;
 import com.wild.ecommerce.common.exception.ResourceNotFoundException;
+import com.wild.ecommerce.common.util.KeysetCursor;
+import com.wild.ecommerce.common.util.TransactionUtil;
+import com.wild.ecommerce.inventory.service.InventoryService;
 import com.wild.ecommerce.order.dto.CreateOrderRequest;
 import com.wild.ecommerce.order.dto.OrderDTO;
+import com.wild.ecommerce.order.dto.OrderSummaryDTO;
 import com.wild.ecommerce.order.dto.UpdateOrderRequest;
+import com.wild.ecommerce.order.mapper.ArchivedOrderMapper;
 import com.wild.ecommerce.order.mapper.OrderMapper;
+import com.wild.ecommerce.order.mapper.OrderSummaryMapper;
+import com.wild.ecommerce.order.model.ArchivedOrder;
 import com.wild.ecommerce.order.model.Order;
 import com.wild.ecommerce.order.model.OrderItem;
+import com.wild.ecommerce.order.model.OrderSummary;
 import com.wild.ecommerce.order.model.Status;
+import com.wild.ecommerce.order.repository.ArchivedOrderRepository;
 import com.wild.ecommerce.order.repository.OrderRepository;
-import com.wild.ecommerce.payment.dto.StripePaymentDTO;
+import com.wild.ecommerce.order.repository.OrderSummaryRepository;
+import com.wild.ecommerce.payment.dto.PaymentDTO;
+import com.wild.ecommerce.payment.mapper.PaymentMapper;
 import com.wild.ecommerce.payment.model.Payment;
-import com.wild.ecommerce.payment.service.StripeService;
+import com.wild.ecommerce.payment.service.PaymentOutboxDispatcher;
+import com.wild.ecommerce.payment.service.PaymentOutboxService;
 import com.wild.ecommerce.product.model.Product;
-import com.wild.ecommerce.product.repository.ProductRepository;
+import com.wild.ecommerce.product.service.ProductStockService;
 import com.wild.ecommerce.user.model.User;
 import com.wild.ecommerce.user.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @RequiredArgsConstructor
@@ -47,16 +66,42 @@ public class OrderServiceImpl implements OrderService {
 
     private final OrderRepository orderRepository;
     private final OrderMapper orderMapper;
-    private final ProductRepository productRepository;
+    private final OrderSummaryRepository orderSummaryRepository;
+    private final OrderSummaryMapper orderSummaryMapper;
+    private final OrderSummaryService orderSummaryService;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final ArchivedOrderMapper archivedOrderMapper;
+    private final ProductStockService productStockService;
+    private final InventoryService inventoryService;
     private final CartRepository cartRepository;
     private final UserRepository userRepository;
     private final AddressRepository addressRepository;
-    private final AddressMapper addressMapper;
-    private final StripeService stripeService;
-
+    private final PaymentMapper paymentMapper;
+    private final PaymentOutboxService paymentOutboxService;
+    private final PaymentOutboxDispatcher paymentOutboxDispatcher;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Order summary properties the history pages can be sorted by.
+     */
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of(
+            "id", "orderDate", "status", "totalAmount", "itemCount", "shippedDate", "deliveredDate"
+    );
+
+    /**
+     * Writes the order, its stock holds and a payment outbox record in one short transaction. Stripe is only
+     * called once that has committed, so no database connection is held across remote calls; clients poll
+     * {@link #getPayment(UUID, String)} for the PaymentIntent.
+     */
     @Override
-    @Transactional
+    @Transactional(timeoutString = "${order.checkout.transaction-timeout:5}")
     public OrderDTO placeOrder(CreateOrderRequest request, String userEmail) {
+        long started = System.nanoTime();
+        TransactionUtil.afterCompletion(() -> Timer.builder("checkout.transaction")
+                .description("Time a checkout holds its database transaction")
+                .register(meterRegistry)
+                .record(System.nanoTime() - started, TimeUnit.NANOSECONDS));
+
         User user = userRepository.findByEmailIgnoreCase(userEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("User with email: '" + userEmail + "' not found"));
 
@@ -81,24 +126,19 @@ public class OrderServiceImpl implements OrderService {
         order.setAddress(address);
 
         List<OrderItem> orderItems = new ArrayList<>();
+        Map<UUID, Integer> quantities = new HashMap<>();
         BigDecimal totalAmount = BigDecimal.ZERO;
 
         for (CartItem cartItem : cart.getItems()) {
             Product product = cartItem.getProduct();
 
-            if (product.getStock() < cartItem.getQuantity()) {
-                throw new IllegalStateException("Not enough stock for product '" + product.getName() + "'");
-            }
-
             OrderItem orderItem = new OrderItem();
             orderItem.setProduct(product);
             orderItem.setQuantity(cartItem.getQuantity());
             orderItem.setPrice(product.getPrice());
             orderItem.setOrder(order);
             orderItems.add(orderItem);
-
-            product.setStock(product.getStock() - cartItem.getQuantity());
-            productRepository.save(product);
+            quantities.merge(product.getId(), cartItem.getQuantity(), Integer::sum);
 
             totalAmount = totalAmount.add(orderItem.getTotal());
         }
@@ -106,59 +146,92 @@ public class OrderServiceImpl implements OrderService {
         order.setOrderItems(orderItems);
         order.setTotalAmount(totalAmount);
 
+        Payment payment = new Payment();
+        payment.setPaymentMethod(request.paymentMethod());
+        payment.setOrder(order);
+        order.setPayment(payment);
+
         Order savedOrder = orderRepository.save(order);
+        orderSummaryService.record(savedOrder);
 
-        log.info("Created order with ID: {} for user {}", savedOrder.getId(), userEmail);
+        // Stock is only held until the payment settles; the Stripe webhook commits or releases it
+        inventoryService.reserve(savedOrder.getId(), quantities);
 
-        try {
-            StripePaymentDTO paymentDTO = new StripePaymentDTO(
-                    totalAmount.multiply(BigDecimal.valueOf(100)).longValue(),
-                    "usd",
-                    user.getFirstName(),
-                    userEmail,
-                    "Order payment for order #" + savedOrder.getId(),
-                    addressMapper.apply(address),
-                    Map.of("orderId", String.valueOf(savedOrder.getId()))
-            );
+        UUID outboxId = paymentOutboxService.enqueue(savedOrder.getId());
+        TransactionUtil.afterCommit(() -> paymentOutboxDispatcher.dispatch(outboxId));
 
-            PaymentIntent paymentIntent = stripeService.paymentIntent(paymentDTO);
+        cart.clearItems();
+        cartRepository.save(cart);
 
-            Payment payment = new Payment();
-            payment.setPaymentMethod(request.paymentMethod());
-            payment.setStripePaymentId(paymentIntent.getId());
-            payment.setOrder(savedOrder);
+        log.info("Created order with ID: {} for user {}", savedOrder.getId(), userEmail);
 
-            savedOrder.setPayment(payment);
-            savedOrder = orderRepository.save(savedOrder);
+        return orderMapper.apply(savedOrder);
+    }
 
-            cart.clearItems();
-            cartRepository.save(cart);
+    @Override
+    @Transactional(readOnly = true)
+    public PaymentDTO getPayment(UUID orderId, String userEmail) {
+        Order order = orderRepository.findById(orderId).orElse(null);
 
-            log.info("Stripe PaymentIntent created successfully for order {}", savedOrder.getId());
+        if (order == null) {
+            ArchivedOrder archivedOrder = findArchivedOrder(orderId, userEmail);
+            PaymentDTO payment = archivedOrderMapper.toPaymentDTO(archivedOrder);
 
-            return orderMapper.apply(savedOrder);
+            if (payment == null) {
+                throw new ResourceNotFoundException("Payment for order with ID '" + orderId + "' not found");
+            }
 
-        } catch (StripeException e) {
-            log.error("Stripe PaymentIntent creation failed for order {}", savedOrder.getId(), e);
-            throw new PaymentProcessingException("Failed to create Stripe PaymentIntent");
+            return payment;
         }
+
+        if (!order.getEmail().equals(userEmail)) {
+            throw new IllegalStateException("Order does not belong to the user");
+        }
+
+        if (order.getPayment() == null) {
+            throw new ResourceNotFoundException("Payment for order with ID '" + orderId + "' not found");
+        }
+
+        return paymentMapper.apply(order.getPayment());
     }
 
     @Override
     @Transactional(readOnly = true)
-    public PageResponse<OrderDTO> getAllOrders(Pageable pageable, String userEmail) {
-        Page<Order> orderPage = orderRepository.findByEmail(pageable, userEmail);
+    public PageResponse<OrderSummaryDTO> getAllOrders(Pageable pageable, String userEmail) {
+        checkSortable(pageable.getSort());
+
+        // Served from the read model: one indexed query per page instead of walking each order's associations
+        Page<OrderSummary> summaryPage = orderSummaryRepository.findByEmail(userEmail, pageable);
 
-        Page<OrderDTO> orderDTOPage = orderPage.map(orderMapper);
+        Page<OrderSummaryDTO> summaryDTOPage = summaryPage.map(orderSummaryMapper);
 
-        return new PageResponse<>(orderDTOPage);
+        return new PageResponse<>(summaryDTOPage);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<OrderSummaryDTO> scrollOrders(int pageSize, Sort sort, String cursor, String userEmail) {
+        checkSortable(sort);
+
+        Sort keysetSort = KeysetCursor.withIdTieBreaker(sort);
+        KeysetScrollPosition position = KeysetCursor.decode(cursor, keysetSort, OrderSummary.class);
+
+        Window<OrderSummary> window = orderSummaryRepository.findByEmail(
+                userEmail, position, keysetSort, Limit.of(pageSize)
+        );
+
+        return CursorPageResponse.from(window.map(orderSummaryMapper));
     }
 
     @Override
     @Transactional(readOnly = true)
     public OrderDTO getOrderById(UUID id, String userEmail) {
-        Order order = orderRepository.findByIdWithItems(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Order with ID '" + id + "' not found"));
+        Order order = orderRepository.findByIdWithItems(id).orElse(null);
+
+        // Only misses on the live table reach the archive, so recent orders never pay for it
+        if (order == null) {
+            return archivedOrderMapper.apply(findArchivedOrder(id, userEmail));
+        }
 
         if (!order.getEmail().equals(userEmail)) {
             throw new IllegalStateException("Order does not belong to the user");
@@ -170,8 +243,7 @@ public class OrderServiceImpl implements OrderService {
     @Override
     @Transactional
     public OrderDTO updateOrder(UUID id, UpdateOrderRequest request, String userEmail) {
-        Order order = orderRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Order with ID '" + id + "' not found"));
+        Order order = findLiveOrder(id);
 
         if (!order.getEmail().equals(userEmail)) {
             throw new IllegalStateException("Order does not belong to the user");
@@ -193,6 +265,7 @@ public class OrderServiceImpl implements OrderService {
         }
 
         Order updatedOrder = orderRepository.save(order);
+        orderSummaryService.updateStatus(updatedOrder);
 
         return orderMapper.apply(updatedOrder);
     }
@@ -200,8 +273,7 @@ public class OrderServiceImpl implements OrderService {
     @Override
     @Transactional
     public void deleteOrder(UUID id, String userEmail) {
-        Order order = orderRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Order with ID '" + id + "' not found"));
+        Order order = findLiveOrder(id);
 
         if (!order.getEmail().equals(userEmail)) {
             throw new IllegalStateException("Order does not belong to the user");
@@ -211,13 +283,46 @@ public class OrderServiceImpl implements OrderService {
             throw new IllegalStateException("Only pending or cancelled orders can be deleted");
         }
 
-        for (OrderItem orderItem : order.getOrderItems()) {
-            Product product = orderItem.getProduct();
-            product.setStock(product.getStock() + orderItem.getQuantity());
+        if (inventoryService.hasReservations(order.getId())) {
+            // A cancelled order may have been paid first, in which case its holds are already committed
+            inventoryService.returnStock(order.getId());
+        } else {
+            // Orders placed before reservations existed took their stock outright
+            Map<UUID, Integer> quantities = new HashMap<>();
+
+            for (OrderItem orderItem : order.getOrderItems()) {
+                quantities.merge(orderItem.getProduct().getId(), orderItem.getQuantity(), Integer::sum);
+            }
 
-            productRepository.save(product);
+            productStockService.incrementStock(quantities);
         }
 
         orderRepository.delete(order);
+        orderSummaryService.delete(order.getId());
+    }
+
+    private ArchivedOrder findArchivedOrder(UUID id, String userEmail) {
+        ArchivedOrder order = archivedOrderRepository.findByIdWithItems(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Order with ID '" + id + "' not found"));
+
+        if (!order.getEmail().equals(userEmail)) {
+            throw new IllegalStateException("Order does not belong to the user");
+        }
+
+        return order;
+    }
+
+    private static void checkSortable(Sort sort) {
+        for (Sort.Order order : sort) {
+            if (!SORTABLE_PROPERTIES.contains(order.getProperty())) {
+                throw new InvalidSortException("Orders cannot be sorted by '" + order.getProperty() + "'");
+            }
+        }
+    }
+
+    private Order findLiveOrder(UUID id) {
+        return orderRepository.findById(id).orElseThrow(() -> archivedOrderRepository.existsById(id)
+                ? new IllegalStateException("Archived orders cannot be changed")
+                : new ResourceNotFoundException("Order with ID '" + id + "' not found"));
     }
 }
@@ -0,0 +1,59 @@
+package com.wild.ecommerce.order.service;
+
+import com.wild.ecommerce.common.lease.CheckpointLease;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Fills {@code order_summaries} for orders placed before the read model existed, one small batch per run so it
+ * never competes with checkout for long. Stops polling once a run finds nothing left to do.
+ *
+ * <p>Each run holds the {@value #CHECKPOINT} lease, so nodes take turns instead of inserting the same summaries.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderSummaryBackfill {
+
+    static final String CHECKPOINT = "order-summary-backfill";
+
+    private final OrderSummaryService orderSummaryService;
+    private final CheckpointLease checkpointLease;
+    private final String owner = UUID.randomUUID().toString();
+
+    @Value("${order.summary.backfill.enabled:true}")
+    private boolean enabled;
+
+    @Value("${order.summary.backfill.batch-size:500}")
+    private int batchSize;
+
+    @Value("${order.summary.backfill.lease:1m}")
+    private Duration lease;
+
+    private volatile boolean done;
+
+    @Scheduled(
+            initialDelayString = "${order.summary.backfill.initial-delay:30s}",
+            fixedDelayString = "${order.summary.backfill.interval:5s}"
+    )
+    public void backfill() {
+        if (!enabled || done || !checkpointLease.acquire(CHECKPOINT, owner, lease)) {
+            return;
+        }
+
+        try {
+            if (orderSummaryService.backfill(batchSize) == 0) {
+                done = true;
+                log.info("Order summary backfill complete");
+            }
+        } finally {
+            checkpointLease.release(CHECKPOINT, owner);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.wild.ecommerce.order.service;
+
+import com.wild.ecommerce.order.model.Order;
+
+import java.util.UUID;
+
+/**
+ * Keeps the {@code order_summaries} read model in step with orders.
+ */
+public interface OrderSummaryService {
+
+    /**
+     * Writes the summary of a newly placed order.
+     */
+    void record(Order order);
+
+    /**
+     * Copies the order's status and shipping fields after a transition, writing the full summary if it is missing.
+     */
+    void updateStatus(Order order);
+
+    void delete(UUID orderId);
+
+    /**
+     * Writes summaries for up to {@code batchSize} orders that have none and returns how many were written.
+     */
+    int backfill(int batchSize);
+}
@@ -0,0 +1,116 @@
+package com.wild.ecommerce.order.service;
+
+import com.wild.ecommerce.order.model.Order;
+import com.wild.ecommerce.order.model.OrderItem;
+import com.wild.ecommerce.order.model.OrderSummary;
+import com.wild.ecommerce.order.repository.OrderRepository;
+import com.wild.ecommerce.order.repository.OrderSummaryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderSummaryServiceImpl implements OrderSummaryService {
+
+    private static final int PREVIEW_ITEMS = 3;
+    private static final int PREVIEW_MAX_LENGTH = 255;
+
+    private final OrderSummaryRepository orderSummaryRepository;
+    private final OrderRepository orderRepository;
+
+    @Override
+    @Transactional
+    public void record(Order order) {
+        orderSummaryRepository.save(toSummary(order));
+    }
+
+    @Override
+    @Transactional
+    public void updateStatus(Order order) {
+        int updated = orderSummaryRepository.updateStatus(
+                order.getId(),
+                order.getStatus(),
+                order.getTrackingNumber(),
+                order.getCarrier(),
+                order.getShippedDate(),
+                order.getDeliveredDate()
+        );
+
+        // Orders placed before the read model existed get their summary on the first transition
+        if (updated == 0) {
+            orderSummaryRepository.save(toSummary(order));
+        }
+    }
+
+    @Override
+    @Transactional
+    public void delete(UUID orderId) {
+        orderSummaryRepository.deleteById(orderId);
+    }
+
+    @Override
+    @Transactional
+    public int backfill(int batchSize) {
+        List<UUID> ids = orderRepository.findIdsWithoutSummary(Limit.of(batchSize));
+
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        List<OrderSummary> summaries = orderRepository.findAllWithItemsByIdIn(ids).stream()
+                .map(this::toSummary)
+                .toList();
+        orderSummaryRepository.saveAll(summaries);
+
+        log.info("Backfilled {} order summaries", summaries.size());
+
+        return summaries.size();
+    }
+
+    private OrderSummary toSummary(Order order) {
+        List<OrderItem> items = order.getOrderItems() != null ? order.getOrderItems() : List.of();
+
+        OrderSummary summary = new OrderSummary();
+        summary.setId(order.getId());
+        summary.setEmail(order.getEmail());
+        summary.setStatus(order.getStatus());
+        summary.setTotalAmount(order.getTotalAmount());
+        summary.setOrderDate(order.getOrderDate());
+        summary.setItemCount(items.stream().mapToInt(OrderItem::getQuantity).sum());
+        summary.setItemsPreview(preview(items));
+        summary.setPaymentMethod(order.getPayment() != null ? order.getPayment().getPaymentMethod() : null);
+        summary.setTrackingNumber(order.getTrackingNumber());
+        summary.setCarrier(order.getCarrier());
+        summary.setShippedDate(order.getShippedDate());
+        summary.setDeliveredDate(order.getDeliveredDate());
+
+        return summary;
+    }
+
+    private static String preview(List<OrderItem> items) {
+        Set<String> names = new LinkedHashSet<>();
+
+        items.stream()
+                .map(OrderItem::getProduct)
+                .filter(Objects::nonNull)
+                .forEach(product -> names.add(product.getName()));
+
+        String preview = String.join(", ", names.stream().limit(PREVIEW_ITEMS).toList());
+
+        if (names.size() > PREVIEW_ITEMS) {
+            preview += " and " + (names.size() - PREVIEW_ITEMS) + " more";
+        }
+
+        return preview.length() > PREVIEW_MAX_LENGTH ? preview.substring(0, PREVIEW_MAX_LENGTH) : preview;
+    }
+}
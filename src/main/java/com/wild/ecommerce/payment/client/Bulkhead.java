@@ -0,0 +1,39 @@
+package com.wild.ecommerce.payment.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps how many calls to one dependency run at once. A caller waits at most {@code maxWait} for a slot, so a slow
+ * dependency costs a bounded number of threads instead of all of them.
+ */
+public class Bulkhead {
+
+    private final Semaphore permits;
+    private final Duration maxWait;
+
+    public Bulkhead(String name, int maxConcurrent, Duration maxWait, MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(maxConcurrent);
+        this.maxWait = maxWait;
+
+        Gauge.builder("bulkhead.available", permits, Semaphore::availablePermits)
+                .description("Free call slots")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes a slot, waiting up to the configured time. A caller that gets {@code true} must {@link #release()} it.
+     */
+    public boolean tryAcquire() throws InterruptedException {
+        return permits.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    public void release() {
+        permits.release();
+    }
+}
@@ -0,0 +1,181 @@
+package com.wild.ecommerce.payment.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+
+/**
+ * Count-based circuit breaker over the last {@code windowSize} calls.
+ *
+ * <p>Once at least {@code minimumCalls} were recorded and the failure rate reaches the threshold, the breaker opens
+ * and rejects calls for {@code openDuration}. After that it lets {@code halfOpenCalls} trial calls through: if all of
+ * them succeed it closes with an empty window, and the first failure opens it again.</p>
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        HALF_OPEN,
+        OPEN
+    }
+
+    private final String name;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final Duration openDuration;
+    private final int halfOpenCalls;
+    private final Clock clock;
+    private final MeterRegistry meterRegistry;
+
+    // Ring buffer of outcomes, true for a failure
+    private final boolean[] window;
+    private int recorded;
+    private int next;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private Instant openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    public CircuitBreaker(
+            String name,
+            int windowSize,
+            int minimumCalls,
+            double failureRateThreshold,
+            Duration openDuration,
+            int halfOpenCalls,
+            Clock clock,
+            MeterRegistry meterRegistry
+    ) {
+        this.name = name;
+        this.window = new boolean[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDuration = openDuration;
+        this.halfOpenCalls = halfOpenCalls;
+        this.clock = clock;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("circuit.breaker.state", this, breaker -> breaker.state().ordinal())
+                .description("0 closed, 1 half open, 2 open")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns whether a call may go ahead. Every permitted call must be followed by {@link #onSuccess()},
+     * {@link #onFailure()} or, when it was not made after all, {@link #releasePermission()}.
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (clock.instant().isBefore(openedAt.plus(openDuration))) {
+                return false;
+            }
+
+            halfOpenPermits = halfOpenCalls;
+            halfOpenSuccesses = 0;
+            transition(State.HALF_OPEN);
+        }
+
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits == 0) {
+                return false;
+            }
+
+            halfOpenPermits--;
+        }
+
+        return true;
+    }
+
+    public synchronized void releasePermission() {
+        if (state == State.HALF_OPEN) {
+            halfOpenPermits++;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        switch (state) {
+            case CLOSED -> record(false);
+            case HALF_OPEN -> {
+                if (++halfOpenSuccesses >= halfOpenCalls) {
+                    clearWindow();
+                    transition(State.CLOSED);
+                }
+            }
+            // A call let through before the breaker opened; it says nothing about the trial calls
+            case OPEN -> {
+            }
+        }
+    }
+
+    public synchronized void onFailure() {
+        switch (state) {
+            case CLOSED -> {
+                record(true);
+
+                if (recorded >= minimumCalls && failures * 100.0 / recorded >= failureRateThreshold) {
+                    open();
+                }
+            }
+            case HALF_OPEN -> open();
+            case OPEN -> {
+            }
+        }
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    private void record(boolean failure) {
+        if (recorded == window.length) {
+            if (window[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+
+        window[next] = failure;
+        next = (next + 1) % window.length;
+
+        if (failure) {
+            failures++;
+        }
+    }
+
+    private void clearWindow() {
+        recorded = 0;
+        next = 0;
+        failures = 0;
+    }
+
+    private void open() {
+        openedAt = clock.instant();
+        transition(State.OPEN);
+    }
+
+    private void transition(State target) {
+        if (state == target) {
+            return;
+        }
+
+        log.warn("Circuit breaker '{}' changed from {} to {}", name, state, target);
+        state = target;
+
+        Counter.builder("circuit.breaker.transitions")
+                .tag("name", name)
+                .tag("state", target.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry)
+                .increment();
+    }
+}
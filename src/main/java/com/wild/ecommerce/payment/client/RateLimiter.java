@@ -0,0 +1,45 @@
+package com.wild.ecommerce.payment.client;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spaces calls out to a steady rate, letting up to {@code burst} through at once after a quiet spell. Callers over the
+ * rate wait their turn rather than being turned away, which suits background jobs that just need to go slower.
+ */
+public class RateLimiter {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private long nextFreeNanos = Long.MIN_VALUE;
+
+    public RateLimiter(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate and burst must be positive");
+        }
+
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.burstNanos = intervalNanos * (burst - 1);
+    }
+
+    /**
+     * Blocks until the caller may make its call.
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos = reserve(System.nanoTime());
+
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Books the next free slot and returns how long until it starts. Slots left unused while idle are kept, up to the
+     * burst size.
+     */
+    private synchronized long reserve(long now) {
+        long start = Math.max(nextFreeNanos, now - burstNanos);
+        nextFreeNanos = start + intervalNanos;
+
+        return start - now;
+    }
+}
@@ -0,0 +1,13 @@
+package com.wild.ecommerce.payment.client;
+
+import com.stripe.exception.StripeException;
+import com.stripe.net.RequestOptions;
+
+/**
+ * One Stripe API call, made with the options {@link StripeGateway} chose for the attempt.
+ */
+@FunctionalInterface
+public interface StripeCall<T> {
+
+    T call(RequestOptions options) throws StripeException;
+}
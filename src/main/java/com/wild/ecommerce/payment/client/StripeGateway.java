@@ -0,0 +1,233 @@
+package com.wild.ecommerce.payment.client;
+
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.RateLimitException;
+import com.stripe.exception.StripeException;
+import com.stripe.net.RequestOptions;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The single way out to the Stripe API, so a Stripe brownout costs bounded time and threads.
+ *
+ * <p>Each logical call has a deadline. Attempts get connect and read timeouts within what is left of it, and
+ * transient failures (network errors, timeouts, 429s, 5xx) are retried after a fully jittered exponential backoff,
+ * as is a 409 for a request whose idempotency key another request is still using.
+ * Attempts run inside a bulkhead that caps concurrent Stripe calls, and behind a circuit breaker that fails fast once
+ * most recent attempts failed. Rejections by either surface as {@link ApiConnectionException}, like any other
+ * connection failure.</p>
+ *
+ * <p>A caller passes an idempotency key for every create, so retries here, or of the whole call, cannot create the
+ * object twice. The SDK's own retries are turned off to keep attempts visible in the metrics.</p>
+ */
+@Slf4j
+public class StripeGateway {
+
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final MeterRegistry meterRegistry;
+
+    private final Duration connectTimeout;
+    private final Duration readTimeout;
+    private final Duration deadline;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    private final Counter circuitRejections;
+    private final Counter bulkheadRejections;
+
+    public StripeGateway(
+            CircuitBreaker circuitBreaker,
+            Bulkhead bulkhead,
+            MeterRegistry meterRegistry,
+            Duration connectTimeout,
+            Duration readTimeout,
+            Duration deadline,
+            int maxAttempts,
+            Duration initialBackoff,
+            Duration maxBackoff
+    ) {
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+        this.meterRegistry = meterRegistry;
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+        this.deadline = deadline;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+
+        this.circuitRejections = rejections(meterRegistry, "circuit_open");
+        this.bulkheadRejections = rejections(meterRegistry, "bulkhead_full");
+    }
+
+    /**
+     * Runs a call that creates nothing, or is safe to repeat as is.
+     */
+    public <T> T execute(String operation, StripeCall<T> call) throws StripeException {
+        return execute(operation, null, call);
+    }
+
+    /**
+     * Runs a call with the given idempotency key on every attempt.
+     */
+    public <T> T execute(String operation, String idempotencyKey, StripeCall<T> call) throws StripeException {
+        long deadlineAt = System.nanoTime() + deadline.toNanos();
+
+        for (int attempt = 1; ; attempt++) {
+            StripeException failure;
+
+            try {
+                return attempt(operation, idempotencyKey, call, deadlineAt);
+            } catch (StripeException e) {
+                failure = e;
+            }
+
+            if (!(isTransient(failure) || isKeyInUse(failure)) || attempt >= maxAttempts) {
+                throw failure;
+            }
+
+            Duration backoff = backoff(attempt);
+
+            if (System.nanoTime() + backoff.toNanos() >= deadlineAt) {
+                throw failure;
+            }
+
+            log.info("Retrying Stripe {} in {} ms after attempt {} failed: {}",
+                    operation, backoff.toMillis(), attempt, failure.getMessage());
+            Counter.builder("stripe.client.retries")
+                    .tag("operation", operation)
+                    .register(meterRegistry)
+                    .increment();
+
+            sleep(backoff);
+        }
+    }
+
+    private <T> T attempt(String operation, String idempotencyKey, StripeCall<T> call, long deadlineAt)
+            throws StripeException {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            circuitRejections.increment();
+            throw new Rejected("Stripe circuit breaker is open, not calling " + operation);
+        }
+
+        try {
+            if (!bulkhead.tryAcquire()) {
+                bulkheadRejections.increment();
+                circuitBreaker.releasePermission();
+                throw new Rejected("Too many concurrent Stripe calls, not calling " + operation);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            circuitBreaker.releasePermission();
+            throw new Rejected("Interrupted while waiting to call Stripe " + operation);
+        }
+
+        long start = System.nanoTime();
+        String outcome = "success";
+
+        try {
+            T result = call.call(options(idempotencyKey, deadlineAt - start));
+            circuitBreaker.onSuccess();
+            return result;
+        } catch (StripeException e) {
+            if (isTransient(e)) {
+                outcome = "transient_error";
+                circuitBreaker.onFailure();
+            } else {
+                // Stripe answered and turned the request down; it is up
+                outcome = "client_error";
+                circuitBreaker.onSuccess();
+            }
+
+            throw e;
+        } catch (RuntimeException e) {
+            outcome = "transient_error";
+            circuitBreaker.onFailure();
+            throw e;
+        } finally {
+            bulkhead.release();
+
+            Timer.builder("stripe.client.calls")
+                    .description("Attempts at Stripe API calls")
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    private RequestOptions options(String idempotencyKey, long remainingNanos) {
+        int remainingMillis = (int) Math.max(1, Duration.ofNanos(remainingNanos).toMillis());
+
+        return RequestOptions.builder()
+                .setIdempotencyKey(idempotencyKey)
+                .setConnectTimeout((int) Math.min(connectTimeout.toMillis(), remainingMillis))
+                .setReadTimeout((int) Math.min(readTimeout.toMillis(), remainingMillis))
+                .setMaxNetworkRetries(0)
+                .build();
+    }
+
+    /**
+     * Full jitter: a random wait between zero and the exponential backoff for the attempt, so clients that failed
+     * together do not retry together.
+     */
+    private Duration backoff(int attempt) {
+        long cap = Math.min(maxBackoff.toMillis(), initialBackoff.toMillis() << Math.min(attempt - 1, 20));
+
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(cap + 1));
+    }
+
+    private static boolean isTransient(StripeException e) {
+        if (e instanceof Rejected) {
+            return false;
+        }
+
+        if (e instanceof ApiConnectionException || e instanceof RateLimitException) {
+            return true;
+        }
+
+        return e.getStatusCode() != null && e.getStatusCode() >= 500;
+    }
+
+    /**
+     * Whether Stripe is still working on an earlier request with the same idempotency key. A key reused with
+     * different parameters ({@link com.stripe.exception.IdempotencyException}) is a client error and never retried.
+     */
+    private static boolean isKeyInUse(StripeException e) {
+        return e.getStatusCode() != null && e.getStatusCode() == 409;
+    }
+
+    private static void sleep(Duration backoff) throws StripeException {
+        try {
+            Thread.sleep(backoff);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new Rejected("Interrupted while waiting to retry a Stripe call");
+        }
+    }
+
+    private static Counter rejections(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("stripe.client.rejections")
+                .description("Stripe calls turned away without reaching Stripe")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    /**
+     * A call this gateway refused to make. It is an {@link ApiConnectionException} so callers handle it like
+     * Stripe being unreachable, but it is never retried here.
+     */
+    public static class Rejected extends ApiConnectionException {
+
+        public Rejected(String message) {
+            super(message);
+        }
+    }
+}
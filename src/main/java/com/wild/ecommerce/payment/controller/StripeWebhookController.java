@@ -2,13 +2,9 @@ package com.wild.ecommerce.payment.controller;
 
 import com.stripe.exception.SignatureVerificationException;
 import com.stripe.model.Event;
-import com.stripe.model.PaymentIntent;
 import com.stripe.net.Webhook;
-import com.wild.ecommerce.common.exception.ResourceNotFoundException;
-import com.wild.ecommerce.order.model.Order;
-import com.wild.ecommerce.order.model.Status;
-import com.wild.ecommerce.order.repository.OrderRepository;
-import com.wild.ecommerce.shipment.service.ShipmentService;
+import com.wild.ecommerce.payment.service.StripeWebhookDispatcher;
+import com.wild.ecommerce.payment.service.StripeWebhookService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
@@ -20,16 +16,14 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.UUID;
-
 @RestController
 @RequestMapping("/api/v1/stripe/webhooks")
 @RequiredArgsConstructor
 @Tag(name = "Stripe Webhooks", description = "Endpoints for handling Stripe webhooks")
 public class StripeWebhookController {
 
-    private final OrderRepository orderRepository;
-    private final ShipmentService shippingService;
+    private final StripeWebhookService stripeWebhookService;
+    private final StripeWebhookDispatcher stripeWebhookDispatcher;
 
     @Value("${stripe.webhook.secret}")
     private String webhookSecret;
@@ -47,64 +41,9 @@ public class StripeWebhookController {
             return new ResponseEntity<>("Invalid signature", HttpStatus.BAD_REQUEST);
         }
 
-        switch (event.getType()) {
-            case "payment_intent.succeeded" -> handlePaymentIntentSucceeded(event);
-            case "payment_intent.payment_failed" -> handlePaymentIntentFailed(event);
-            case "payment_intent.canceled" -> handlePaymentIntentCanceled(event);
-        }
+        // Stored before acknowledging, so a crash after the 200 cannot lose the event
+        stripeWebhookService.receive(event, payload).ifPresent(stripeWebhookDispatcher::dispatch);
 
         return new ResponseEntity<>("Webhook received", HttpStatus.OK);
     }
-
-    private void handlePaymentIntentSucceeded(Event event) {
-        PaymentIntent paymentIntent = (PaymentIntent) event.getDataObjectDeserializer()
-                .getObject()
-                .orElseThrow(() -> new IllegalStateException("PaymentIntent not found in event"));
-
-        String orderId = paymentIntent.getMetadata().get("orderId");
-
-        if (orderId != null) {
-            UUID parsedOrderId = UUID.fromString(orderId);
-
-            updateOrderStatus(parsedOrderId, Status.CONFIRMED);
-
-            try {
-                shippingService.initiateShipping(parsedOrderId);
-            } catch (Exception e) {
-                throw new IllegalStateException("Failed to initiate shipping for order: " + parsedOrderId);
-            }
-        }
-    }
-
-    private void handlePaymentIntentFailed(Event event) {
-        PaymentIntent paymentIntent = (PaymentIntent) event.getDataObjectDeserializer()
-                .getObject()
-                .orElseThrow(() -> new IllegalStateException("PaymentIntent not found in event"));
-
-        String orderId = paymentIntent.getMetadata().get("orderId");
-
-        if (orderId != null) {
-            updateOrderStatus(UUID.fromString(orderId), Status.FAILED);
-        }
-    }
-
-    private void handlePaymentIntentCanceled(Event event) {
-        PaymentIntent paymentIntent = (PaymentIntent) event.getDataObjectDeserializer()
-                .getObject()
-                .orElseThrow(() -> new IllegalStateException("PaymentIntent not found in event"));
-
-        String orderId = paymentIntent.getMetadata().get("orderId");
-
-        if (orderId != null) {
-            updateOrderStatus(UUID.fromString(orderId), Status.CANCELLED);
-        }
-    }
-
-    protected void updateOrderStatus(UUID orderId, Status status) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new ResourceNotFoundException("Order not found: " + orderId));
-
-        order.setStatus(status);
-        orderRepository.save(order);
-    }
 }
@@ -0,0 +1,7 @@
+package com.wild.ecommerce.payment.model;
+
+public enum OutboxStatus {
+    PENDING,
+    SENT,
+    FAILED
+}
@@ -0,0 +1,57 @@
+package com.wild.ecommerce.payment.model;
+
+import com.wild.ecommerce.common.model.Auditable;
+import com.wild.ecommerce.common.model.TimeOrderedUuid;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A PaymentIntent still to be created for an order, written in the checkout transaction and sent to Stripe after
+ * it has committed.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "payment_outbox", indexes = @Index(
+        name = "idx_payment_outbox_status_next_attempt", columnList = "status, next_attempt_at"
+))
+public class PaymentOutbox extends Auditable {
+
+    @Id
+    @TimeOrderedUuid
+    private UUID id;
+
+    @Column(name = "order_id", nullable = false, unique = true)
+    private UUID orderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OutboxStatus status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    /**
+     * When the record may be picked up next. Claiming it moves this forward by the lease, so a worker that dies
+     * mid-call leaves the record to be retried instead of stuck.
+     */
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = 500)
+    private String lastError;
+}
@@ -0,0 +1,43 @@
+package com.wild.ecommerce.payment.model;
+
+import com.wild.ecommerce.common.model.Auditable;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * How far a background job got through its keyset, and which node is running it. A node takes the job by leasing
+ * the row; when the lease runs out without being renewed, another node carries on from the last recorded key. Jobs
+ * that keep no position, like order archival, use the row only as a lease.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "reconciliation_checkpoints")
+public class ReconciliationCheckpoint extends Auditable {
+
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    /**
+     * The last key handled in the current pass; {@code null} when the next run starts from the beginning.
+     */
+    @Column(name = "last_order_id")
+    private UUID lastOrderId;
+
+    private String owner;
+
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;
+}
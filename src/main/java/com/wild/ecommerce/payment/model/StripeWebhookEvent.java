@@ -0,0 +1,65 @@
+package com.wild.ecommerce.payment.model;
+
+import com.wild.ecommerce.common.model.Auditable;
+import com.wild.ecommerce.common.model.TimeOrderedUuid;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A verified Stripe webhook event, stored before it is acknowledged and applied later by a worker. The time-ordered
+ * ID keeps the arrival order, which is the order events for one order are applied in.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "stripe_webhook_events", indexes = {
+        @Index(name = "idx_stripe_webhook_events_status_next_attempt", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_stripe_webhook_events_order_status", columnList = "order_id, status")
+})
+public class StripeWebhookEvent extends Auditable {
+
+    @Id
+    @TimeOrderedUuid
+    private UUID id;
+
+    @Column(name = "event_id", nullable = false, unique = true)
+    private String eventId;
+
+    @Column(nullable = false)
+    private String type;
+
+    @Column(name = "order_id", nullable = false)
+    private UUID orderId;
+
+    @Lob
+    @Column(nullable = false)
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private WebhookEventStatus status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = 500)
+    private String lastError;
+}
@@ -0,0 +1,7 @@
+package com.wild.ecommerce.payment.model;
+
+public enum WebhookEventStatus {
+    PENDING,
+    PROCESSED,
+    FAILED
+}
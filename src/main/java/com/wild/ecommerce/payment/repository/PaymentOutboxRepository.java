@@ -0,0 +1,32 @@
+package com.wild.ecommerce.payment.repository;
+
+import com.wild.ecommerce.payment.model.PaymentOutbox;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface PaymentOutboxRepository extends JpaRepository<PaymentOutbox, UUID> {
+
+    /**
+     * Takes the record for one attempt if it is due; returns 0 when another worker already holds it or it is done.
+     */
+    @Modifying
+    @Query("UPDATE PaymentOutbox o SET o.attempts = o.attempts + 1, o.nextAttemptAt = :leaseUntil " +
+            "WHERE o.id = :id " +
+            "AND o.status = com.wild.ecommerce.payment.model.OutboxStatus.PENDING " +
+            "AND o.nextAttemptAt <= :now")
+    int claim(@Param("id") UUID id, @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Query("SELECT o.id FROM PaymentOutbox o " +
+            "WHERE o.status = com.wild.ecommerce.payment.model.OutboxStatus.PENDING AND o.nextAttemptAt <= :now " +
+            "ORDER BY o.nextAttemptAt")
+    List<UUID> findDueIds(@Param("now") LocalDateTime now, Limit limit);
+}
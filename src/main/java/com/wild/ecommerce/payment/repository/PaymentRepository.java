@@ -0,0 +1,11 @@
+package com.wild.ecommerce.payment.repository;
+
+import com.wild.ecommerce.payment.model.Payment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface PaymentRepository extends JpaRepository<Payment, UUID> {
+}
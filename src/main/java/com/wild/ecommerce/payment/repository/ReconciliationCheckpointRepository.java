@@ -0,0 +1,60 @@
+package com.wild.ecommerce.payment.repository;
+
+import com.wild.ecommerce.payment.model.ReconciliationCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Repository
+public interface ReconciliationCheckpointRepository extends JpaRepository<ReconciliationCheckpoint, String> {
+
+    /**
+     * Leases the checkpoint to {@code owner}; returns 0 while another node holds an unexpired lease.
+     */
+    @Modifying
+    @Query("UPDATE ReconciliationCheckpoint c SET c.owner = :owner, c.leaseUntil = :leaseUntil " +
+            "WHERE c.name = :name " +
+            "AND (c.owner = :owner OR c.leaseUntil IS NULL OR c.leaseUntil <= :now)")
+    int acquire(
+            @Param("name") String name,
+            @Param("owner") String owner,
+            @Param("now") LocalDateTime now,
+            @Param("leaseUntil") LocalDateTime leaseUntil
+    );
+
+    /**
+     * Records progress and renews the lease; returns 0 when the lease has passed to another node.
+     */
+    @Modifying
+    @Query("UPDATE ReconciliationCheckpoint c SET c.lastOrderId = :lastOrderId, c.leaseUntil = :leaseUntil " +
+            "WHERE c.name = :name AND c.owner = :owner")
+    int advance(
+            @Param("name") String name,
+            @Param("owner") String owner,
+            @Param("lastOrderId") UUID lastOrderId,
+            @Param("leaseUntil") LocalDateTime leaseUntil
+    );
+
+    /**
+     * Extends the lease without touching the recorded position; returns 0 when the lease has passed to another node.
+     */
+    @Modifying
+    @Query("UPDATE ReconciliationCheckpoint c SET c.leaseUntil = :leaseUntil WHERE c.name = :name AND c.owner = :owner")
+    int renew(
+            @Param("name") String name,
+            @Param("owner") String owner,
+            @Param("leaseUntil") LocalDateTime leaseUntil
+    );
+
+    @Modifying
+    @Query("UPDATE ReconciliationCheckpoint c SET c.leaseUntil = NULL WHERE c.name = :name AND c.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner);
+
+    @Query("SELECT c.lastOrderId FROM ReconciliationCheckpoint c WHERE c.name = :name")
+    UUID findLastOrderId(@Param("name") String name);
+}
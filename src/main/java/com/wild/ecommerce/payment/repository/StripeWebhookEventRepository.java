@@ -0,0 +1,54 @@
+package com.wild.ecommerce.payment.repository;
+
+import com.wild.ecommerce.payment.model.StripeWebhookEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface StripeWebhookEventRepository extends JpaRepository<StripeWebhookEvent, UUID> {
+
+    /**
+     * Takes the event for one attempt if it is due; returns 0 when another worker already holds it or it is done.
+     */
+    @Modifying
+    @Query("UPDATE StripeWebhookEvent e SET e.attempts = e.attempts + 1, e.nextAttemptAt = :leaseUntil " +
+            "WHERE e.id = :id " +
+            "AND e.status = com.wild.ecommerce.payment.model.WebhookEventStatus.PENDING " +
+            "AND e.nextAttemptAt <= :now")
+    int claim(@Param("id") UUID id, @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    /**
+     * Returns whether an event for the same order that arrived earlier is still waiting to be applied.
+     */
+    @Query("SELECT COUNT(e) > 0 FROM StripeWebhookEvent e " +
+            "WHERE e.orderId = :orderId AND e.id < :id " +
+            "AND e.status = com.wild.ecommerce.payment.model.WebhookEventStatus.PENDING")
+    boolean existsEarlierPending(@Param("orderId") UUID orderId, @Param("id") UUID id);
+
+    /**
+     * Due events that are first in line for their order, oldest first.
+     */
+    @Query("SELECT e.id FROM StripeWebhookEvent e " +
+            "WHERE e.status = com.wild.ecommerce.payment.model.WebhookEventStatus.PENDING " +
+            "AND e.nextAttemptAt <= :now " +
+            "AND NOT EXISTS (SELECT 1 FROM StripeWebhookEvent p " +
+            "WHERE p.orderId = e.orderId AND p.id < e.id " +
+            "AND p.status = com.wild.ecommerce.payment.model.WebhookEventStatus.PENDING) " +
+            "ORDER BY e.id")
+    List<UUID> findDueIds(@Param("now") LocalDateTime now, Limit limit);
+
+    @Query("SELECT e.id FROM StripeWebhookEvent e " +
+            "WHERE e.orderId = :orderId " +
+            "AND e.status = com.wild.ecommerce.payment.model.WebhookEventStatus.PENDING " +
+            "AND e.nextAttemptAt <= :now " +
+            "ORDER BY e.id")
+    List<UUID> findDueIdsByOrderId(@Param("orderId") UUID orderId, @Param("now") LocalDateTime now, Limit limit);
+}
@@ -0,0 +1,56 @@
+package com.wild.ecommerce.payment.service;
+
+import com.wild.ecommerce.common.config.AsyncConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+
+/**
+ * Hands committed outbox records to the payment executor, and periodically picks up the ones that were dropped,
+ * failed, or belonged to a node that went away.
+ *
+ * <p>The poller submits the due records to the payment executor as well, so Stripe calls never run on the shared
+ * scheduler thread.</p>
+ */
+@Component
+@Slf4j
+public class PaymentOutboxDispatcher {
+
+    private final PaymentOutboxService paymentOutboxService;
+    private final Executor executor;
+
+    @Value("${payment.outbox.batch-size:50}")
+    private int batchSize;
+
+    public PaymentOutboxDispatcher(
+            PaymentOutboxService paymentOutboxService,
+            @Qualifier(AsyncConfig.PAYMENT_OUTBOX_EXECUTOR) Executor executor
+    ) {
+        this.paymentOutboxService = paymentOutboxService;
+        this.executor = executor;
+    }
+
+    @Async(AsyncConfig.PAYMENT_OUTBOX_EXECUTOR)
+    public void dispatch(UUID outboxId) {
+        paymentOutboxService.process(outboxId);
+    }
+
+    @Scheduled(fixedDelayString = "${payment.outbox.poll-interval:10s}")
+    public void dispatchDue() {
+        List<UUID> dueIds = paymentOutboxService.findDueIds(batchSize);
+
+        // Records submitted twice are claimed once; a full queue discards the rest until the next poll
+        dueIds.forEach(id -> executor.execute(() -> paymentOutboxService.process(id)));
+
+        if (!dueIds.isEmpty()) {
+            log.info("Submitted {} due payment outbox records", dueIds.size());
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.wild.ecommerce.payment.service;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface PaymentOutboxService {
+
+    /**
+     * Records that the order needs a PaymentIntent. Must run inside the checkout transaction.
+     */
+    UUID enqueue(UUID orderId);
+
+    /**
+     * Creates the PaymentIntent for one outbox record if it is due, holding a database connection only for the
+     * short reads and writes around the Stripe call.
+     */
+    void process(UUID outboxId);
+
+    /**
+     * Returns up to {@code batchSize} records that are due for an attempt.
+     */
+    List<UUID> findDueIds(int batchSize);
+}
@@ -0,0 +1,189 @@
+package com.wild.ecommerce.payment.service;
+
+import com.stripe.exception.StripeException;
+import com.stripe.model.PaymentIntent;
+import com.wild.ecommerce.address.mapper.AddressMapper;
+import com.wild.ecommerce.common.exception.ResourceNotFoundException;
+import com.wild.ecommerce.inventory.service.InventoryService;
+import com.wild.ecommerce.order.model.Order;
+import com.wild.ecommerce.order.model.Status;
+import com.wild.ecommerce.order.repository.OrderRepository;
+import com.wild.ecommerce.order.service.OrderSummaryService;
+import com.wild.ecommerce.payment.dto.StripePaymentDTO;
+import com.wild.ecommerce.payment.model.OutboxStatus;
+import com.wild.ecommerce.payment.model.Payment;
+import com.wild.ecommerce.payment.model.PaymentOutbox;
+import com.wild.ecommerce.payment.repository.PaymentOutboxRepository;
+import com.wild.ecommerce.user.model.User;
+import com.wild.ecommerce.user.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Creates Stripe PaymentIntents outside of any database transaction.
+ *
+ * <p>Each attempt claims the outbox record with a guarded update, builds the request in a short read, calls Stripe
+ * with no connection held and records the outcome in a second short transaction. The outbox ID, together with the
+ * Stripe customer, is the idempotency key, so an attempt repeated after a lost response returns the same
+ * PaymentIntent.</p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentOutboxServiceImpl implements PaymentOutboxService {
+
+    private final PaymentOutboxRepository paymentOutboxRepository;
+    private final OrderRepository orderRepository;
+    private final UserRepository userRepository;
+    private final AddressMapper addressMapper;
+    private final StripeService stripeService;
+    private final InventoryService inventoryService;
+    private final OrderSummaryService orderSummaryService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${payment.outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${payment.outbox.lease:60s}")
+    private Duration lease;
+
+    @Value("${payment.outbox.retry-backoff:30s}")
+    private Duration retryBackoff;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public UUID enqueue(UUID orderId) {
+        PaymentOutbox outbox = new PaymentOutbox();
+        outbox.setOrderId(orderId);
+        outbox.setStatus(OutboxStatus.PENDING);
+        outbox.setNextAttemptAt(LocalDateTime.now());
+
+        return paymentOutboxRepository.save(outbox).getId();
+    }
+
+    @Override
+    public void process(UUID outboxId) {
+        LocalDateTime now = LocalDateTime.now();
+        Integer claimed = transactionTemplate.execute(_ ->
+                paymentOutboxRepository.claim(outboxId, now, now.plus(lease))
+        );
+
+        if (claimed == null || claimed == 0) {
+            return;
+        }
+
+        PendingPayment pending = transactionTemplate.execute(_ -> loadPendingPayment(outboxId));
+
+        if (pending == null) {
+            return;
+        }
+
+        try {
+            PaymentIntent paymentIntent = stripeService.paymentIntent(pending.request(), outboxId.toString());
+
+            transactionTemplate.execute(_ -> recordSuccess(outboxId, pending.orderId(), paymentIntent));
+
+            log.info("Stripe PaymentIntent created successfully for order {}", pending.orderId());
+        } catch (StripeException e) {
+            log.warn("Stripe PaymentIntent creation failed for order {} on attempt {}",
+                    pending.orderId(), pending.attempts(), e);
+
+            transactionTemplate.execute(_ -> recordFailure(outboxId, pending, e.getMessage()));
+        }
+    }
+
+    @Override
+    public List<UUID> findDueIds(int batchSize) {
+        List<UUID> dueIds = transactionTemplate.execute(_ ->
+                paymentOutboxRepository.findDueIds(LocalDateTime.now(), Limit.of(batchSize))
+        );
+
+        return dueIds != null ? dueIds : List.of();
+    }
+
+    private PendingPayment loadPendingPayment(UUID outboxId) {
+        PaymentOutbox outbox = paymentOutboxRepository.findById(outboxId)
+                .orElseThrow(() -> new ResourceNotFoundException("Payment outbox record '" + outboxId + "' not found"));
+        Order order = orderRepository.findById(outbox.getOrderId()).orElse(null);
+
+        // The order was deleted while its payment was waiting
+        if (order == null) {
+            outbox.setStatus(OutboxStatus.FAILED);
+            outbox.setLastError("Order not found");
+            return null;
+        }
+
+        String name = userRepository.findByEmailIgnoreCase(order.getEmail())
+                .map(User::getFirstName)
+                .orElse(null);
+
+        StripePaymentDTO request = new StripePaymentDTO(
+                order.getTotalAmount().multiply(BigDecimal.valueOf(100)).longValue(),
+                "usd",
+                name,
+                order.getEmail(),
+                "Order payment for order #" + order.getId(),
+                addressMapper.apply(order.getAddress()),
+                Map.of("orderId", String.valueOf(order.getId()))
+        );
+
+        return new PendingPayment(order.getId(), outbox.getAttempts(), request);
+    }
+
+    private Void recordSuccess(UUID outboxId, UUID orderId, PaymentIntent paymentIntent) {
+        PaymentOutbox outbox = paymentOutboxRepository.findById(outboxId).orElseThrow();
+        outbox.setStatus(OutboxStatus.SENT);
+        outbox.setLastError(null);
+
+        orderRepository.findById(orderId).ifPresent(order -> {
+            Payment payment = order.getPayment();
+            payment.setStripePaymentId(paymentIntent.getId());
+            payment.setStripeStatus(paymentIntent.getStatus());
+        });
+
+        return null;
+    }
+
+    private Void recordFailure(UUID outboxId, PendingPayment pending, String message) {
+        PaymentOutbox outbox = paymentOutboxRepository.findById(outboxId).orElseThrow();
+        outbox.setLastError(truncate(message));
+
+        if (pending.attempts() < maxAttempts) {
+            outbox.setNextAttemptAt(LocalDateTime.now().plus(retryBackoff.multipliedBy(pending.attempts())));
+            return null;
+        }
+
+        outbox.setStatus(OutboxStatus.FAILED);
+
+        orderRepository.findById(pending.orderId()).ifPresent(order -> {
+            order.setStatus(Status.FAILED);
+            order.getPayment().setStripeResponseMessage(truncate(message));
+            orderSummaryService.updateStatus(order);
+        });
+        inventoryService.release(pending.orderId());
+
+        log.error("Giving up on the PaymentIntent for order {} after {} attempts", pending.orderId(), pending.attempts());
+
+        return null;
+    }
+
+    private static String truncate(String message) {
+        return message != null && message.length() > 500 ? message.substring(0, 500) : message;
+    }
+
+    private record PendingPayment(UUID orderId, int attempts, StripePaymentDTO request) {
+    }
+}
@@ -0,0 +1,38 @@
+package com.wild.ecommerce.payment.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically settles orders whose payment outcome never reached us through a webhook.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentReconciler {
+
+    private final PaymentReconciliationService paymentReconciliationService;
+
+    @Value("${payment.reconciliation.enabled:true}")
+    private boolean enabled;
+
+    @Scheduled(
+            initialDelayString = "${payment.reconciliation.initial-delay:1m}",
+            fixedDelayString = "${payment.reconciliation.interval:10m}"
+    )
+    public void reconcile() {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            paymentReconciliationService.reconcile();
+        } catch (RuntimeException e) {
+            // The checkpoint keeps the progress made so far; the next run carries on from there
+            log.error("Payment reconciliation failed", e);
+        }
+    }
+}
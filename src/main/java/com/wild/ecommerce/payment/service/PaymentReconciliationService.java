@@ -0,0 +1,10 @@
+package com.wild.ecommerce.payment.service;
+
+public interface PaymentReconciliationService {
+
+    /**
+     * Checks stale pending orders against Stripe, continuing the current pass if one was interrupted, and returns how
+     * many orders were settled. Returns 0 straight away while another node holds the job.
+     */
+    int reconcile();
+}
@@ -0,0 +1,214 @@
+package com.wild.ecommerce.payment.service;
+
+import com.stripe.exception.StripeException;
+import com.stripe.model.PaymentIntent;
+import com.wild.ecommerce.common.config.AsyncConfig;
+import com.wild.ecommerce.common.lease.CheckpointLease;
+import com.wild.ecommerce.order.dto.PendingPaymentRow;
+import com.wild.ecommerce.order.repository.OrderRepository;
+import com.wild.ecommerce.payment.client.RateLimiter;
+import com.wild.ecommerce.payment.client.StripeGateway;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Finds orders left pending because their webhook never arrived, asks Stripe what became of the payment intent and
+ * applies the outcome as the webhook would have.
+ *
+ * <p>Orders are read a page at a time in ID order, and the last ID of each page is stored in a checkpoint, so a run
+ * that stops part way is picked up where it left off. The checkpoint row doubles as a lease: one node runs the job at
+ * a time, renewing the lease with every page, and another node takes over once it lapses.</p>
+ *
+ * <p>The lookups for a page run in parallel but pass through a rate limiter of their own, so a long backlog does not
+ * use up the Stripe request budget that checkouts depend on.</p>
+ */
+@Service
+@Slf4j
+public class PaymentReconciliationServiceImpl implements PaymentReconciliationService {
+
+    static final String CHECKPOINT = "stripe-payments";
+
+    // Sorts before every stored ID
+    private static final UUID FIRST_ORDER_ID = new UUID(0, 0);
+
+    private final OrderRepository orderRepository;
+    private final CheckpointLease checkpointLease;
+    private final StripeWebhookProcessor stripeWebhookProcessor;
+    private final StripeGateway stripeGateway;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor executor;
+    private final RateLimiter rateLimiter;
+    private final String owner = UUID.randomUUID().toString();
+
+    private final Counter settled;
+    private final Counter unchanged;
+    private final Counter failed;
+
+    @Value("${payment.reconciliation.min-age:30m}")
+    private Duration minAge;
+
+    @Value("${payment.reconciliation.batch-size:200}")
+    private int batchSize;
+
+    @Value("${payment.reconciliation.lease:5m}")
+    private Duration lease;
+
+    public PaymentReconciliationServiceImpl(
+            OrderRepository orderRepository,
+            CheckpointLease checkpointLease,
+            StripeWebhookProcessor stripeWebhookProcessor,
+            StripeGateway stripeGateway,
+            TransactionTemplate transactionTemplate,
+            @Qualifier(AsyncConfig.PAYMENT_RECONCILIATION_EXECUTOR) Executor executor,
+            MeterRegistry meterRegistry,
+            @Value("${payment.reconciliation.rate-limit:10}") double permitsPerSecond
+    ) {
+        this.orderRepository = orderRepository;
+        this.checkpointLease = checkpointLease;
+        this.stripeWebhookProcessor = stripeWebhookProcessor;
+        this.stripeGateway = stripeGateway;
+        this.transactionTemplate = transactionTemplate;
+        this.executor = executor;
+        this.rateLimiter = new RateLimiter(permitsPerSecond, Math.max(1, (int) permitsPerSecond));
+
+        this.settled = counter(meterRegistry, "settled");
+        this.unchanged = counter(meterRegistry, "unchanged");
+        this.failed = counter(meterRegistry, "failed");
+    }
+
+    @Override
+    public int reconcile() {
+        if (!checkpointLease.acquire(CHECKPOINT, owner, lease)) {
+            return 0;
+        }
+
+        LocalDateTime cutoff = LocalDateTime.now().minus(minAge);
+        int total = 0;
+
+        try {
+            UUID lastOrderId = checkpointLease.lastOrderId(CHECKPOINT);
+            UUID after = lastOrderId != null ? lastOrderId : FIRST_ORDER_ID;
+
+            while (true) {
+                List<PendingPaymentRow> page = findPage(after, cutoff);
+
+                total += reconcilePage(page);
+
+                // A short page ends the pass; the next run starts over from the first order
+                UUID next = page.size() < batchSize ? null : page.getLast().orderId();
+
+                if (!checkpointLease.advance(CHECKPOINT, owner, next, lease)) {
+                    log.warn("Lost the payment reconciliation lease after settling {} orders", total);
+                    return total;
+                }
+
+                if (next == null) {
+                    break;
+                }
+
+                after = next;
+            }
+        } finally {
+            checkpointLease.release(CHECKPOINT, owner);
+        }
+
+        if (total > 0) {
+            log.info("Payment reconciliation settled {} pending orders placed before {}", total, cutoff);
+        }
+
+        return total;
+    }
+
+    private List<PendingPaymentRow> findPage(UUID after, LocalDateTime cutoff) {
+        List<PendingPaymentRow> page = transactionTemplate.execute(_ ->
+                orderRepository.findPendingPaymentsAfter(after, cutoff, Limit.of(batchSize))
+        );
+
+        return page != null ? page : List.of();
+    }
+
+    private int reconcilePage(List<PendingPaymentRow> page) {
+        List<CompletableFuture<Boolean>> results = page.stream()
+                .map(row -> CompletableFuture.supplyAsync(() -> reconcileOrder(row), executor))
+                .toList();
+
+        return (int) results.stream()
+                .map(CompletableFuture::join)
+                .filter(Boolean::booleanValue)
+                .count();
+    }
+
+    /**
+     * Returns whether the order was settled. Failures are logged and left for the next pass.
+     */
+    private boolean reconcileOrder(PendingPaymentRow row) {
+        try {
+            rateLimiter.acquire();
+
+            PaymentIntent paymentIntent = stripeGateway.execute("payment_intent.retrieve", options ->
+                    PaymentIntent.retrieve(row.stripePaymentId(), options)
+            );
+            String type = eventType(paymentIntent);
+            boolean applied = type != null && Boolean.TRUE.equals(transactionTemplate.execute(_ ->
+                    stripeWebhookProcessor.apply(type, row.orderId())
+            ));
+
+            if (!applied) {
+                unchanged.increment();
+                return false;
+            }
+
+            log.info("Reconciled order {} from payment intent {} ({})", row.orderId(), row.stripePaymentId(), type);
+            settled.increment();
+
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failed.increment();
+            return false;
+        } catch (StripeException | RuntimeException e) {
+            log.warn("Reconciling order {} against payment intent {} failed", row.orderId(), row.stripePaymentId(), e);
+            failed.increment();
+            return false;
+        }
+    }
+
+    /**
+     * The webhook event the payment intent's current state stands for, or {@code null} while it is still open. A
+     * declined intent goes back to {@code requires_payment_method} and the customer may still pay it, so it is left
+     * for its webhook or a later pass.
+     */
+    static String eventType(PaymentIntent paymentIntent) {
+        String status = paymentIntent.getStatus();
+
+        if ("succeeded".equals(status)) {
+            return StripeWebhookProcessor.PAYMENT_INTENT_SUCCEEDED;
+        }
+
+        if ("canceled".equals(status)) {
+            return StripeWebhookProcessor.PAYMENT_INTENT_CANCELED;
+        }
+
+        return null;
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("payment.reconciliation.orders")
+                .description("Stale pending orders checked against Stripe, by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,20 @@
+package com.wild.ecommerce.payment.service;
+
+import com.stripe.exception.StripeException;
+import com.wild.ecommerce.payment.dto.StripePaymentDTO;
+
+/**
+ * Resolves the Stripe customer that payments of a user are made under.
+ */
+public interface StripeCustomerService {
+
+    /**
+     * Returns the customer ID for the payer's email, creating the Stripe customer on the user's first payment.
+     */
+    String resolveCustomerId(StripePaymentDTO stripePaymentDTO) throws StripeException;
+
+    /**
+     * Drops a customer ID that Stripe no longer knows, so the next payment creates a new customer.
+     */
+    void forget(String email, String customerId);
+}
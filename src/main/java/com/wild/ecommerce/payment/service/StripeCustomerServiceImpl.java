@@ -0,0 +1,213 @@
+package com.wild.ecommerce.payment.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.stripe.exception.StripeException;
+import com.stripe.model.Customer;
+import com.stripe.model.CustomerSearchResult;
+import com.stripe.param.CustomerCreateParams;
+import com.stripe.param.CustomerSearchParams;
+import com.wild.ecommerce.payment.client.StripeGateway;
+import com.wild.ecommerce.payment.dto.StripePaymentDTO;
+import com.wild.ecommerce.user.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps the Stripe customer ID on the {@code User} row and in a bounded local cache, so a repeat buyer's checkout
+ * makes no Stripe call besides the PaymentIntent itself.
+ *
+ * <p>On a miss the ID is read from the database, and only if the user has none yet is Stripe consulted: a search
+ * for customers created before the ID was stored, then a create. Concurrent misses for one user on this node share
+ * a single load; if another node stores a customer first, the one created here is deleted again.</p>
+ */
+@Service
+@Slf4j
+public class StripeCustomerServiceImpl implements StripeCustomerService {
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final StripeGateway stripeGateway;
+    private final Cache<String, String> customerIds;
+    private final ConcurrentMap<String, CompletableFuture<String>> inFlightLoads = new ConcurrentHashMap<>();
+
+    private final Counter cacheHits;
+    private final Counter databaseHits;
+    private final Counter searchHits;
+    private final Counter created;
+    private final Counter coalesced;
+
+    public StripeCustomerServiceImpl(
+            UserRepository userRepository,
+            TransactionTemplate transactionTemplate,
+            StripeGateway stripeGateway,
+            MeterRegistry meterRegistry,
+            @Value("${stripe.customer-cache.maximum-size:100000}") long maximumSize,
+            @Value("${stripe.customer-cache.ttl:24h}") Duration ttl
+    ) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.stripeGateway = stripeGateway;
+        this.customerIds = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(ttl)
+                .build();
+
+        this.cacheHits = counter(meterRegistry, "cache");
+        this.databaseHits = counter(meterRegistry, "database");
+        this.searchHits = counter(meterRegistry, "search");
+        this.created = counter(meterRegistry, "created");
+        this.coalesced = counter(meterRegistry, "coalesced");
+    }
+
+    @Override
+    public String resolveCustomerId(StripePaymentDTO stripePaymentDTO) throws StripeException {
+        String key = stripePaymentDTO.email().toLowerCase(Locale.ROOT);
+        String customerId = customerIds.getIfPresent(key);
+
+        if (customerId != null) {
+            cacheHits.increment();
+            return customerId;
+        }
+
+        CompletableFuture<String> load = new CompletableFuture<>();
+        CompletableFuture<String> inFlight = inFlightLoads.putIfAbsent(key, load);
+
+        if (inFlight != null) {
+            coalesced.increment();
+            return await(inFlight);
+        }
+
+        try {
+            customerId = load(key, stripePaymentDTO);
+            customerIds.put(key, customerId);
+            load.complete(customerId);
+            return customerId;
+        } catch (StripeException | RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightLoads.remove(key, load);
+        }
+    }
+
+    @Override
+    public void forget(String email, String customerId) {
+        customerIds.asMap().remove(email.toLowerCase(Locale.ROOT), customerId);
+        transactionTemplate.executeWithoutResult(_ -> userRepository.clearStripeCustomerId(customerId));
+
+        log.warn("Forgot Stripe customer {} for {}", customerId, email);
+    }
+
+    private String load(String email, StripePaymentDTO stripePaymentDTO) throws StripeException {
+        String stored = userRepository.findStripeCustomerIdByEmail(email).orElse(null);
+
+        if (stored != null) {
+            databaseHits.increment();
+            return stored;
+        }
+
+        // Users from before the ID was stored may already have a customer; this search runs once per user
+        CustomerSearchParams searchParams = CustomerSearchParams.builder()
+                .setQuery("email:'" + stripePaymentDTO.email() + "'")
+                .build();
+        CustomerSearchResult searchResult = stripeGateway.execute("customer.search", options ->
+                Customer.search(searchParams, options)
+        );
+
+        if (!searchResult.getData().isEmpty()) {
+            searchHits.increment();
+            return store(email, searchResult.getData().getFirst().getId());
+        }
+
+        Customer customer = create(stripePaymentDTO);
+        created.increment();
+
+        String customerId = store(email, customer.getId());
+
+        if (!customerId.equals(customer.getId())) {
+            discard(customer);
+        }
+
+        return customerId;
+    }
+
+    private Customer create(StripePaymentDTO stripePaymentDTO) throws StripeException {
+        CustomerCreateParams customerParams = CustomerCreateParams.builder()
+                .setName(stripePaymentDTO.name())
+                .setEmail(stripePaymentDTO.email())
+                .setAddress(
+                        CustomerCreateParams.Address.builder()
+                                .setCountry(stripePaymentDTO.addressDTO().country())
+                                .setState(stripePaymentDTO.addressDTO().state())
+                                .setCity(stripePaymentDTO.addressDTO().city())
+                                .setLine1(stripePaymentDTO.addressDTO().street())
+                                .setPostalCode(stripePaymentDTO.addressDTO().postalCode())
+                                .build()
+                )
+                .build();
+
+        // A fresh key per create, so retries of this call cannot make two customers
+        return stripeGateway.execute("customer.create", UUID.randomUUID().toString(), options ->
+                Customer.create(customerParams, options)
+        );
+    }
+
+    private void discard(Customer customer) {
+        try {
+            stripeGateway.execute("customer.delete", customer::delete);
+        } catch (StripeException e) {
+            log.warn("Could not delete duplicate Stripe customer {}: {}", customer.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Saves the ID on the user unless another node stored one first, and returns whichever ID won.
+     */
+    private String store(String email, String customerId) {
+        Integer updated = transactionTemplate.execute(_ ->
+                userRepository.setStripeCustomerIdIfAbsent(email, customerId)
+        );
+
+        if (updated != null && updated == 0) {
+            return userRepository.findStripeCustomerIdByEmail(email).orElse(customerId);
+        }
+
+        return customerId;
+    }
+
+    private static String await(CompletableFuture<String> load) throws StripeException {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof StripeException stripeException) {
+                throw stripeException;
+            }
+
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+
+            throw e;
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String source) {
+        return Counter.builder("stripe.customer.lookups")
+                .description("Stripe customer ID resolutions, by where the ID came from")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+}
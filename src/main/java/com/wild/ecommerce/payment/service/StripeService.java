@@ -6,5 +6,9 @@ import com.wild.ecommerce.payment.dto.StripePaymentDTO;
 
 public interface StripeService {
 
-    PaymentIntent paymentIntent(StripePaymentDTO stripePaymentDTO) throws StripeException;
+    /**
+     * Creates a PaymentIntent; repeating a call with the same {@code idempotencyKey} for the same Stripe customer
+     * returns the first result.
+     */
+    PaymentIntent paymentIntent(StripePaymentDTO stripePaymentDTO, String idempotencyKey) throws StripeException;
 }
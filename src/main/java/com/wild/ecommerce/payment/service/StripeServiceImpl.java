@@ -1,54 +1,34 @@
 package com.wild.ecommerce.payment.service;
 
+import com.stripe.exception.InvalidRequestException;
 import com.stripe.exception.StripeException;
-import com.stripe.model.Customer;
-import com.stripe.model.CustomerSearchResult;
 import com.stripe.model.PaymentIntent;
-import com.stripe.param.CustomerCreateParams;
-import com.stripe.param.CustomerSearchParams;
 import com.stripe.param.PaymentIntentCreateParams;
+import com.wild.ecommerce.payment.client.StripeGateway;
 import com.wild.ecommerce.payment.dto.StripePaymentDTO;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class StripeServiceImpl implements StripeService {
 
-    @Override
-    public PaymentIntent paymentIntent(StripePaymentDTO stripePaymentDTO) throws StripeException {
-        final Customer customer;
-
-        CustomerSearchParams searchParams = CustomerSearchParams.builder()
-                .setQuery("email:'" + stripePaymentDTO.email() + "'")
-                .build();
+    private static final String CUSTOMER_PARAM = "customer";
 
-        CustomerSearchResult searchResult = Customer.search(searchParams);
+    private final StripeCustomerService stripeCustomerService;
+    private final StripeGateway stripeGateway;
 
-        if (searchResult.getData().isEmpty()) {
-            CustomerCreateParams customerParams = CustomerCreateParams.builder()
-                    .setName(stripePaymentDTO.name())
-                    .setEmail(stripePaymentDTO.email())
-                    .setAddress(
-                            CustomerCreateParams.Address.builder()
-                                    .setCountry(stripePaymentDTO.addressDTO().country())
-                                    .setState(stripePaymentDTO.addressDTO().state())
-                                    .setCity(stripePaymentDTO.addressDTO().city())
-                                    .setLine1(stripePaymentDTO.addressDTO().street())
-                                    .setPostalCode(stripePaymentDTO.addressDTO().postalCode())
-                                    .build()
-                    )
-                    .build();
-
-            customer = Customer.create(customerParams);
-        } else {
-            customer = searchResult.getData().getFirst();
-        }
+    @Override
+    public PaymentIntent paymentIntent(StripePaymentDTO stripePaymentDTO, String idempotencyKey)
+            throws StripeException {
+        String customerId = stripeCustomerService.resolveCustomerId(stripePaymentDTO);
 
         PaymentIntentCreateParams params = PaymentIntentCreateParams.builder()
                 .setAmount(stripePaymentDTO.amountInCents())
                 .setCurrency(stripePaymentDTO.currency())
-                .setCustomer(customer.getId())
+                .setCustomer(customerId)
                 .setDescription(stripePaymentDTO.description())
                 .setAutomaticPaymentMethods(
                         PaymentIntentCreateParams.AutomaticPaymentMethods.builder()
@@ -61,6 +41,20 @@ public class StripeServiceImpl implements StripeService {
                 .putAllMetadata(stripePaymentDTO.metadata())
                 .build();
 
-        return PaymentIntent.create(params);
+        try {
+            // Scoped to the customer, so the retry after a forgotten customer is not rejected as a reused key
+            String customerKey = idempotencyKey + "-" + customerId;
+
+            return stripeGateway.execute("payment_intent.create", customerKey, options ->
+                    PaymentIntent.create(params, options)
+            );
+        } catch (InvalidRequestException e) {
+            // The customer was deleted in Stripe; the retry of this payment creates a new one
+            if (CUSTOMER_PARAM.equals(e.getParam())) {
+                stripeCustomerService.forget(stripePaymentDTO.email(), customerId);
+            }
+
+            throw e;
+        }
     }
 }
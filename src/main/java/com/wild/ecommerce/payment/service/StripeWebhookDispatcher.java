@@ -0,0 +1,56 @@
+package com.wild.ecommerce.payment.service;
+
+import com.wild.ecommerce.common.config.AsyncConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+
+/**
+ * Hands stored webhook events to the webhook workers as they arrive, and periodically picks up the ones that were
+ * dropped, are waiting for a retry, or belonged to a node that went away.
+ *
+ * <p>The poller only finds the due events and submits them to the same workers, so slow events never hold up the
+ * shared scheduler thread. An event submitted twice is applied once; the second worker fails to claim it.</p>
+ */
+@Component
+@Slf4j
+public class StripeWebhookDispatcher {
+
+    private final StripeWebhookService stripeWebhookService;
+    private final Executor executor;
+
+    @Value("${stripe.webhook.batch-size:100}")
+    private int batchSize;
+
+    public StripeWebhookDispatcher(
+            StripeWebhookService stripeWebhookService,
+            @Qualifier(AsyncConfig.STRIPE_WEBHOOK_EXECUTOR) Executor executor
+    ) {
+        this.stripeWebhookService = stripeWebhookService;
+        this.executor = executor;
+    }
+
+    @Async(AsyncConfig.STRIPE_WEBHOOK_EXECUTOR)
+    public void dispatch(UUID id) {
+        stripeWebhookService.process(id);
+    }
+
+    @Scheduled(fixedDelayString = "${stripe.webhook.poll-interval:5s}")
+    public void dispatchDue() {
+        List<UUID> dueIds = stripeWebhookService.findDueIds(batchSize);
+
+        // A full queue discards the rest; they are still due on the next poll
+        dueIds.forEach(id -> executor.execute(() -> stripeWebhookService.process(id)));
+
+        if (!dueIds.isEmpty()) {
+            log.info("Submitted {} due Stripe webhook events", dueIds.size());
+        }
+    }
+}
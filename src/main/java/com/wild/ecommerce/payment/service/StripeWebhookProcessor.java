@@ -0,0 +1,114 @@
+package com.wild.ecommerce.payment.service;
+
+import com.wild.ecommerce.common.exception.ResourceNotFoundException;
+import com.wild.ecommerce.inventory.service.InventoryService;
+import com.wild.ecommerce.order.model.Order;
+import com.wild.ecommerce.order.model.Status;
+import com.wild.ecommerce.order.repository.OrderRepository;
+import com.wild.ecommerce.order.service.OrderSummaryService;
+import com.wild.ecommerce.shipment.service.ShipmentService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Applies a stored webhook event to its order. Runs in the transaction that marks the event processed, so a failure
+ * part way leaves nothing behind for the retry to trip over.
+ *
+ * <p>Settled orders are left alone. The payment reconciler reports the same outcomes as webhooks do, so the order
+ * row is locked and whichever of the two comes second finds it already settled. A failed order is not settled: the
+ * customer can retry on the same payment intent after a decline, and a later success still confirms the order, taking
+ * its stock again now that the holds are released.</p>
+ *
+ * <p>A payment whose stock is gone by the time it is applied, because the holds expired or an edit took the units,
+ * moves the order to {@code NEEDS_REFUND} instead of confirming and shipping it.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StripeWebhookProcessor {
+
+    public static final String PAYMENT_INTENT_SUCCEEDED = "payment_intent.succeeded";
+    public static final String PAYMENT_INTENT_FAILED = "payment_intent.payment_failed";
+    public static final String PAYMENT_INTENT_CANCELED = "payment_intent.canceled";
+
+    private static final Set<Status> SETTLED_STATUSES = EnumSet.of(
+            Status.CONFIRMED, Status.SHIPPED, Status.DELIVERED, Status.CANCELLED, Status.NEEDS_REFUND
+    );
+
+    private final OrderRepository orderRepository;
+    private final ShipmentService shippingService;
+    private final InventoryService inventoryService;
+    private final OrderSummaryService orderSummaryService;
+
+    public static boolean isHandled(String type) {
+        return PAYMENT_INTENT_SUCCEEDED.equals(type)
+                || PAYMENT_INTENT_FAILED.equals(type)
+                || PAYMENT_INTENT_CANCELED.equals(type);
+    }
+
+    /**
+     * Returns whether the order was moved; {@code false} when the type is not handled or the order is already settled.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean apply(String type, UUID orderId) {
+        if (!isHandled(type)) {
+            return false;
+        }
+
+        Order order = orderRepository.findByIdForUpdate(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found: " + orderId));
+
+        if (SETTLED_STATUSES.contains(order.getStatus())) {
+            log.warn("Ignoring {} for order {} in status {}", type, orderId, order.getStatus());
+            return false;
+        }
+
+        switch (type) {
+            case PAYMENT_INTENT_SUCCEEDED -> handlePaymentIntentSucceeded(order);
+            case PAYMENT_INTENT_FAILED -> handlePaymentIntentFailed(order);
+            case PAYMENT_INTENT_CANCELED -> handlePaymentIntentCanceled(order);
+            default -> {
+            }
+        }
+
+        return true;
+    }
+
+    private void handlePaymentIntentSucceeded(Order order) {
+        List<UUID> shortProducts = inventoryService.commit(order.getId());
+
+        if (!shortProducts.isEmpty()) {
+            log.error("Order {} was paid but products {} are out of stock, it needs a refund",
+                    order.getId(), shortProducts);
+            updateOrderStatus(order, Status.NEEDS_REFUND);
+            return;
+        }
+
+        updateOrderStatus(order, Status.CONFIRMED);
+        shippingService.initiateShipping(order.getId());
+    }
+
+    private void handlePaymentIntentFailed(Order order) {
+        inventoryService.release(order.getId());
+        updateOrderStatus(order, Status.FAILED);
+    }
+
+    private void handlePaymentIntentCanceled(Order order) {
+        inventoryService.release(order.getId());
+        updateOrderStatus(order, Status.CANCELLED);
+    }
+
+    private void updateOrderStatus(Order order, Status status) {
+        order.setStatus(status);
+        orderRepository.save(order);
+        orderSummaryService.updateStatus(order);
+    }
+}
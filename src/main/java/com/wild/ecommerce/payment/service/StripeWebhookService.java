@@ -0,0 +1,27 @@
+package com.wild.ecommerce.payment.service;
+
+import com.stripe.model.Event;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface StripeWebhookService {
+
+    /**
+     * Stores a verified event for processing and returns its ID. Returns empty without storing anything when the
+     * event was already received or is of a type that is not handled.
+     */
+    Optional<UUID> receive(Event event, String payload);
+
+    /**
+     * Applies one stored event if it is due and no earlier event for the same order is still pending, then carries
+     * on with the order's next event.
+     */
+    void process(UUID id);
+
+    /**
+     * Returns up to {@code batchSize} due events that are first in line for their order.
+     */
+    List<UUID> findDueIds(int batchSize);
+}
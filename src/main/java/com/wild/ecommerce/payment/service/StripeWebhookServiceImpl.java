@@ -0,0 +1,253 @@
+package com.wild.ecommerce.payment.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.stripe.model.Event;
+import com.stripe.model.PaymentIntent;
+import com.wild.ecommerce.payment.model.StripeWebhookEvent;
+import com.wild.ecommerce.payment.model.WebhookEventStatus;
+import com.wild.ecommerce.payment.repository.StripeWebhookEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Turns Stripe webhook deliveries into rows of a local queue and applies them outside the request.
+ *
+ * <p>Stripe delivers at least once, so the event ID is a unique key. Recently seen IDs are also kept in a bounded
+ * in-memory set, which rejects most redeliveries with a single lookup instead of a failed insert.</p>
+ *
+ * <p>Events for one order are applied in arrival order: an event is only claimed while no earlier event for its
+ * order is pending, and the worker that applied one moves straight on to the next. A failed event is retried with
+ * exponential backoff and holds back the events behind it until it succeeds or is given up on.</p>
+ */
+@Service
+@Slf4j
+public class StripeWebhookServiceImpl implements StripeWebhookService {
+
+    private static final String ORDER_ID_METADATA = "orderId";
+
+    private final StripeWebhookEventRepository stripeWebhookEventRepository;
+    private final StripeWebhookProcessor stripeWebhookProcessor;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache<String, Boolean> seenEventIds;
+
+    private final Counter received;
+    private final Counter duplicates;
+
+    @Value("${stripe.webhook.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${stripe.webhook.lease:60s}")
+    private Duration lease;
+
+    @Value("${stripe.webhook.retry-backoff:5s}")
+    private Duration retryBackoff;
+
+    @Value("${stripe.webhook.max-backoff:1h}")
+    private Duration maxBackoff;
+
+    public StripeWebhookServiceImpl(
+            StripeWebhookEventRepository stripeWebhookEventRepository,
+            StripeWebhookProcessor stripeWebhookProcessor,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${stripe.webhook.dedupe-cache.maximum-size:100000}") long maximumSize,
+            @Value("${stripe.webhook.dedupe-cache.ttl:72h}") Duration ttl
+    ) {
+        this.stripeWebhookEventRepository = stripeWebhookEventRepository;
+        this.stripeWebhookProcessor = stripeWebhookProcessor;
+        this.transactionTemplate = transactionTemplate;
+        this.seenEventIds = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+
+        this.received = counter(meterRegistry, "received");
+        this.duplicates = counter(meterRegistry, "duplicate");
+    }
+
+    @Override
+    public Optional<UUID> receive(Event event, String payload) {
+        if (!StripeWebhookProcessor.isHandled(event.getType())) {
+            return Optional.empty();
+        }
+
+        UUID orderId = orderId(event);
+
+        // Payment intents not created for an order leave nothing to update
+        if (orderId == null) {
+            return Optional.empty();
+        }
+
+        if (seenEventIds.getIfPresent(event.getId()) != null) {
+            duplicates.increment();
+            return Optional.empty();
+        }
+
+        StripeWebhookEvent webhookEvent = new StripeWebhookEvent();
+        webhookEvent.setEventId(event.getId());
+        webhookEvent.setType(event.getType());
+        webhookEvent.setOrderId(orderId);
+        webhookEvent.setPayload(payload);
+        webhookEvent.setStatus(WebhookEventStatus.PENDING);
+        webhookEvent.setNextAttemptAt(LocalDateTime.now());
+
+        UUID id;
+
+        try {
+            id = transactionTemplate.execute(_ -> stripeWebhookEventRepository.saveAndFlush(webhookEvent).getId());
+        } catch (DataIntegrityViolationException e) {
+            // Redelivered while the first delivery was being stored, or seen by another node
+            seenEventIds.put(event.getId(), Boolean.TRUE);
+            duplicates.increment();
+            return Optional.empty();
+        }
+
+        seenEventIds.put(event.getId(), Boolean.TRUE);
+        received.increment();
+
+        return Optional.ofNullable(id);
+    }
+
+    @Override
+    public void process(UUID id) {
+        UUID next = id;
+
+        while (next != null) {
+            UUID orderId = processOne(next);
+
+            next = orderId != null ? nextFor(orderId) : null;
+        }
+    }
+
+    @Override
+    public List<UUID> findDueIds(int batchSize) {
+        List<UUID> dueIds = transactionTemplate.execute(_ ->
+                stripeWebhookEventRepository.findDueIds(LocalDateTime.now(), Limit.of(batchSize))
+        );
+
+        return dueIds != null ? dueIds : List.of();
+    }
+
+    /**
+     * Applies the event if it can be claimed, and returns its order ID when it was applied, so the order's next event
+     * can follow.
+     */
+    private UUID processOne(UUID id) {
+        ClaimedEvent claimed = transactionTemplate.execute(_ -> claim(id));
+
+        if (claimed == null) {
+            return null;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(_ -> {
+                stripeWebhookProcessor.apply(claimed.type(), claimed.orderId());
+                recordSuccess(id);
+            });
+
+            log.info("Processed Stripe event {} ({}) for order {}", claimed.eventId(), claimed.type(), claimed.orderId());
+
+            return claimed.orderId();
+        } catch (RuntimeException e) {
+            log.warn("Processing Stripe event {} ({}) failed on attempt {}",
+                    claimed.eventId(), claimed.type(), claimed.attempts(), e);
+
+            transactionTemplate.executeWithoutResult(_ -> recordFailure(id, claimed, e.getMessage()));
+
+            return null;
+        }
+    }
+
+    private ClaimedEvent claim(UUID id) {
+        StripeWebhookEvent event = stripeWebhookEventRepository.findById(id).orElse(null);
+
+        if (event == null || event.getStatus() != WebhookEventStatus.PENDING) {
+            return null;
+        }
+
+        if (stripeWebhookEventRepository.existsEarlierPending(event.getOrderId(), id)) {
+            return null;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+
+        if (stripeWebhookEventRepository.claim(id, now, now.plus(lease)) == 0) {
+            return null;
+        }
+
+        return new ClaimedEvent(event.getEventId(), event.getType(), event.getOrderId(), event.getAttempts() + 1);
+    }
+
+    private UUID nextFor(UUID orderId) {
+        List<UUID> next = transactionTemplate.execute(_ ->
+                stripeWebhookEventRepository.findDueIdsByOrderId(orderId, LocalDateTime.now(), Limit.of(1))
+        );
+
+        return next == null || next.isEmpty() ? null : next.getFirst();
+    }
+
+    private void recordSuccess(UUID id) {
+        StripeWebhookEvent event = stripeWebhookEventRepository.findById(id).orElseThrow();
+        event.setStatus(WebhookEventStatus.PROCESSED);
+        event.setLastError(null);
+    }
+
+    private void recordFailure(UUID id, ClaimedEvent claimed, String message) {
+        StripeWebhookEvent event = stripeWebhookEventRepository.findById(id).orElseThrow();
+        event.setLastError(truncate(message));
+
+        if (claimed.attempts() < maxAttempts) {
+            event.setNextAttemptAt(LocalDateTime.now().plus(backoff(claimed.attempts())));
+            return;
+        }
+
+        // Frees the events queued behind this one for the same order
+        event.setStatus(WebhookEventStatus.FAILED);
+
+        log.error("Giving up on Stripe event {} ({}) for order {} after {} attempts",
+                claimed.eventId(), claimed.type(), claimed.orderId(), claimed.attempts());
+    }
+
+    private Duration backoff(int attempts) {
+        Duration backoff = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+
+    private static UUID orderId(Event event) {
+        String orderId = event.getDataObjectDeserializer()
+                .getObject()
+                .filter(PaymentIntent.class::isInstance)
+                .map(object -> ((PaymentIntent) object).getMetadata().get(ORDER_ID_METADATA))
+                .orElse(null);
+
+        return orderId != null ? UUID.fromString(orderId) : null;
+    }
+
+    private static String truncate(String message) {
+        return message != null && message.length() > 500 ? message.substring(0, 500) : message;
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("stripe.webhook.events")
+                .description("Stripe webhook deliveries, by whether they were new")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record ClaimedEvent(String eventId, String type, UUID orderId, int attempts) {
+    }
+}
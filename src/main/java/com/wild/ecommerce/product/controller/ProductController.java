@@ -1,18 +1,35 @@
 package com.wild.ecommerce.product.controller;
 
+import com.wild.ecommerce.common.cache.CacheTagService;
+import com.wild.ecommerce.common.dto.CursorPageResponse;
 import com.wild.ecommerce.common.dto.PageResponse;
+import com.wild.ecommerce.common.model.DataFormat;
+import com.wild.ecommerce.common.util.HttpCaching;
 import com.wild.ecommerce.product.dto.CreateProductRequest;
 import com.wild.ecommerce.product.dto.ProductDTO;
+import com.wild.ecommerce.product.dto.ProductImportResponse;
+import com.wild.ecommerce.product.dto.ProductSummaryDTO;
+import com.wild.ecommerce.product.dto.StockBucketsDTO;
 import com.wild.ecommerce.product.dto.UpdateProductRequest;
+import com.wild.ecommerce.product.dto.UpdateStockBucketsRequest;
+import com.wild.ecommerce.product.service.ProductExportService;
+import com.wild.ecommerce.product.service.ProductImportService;
 import com.wild.ecommerce.product.service.ProductService;
+import com.wild.ecommerce.product.service.ProductStockService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PagedModel;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -22,10 +39,18 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -35,6 +60,15 @@ import java.util.UUID;
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductImportService productImportService;
+    private final ProductExportService productExportService;
+    private final ProductStockService productStockService;
+
+    @Value("${http.cache.catalog.max-age}")
+    private Duration catalogMaxAge;
+
+    @Value("${http.cache.catalog.s-maxage}")
+    private Duration catalogSharedMaxAge;
 
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<UUID> createProduct(@Valid @ModelAttribute CreateProductRequest request) {
@@ -43,16 +77,54 @@ public class ProductController {
         return new ResponseEntity<>(product.id(), HttpStatus.CREATED);
     }
 
+    @PostMapping(value = "import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<ProductImportResponse> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body
+    ) {
+        ProductImportResponse response = productImportService.importProducts(body, DataFormat.fromMediaType(contentType));
+
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    @GetMapping("export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(value = "format", defaultValue = "NDJSON") DataFormat format
+    ) {
+        StreamingResponseBody body = out -> productExportService.exportProducts(format, out);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("products." + format.name().toLowerCase())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
     @GetMapping
-    public ResponseEntity<PagedModel<ProductDTO>> getAllProducts(
+    public ResponseEntity<PagedModel<ProductSummaryDTO>> getAllProducts(
             @RequestParam(value = "pageNumber", defaultValue = "0") int pageNumber,
             @RequestParam(value = "pageSize", defaultValue = "10") int pageSize,
             @RequestParam(value = "sortBy", defaultValue = "id") String sortBy,
             @RequestParam(value = "sortOrder", defaultValue = "ASC") String sortOrder,
             @RequestParam(value = "name", required = false) String name,
             @RequestParam(value = "brand", required = false) String brand,
-            @RequestParam(value = "categoryId", required = false) UUID categoryId
+            @RequestParam(value = "categoryId", required = false) UUID categoryId,
+            WebRequest webRequest
     ) {
+        // Read the generation before the page so a concurrent write can only make the tag older, never newer
+        String etag = HttpCaching.etag(productService.getProductsVersion(categoryId));
+        String surrogateKey = categoryId != null ? CacheTagService.category(categoryId) : CacheTagService.CATALOG;
+
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(catalogCacheControl())
+                    .header(HttpCaching.SURROGATE_KEY, surrogateKey)
+                    .build();
+        }
+
         Sort.Direction direction = sortOrder.equalsIgnoreCase("DESC")
                 ? Sort.Direction.DESC
                 : Sort.Direction.ASC;
@@ -60,27 +132,102 @@ public class ProductController {
         Sort sort = Sort.by(direction, sortBy);
         Pageable pageable = PageRequest.of(pageNumber, pageSize, sort);
 
-        PageResponse<ProductDTO> productsResponse = productService.getAllProducts(pageable, name, brand, categoryId);
-        Page<ProductDTO> products = productsResponse.toPage();
+        PageResponse<ProductSummaryDTO> productsResponse = productService.getAllProducts(
+                pageable, name, brand, categoryId
+        );
+        Page<ProductSummaryDTO> products = productsResponse.toPage();
 
-        return new ResponseEntity<>(new PagedModel<>(products), HttpStatus.OK);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(catalogCacheControl())
+                .header(HttpCaching.SURROGATE_KEY, surrogateKey)
+                .body(new PagedModel<>(products));
+    }
+
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<ProductDTO>> getProductsByIds(
+            @RequestParam("ids") @NotEmpty @Size(max = 100) List<UUID> ids
+    ) {
+        List<ProductDTO> products = productService.getProductsByIds(ids);
+
+        return new ResponseEntity<>(products, HttpStatus.OK);
+    }
+
+    @GetMapping("scroll")
+    public ResponseEntity<CursorPageResponse<ProductDTO>> scrollProducts(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "pageSize", defaultValue = "10") int pageSize,
+            @RequestParam(value = "sortBy", defaultValue = "id") String sortBy,
+            @RequestParam(value = "sortOrder", defaultValue = "ASC") String sortOrder,
+            @RequestParam(value = "name", required = false) String name,
+            @RequestParam(value = "brand", required = false) String brand,
+            @RequestParam(value = "categoryId", required = false) UUID categoryId
+    ) {
+        Sort.Direction direction = sortOrder.equalsIgnoreCase("DESC")
+                ? Sort.Direction.DESC
+                : Sort.Direction.ASC;
+
+        CursorPageResponse<ProductDTO> response = productService.scrollProducts(
+                pageSize, Sort.by(direction, sortBy), cursor, name, brand, categoryId
+        );
+
+        return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
     @GetMapping("{id}")
     public ResponseEntity<ProductDTO> getProductById(@PathVariable("id") UUID id) {
         ProductDTO product = productService.getProductById(id);
 
-        return new ResponseEntity<>(product, HttpStatus.OK);
+        // Spring answers a matching If-None-Match with 304 before the body is serialized
+        return ResponseEntity.ok()
+                .eTag(HttpCaching.etag(product.version()))
+                .cacheControl(catalogCacheControl())
+                .header(HttpCaching.SURROGATE_KEY, HttpCaching.product(id))
+                .body(product);
     }
 
     @PatchMapping(value = "{id}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<ProductDTO> updateProduct(
             @PathVariable("id") UUID id,
-            @Valid @ModelAttribute UpdateProductRequest request
+            @Valid @ModelAttribute UpdateProductRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        ProductDTO product = productService.updateProduct(id, request, HttpCaching.expectedVersion(ifMatch));
+
+        return ResponseEntity.ok()
+                .eTag(HttpCaching.etag(product.version()))
+                .body(product);
+    }
+
+    @GetMapping("{id}/stock-buckets")
+    public ResponseEntity<StockBucketsDTO> getStockBuckets(@PathVariable("id") UUID id) {
+        StockBucketsDTO stockBuckets = productStockService.getStockBuckets(id);
+
+        return new ResponseEntity<>(stockBuckets, HttpStatus.OK);
+    }
+
+    @PutMapping("{id}/stock-buckets")
+    public ResponseEntity<StockBucketsDTO> configureStockBuckets(
+            @PathVariable("id") UUID id,
+            @Valid @RequestBody UpdateStockBucketsRequest request
     ) {
-        ProductDTO product = productService.updateProduct(id, request);
+        StockBucketsDTO stockBuckets = productStockService.configureStockBuckets(id, request.buckets());
+
+        return new ResponseEntity<>(stockBuckets, HttpStatus.OK);
+    }
+
+    @PostMapping("{id}/stock-buckets/rebalance")
+    public ResponseEntity<StockBucketsDTO> rebalanceStockBuckets(@PathVariable("id") UUID id) {
+        StockBucketsDTO stockBuckets = productStockService.rebalanceStockBuckets(id);
 
-        return new ResponseEntity<>(product, HttpStatus.OK);
+        return new ResponseEntity<>(stockBuckets, HttpStatus.OK);
+    }
+
+    @DeleteMapping("{id}/stock-buckets")
+    public ResponseEntity<StockBucketsDTO> disableStockBuckets(@PathVariable("id") UUID id) {
+        StockBucketsDTO stockBuckets = productStockService.configureStockBuckets(id, 0);
+
+        return new ResponseEntity<>(stockBuckets, HttpStatus.OK);
     }
 
     @DeleteMapping("{id}")
@@ -89,4 +236,8 @@ public class ProductController {
 
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
+
+    private CacheControl catalogCacheControl() {
+        return CacheControl.maxAge(catalogMaxAge).sMaxAge(catalogSharedMaxAge).cachePublic();
+    }
 }
@@ -11,6 +11,7 @@ public record ProductDTO(
         BigDecimal price,
         int stock,
         String imageUrl,
-        String categoryName
+        String categoryName,
+        long version
 ) {
 }
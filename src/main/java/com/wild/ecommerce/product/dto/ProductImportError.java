@@ -0,0 +1,7 @@
+package com.wild.ecommerce.product.dto;
+
+public record ProductImportError(
+        long line,
+        String message
+) {
+}
@@ -0,0 +1,12 @@
+package com.wild.ecommerce.product.dto;
+
+import java.util.List;
+
+public record ProductImportResponse(
+        long processed,
+        long created,
+        long updated,
+        long failed,
+        List<ProductImportError> errors
+) {
+}
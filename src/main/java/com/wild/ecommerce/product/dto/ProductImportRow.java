@@ -0,0 +1,14 @@
+package com.wild.ecommerce.product.dto;
+
+import java.math.BigDecimal;
+
+public record ProductImportRow(
+        String name,
+        String brand,
+        String description,
+        BigDecimal price,
+        Integer stock,
+        String imageUrl,
+        String category
+) {
+}
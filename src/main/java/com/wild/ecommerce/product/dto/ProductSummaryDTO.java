@@ -0,0 +1,16 @@
+package com.wild.ecommerce.product.dto;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public record ProductSummaryDTO(
+        UUID id,
+        String name,
+        String brand,
+        BigDecimal price,
+        int stock,
+        String imageUrl,
+        String categoryName,
+        long version
+) {
+}
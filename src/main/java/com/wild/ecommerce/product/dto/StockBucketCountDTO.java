@@ -0,0 +1,9 @@
+package com.wild.ecommerce.product.dto;
+
+import java.util.UUID;
+
+public record StockBucketCountDTO(
+        UUID productId,
+        int buckets
+) {
+}
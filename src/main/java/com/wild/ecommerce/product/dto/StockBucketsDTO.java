@@ -0,0 +1,16 @@
+package com.wild.ecommerce.product.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Where a product's stock lives: {@code stock} and {@code reserved} are the product row, {@code buckets} the free
+ * units in each shard, in bucket order.
+ */
+public record StockBucketsDTO(
+        UUID productId,
+        int stock,
+        int reserved,
+        List<Integer> buckets
+) {
+}
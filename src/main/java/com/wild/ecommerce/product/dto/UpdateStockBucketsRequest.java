@@ -0,0 +1,11 @@
+package com.wild.ecommerce.product.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+
+public record UpdateStockBucketsRequest(
+        @Min(value = 0, message = "Bucket count cannot be negative")
+        @Max(value = 64, message = "Bucket count cannot be greater than 64")
+        int buckets
+) {
+}
@@ -17,9 +17,10 @@ public class ProductMapper implements Function<Product, ProductDTO> {
                 product.getBrand(),
                 product.getDescription(),
                 product.getPrice(),
-                product.getStock(),
+                product.getStock() + product.getBucketStock() + product.getBucketHeld(),
                 product.getImageUrl(),
-                product.getCategory().getName()
+                product.getCategory().getName(),
+                product.getVersion()
         );
     }
 }
@@ -2,19 +2,22 @@ package com.wild.ecommerce.product.model;
 
 import com.wild.ecommerce.category.model.Category;
 import com.wild.ecommerce.common.model.Auditable;
+import com.wild.ecommerce.common.model.TimeOrderedUuid;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.Formula;
 
 import java.math.BigDecimal;
 import java.util.UUID;
@@ -24,11 +27,11 @@ import java.util.UUID;
 @Getter
 @Setter
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = @Index(name = "idx_products_brand_name", columnList = "brand, name"))
 public class Product extends Auditable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
 
     @Column(nullable = false, length = 50)
@@ -46,10 +49,42 @@ public class Product extends Auditable {
     @Column(nullable = false)
     private int stock;
 
+    /**
+     * Units held by unpaid orders. Only written by guarded bulk updates, never by entity saves.
+     */
+    @ColumnDefault("0")
+    @Column(nullable = false, insertable = false, updatable = false)
+    private int reserved;
+
+    /**
+     * Number of {@link ProductStockBucket} shards holding the free stock of a hot product, or 0 when all of it
+     * stays in {@link #stock}. Only changed through the stock bucket admin endpoints.
+     */
+    @ColumnDefault("0")
+    @Column(nullable = false, insertable = false, updatable = false)
+    private int stockBuckets;
+
+    /**
+     * Free units currently in the product's buckets, read along with the row. Views add it to {@link #stock}.
+     */
+    @Formula("(SELECT COALESCE(SUM(b.stock), 0) FROM product_stock_buckets b WHERE b.product_id = id)")
+    private int bucketStock;
+
+    /**
+     * Units open orders took out of the buckets. They are in neither {@link #stock} nor {@link #bucketStock} until
+     * released or paid, so views and stock edits add them back the way {@link #reserved} is part of {@link #stock}.
+     */
+    @Formula("(SELECT COALESCE(SUM(r.quantity), 0) FROM stock_reservations r " +
+            "WHERE r.product_id = id AND r.status = 'ACTIVE' AND r.bucketed = 1)")
+    private int bucketHeld;
+
     @Column(length = 500)
     private String imageUrl;
 
     @ManyToOne(targetEntity = Category.class, fetch = FetchType.EAGER)
     @JoinColumn(name = "category_id")
     private Category category;
+
+    @Version
+    private long version;
 }
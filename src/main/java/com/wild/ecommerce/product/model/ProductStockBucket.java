@@ -0,0 +1,42 @@
+package com.wild.ecommerce.product.model;
+
+import com.wild.ecommerce.common.model.TimeOrderedUuid;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+/**
+ * One shard of a hot product's free stock. Checkouts take from different shards so they do not queue on a
+ * single row lock.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "product_stock_buckets", uniqueConstraints = @UniqueConstraint(
+        name = "uk_product_stock_buckets_product_bucket", columnNames = {"product_id", "bucket_no"}
+))
+public class ProductStockBucket {
+
+    @Id
+    @TimeOrderedUuid
+    private UUID id;
+
+    @Column(name = "product_id", nullable = false)
+    private UUID productId;
+
+    @Column(name = "bucket_no", nullable = false)
+    private int bucketNo;
+
+    @Column(nullable = false)
+    private int stock;
+}
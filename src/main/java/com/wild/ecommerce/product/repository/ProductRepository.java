@@ -1,12 +1,133 @@
 package com.wild.ecommerce.product.repository;
 
+import com.wild.ecommerce.common.config.JpaConfig;
+import com.wild.ecommerce.inventory.dto.InventoryDTO;
+import com.wild.ecommerce.product.dto.ProductDTO;
+import com.wild.ecommerce.product.dto.ProductSummaryDTO;
+import com.wild.ecommerce.product.dto.StockBucketCountDTO;
 import com.wild.ecommerce.product.model.Product;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import com.wild.ecommerce.product.search.ProductSearchDocument;
+import org.jspecify.annotations.Nullable;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, UUID>, JpaSpecificationExecutor<Product> {
+public interface ProductRepository extends JpaRepository<Product, UUID>, JpaSpecificationExecutor<Product>,
+        ProductSummaryRepository {
+
+    @Override
+    @EntityGraph(attributePaths = "category")
+    List<Product> findAllById(Iterable<UUID> ids);
+
+    @Query("SELECT new com.wild.ecommerce.product.dto.ProductSummaryDTO(" +
+            "p.id, p.name, p.brand, p.price, p.stock + p.bucketStock + p.bucketHeld, p.imageUrl, c.name, p.version) " +
+            "FROM Product p LEFT JOIN p.category c " +
+            "WHERE p.id IN :ids")
+    List<ProductSummaryDTO> findSummariesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT new com.wild.ecommerce.product.search.ProductSearchDocument(p.id, p.name, p.brand, p.price, c.id) " +
+            "FROM Product p LEFT JOIN p.category c " +
+            "WHERE :afterId IS NULL OR p.id > :afterId " +
+            "ORDER BY p.id")
+    List<ProductSearchDocument> findSearchDocuments(@Param("afterId") @Nullable UUID afterId, Pageable pageable);
+
+    @Query("SELECT new com.wild.ecommerce.product.search.ProductSearchDocument(p.id, p.name, p.brand, p.price, c.id) " +
+            "FROM Product p LEFT JOIN p.category c " +
+            "WHERE p.id = :id")
+    Optional<ProductSearchDocument> findSearchDocument(@Param("id") UUID id);
+
+    @Query("SELECT new com.wild.ecommerce.product.dto.ProductDTO(" +
+            "p.id, p.name, p.brand, p.description, p.price, p.stock + p.bucketStock + p.bucketHeld, p.imageUrl, " +
+            "c.name, p.version) " +
+            "FROM Product p LEFT JOIN p.category c " +
+            "ORDER BY p.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = JpaConfig.STREAMING_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<ProductDTO> streamAllForExport();
+
+    /**
+     * Takes {@code quantity} units only if that many are neither sold nor held; returns 0 when the product is
+     * missing or short.
+     */
+    @Modifying
+    @Query("UPDATE Product p SET p.stock = p.stock - :quantity, p.version = p.version + 1 " +
+            "WHERE p.id = :id AND p.stock - p.reserved >= :quantity")
+    int decrementStock(@Param("id") UUID id, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.stock = p.stock + :quantity, p.version = p.version + 1 WHERE p.id = :id")
+    int incrementStock(@Param("id") UUID id, @Param("quantity") int quantity);
+
+    /**
+     * Holds {@code quantity} units only if that many are neither sold nor held by another order.
+     */
+    @Modifying
+    @Query("UPDATE Product p SET p.reserved = p.reserved + :quantity " +
+            "WHERE p.id = :id AND p.stock - p.reserved >= :quantity")
+    int reserveStock(@Param("id") UUID id, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.stock = p.stock - :quantity, p.reserved = p.reserved - :quantity, " +
+            "p.version = p.version + 1 " +
+            "WHERE p.id = :id AND p.reserved >= :quantity AND p.stock >= :quantity")
+    int commitReservedStock(@Param("id") UUID id, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.reserved = p.reserved - :quantity WHERE p.id = :id AND p.reserved >= :quantity")
+    int releaseReservedStock(@Param("id") UUID id, @Param("quantity") int quantity);
+
+    /**
+     * Rebuilds the hold counter from the product's active row holds in the reservation ledger.
+     */
+    @Modifying
+    @Query("UPDATE Product p SET p.reserved = (" +
+            "SELECT COALESCE(SUM(r.quantity), 0) FROM StockReservation r WHERE r.productId = p.id " +
+            "AND r.status = com.wild.ecommerce.inventory.model.ReservationStatus.ACTIVE AND r.bucketed = false" +
+            ") WHERE p.id = :id")
+    int recountReservedStock(@Param("id") UUID id);
+
+    @Query("SELECT new com.wild.ecommerce.inventory.dto.InventoryDTO(" +
+            "p.id, p.stock + p.bucketStock + p.bucketHeld, p.reserved + p.bucketHeld) " +
+            "FROM Product p WHERE p.id IN :ids")
+    List<InventoryDTO> findInventoryByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT DISTINCT p.category.id FROM Product p WHERE p.id IN :ids")
+    List<UUID> findCategoryIdsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT new com.wild.ecommerce.product.dto.StockBucketCountDTO(p.id, p.stockBuckets) " +
+            "FROM Product p WHERE p.id IN :ids AND p.stockBuckets > 0")
+    List<StockBucketCountDTO> findStockBucketCounts(@Param("ids") Collection<UUID> ids);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id = :id")
+    Optional<Product> findByIdForUpdate(@Param("id") UUID id);
+
+    /**
+     * Moves {@code delta} units between the product row and its buckets and records the new bucket count.
+     */
+    @Modifying
+    @Query("UPDATE Product p SET p.stock = p.stock + :delta, p.stockBuckets = :buckets, p.version = p.version + 1 " +
+            "WHERE p.id = :id")
+    int updateStockBuckets(@Param("id") UUID id, @Param("delta") int delta, @Param("buckets") int buckets);
+
+    List<Product> findAllByBrandInAndNameIn(Collection<String> brands, Collection<String> names);
 }
@@ -0,0 +1,70 @@
+package com.wild.ecommerce.product.repository;
+
+import com.wild.ecommerce.product.model.ProductStockBucket;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ProductStockBucketRepository extends JpaRepository<ProductStockBucket, UUID> {
+
+    /**
+     * Locks the first bucket at or after {@code from} that can cover the quantity, skipping buckets other
+     * checkouts are holding instead of waiting for them.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_LOCK_TIMEOUT, value = "-2"))
+    @Query("SELECT b FROM ProductStockBucket b " +
+            "WHERE b.productId = :productId AND b.stock >= :quantity AND b.bucketNo >= :from " +
+            "ORDER BY b.bucketNo")
+    List<ProductStockBucket> lockAvailableFrom(
+            @Param("productId") UUID productId,
+            @Param("quantity") int quantity,
+            @Param("from") int from,
+            Limit limit
+    );
+
+    /**
+     * Same as {@link #lockAvailableFrom}, wrapping around to the buckets before {@code to}.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_LOCK_TIMEOUT, value = "-2"))
+    @Query("SELECT b FROM ProductStockBucket b " +
+            "WHERE b.productId = :productId AND b.stock >= :quantity AND b.bucketNo < :to " +
+            "ORDER BY b.bucketNo")
+    List<ProductStockBucket> lockAvailableBefore(
+            @Param("productId") UUID productId,
+            @Param("quantity") int quantity,
+            @Param("to") int to,
+            Limit limit
+    );
+
+    /**
+     * Locks every bucket of the product in bucket order, waiting for checkouts holding them.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<ProductStockBucket> findByProductIdOrderByBucketNo(UUID productId);
+
+    @Query("SELECT b.stock FROM ProductStockBucket b WHERE b.productId = :productId ORDER BY b.bucketNo")
+    List<Integer> findStockByProductId(@Param("productId") UUID productId);
+
+    @Modifying
+    @Query("UPDATE ProductStockBucket b SET b.stock = b.stock + :quantity " +
+            "WHERE b.productId = :productId AND b.bucketNo = :bucketNo")
+    int incrementStock(
+            @Param("productId") UUID productId,
+            @Param("bucketNo") int bucketNo,
+            @Param("quantity") int quantity
+    );
+}
@@ -0,0 +1,16 @@
+package com.wild.ecommerce.product.repository;
+
+import com.wild.ecommerce.product.dto.ProductSummaryDTO;
+import com.wild.ecommerce.product.model.Product;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface ProductSummaryRepository {
+
+    /**
+     * Pages the list-card columns of matching products as constructor results, so no entity is hydrated, no
+     * description is read and the category name comes from the same query.
+     */
+    Page<ProductSummaryDTO> findSummaries(Specification<Product> specification, Pageable pageable);
+}
@@ -0,0 +1,92 @@
+package com.wild.ecommerce.product.repository;
+
+import com.wild.ecommerce.category.model.Category;
+import com.wild.ecommerce.product.dto.ProductSummaryDTO;
+import com.wild.ecommerce.product.model.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+class ProductSummaryRepositoryImpl implements ProductSummaryRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Page<ProductSummaryDTO> findSummaries(Specification<Product> specification, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<ProductSummaryDTO> query = cb.createQuery(ProductSummaryDTO.class);
+        Root<Product> root = query.from(Product.class);
+        Join<Product, Category> category = root.join("category", JoinType.LEFT);
+
+        query.select(cb.construct(
+                ProductSummaryDTO.class,
+                root.get("id"),
+                root.get("name"),
+                root.get("brand"),
+                root.get("price"),
+                cb.sum(
+                        cb.sum(root.<Integer>get("stock"), root.<Integer>get("bucketStock")),
+                        root.<Integer>get("bucketHeld")
+                ),
+                root.get("imageUrl"),
+                category.get("name"),
+                root.get("version")
+        ));
+        applyWhere(query, root, cb, specification);
+
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+
+        TypedQuery<ProductSummaryDTO> typedQuery = entityManager.createQuery(query);
+
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+
+        List<ProductSummaryDTO> content = typedQuery.getResultList();
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(specification));
+    }
+
+    private long count(Specification<Product> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Product> root = query.from(Product.class);
+
+        query.select(cb.count(root));
+        applyWhere(query, root, cb, specification);
+
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static void applyWhere(
+            CriteriaQuery<?> query,
+            Root<Product> root,
+            CriteriaBuilder cb,
+            Specification<Product> specification
+    ) {
+        Predicate predicate = specification.toPredicate(root, query, cb);
+
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.wild.ecommerce.product.search;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public record ProductSearchDocument(
+        UUID id,
+        String name,
+        String brand,
+        BigDecimal price,
+        UUID categoryId
+) {
+}
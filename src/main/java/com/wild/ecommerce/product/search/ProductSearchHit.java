@@ -0,0 +1,13 @@
+package com.wild.ecommerce.product.search;
+
+import java.util.UUID;
+
+public record ProductSearchHit(
+        ProductSearchDocument document,
+        double score
+) {
+
+    public UUID id() {
+        return document.id();
+    }
+}
@@ -0,0 +1,429 @@
+package com.wild.ecommerce.product.search;
+
+import com.wild.ecommerce.common.cache.CacheInvalidationPublisher;
+import com.wild.ecommerce.common.cache.LocalInvalidationListener;
+import com.wild.ecommerce.common.util.TransactionUtil;
+import com.wild.ecommerce.product.model.Product;
+import com.wild.ecommerce.product.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * In-memory inverted index over product names and brands.
+ *
+ * <p>Query tokens match indexed terms exactly, by prefix, or - when neither matches - by trigram similarity,
+ * which tolerates typos. Every query token has to match for a product to be returned.</p>
+ *
+ * <p>Every node keeps its own copy. Changes are broadcast on the L1 cache invalidation channel under
+ * {@link #INVALIDATION_NAME}, and the other nodes reload the changed product from the database.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSearchIndex implements LocalInvalidationListener {
+
+    public static final String RELEVANCE = "relevance";
+    public static final String INVALIDATION_NAME = "search:products";
+
+    private static final double EXACT_SCORE = 1.0;
+    private static final double PREFIX_SCORE = 0.8;
+    private static final double FUZZY_SCORE = 0.6;
+    private static final double MIN_SIMILARITY = 0.45;
+
+    private static final Comparator<ProductSearchHit> BY_RELEVANCE =
+            Comparator.comparingDouble(ProductSearchHit::score).reversed();
+
+    private final ProductRepository productRepository;
+    private final CacheInvalidationPublisher invalidationPublisher;
+
+    @Value("${search.products.enabled:true}")
+    private boolean enabled;
+
+    @Value("${search.products.rebuild-batch-size:5000}")
+    private int rebuildBatchSize;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<UUID, ProductSearchDocument> documents = new HashMap<>();
+    private final NavigableMap<String, Set<UUID>> nameTerms = new TreeMap<>();
+    private final NavigableMap<String, Set<UUID>> brandTerms = new TreeMap<>();
+    private final Map<String, Set<String>> trigramTerms = new HashMap<>();
+
+    private volatile boolean ready;
+
+    @PostConstruct
+    public void subscribe() {
+        invalidationPublisher.subscribe(INVALIDATION_NAME, this);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            log.info("Product search index is disabled");
+            return;
+        }
+
+        ready = false;
+        long start = System.currentTimeMillis();
+
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            nameTerms.clear();
+            brandTerms.clear();
+            trigramTerms.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        UUID lastId = null;
+        List<ProductSearchDocument> batch;
+
+        do {
+            batch = productRepository.findSearchDocuments(lastId, PageRequest.of(0, rebuildBatchSize));
+
+            lock.writeLock().lock();
+            try {
+                batch.forEach(this::put);
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            if (!batch.isEmpty()) {
+                lastId = batch.getLast().id();
+            }
+        } while (batch.size() == rebuildBatchSize);
+
+        ready = true;
+        log.info("Product search index built with {} products in {} ms",
+                documents.size(), System.currentTimeMillis() - start);
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    public void index(Product product) {
+        ProductSearchDocument document = new ProductSearchDocument(
+                product.getId(),
+                product.getName(),
+                product.getBrand(),
+                product.getPrice(),
+                product.getCategory() != null ? product.getCategory().getId() : null
+        );
+
+        TransactionUtil.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                put(document);
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            invalidationPublisher.publishEvict(INVALIDATION_NAME, document.id().toString());
+        });
+    }
+
+    public void remove(UUID id) {
+        TransactionUtil.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                delete(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            invalidationPublisher.publishEvict(INVALIDATION_NAME, id.toString());
+        });
+    }
+
+    /**
+     * Applies a product change made on another node, reading the product back so the broadcast stays small.
+     */
+    @Override
+    public void onEvict(String key) {
+        if (!enabled) {
+            return;
+        }
+
+        UUID id = UUID.fromString(key);
+        Optional<ProductSearchDocument> document = productRepository.findSearchDocument(id);
+
+        lock.writeLock().lock();
+        try {
+            document.ifPresentOrElse(this::put, () -> delete(id));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onClear() {
+        rebuild();
+    }
+
+    /**
+     * Returns the products matching the name and brand queries, or an empty optional when the index cannot
+     * answer the query (not built yet, disabled, or no text to search for).
+     */
+    public Optional<List<ProductSearchHit>> search(
+            @Nullable String name,
+            @Nullable String brand,
+            @Nullable UUID categoryId
+    ) {
+        if (!isReady() || (!StringUtils.hasText(name) && !StringUtils.hasText(brand))) {
+            return Optional.empty();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<UUID, Double> scores = null;
+
+            if (StringUtils.hasText(name)) {
+                scores = matchField(nameTerms, name);
+            }
+
+            if (StringUtils.hasText(brand)) {
+                Map<UUID, Double> brandScores = matchField(brandTerms, brand);
+                scores = scores == null ? brandScores : intersect(scores, brandScores);
+            }
+
+            List<ProductSearchHit> hits = new ArrayList<>(scores.size());
+            scores.forEach((id, score) -> {
+                ProductSearchDocument document = documents.get(id);
+
+                if (document != null && (categoryId == null || categoryId.equals(document.categoryId()))) {
+                    hits.add(new ProductSearchHit(document, score));
+                }
+            });
+
+            return Optional.of(hits);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Translates a page sort into an in-memory ordering of search hits. Returns an empty optional when the sort
+     * references a property the index does not hold, in which case the caller has to query the database.
+     */
+    public static Optional<Comparator<ProductSearchHit>> comparatorFor(Sort sort) {
+        Comparator<ProductSearchHit> comparator = null;
+
+        for (Sort.Order order : sort) {
+            Comparator<ProductSearchHit> next = switch (order.getProperty()) {
+                case RELEVANCE -> BY_RELEVANCE;
+                case "id" -> directed(Comparator.comparing(ProductSearchHit::id), order);
+                case "name" -> directed(byText(hit -> hit.document().name()), order);
+                case "brand" -> directed(byText(hit -> hit.document().brand()), order);
+                case "price" -> directed(byPrice(), order);
+                default -> null;
+            };
+
+            if (next == null) {
+                return Optional.empty();
+            }
+
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+
+        return Optional.of(comparator == null ? BY_RELEVANCE : comparator.thenComparing(BY_RELEVANCE));
+    }
+
+    private void put(ProductSearchDocument document) {
+        delete(document.id());
+        documents.put(document.id(), document);
+        tokenize(document.name()).forEach(term -> addTerm(nameTerms, term, document.id()));
+        tokenize(document.brand()).forEach(term -> addTerm(brandTerms, term, document.id()));
+    }
+
+    private void delete(UUID id) {
+        ProductSearchDocument existing = documents.remove(id);
+
+        if (existing != null) {
+            tokenize(existing.name()).forEach(term -> removeTerm(nameTerms, term, id));
+            tokenize(existing.brand()).forEach(term -> removeTerm(brandTerms, term, id));
+        }
+    }
+
+    private void addTerm(Map<String, Set<UUID>> terms, String term, UUID id) {
+        terms.computeIfAbsent(term, _ -> new HashSet<>()).add(id);
+        trigrams(term).forEach(gram -> trigramTerms.computeIfAbsent(gram, _ -> new HashSet<>()).add(term));
+    }
+
+    private void removeTerm(Map<String, Set<UUID>> terms, String term, UUID id) {
+        Set<UUID> ids = terms.get(term);
+
+        if (ids == null) {
+            return;
+        }
+
+        ids.remove(id);
+
+        if (ids.isEmpty()) {
+            terms.remove(term);
+
+            if (!nameTerms.containsKey(term) && !brandTerms.containsKey(term)) {
+                for (String gram : trigrams(term)) {
+                    Set<String> gramTerms = trigramTerms.get(gram);
+
+                    if (gramTerms != null) {
+                        gramTerms.remove(term);
+
+                        if (gramTerms.isEmpty()) {
+                            trigramTerms.remove(gram);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private Map<UUID, Double> matchField(NavigableMap<String, Set<UUID>> terms, String query) {
+        Map<UUID, Double> scores = null;
+
+        for (String token : tokenize(query)) {
+            Map<UUID, Double> tokenScores = matchToken(terms, token);
+            scores = scores == null ? tokenScores : intersect(scores, tokenScores);
+
+            if (scores.isEmpty()) {
+                break;
+            }
+        }
+
+        return scores == null ? new HashMap<>() : scores;
+    }
+
+    private Map<UUID, Double> matchToken(NavigableMap<String, Set<UUID>> terms, String token) {
+        Map<UUID, Double> scores = new HashMap<>();
+
+        Set<UUID> exact = terms.get(token);
+        if (exact != null) {
+            exact.forEach(id -> scores.merge(id, EXACT_SCORE, Double::max));
+        }
+
+        for (Map.Entry<String, Set<UUID>> entry : terms.subMap(token, false, token + Character.MAX_VALUE, true).entrySet()) {
+            double score = PREFIX_SCORE * token.length() / entry.getKey().length();
+            entry.getValue().forEach(id -> scores.merge(id, score, Double::max));
+        }
+
+        if (scores.isEmpty()) {
+            similarTerms(token).forEach((term, similarity) -> {
+                Set<UUID> ids = terms.get(term);
+
+                if (ids != null) {
+                    double score = FUZZY_SCORE * similarity;
+                    ids.forEach(id -> scores.merge(id, score, Double::max));
+                }
+            });
+        }
+
+        return scores;
+    }
+
+    private Map<String, Double> similarTerms(String token) {
+        Set<String> queryGrams = trigrams(token);
+        Map<String, Integer> shared = new HashMap<>();
+
+        for (String gram : queryGrams) {
+            Set<String> terms = trigramTerms.get(gram);
+
+            if (terms != null) {
+                terms.forEach(term -> shared.merge(term, 1, Integer::sum));
+            }
+        }
+
+        Map<String, Double> similar = new HashMap<>();
+        shared.forEach((term, count) -> {
+            double similarity = (double) count / (queryGrams.size() + trigrams(term).size() - count);
+
+            if (similarity >= MIN_SIMILARITY) {
+                similar.put(term, similarity);
+            }
+        });
+
+        return similar;
+    }
+
+    private static Map<UUID, Double> intersect(Map<UUID, Double> left, Map<UUID, Double> right) {
+        Map<UUID, Double> result = new HashMap<>();
+
+        left.forEach((id, score) -> {
+            Double other = right.get(id);
+
+            if (other != null) {
+                result.put(id, score + other);
+            }
+        });
+
+        return result;
+    }
+
+    static Set<String> tokenize(@Nullable String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+
+        if (text == null) {
+            return tokens;
+        }
+
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+
+        return tokens;
+    }
+
+    static Set<String> trigrams(String term) {
+        String padded = "$" + term + "$";
+        Set<String> grams = new HashSet<>();
+
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+
+        return grams;
+    }
+
+    private static Comparator<ProductSearchHit> directed(Comparator<ProductSearchHit> comparator, Sort.Order order) {
+        return order.isAscending() ? comparator : comparator.reversed();
+    }
+
+    private static Comparator<ProductSearchHit> byText(Function<ProductSearchHit, String> extractor) {
+        return Comparator.comparing(extractor, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER));
+    }
+
+    private static Comparator<ProductSearchHit> byPrice() {
+        return Comparator.comparing(
+                (ProductSearchHit hit) -> hit.document().price(),
+                Comparator.nullsLast(Comparator.<BigDecimal>naturalOrder())
+        );
+    }
+}
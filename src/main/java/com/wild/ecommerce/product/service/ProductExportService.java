@@ -0,0 +1,10 @@
+package com.wild.ecommerce.product.service;
+
+import com.wild.ecommerce.common.model.DataFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ProductExportService {
+    void exportProducts(DataFormat format, OutputStream out) throws IOException;
+}
@@ -0,0 +1,64 @@
+package com.wild.ecommerce.product.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wild.ecommerce.common.model.DataFormat;
+import com.wild.ecommerce.common.util.RecordStreamWriter;
+import com.wild.ecommerce.product.dto.ProductDTO;
+import com.wild.ecommerce.product.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductExportServiceImpl implements ProductExportService {
+
+    private static final List<String> HEADER = List.of(
+            "id", "name", "brand", "description", "price", "stock", "imageUrl", "category"
+    );
+
+    private final ProductRepository productRepository;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportProducts(DataFormat format, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        RecordStreamWriter<ProductDTO> writer = RecordStreamWriter.open(
+                format, out, objectMapper, HEADER, ProductExportServiceImpl::columns
+        );
+
+        try (Stream<ProductDTO> products = productRepository.streamAllForExport()) {
+            Iterator<ProductDTO> iterator = products.iterator();
+
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+            }
+        }
+
+        writer.finish();
+        log.info("Exported {} products as {} in {} ms", writer.getCount(), format, System.currentTimeMillis() - start);
+    }
+
+    private static List<?> columns(ProductDTO product) {
+        return Arrays.asList(
+                product.id(),
+                product.name(),
+                product.brand(),
+                product.description(),
+                product.price(),
+                product.stock(),
+                product.imageUrl(),
+                product.categoryName()
+        );
+    }
+}
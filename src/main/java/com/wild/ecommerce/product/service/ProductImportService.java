@@ -0,0 +1,10 @@
+package com.wild.ecommerce.product.service;
+
+import com.wild.ecommerce.common.model.DataFormat;
+import com.wild.ecommerce.product.dto.ProductImportResponse;
+
+import java.io.InputStream;
+
+public interface ProductImportService {
+    ProductImportResponse importProducts(InputStream input, DataFormat format);
+}
@@ -0,0 +1,438 @@
+package com.wild.ecommerce.product.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wild.ecommerce.category.model.Category;
+import com.wild.ecommerce.category.repository.CategoryRepository;
+import com.wild.ecommerce.common.cache.BatchCache;
+import com.wild.ecommerce.common.cache.CacheTagService;
+import com.wild.ecommerce.common.model.DataFormat;
+import com.wild.ecommerce.common.util.CsvReader;
+import com.wild.ecommerce.product.dto.ProductImportError;
+import com.wild.ecommerce.product.dto.ProductImportResponse;
+import com.wild.ecommerce.product.dto.ProductImportRow;
+import com.wild.ecommerce.product.model.Product;
+import com.wild.ecommerce.product.repository.ProductRepository;
+import com.wild.ecommerce.product.search.ProductSearchIndex;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Streams a supplier feed and upserts products by their natural key (brand, name) in chunks, one transaction per
+ * chunk. Rows are validated individually; a failing row is reported and skipped without aborting the import.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductImportServiceImpl implements ProductImportService {
+
+    // Mirror the product columns, so a bad row is skipped here instead of failing its whole chunk on insert
+    private static final int MAX_NAME_LENGTH = 50;
+    private static final int MAX_DESCRIPTION_LENGTH = 1000;
+    private static final int MAX_IMAGE_URL_LENGTH = 500;
+    private static final int PRICE_PRECISION = 10;
+    private static final int PRICE_SCALE = 2;
+    private static final String PRODUCT_CACHE = "product";
+
+    private final ProductRepository productRepository;
+    private final ProductStockService productStockService;
+    private final CategoryRepository categoryRepository;
+    private final ProductSearchIndex productSearchIndex;
+    private final CacheTagService cacheTagService;
+    private final CacheManager cacheManager;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Value("${product-import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${product-import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    @Override
+    public ProductImportResponse importProducts(InputStream input, DataFormat format) {
+        long start = System.currentTimeMillis();
+        ImportResult result = new ImportResult(maxReportedErrors);
+        Map<String, UUID> categoryIds = categoryRepository.findAll().stream()
+                .collect(Collectors.toMap(
+                        category -> normalize(category.getName()),
+                        Category::getId,
+                        (first, _) -> first
+                ));
+
+        List<ParsedRow> chunk = new ArrayList<>(chunkSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            RowSource source = format == DataFormat.CSV ? new CsvRowSource(reader) : new NdjsonRowSource(reader);
+            ParsedRow row;
+
+            while ((row = source.next()) != null) {
+                result.processed++;
+
+                if (row.error() != null) {
+                    result.fail(row.line(), row.error());
+                    continue;
+                }
+
+                String error = validate(row.row(), categoryIds);
+
+                if (error != null) {
+                    result.fail(row.line(), error);
+                    continue;
+                }
+
+                chunk.add(row);
+
+                if (chunk.size() == chunkSize) {
+                    writeChunk(chunk, categoryIds, result);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            result.fail(result.processed + 1, "Could not read import: " + e.getMessage());
+        } catch (UncheckedIOException e) {
+            result.fail(result.processed + 1, "Could not read import: " + e.getCause().getMessage());
+        }
+
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk, categoryIds, result);
+        }
+
+        invalidateCaches(result);
+
+        log.info("Product import finished in {} ms: {} processed, {} created, {} updated, {} failed",
+                System.currentTimeMillis() - start, result.processed, result.created, result.updated, result.failed);
+
+        return new ProductImportResponse(result.processed, result.created, result.updated, result.failed, result.errors);
+    }
+
+    private void writeChunk(List<ParsedRow> chunk, Map<String, UUID> categoryIds, ImportResult result) {
+        try {
+            ChunkResult chunkResult = transactionTemplate.execute(_ -> upsert(chunk, categoryIds));
+
+            result.created += chunkResult.created();
+            result.updated += chunkResult.updatedIds().size();
+            result.updatedIds.addAll(chunkResult.updatedIds());
+            result.touchedCategories.addAll(chunkResult.categoryIds());
+            chunkResult.errors().forEach(error -> result.fail(error.line(), error.message()));
+        } catch (RuntimeException e) {
+            log.warn("Product import chunk starting at line {} failed: {}", chunk.getFirst().line(), e.getMessage());
+            chunk.forEach(row -> result.fail(row.line(), "Chunk rolled back: " + e.getMessage()));
+        }
+    }
+
+    private ChunkResult upsert(List<ParsedRow> chunk, Map<String, UUID> categoryIds) {
+        Set<String> brands = new HashSet<>();
+        Set<String> names = new HashSet<>();
+        chunk.forEach(row -> {
+            brands.add(row.row().brand().trim());
+            names.add(row.row().name().trim());
+        });
+
+        // The IN lists over-select (any brand x any name); the exact key match below narrows it down.
+        Map<String, Product> products = new HashMap<>();
+        productRepository.findAllByBrandInAndNameIn(brands, names)
+                .forEach(product -> products.put(naturalKey(product.getBrand(), product.getName()), product));
+
+        Map<Product, Boolean> touched = new LinkedHashMap<>();
+        Set<UUID> touchedCategories = new HashSet<>();
+        List<ProductImportError> errors = new ArrayList<>();
+
+        for (ParsedRow parsed : chunk) {
+            ProductImportRow row = parsed.row();
+            String key = naturalKey(row.brand(), row.name());
+            Product product = products.get(key);
+            boolean created = product == null;
+
+            // Checked per row, since a failing assignStock would roll back the whole chunk
+            int held = created ? 0 : productStockService.heldStock(product);
+
+            if (row.stock() < held) {
+                errors.add(new ProductImportError(
+                        parsed.line(), "Stock cannot be set below the " + held + " units held by open orders"
+                ));
+                continue;
+            }
+
+            if (created) {
+                product = new Product();
+                product.setBrand(row.brand().trim());
+                product.setName(row.name().trim());
+                product.setImageUrl(ProductServiceImpl.DEFAULT_IMAGE_URL);
+                products.put(key, product);
+            } else if (product.getCategory() != null) {
+                touchedCategories.add(product.getCategory().getId());
+            }
+
+            UUID categoryId = categoryIds.get(normalize(row.category()));
+            product.setCategory(categoryRepository.getReferenceById(categoryId));
+            product.setPrice(row.price());
+
+            if (product.getStockBuckets() > 0) {
+                productStockService.assignStock(product, row.stock());
+            } else {
+                // Bucket holds taken before the product left hot mode return to the row when released
+                product.setStock(row.stock() - product.getBucketHeld());
+            }
+
+            if (row.description() != null) {
+                product.setDescription(row.description());
+            }
+
+            if (StringUtils.hasText(row.imageUrl())) {
+                product.setImageUrl(row.imageUrl());
+            }
+
+            touchedCategories.add(categoryId);
+            touched.putIfAbsent(product, created);
+        }
+
+        List<Product> newProducts = touched.entrySet().stream()
+                .filter(Map.Entry::getValue)
+                .map(Map.Entry::getKey)
+                .toList();
+        productRepository.saveAll(newProducts);
+
+        entityManager.flush();
+
+        long created = 0;
+        List<UUID> updatedIds = new ArrayList<>();
+
+        for (Map.Entry<Product, Boolean> entry : touched.entrySet()) {
+            productSearchIndex.index(entry.getKey());
+
+            if (entry.getValue()) {
+                created++;
+            } else {
+                updatedIds.add(entry.getKey().getId());
+            }
+        }
+
+        entityManager.clear();
+
+        return new ChunkResult(created, updatedIds, touchedCategories, errors);
+    }
+
+    private void invalidateCaches(ImportResult result) {
+        if (result.created == 0 && result.updated == 0) {
+            return;
+        }
+
+        List<String> tags = new ArrayList<>();
+        tags.add(CacheTagService.CATALOG);
+        result.touchedCategories.forEach(categoryId -> tags.add(CacheTagService.category(categoryId)));
+        cacheTagService.invalidate(tags.toArray(String[]::new));
+
+        Cache cache = cacheManager.getCache(PRODUCT_CACHE);
+
+        if (cache instanceof BatchCache batchCache) {
+            batchCache.evictAll(result.updatedIds);
+        } else if (cache != null) {
+            result.updatedIds.forEach(cache::evict);
+        }
+    }
+
+    private static @Nullable String validate(ProductImportRow row, Map<String, UUID> categoryIds) {
+        if (!StringUtils.hasText(row.name()) || row.name().trim().length() > MAX_NAME_LENGTH) {
+            return "Name is required and must be at most " + MAX_NAME_LENGTH + " characters";
+        }
+
+        if (!StringUtils.hasText(row.brand()) || row.brand().trim().length() > MAX_NAME_LENGTH) {
+            return "Brand is required and must be at most " + MAX_NAME_LENGTH + " characters";
+        }
+
+        if (row.description() != null && row.description().length() > MAX_DESCRIPTION_LENGTH) {
+            return "Description must be at most " + MAX_DESCRIPTION_LENGTH + " characters";
+        }
+
+        if (row.price() == null || row.price().signum() < 0) {
+            return "Price is required and must not be negative";
+        }
+
+        BigDecimal price = row.price().stripTrailingZeros();
+
+        if (price.scale() > PRICE_SCALE || price.precision() - price.scale() > PRICE_PRECISION - PRICE_SCALE) {
+            return "Price must have at most " + (PRICE_PRECISION - PRICE_SCALE) + " integer digits and "
+                    + PRICE_SCALE + " decimal places";
+        }
+
+        if (row.stock() == null || row.stock() < 0) {
+            return "Stock is required and must not be negative";
+        }
+
+        if (row.imageUrl() != null && row.imageUrl().length() > MAX_IMAGE_URL_LENGTH) {
+            return "Image URL must be at most " + MAX_IMAGE_URL_LENGTH + " characters";
+        }
+
+        if (!StringUtils.hasText(row.category()) || !categoryIds.containsKey(normalize(row.category()))) {
+            return "Unknown category '" + row.category() + "'";
+        }
+
+        return null;
+    }
+
+    private static String naturalKey(String brand, String name) {
+        return normalize(brand) + '\u0000' + normalize(name);
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record ChunkResult(
+            long created,
+            List<UUID> updatedIds,
+            Set<UUID> categoryIds,
+            List<ProductImportError> errors
+    ) {
+    }
+
+    private record ParsedRow(long line, @Nullable ProductImportRow row, @Nullable String error) {
+
+        static ParsedRow failed(long line, String error) {
+            return new ParsedRow(line, null, error);
+        }
+    }
+
+    private interface RowSource {
+        @Nullable ParsedRow next() throws IOException;
+    }
+
+    private static final class CsvRowSource implements RowSource {
+
+        private final CsvReader reader;
+        private Map<String, Integer> columns;
+
+        private CsvRowSource(BufferedReader reader) {
+            this.reader = new CsvReader(reader);
+        }
+
+        @Override
+        public @Nullable ParsedRow next() throws IOException {
+            if (columns == null) {
+                List<String> header = reader.readRecord();
+
+                if (header == null) {
+                    return null;
+                }
+
+                columns = new HashMap<>();
+                for (int i = 0; i < header.size(); i++) {
+                    columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+                }
+            }
+
+            List<String> fields = reader.readRecord();
+
+            while (fields != null && fields.size() == 1 && fields.getFirst().isBlank()) {
+                fields = reader.readRecord();
+            }
+
+            if (fields == null) {
+                return null;
+            }
+
+            long line = reader.getRecordLine();
+
+            try {
+                return new ParsedRow(line, new ProductImportRow(
+                        field(fields, "name"),
+                        field(fields, "brand"),
+                        field(fields, "description"),
+                        StringUtils.hasText(field(fields, "price")) ? new BigDecimal(field(fields, "price").trim()) : null,
+                        StringUtils.hasText(field(fields, "stock")) ? Integer.valueOf(field(fields, "stock").trim()) : null,
+                        field(fields, "imageurl"),
+                        field(fields, "category")
+                ), null);
+            } catch (NumberFormatException e) {
+                return ParsedRow.failed(line, "Invalid number: " + e.getMessage());
+            }
+        }
+
+        private @Nullable String field(List<String> fields, String column) {
+            Integer index = columns.get(column);
+            return index != null && index < fields.size() ? fields.get(index) : null;
+        }
+    }
+
+    private final class NdjsonRowSource implements RowSource {
+
+        private final BufferedReader reader;
+        private long line;
+
+        private NdjsonRowSource(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public @Nullable ParsedRow next() throws IOException {
+            String json;
+
+            do {
+                json = reader.readLine();
+                line++;
+            } while (json != null && json.isBlank());
+
+            if (json == null) {
+                return null;
+            }
+
+            try {
+                return new ParsedRow(line, objectMapper.readValue(json, ProductImportRow.class), null);
+            } catch (JsonProcessingException e) {
+                return ParsedRow.failed(line, "Invalid JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    private static final class ImportResult {
+
+        private final int maxReportedErrors;
+        private final List<ProductImportError> errors = new ArrayList<>();
+        private final List<UUID> updatedIds = new ArrayList<>();
+        private final Set<UUID> touchedCategories = new HashSet<>();
+        private long processed;
+        private long created;
+        private long updated;
+        private long failed;
+
+        private ImportResult(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+
+        private void fail(long line, String message) {
+            failed++;
+
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ProductImportError(line, message));
+            }
+        }
+    }
+}
@@ -1,21 +1,38 @@
 package com.wild.ecommerce.product.service;
 
+import com.wild.ecommerce.common.dto.CursorPageResponse;
 import com.wild.ecommerce.common.dto.PageResponse;
 import com.wild.ecommerce.product.dto.CreateProductRequest;
 import com.wild.ecommerce.product.dto.ProductDTO;
+import com.wild.ecommerce.product.dto.ProductSummaryDTO;
 import com.wild.ecommerce.product.dto.UpdateProductRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
+import java.util.List;
 import java.util.UUID;
 
 public interface ProductService {
     ProductDTO createProduct(CreateProductRequest request);
 
-    PageResponse<ProductDTO> getAllProducts(Pageable pageable, String name, String brand, UUID categoryId);
+    PageResponse<ProductSummaryDTO> getAllProducts(Pageable pageable, String name, String brand, UUID categoryId);
+
+    CursorPageResponse<ProductDTO> scrollProducts(
+            int pageSize,
+            Sort sort,
+            String cursor,
+            String name,
+            String brand,
+            UUID categoryId
+    );
+
+    String getProductsVersion(UUID categoryId);
 
     ProductDTO getProductById(UUID id);
 
-    ProductDTO updateProduct(UUID id, UpdateProductRequest request);
+    List<ProductDTO> getProductsByIds(List<UUID> ids);
+
+    ProductDTO updateProduct(UUID id, UpdateProductRequest request, Long expectedVersion);
 
     void deleteProduct(UUID id);
 }
@@ -2,29 +2,51 @@ package com.wild.ecommerce.product.service;
 
 import com.wild.ecommerce.category.model.Category;
 import com.wild.ecommerce.category.repository.CategoryRepository;
+import com.wild.ecommerce.common.cache.BatchCache;
+import com.wild.ecommerce.common.cache.CacheTagService;
+import com.wild.ecommerce.common.dto.CursorPageResponse;
 import com.wild.ecommerce.common.dto.PageResponse;
+import com.wild.ecommerce.common.exception.PreconditionFailedException;
 import com.wild.ecommerce.common.exception.ResourceNotFoundException;
 import com.wild.ecommerce.common.util.BeanUtil;
+import com.wild.ecommerce.common.util.KeysetCursor;
 import com.wild.ecommerce.product.dto.CreateProductRequest;
 import com.wild.ecommerce.product.dto.ProductDTO;
+import com.wild.ecommerce.product.dto.ProductSummaryDTO;
 import com.wild.ecommerce.product.dto.UpdateProductRequest;
 import com.wild.ecommerce.product.mapper.ProductMapper;
 import com.wild.ecommerce.product.model.Product;
 import com.wild.ecommerce.product.repository.ProductRepository;
+import com.wild.ecommerce.product.search.ProductSearchHit;
+import com.wild.ecommerce.product.search.ProductSearchIndex;
 import com.wild.ecommerce.product.specification.ProductSpecification;
 import com.wild.ecommerce.storage.service.MinioService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -32,15 +54,19 @@ import java.util.UUID;
 public class ProductServiceImpl implements ProductService {
 
     private final ProductRepository productRepository;
+    private final ProductStockService productStockService;
     private final ProductMapper productMapper;
     private final CategoryRepository categoryRepository;
     private final MinioService minioService;
+    private final ProductSearchIndex productSearchIndex;
+    private final CacheTagService cacheTagService;
+    private final CacheManager cacheManager;
 
-    private static final String DEFAULT_IMAGE_URL = "https://placehold.net/400x400.png";
+    static final String DEFAULT_IMAGE_URL = "https://placehold.net/400x400.png";
+    private static final String PRODUCT_CACHE = "product";
 
     @Override
     @Transactional
-    @CacheEvict(value = "products", allEntries = true)
     public ProductDTO createProduct(CreateProductRequest request) {
         Category category = categoryRepository.findById(request.categoryId())
                 .orElseThrow(() -> {
@@ -65,6 +91,8 @@ public class ProductServiceImpl implements ProductService {
         }
 
         Product savedProduct = productRepository.save(product);
+        productSearchIndex.index(savedProduct);
+        cacheTagService.invalidate(CacheTagService.CATALOG, CacheTagService.category(category.getId()));
 
         return productMapper.apply(savedProduct);
     }
@@ -73,16 +101,28 @@ public class ProductServiceImpl implements ProductService {
     @Transactional(readOnly = true)
     @Cacheable(
             value = "products",
-            key = "#pageable.pageNumber + '-' + #pageable.pageSize + '-' + " +
+            sync = true,
+            key = "@cacheTagService.version(#categoryId != null ? 'category:' + #categoryId : 'catalog') + '-' + " +
+                    "#pageable.pageNumber + '-' + #pageable.pageSize + '-' + " +
                     "(#name != null ? #name : 'null') + '-' + " +
                     "(#brand != null ? #brand : 'null') + '-' + " +
-                    "(#categoryId != null ? #categoryId.toString() : 'null')"
+                    "(#categoryId != null ? #categoryId.toString() : 'null') + '-' + #pageable.sort"
     )
-    public PageResponse<ProductDTO> getAllProducts(Pageable pageable, String name, String brand, UUID categoryId) {
+    public PageResponse<ProductSummaryDTO> getAllProducts(
+            Pageable pageable,
+            String name,
+            String brand,
+            UUID categoryId
+    ) {
+        Optional<PageResponse<ProductSummaryDTO>> indexed = searchIndex(pageable, name, brand, categoryId);
+
+        if (indexed.isPresent()) {
+            return indexed.get();
+        }
+
         Specification<Product> specification = ProductSpecification.filterBy(name, brand, categoryId);
 
-        Page<ProductDTO> page = productRepository.findAll(specification, pageable)
-                .map(productMapper);
+        Page<ProductSummaryDTO> page = productRepository.findSummaries(specification, withoutRelevance(pageable));
         log.debug("Retrieved {} products out of {} total", page.getNumberOfElements(), page.getTotalElements());
 
         return new PageResponse<>(page);
@@ -90,7 +130,36 @@ public class ProductServiceImpl implements ProductService {
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "product", key = "#id")
+    public CursorPageResponse<ProductDTO> scrollProducts(
+            int pageSize,
+            Sort sort,
+            String cursor,
+            String name,
+            String brand,
+            UUID categoryId
+    ) {
+        Sort keysetSort = KeysetCursor.withIdTieBreaker(sort);
+        KeysetScrollPosition position = KeysetCursor.decode(cursor, keysetSort, Product.class);
+
+        Window<Product> window = productRepository.findBy(
+                ProductSpecification.filterBy(name, brand, categoryId),
+                query -> query.sortBy(keysetSort).limit(pageSize).scroll(position)
+        );
+        log.debug("Scrolled {} products, more available: {}", window.size(), window.hasNext());
+
+        return CursorPageResponse.from(window.map(productMapper));
+    }
+
+    @Override
+    public String getProductsVersion(UUID categoryId) {
+        return cacheTagService.version(
+                categoryId != null ? CacheTagService.category(categoryId) : CacheTagService.CATALOG
+        );
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(value = "product", key = "#id", sync = true)
     public ProductDTO getProductById(UUID id) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> {
@@ -102,20 +171,65 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
-    @Transactional
-    @Caching(
-            evict = {
-                    @CacheEvict(value = "product", key = "#id"),
-                    @CacheEvict(value = "products", allEntries = true)
+    @Transactional(readOnly = true)
+    public List<ProductDTO> getProductsByIds(List<UUID> ids) {
+        List<UUID> distinctIds = ids.stream().distinct().toList();
+        Cache cache = cacheManager.getCache(PRODUCT_CACHE);
+        BatchCache batchCache = cache instanceof BatchCache batch ? batch : null;
+
+        Map<UUID, ProductDTO> products = new HashMap<>();
+
+        if (batchCache != null) {
+            batchCache.getAll(distinctIds).forEach((key, value) -> products.put((UUID) key, (ProductDTO) value));
+        }
+
+        List<UUID> missingIds = distinctIds.stream()
+                .filter(id -> !products.containsKey(id))
+                .toList();
+
+        if (!missingIds.isEmpty()) {
+            Map<UUID, ProductDTO> loaded = productRepository.findAllById(missingIds).stream()
+                    .map(productMapper)
+                    .collect(Collectors.toMap(ProductDTO::id, Function.identity()));
+
+            if (batchCache != null) {
+                batchCache.putAll(loaded);
+            } else if (cache != null) {
+                loaded.forEach(cache::put);
             }
-    )
-    public ProductDTO updateProduct(UUID id, UpdateProductRequest request) {
+
+            products.putAll(loaded);
+        }
+
+        log.debug("Resolved {} of {} requested products ({} from cache)",
+                products.size(), distinctIds.size(), distinctIds.size() - missingIds.size());
+
+        return distinctIds.stream()
+                .map(products::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(value = "product", key = "#id")
+    public ProductDTO updateProduct(UUID id, UpdateProductRequest request, Long expectedVersion) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> {
                     log.warn("Failed to update - product not found with ID: {}", id);
                     return new ResourceNotFoundException("Product with ID '" + id + "' not found");
                 });
 
+        if (expectedVersion != null && expectedVersion != product.getVersion()) {
+            log.warn("Failed to update product {} - expected version {} but found {}",
+                    id, expectedVersion, product.getVersion());
+            throw new PreconditionFailedException(
+                    "Product with ID '" + id + "' has been modified since version " + expectedVersion
+            );
+        }
+
+        UUID previousCategoryId = product.getCategory().getId();
+
         if (request.categoryId() != null) {
             if (!product.getCategory().getId().equals(request.categoryId())) {
                 Category category = categoryRepository.findById(request.categoryId())
@@ -130,6 +244,10 @@ public class ProductServiceImpl implements ProductService {
 
         BeanUtil.copyNonNullProperties(request, product);
 
+        if (request.stock() != null) {
+            productStockService.assignStock(product, request.stock());
+        }
+
         if (request.image() != null && !request.image().isEmpty()) {
             String oldImageUrl = product.getImageUrl();
 
@@ -147,19 +265,20 @@ public class ProductServiceImpl implements ProductService {
         product.setImageUrl(newImageUrl);
         log.info("Uploaded new product image to S3: {}", newImageUrl);
 
-        Product updatedProduct = productRepository.save(product);
+        Product updatedProduct = productRepository.saveAndFlush(product);
+        productSearchIndex.index(updatedProduct);
+        cacheTagService.invalidate(
+                CacheTagService.CATALOG,
+                CacheTagService.category(previousCategoryId),
+                CacheTagService.category(updatedProduct.getCategory().getId())
+        );
 
         return productMapper.apply(updatedProduct);
     }
 
     @Override
     @Transactional
-    @Caching(
-            evict = {
-                    @CacheEvict(value = "product", key = "#id"),
-                    @CacheEvict(value = "products", allEntries = true)
-            }
-    )
+    @CacheEvict(value = "product", key = "#id")
     public void deleteProduct(UUID id) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> {
@@ -179,5 +298,56 @@ public class ProductServiceImpl implements ProductService {
         }
 
         productRepository.delete(product);
+        productSearchIndex.remove(id);
+        cacheTagService.invalidate(CacheTagService.CATALOG, CacheTagService.category(product.getCategory().getId()));
+    }
+
+    /**
+     * Resolves name and brand queries from the in-memory index and hydrates only the requested page by ID.
+     */
+    private Optional<PageResponse<ProductSummaryDTO>> searchIndex(
+            Pageable pageable,
+            String name,
+            String brand,
+            UUID categoryId
+    ) {
+        Optional<Comparator<ProductSearchHit>> comparator = ProductSearchIndex.comparatorFor(pageable.getSort());
+
+        if (comparator.isEmpty()) {
+            return Optional.empty();
+        }
+
+        return productSearchIndex.search(name, brand, categoryId).map(hits -> {
+            List<ProductSearchHit> ranked = hits.stream().sorted(comparator.get()).toList();
+
+            int from = (int) Math.min(pageable.getOffset(), ranked.size());
+            int to = Math.min(from + pageable.getPageSize(), ranked.size());
+            List<UUID> pageIds = ranked.subList(from, to).stream()
+                    .map(ProductSearchHit::id)
+                    .toList();
+
+            Map<UUID, ProductSummaryDTO> productsById = productRepository.findSummariesByIdIn(pageIds).stream()
+                    .collect(Collectors.toMap(ProductSummaryDTO::id, Function.identity()));
+
+            List<ProductSummaryDTO> content = pageIds.stream()
+                    .map(productsById::get)
+                    .filter(Objects::nonNull)
+                    .toList();
+            log.debug("Resolved {} products out of {} search hits from the index", content.size(), ranked.size());
+
+            return new PageResponse<>(new PageImpl<>(content, pageable, ranked.size()));
+        });
+    }
+
+    private static Pageable withoutRelevance(Pageable pageable) {
+        if (pageable.getSort().getOrderFor(ProductSearchIndex.RELEVANCE) == null) {
+            return pageable;
+        }
+
+        Sort sort = Sort.by(pageable.getSort().stream()
+                .filter(order -> !ProductSearchIndex.RELEVANCE.equals(order.getProperty()))
+                .toList());
+
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
     }
 }
@@ -0,0 +1,85 @@
+package com.wild.ecommerce.product.service;
+
+import com.wild.ecommerce.product.dto.StockBucketsDTO;
+import com.wild.ecommerce.product.model.Product;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+public interface ProductStockService {
+
+    /**
+     * Takes the given quantity of every product, or fails with
+     * {@link com.wild.ecommerce.common.exception.OutOfStockException} and leaves the caller's transaction to roll
+     * back the lines already taken.
+     */
+    void decrementStock(Map<UUID, Integer> quantities);
+
+    /**
+     * Takes every line that is still available and returns the IDs of the products that were short, for callers
+     * that cannot roll back, such as a payment that has already been captured.
+     */
+    List<UUID> decrementAvailableStock(Map<UUID, Integer> quantities);
+
+    void incrementStock(Map<UUID, Integer> quantities);
+
+    /**
+     * Holds the given quantity of every product against the available stock, failing like
+     * {@link #decrementStock(Map)} when a product is short.
+     *
+     * @return the products whose units were taken from stock buckets rather than held on the product row; those
+     * holds are settled with {@link #releaseBucketedStock(Map)} or {@link #commitBucketedStock(Map)}
+     */
+    Set<UUID> reserveStock(Map<UUID, Integer> quantities);
+
+    /**
+     * Turns held units into sold units and returns the IDs of the products whose held units were no longer in
+     * stock. Those products are left untouched, so the caller can release their holds.
+     */
+    List<UUID> commitReservedStock(Map<UUID, Integer> quantities);
+
+    /**
+     * Returns held units to free stock. A hold counter that drifted below the released units is rebuilt from the
+     * active holds in the reservation ledger, so the caller must have settled the released holds first.
+     */
+    void releaseReservedStock(Map<UUID, Integer> quantities);
+
+    /**
+     * Returns units taken from stock buckets, to the product row if the product is no longer bucketed.
+     */
+    void releaseBucketedStock(Map<UUID, Integer> quantities);
+
+    /**
+     * Settles holds that were taken from stock buckets as sold. Their units already left the buckets, so this only
+     * drops them from the stock the views show.
+     */
+    void commitBucketedStock(Map<UUID, Integer> quantities);
+
+    /**
+     * Sets the total stock of a product that is being edited, failing with
+     * {@link com.wild.ecommerce.common.exception.StockConflictException} when that is fewer units than open orders
+     * hold. On a bucketed product the row keeps the units held on it and the rest is spread over the buckets, so
+     * the edit does not strand the bucket stock.
+     */
+    void assignStock(Product product, int stock);
+
+    /**
+     * Units of the product held by open orders, the lowest stock it can be given.
+     */
+    int heldStock(Product product);
+
+    StockBucketsDTO getStockBuckets(UUID productId);
+
+    /**
+     * Spreads the product's free stock evenly over {@code buckets} shards, or moves it back to the product row
+     * when {@code buckets} is 0.
+     */
+    StockBucketsDTO configureStockBuckets(UUID productId, int buckets);
+
+    /**
+     * Evens out the product's buckets and sweeps units released back to the product row into them.
+     */
+    StockBucketsDTO rebalanceStockBuckets(UUID productId);
+}
@@ -0,0 +1,392 @@
+package com.wild.ecommerce.product.service;
+
+import com.wild.ecommerce.common.cache.BatchCache;
+import com.wild.ecommerce.common.cache.CacheTagService;
+import com.wild.ecommerce.common.exception.OutOfStockException;
+import com.wild.ecommerce.common.exception.ResourceNotFoundException;
+import com.wild.ecommerce.common.exception.StockConflictException;
+import com.wild.ecommerce.common.util.TransactionUtil;
+import com.wild.ecommerce.product.dto.StockBucketCountDTO;
+import com.wild.ecommerce.product.dto.StockBucketsDTO;
+import com.wild.ecommerce.product.model.Product;
+import com.wild.ecommerce.product.model.ProductStockBucket;
+import com.wild.ecommerce.product.repository.ProductRepository;
+import com.wild.ecommerce.product.repository.ProductStockBucketRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Adjusts stock with one guarded {@code UPDATE} per product instead of read-modify-write on loaded entities.
+ *
+ * <p>Held units live in the {@code reserved} column next to {@code stock}; available-to-sell is the difference.
+ * Rows are always touched in ascending ID order, so two checkouts sharing products lock them in the same order
+ * and cannot deadlock. The statements also bump the entity version, so an admin edit holding an older copy of the
+ * product fails instead of writing the old stock back.</p>
+ *
+ * <p>Hot products can move their free stock into {@link ProductStockBucket} shards. A checkout then locks one
+ * bucket, starting at a random one and skipping buckets other checkouts hold, so buyers of the same product no
+ * longer queue on one row. Units taken from a bucket are gone from it until released; they never pass through
+ * {@code reserved}, but count as held through {@code Product.bucketHeld}, so views and stock edits treat both kinds
+ * of hold alike.</p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductStockServiceImpl implements ProductStockService {
+
+    private final ProductRepository productRepository;
+    private final ProductStockBucketRepository productStockBucketRepository;
+    private final CacheManager cacheManager;
+    private final CacheTagService cacheTagService;
+
+    private static final String PRODUCT_CACHE = "product";
+
+    @Override
+    @Transactional
+    public void decrementStock(Map<UUID, Integer> quantities) {
+        Map<UUID, Integer> ordered = new TreeMap<>(quantities);
+
+        for (Map.Entry<UUID, Integer> line : ordered.entrySet()) {
+            if (productRepository.decrementStock(line.getKey(), line.getValue()) == 0) {
+                log.warn("Not enough stock for product {} to take {} units", line.getKey(), line.getValue());
+                throw new OutOfStockException("Not enough stock for product with ID '" + line.getKey() + "'");
+            }
+        }
+
+        evictAfterCommit(List.copyOf(ordered.keySet()));
+    }
+
+    @Override
+    @Transactional
+    public List<UUID> decrementAvailableStock(Map<UUID, Integer> quantities) {
+        Map<UUID, Integer> ordered = new TreeMap<>(quantities);
+        Map<UUID, Integer> bucketCounts = bucketCounts(ordered.keySet());
+        List<UUID> shortProducts = new ArrayList<>();
+
+        ordered.forEach((productId, quantity) -> {
+            Integer buckets = bucketCounts.get(productId);
+            boolean taken = buckets != null
+                    ? takeFromBuckets(productId, quantity, buckets)
+                    : productRepository.decrementStock(productId, quantity) > 0;
+
+            if (!taken) {
+                shortProducts.add(productId);
+            }
+        });
+
+        evictAfterCommit(List.copyOf(ordered.keySet()));
+
+        return shortProducts;
+    }
+
+    @Override
+    @Transactional
+    public void incrementStock(Map<UUID, Integer> quantities) {
+        Map<UUID, Integer> ordered = new TreeMap<>(quantities);
+
+        ordered.forEach(productRepository::incrementStock);
+
+        evictAfterCommit(List.copyOf(ordered.keySet()));
+    }
+
+    @Override
+    @Transactional
+    public Set<UUID> reserveStock(Map<UUID, Integer> quantities) {
+        Map<UUID, Integer> bucketCounts = bucketCounts(quantities.keySet());
+        Set<UUID> bucketed = new HashSet<>();
+
+        for (Map.Entry<UUID, Integer> line : new TreeMap<>(quantities).entrySet()) {
+            UUID productId = line.getKey();
+            int quantity = line.getValue();
+            Integer buckets = bucketCounts.get(productId);
+
+            boolean taken = buckets != null
+                    ? takeFromBuckets(productId, quantity, buckets)
+                    : productRepository.reserveStock(productId, quantity) > 0;
+
+            if (!taken) {
+                log.warn("Not enough available stock for product {} to hold {} units", productId, quantity);
+                throw new OutOfStockException("Not enough stock for product with ID '" + productId + "'");
+            }
+
+            if (buckets != null) {
+                bucketed.add(productId);
+            }
+        }
+
+        // Held units still count as stock in the views, whether held on the row or taken from a bucket
+        return bucketed;
+    }
+
+    @Override
+    @Transactional
+    public List<UUID> commitReservedStock(Map<UUID, Integer> quantities) {
+        Map<UUID, Integer> ordered = new TreeMap<>(quantities);
+        List<UUID> shortProducts = new ArrayList<>();
+
+        ordered.forEach((productId, quantity) -> {
+            if (productRepository.commitReservedStock(productId, quantity) == 0) {
+                log.warn("Could not commit {} held units of product {}, stock or holds changed underneath",
+                        quantity, productId);
+                shortProducts.add(productId);
+            }
+        });
+
+        evictAfterCommit(List.copyOf(ordered.keySet()));
+
+        return shortProducts;
+    }
+
+    @Override
+    @Transactional
+    public void releaseReservedStock(Map<UUID, Integer> quantities) {
+        new TreeMap<>(quantities).forEach((productId, quantity) -> {
+            if (productRepository.releaseReservedStock(productId, quantity) == 0) {
+                // The counter drifted from the ledger; zeroing it would stop other orders' holds from counting
+                log.error("Held units of product {} were below the {} being released, recounting from active holds",
+                        productId, quantity);
+                productRepository.recountReservedStock(productId);
+            }
+        });
+    }
+
+    @Override
+    @Transactional
+    public void releaseBucketedStock(Map<UUID, Integer> quantities) {
+        Map<UUID, Integer> bucketCounts = bucketCounts(quantities.keySet());
+        Map<UUID, Integer> ordered = new TreeMap<>(quantities);
+
+        ordered.forEach((productId, quantity) -> {
+            Integer buckets = bucketCounts.get(productId);
+            boolean returned = buckets != null && productStockBucketRepository.incrementStock(
+                    productId, ThreadLocalRandom.current().nextInt(buckets), quantity
+            ) > 0;
+
+            // The product left hot mode or lost buckets since the hold was taken
+            if (!returned) {
+                productRepository.incrementStock(productId, quantity);
+            }
+        });
+
+        // Held units already counted as stock in the views, so like a row release nothing visible changes
+    }
+
+    @Override
+    @Transactional
+    public void commitBucketedStock(Map<UUID, Integer> quantities) {
+        // The units left the buckets when the order was placed; only the views that counted them as held change
+        evictAfterCommit(List.copyOf(new TreeMap<>(quantities).keySet()));
+    }
+
+    @Override
+    @Transactional
+    public void assignStock(Product product, int stock) {
+        int held = heldStock(product);
+
+        if (stock < held) {
+            throw new StockConflictException("Stock of product '" + product.getId() + "' cannot be set below the "
+                    + held + " units held by open orders");
+        }
+
+        // Units taken from buckets are on neither the row nor the buckets, and come back to one of them on release
+        if (product.getStockBuckets() == 0) {
+            product.setStock(stock - product.getBucketHeld());
+            return;
+        }
+
+        // Locks the buckets first, so no checkout takes from them while they are overwritten
+        List<ProductStockBucket> existing = productStockBucketRepository.findByProductIdOrderByBucketNo(product.getId());
+        int free = stock - held;
+
+        spread(product.getId(), existing, product.getStockBuckets(), free);
+        product.setStock(product.getReserved());
+        product.setBucketStock(free);
+
+        log.info("Product {} stock set to {}, {} free units spread over {} stock buckets",
+                product.getId(), stock, free, product.getStockBuckets());
+    }
+
+    @Override
+    public int heldStock(Product product) {
+        return product.getReserved() + product.getBucketHeld();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public StockBucketsDTO getStockBuckets(UUID productId) {
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product with ID '" + productId + "' not found"));
+
+        return new StockBucketsDTO(
+                productId,
+                product.getStock(),
+                product.getReserved(),
+                productStockBucketRepository.findStockByProductId(productId)
+        );
+    }
+
+    @Override
+    @Transactional
+    public StockBucketsDTO configureStockBuckets(UUID productId, int buckets) {
+        return redistribute(lockProduct(productId), buckets);
+    }
+
+    @Override
+    @Transactional
+    public StockBucketsDTO rebalanceStockBuckets(UUID productId) {
+        Product product = lockProduct(productId);
+
+        // A product without buckets has nothing to move, so this only reports its stock
+        return redistribute(product, product.getStockBuckets());
+    }
+
+    private Product lockProduct(UUID productId) {
+        return productRepository.findByIdForUpdate(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product with ID '" + productId + "' not found"));
+    }
+
+    private StockBucketsDTO redistribute(Product product, int buckets) {
+        UUID productId = product.getId();
+        List<ProductStockBucket> existing = productStockBucketRepository.findByProductIdOrderByBucketNo(productId);
+
+        int inBuckets = existing.stream().mapToInt(ProductStockBucket::getStock).sum();
+        int freeOnProduct = Math.max(0, product.getStock() - product.getReserved());
+        int total = buckets > 0 ? inBuckets + freeOnProduct : 0;
+        int productDelta = buckets > 0 ? -freeOnProduct : inBuckets;
+
+        List<Integer> shares = spread(productId, existing, buckets, total);
+        productRepository.updateStockBuckets(productId, productDelta, buckets);
+
+        evictAfterCommit(List.of(productId));
+
+        log.info("Product {} now keeps {} free units in {} stock buckets", productId, total, buckets);
+
+        return new StockBucketsDTO(productId, product.getStock() + productDelta, product.getReserved(), shares);
+    }
+
+    /**
+     * Spreads {@code total} units evenly over {@code buckets} buckets, reusing and trimming the existing rows.
+     */
+    private List<Integer> spread(UUID productId, List<ProductStockBucket> existing, int buckets, int total) {
+        List<ProductStockBucket> configured = new ArrayList<>();
+        List<Integer> shares = new ArrayList<>();
+
+        // Buckets keep their numbers 0..n-1, so growing only inserts and shrinking only deletes
+        for (int bucketNo = 0; bucketNo < buckets; bucketNo++) {
+            int share = total / buckets + (bucketNo < total % buckets ? 1 : 0);
+            ProductStockBucket bucket = bucketNo < existing.size()
+                    ? existing.get(bucketNo)
+                    : new ProductStockBucket(null, productId, bucketNo, 0);
+
+            bucket.setStock(share);
+            configured.add(bucket);
+            shares.add(share);
+        }
+
+        productStockBucketRepository.deleteAll(existing.subList(Math.min(buckets, existing.size()), existing.size()));
+        productStockBucketRepository.saveAll(configured);
+
+        return shares;
+    }
+
+    /**
+     * Takes the quantity from a single bucket where possible, starting at a random one and moving on to its
+     * neighbours, and from several buckets only when none can cover it alone.
+     */
+    private boolean takeFromBuckets(UUID productId, int quantity, int buckets) {
+        int start = ThreadLocalRandom.current().nextInt(buckets);
+
+        List<ProductStockBucket> candidates = productStockBucketRepository.lockAvailableFrom(
+                productId, quantity, start, Limit.of(1)
+        );
+
+        if (candidates.isEmpty()) {
+            candidates = productStockBucketRepository.lockAvailableBefore(productId, quantity, start, Limit.of(1));
+        }
+
+        if (!candidates.isEmpty()) {
+            ProductStockBucket bucket = candidates.getFirst();
+            bucket.setStock(bucket.getStock() - quantity);
+            return true;
+        }
+
+        return drainBuckets(productId, quantity);
+    }
+
+    private boolean drainBuckets(UUID productId, int quantity) {
+        // Cheap unlocked check first, so a sold out product does not serialize every checkout on its buckets
+        int visible = productStockBucketRepository.findStockByProductId(productId).stream()
+                .mapToInt(Integer::intValue)
+                .sum();
+
+        if (visible < quantity) {
+            return false;
+        }
+
+        List<ProductStockBucket> all = productStockBucketRepository.findByProductIdOrderByBucketNo(productId);
+
+        if (all.stream().mapToInt(ProductStockBucket::getStock).sum() < quantity) {
+            return false;
+        }
+
+        int remaining = quantity;
+
+        for (ProductStockBucket bucket : all) {
+            int taken = Math.min(bucket.getStock(), remaining);
+            bucket.setStock(bucket.getStock() - taken);
+            remaining -= taken;
+
+            if (remaining == 0) {
+                break;
+            }
+        }
+
+        return true;
+    }
+
+    private Map<UUID, Integer> bucketCounts(Collection<UUID> productIds) {
+        Map<UUID, Integer> counts = new HashMap<>();
+
+        for (StockBucketCountDTO count : productRepository.findStockBucketCounts(productIds)) {
+            counts.put(count.productId(), count.buckets());
+        }
+
+        return counts;
+    }
+
+    private void evictAfterCommit(List<UUID> productIds) {
+        // Listed pages carry stock too; only the categories of the moved products are bumped, the unfiltered
+        // catalog pages catch up on their TTL so checkout traffic does not invalidate every list page
+        List<UUID> categoryIds = productIds.isEmpty() ? List.of() : productRepository.findCategoryIdsByIdIn(productIds);
+
+        if (!categoryIds.isEmpty()) {
+            cacheTagService.invalidate(categoryIds.stream().map(CacheTagService::category).toArray(String[]::new));
+        }
+
+        TransactionUtil.afterCommit(() -> {
+            Cache cache = cacheManager.getCache(PRODUCT_CACHE);
+
+            if (cache instanceof BatchCache batchCache) {
+                batchCache.evictAll(productIds);
+            } else if (cache != null) {
+                productIds.forEach(cache::evict);
+            }
+        });
+    }
+}
@@ -1,7 +1,6 @@
 package com.wild.ecommerce.product.specification;
 
 import com.wild.ecommerce.product.model.Product;
-import jakarta.persistence.criteria.JoinType;
 import org.jspecify.annotations.Nullable;
 import org.springframework.data.jpa.domain.Specification;
 
@@ -41,10 +40,10 @@ public final class ProductSpecification {
             }
 
             if (categoryId != null) {
-                var categoryJoin = root.join("category", JoinType.INNER);
+                // Compares the foreign key column directly instead of joining categories
                 predicate = cb.and(
                         predicate,
-                        cb.equal(categoryJoin.get("id"), categoryId)
+                        cb.equal(root.get("category").get("id"), categoryId)
                 );
             }
 
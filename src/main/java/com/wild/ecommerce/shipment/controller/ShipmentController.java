@@ -1,5 +1,8 @@
 package com.wild.ecommerce.shipment.controller;
 
+import com.wild.ecommerce.shipment.dto.BulkDeliverRequest;
+import com.wild.ecommerce.shipment.dto.BulkShipRequest;
+import com.wild.ecommerce.shipment.dto.BulkShipmentResponse;
 import com.wild.ecommerce.shipment.dto.ShipOrderRequest;
 import com.wild.ecommerce.shipment.dto.ShipmentInfoDTO;
 import com.wild.ecommerce.shipment.dto.TrackingInfoDTO;
@@ -29,6 +32,20 @@ public class ShipmentController {
 
     private final ShipmentService shippingService;
 
+    @PostMapping("bulk")
+    public ResponseEntity<BulkShipmentResponse> shipOrders(@Valid @RequestBody BulkShipRequest request) {
+        BulkShipmentResponse response = shippingService.shipOrders(request);
+
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    @PatchMapping("bulk")
+    public ResponseEntity<BulkShipmentResponse> markAsDelivered(@Valid @RequestBody BulkDeliverRequest request) {
+        BulkShipmentResponse response = shippingService.markAsDelivered(request);
+
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
     @PostMapping("{orderId}")
     public ResponseEntity<ShipmentInfoDTO> shipOrder(
             @PathVariable("orderId") UUID orderId,
@@ -0,0 +1,15 @@
+package com.wild.ecommerce.shipment.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.UUID;
+
+public record BulkDeliverRequest(
+        @NotEmpty(message = "At least one order is required")
+        @Size(max = 10000, message = "At most 10000 orders can be delivered at once")
+        List<@NotNull UUID> orderIds
+) {
+}
@@ -0,0 +1,17 @@
+package com.wild.ecommerce.shipment.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.UUID;
+
+public record BulkShipItem(
+        @NotNull(message = "Order ID is required")
+        UUID orderId,
+
+        @NotBlank(message = "Carrier is required")
+        String carrier,
+
+        String trackingNumber
+) {
+}
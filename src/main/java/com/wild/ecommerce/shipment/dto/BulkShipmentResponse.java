@@ -0,0 +1,10 @@
+package com.wild.ecommerce.shipment.dto;
+
+import java.util.List;
+
+public record BulkShipmentResponse(
+        int updated,
+        int rejected,
+        List<BulkShipmentResultDTO> results
+) {
+}
@@ -0,0 +1,11 @@
+package com.wild.ecommerce.shipment.dto;
+
+import java.util.UUID;
+
+public record BulkShipmentResultDTO(
+        UUID orderId,
+        ShipmentOutcome outcome,
+        String trackingNumber,
+        String message
+) {
+}
@@ -0,0 +1,8 @@
+package com.wild.ecommerce.shipment.dto;
+
+public enum ShipmentOutcome {
+    UPDATED,
+    NOT_FOUND,
+    INVALID_STATUS,
+    DUPLICATE
+}
@@ -1,5 +1,8 @@
 package com.wild.ecommerce.shipment.service;
 
+import com.wild.ecommerce.shipment.dto.BulkDeliverRequest;
+import com.wild.ecommerce.shipment.dto.BulkShipRequest;
+import com.wild.ecommerce.shipment.dto.BulkShipmentResponse;
 import com.wild.ecommerce.shipment.dto.ShipOrderRequest;
 import com.wild.ecommerce.shipment.dto.ShipmentInfoDTO;
 import com.wild.ecommerce.shipment.dto.TrackingInfoDTO;
@@ -14,5 +17,16 @@ public interface ShipmentService {
 
     ShipmentInfoDTO markAsDelivered(UUID orderId, String userEmail);
 
+    /**
+     * Ships every confirmed order in the manifest and reports a result per order instead of failing on the first
+     * order that cannot be shipped.
+     */
+    BulkShipmentResponse shipOrders(BulkShipRequest request);
+
+    /**
+     * Marks every shipped order in the list delivered, reporting a result per order.
+     */
+    BulkShipmentResponse markAsDelivered(BulkDeliverRequest request);
+
     TrackingInfoDTO getTrackingInfo(UUID orderId, String userEmail);
 }
@@ -1,21 +1,43 @@
 package com.wild.ecommerce.shipment.service;
 
 import com.wild.ecommerce.common.exception.ResourceNotFoundException;
+import com.wild.ecommerce.order.dto.OrderShipmentRow;
+import com.wild.ecommerce.order.dto.OrderStatusRow;
 import com.wild.ecommerce.order.model.Order;
 import com.wild.ecommerce.order.model.Status;
 import com.wild.ecommerce.order.repository.OrderRepository;
+import com.wild.ecommerce.order.repository.OrderShipmentBatchRepository;
+import com.wild.ecommerce.order.repository.OrderSummaryRepository;
+import com.wild.ecommerce.order.service.OrderSummaryService;
+import com.wild.ecommerce.shipment.dto.BulkDeliverRequest;
+import com.wild.ecommerce.shipment.dto.BulkShipItem;
+import com.wild.ecommerce.shipment.dto.BulkShipRequest;
+import com.wild.ecommerce.shipment.dto.BulkShipmentResponse;
+import com.wild.ecommerce.shipment.dto.BulkShipmentResultDTO;
 import com.wild.ecommerce.shipment.dto.ShipOrderRequest;
 import com.wild.ecommerce.shipment.dto.ShipmentInfoDTO;
+import com.wild.ecommerce.shipment.dto.ShipmentOutcome;
 import com.wild.ecommerce.shipment.dto.TrackingInfoDTO;
 import com.wild.ecommerce.order.mapper.ShipmentInfoMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -24,6 +46,13 @@ public class ShipmentServiceImpl implements ShipmentService {
 
     private final OrderRepository orderRepository;
     private final ShipmentInfoMapper shippingInfoMapper;
+    private final OrderSummaryService orderSummaryService;
+    private final OrderSummaryRepository orderSummaryRepository;
+    private final OrderShipmentBatchRepository orderShipmentBatchRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${shipment.bulk.chunk-size:1000}")
+    private int chunkSize;
 
     @Override
     @Transactional
@@ -39,6 +68,7 @@ public class ShipmentServiceImpl implements ShipmentService {
         order.setStatus(Status.SHIPPED);
 
         orderRepository.save(order);
+        orderSummaryService.updateStatus(order);
 
         log.info("Shipping initiated for order {}", orderId);
     }
@@ -67,6 +97,7 @@ public class ShipmentServiceImpl implements ShipmentService {
         order.setShippedDate(LocalDateTime.now());
 
         Order savedOrder = orderRepository.save(order);
+        orderSummaryService.updateStatus(savedOrder);
 
         log.info("Order {} marked as shipped by user {}", orderId, userEmail);
 
@@ -91,12 +122,54 @@ public class ShipmentServiceImpl implements ShipmentService {
         order.setShippedDate(LocalDateTime.now());
 
         Order savedOrder = orderRepository.save(order);
+        orderSummaryService.updateStatus(savedOrder);
 
         log.info("Order {} marked as delivered by user {}", orderId, userEmail);
 
         return shippingInfoMapper.apply(savedOrder, order.getTrackingNumber(), order.getCarrier());
     }
 
+    /**
+     * Works through the manifest in chunks, one transaction each, so row locks stay short. Each chunk validates all of
+     * its orders with one query and ships them with one batch of updates guarded by the expected status.
+     */
+    @Override
+    public BulkShipmentResponse shipOrders(BulkShipRequest request) {
+        Map<UUID, BulkShipItem> items = new LinkedHashMap<>();
+        request.orders().forEach(item -> items.putIfAbsent(item.orderId(), item));
+
+        Map<UUID, BulkShipmentResultDTO> results = new HashMap<>();
+        LocalDateTime shippedDate = LocalDateTime.now();
+
+        for (List<BulkShipItem> chunk : chunks(List.copyOf(items.values()))) {
+            transactionTemplate.executeWithoutResult(_ -> shipChunk(chunk, shippedDate, results));
+        }
+
+        List<UUID> requested = request.orders().stream().map(BulkShipItem::orderId).toList();
+        BulkShipmentResponse response = response(requested, results);
+
+        log.info("Bulk shipment marked {} of {} orders as shipped", response.updated(), request.orders().size());
+
+        return response;
+    }
+
+    @Override
+    public BulkShipmentResponse markAsDelivered(BulkDeliverRequest request) {
+        Set<UUID> orderIds = new LinkedHashSet<>(request.orderIds());
+        Map<UUID, BulkShipmentResultDTO> results = new HashMap<>();
+        LocalDateTime deliveredDate = LocalDateTime.now();
+
+        for (List<UUID> chunk : chunks(List.copyOf(orderIds))) {
+            transactionTemplate.executeWithoutResult(_ -> deliverChunk(chunk, deliveredDate, results));
+        }
+
+        BulkShipmentResponse response = response(request.orderIds(), results);
+
+        log.info("Bulk delivery marked {} of {} orders as delivered", response.updated(), request.orderIds().size());
+
+        return response;
+    }
+
     @Override
     @Transactional(readOnly = true)
     public TrackingInfoDTO getTrackingInfo(UUID orderId, String userEmail) {
@@ -119,6 +192,154 @@ public class ShipmentServiceImpl implements ShipmentService {
         );
     }
 
+    private void shipChunk(
+            List<BulkShipItem> chunk,
+            LocalDateTime shippedDate,
+            Map<UUID, BulkShipmentResultDTO> results
+    ) {
+        Map<UUID, Status> statuses = findStatuses(chunk.stream().map(BulkShipItem::orderId).toList());
+        List<OrderShipmentRow> shipments = new ArrayList<>();
+
+        for (BulkShipItem item : chunk) {
+            Status status = statuses.get(item.orderId());
+
+            if (status == null) {
+                results.put(item.orderId(), notFound(item.orderId()));
+            } else if (status != Status.CONFIRMED) {
+                results.put(item.orderId(), rejected(item.orderId(),
+                        "Only confirmed orders can be shipped. Current status: " + status));
+            } else {
+                String trackingNumber = (item.trackingNumber() == null || item.trackingNumber().isBlank())
+                        ? generateTrackingNumber()
+                        : item.trackingNumber();
+
+                shipments.add(new OrderShipmentRow(item.orderId(), item.carrier(), trackingNumber));
+            }
+        }
+
+        if (shipments.isEmpty()) {
+            return;
+        }
+
+        int[] counts = orderShipmentBatchRepository.markShipped(shipments, shippedDate);
+        List<OrderShipmentRow> shipped = new ArrayList<>();
+
+        for (int i = 0; i < shipments.size(); i++) {
+            OrderShipmentRow shipment = shipments.get(i);
+
+            // The status guard matched nothing: the order moved on after it was validated
+            if (counts[i] == 0) {
+                results.put(shipment.orderId(), rejected(shipment.orderId(), "Order status changed while shipping"));
+                continue;
+            }
+
+            shipped.add(shipment);
+            results.put(shipment.orderId(), new BulkShipmentResultDTO(
+                    shipment.orderId(), ShipmentOutcome.UPDATED, shipment.trackingNumber(), null
+            ));
+        }
+
+        if (!shipped.isEmpty()) {
+            orderShipmentBatchRepository.markSummariesShipped(shipped, shippedDate);
+        }
+    }
+
+    private void deliverChunk(
+            List<UUID> chunk,
+            LocalDateTime deliveredDate,
+            Map<UUID, BulkShipmentResultDTO> results
+    ) {
+        Map<UUID, Status> statuses = findStatuses(chunk);
+        List<UUID> deliverable = new ArrayList<>();
+
+        for (UUID orderId : chunk) {
+            Status status = statuses.get(orderId);
+
+            if (status == null) {
+                results.put(orderId, notFound(orderId));
+            } else if (status != Status.SHIPPED) {
+                results.put(orderId, rejected(orderId,
+                        "Only shipped orders can be marked as delivered. Current status: " + status));
+            } else {
+                deliverable.add(orderId);
+            }
+        }
+
+        if (deliverable.isEmpty()) {
+            return;
+        }
+
+        boolean partial = orderRepository.markDelivered(deliverable, deliveredDate) < deliverable.size();
+
+        // Some orders moved on after they were validated; read back which ones the update reached
+        Map<UUID, Status> current = partial ? findStatuses(deliverable) : Map.of();
+        List<UUID> updated = new ArrayList<>();
+
+        for (UUID orderId : deliverable) {
+            if (partial && current.get(orderId) != Status.DELIVERED) {
+                results.put(orderId, rejected(orderId, "Order status changed while marking it as delivered"));
+                continue;
+            }
+
+            updated.add(orderId);
+            results.put(orderId, new BulkShipmentResultDTO(orderId, ShipmentOutcome.UPDATED, null, null));
+        }
+
+        if (!updated.isEmpty()) {
+            orderSummaryRepository.markDelivered(updated, deliveredDate);
+        }
+    }
+
+    private Map<UUID, Status> findStatuses(List<UUID> orderIds) {
+        return orderRepository.findStatusesByIdIn(orderIds).stream()
+                .collect(Collectors.toMap(OrderStatusRow::orderId, OrderStatusRow::status));
+    }
+
+    /**
+     * Lists the results in request order; repeats of an order ID are reported once each as duplicates.
+     */
+    private static BulkShipmentResponse response(List<UUID> requested, Map<UUID, BulkShipmentResultDTO> results) {
+        Set<UUID> reported = new HashSet<>();
+        List<BulkShipmentResultDTO> ordered = new ArrayList<>(requested.size());
+        int updated = 0;
+
+        for (UUID orderId : requested) {
+            BulkShipmentResultDTO result = results.get(orderId);
+
+            if (!reported.add(orderId)) {
+                result = new BulkShipmentResultDTO(orderId, ShipmentOutcome.DUPLICATE, null,
+                        "Order appears more than once in the request");
+            }
+
+            if (result.outcome() == ShipmentOutcome.UPDATED) {
+                updated++;
+            }
+
+            ordered.add(result);
+        }
+
+        return new BulkShipmentResponse(updated, ordered.size() - updated, ordered);
+    }
+
+    private <T> List<List<T>> chunks(List<T> items) {
+        List<List<T>> chunks = new ArrayList<>();
+
+        for (int i = 0; i < items.size(); i += chunkSize) {
+            chunks.add(items.subList(i, Math.min(i + chunkSize, items.size())));
+        }
+
+        return chunks;
+    }
+
+    private static BulkShipmentResultDTO notFound(UUID orderId) {
+        return new BulkShipmentResultDTO(orderId, ShipmentOutcome.NOT_FOUND, null,
+                "Order with ID '" + orderId + "' not found");
+    }
+
+    private static BulkShipmentResultDTO rejected(UUID orderId, String message) {
+        return new BulkShipmentResultDTO(orderId, ShipmentOutcome.INVALID_STATUS, null, message);
+    }
+
     private String generateTrackingNumber() {
         Random random = new Random();
 
@@ -136,6 +357,7 @@ public class ShipmentServiceImpl implements ShipmentService {
             case DELIVERED -> "Order has been delivered";
             case FAILED -> "Payment failed, order cannot be processed";
             case CANCELLED -> "Order has been cancelled";
+            case NEEDS_REFUND -> "Items are out of stock, the payment will be refunded";
         };
     }
 }
@@ -4,13 +4,12 @@ import com.wild.ecommerce.address.model.Address;
 import com.wild.ecommerce.auth.model.VerificationToken;
 import com.wild.ecommerce.cart.model.Cart;
 import com.wild.ecommerce.common.model.Auditable;
+import com.wild.ecommerce.common.model.TimeOrderedUuid;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
@@ -37,7 +36,7 @@ import java.util.UUID;
 public class User extends Auditable implements UserDetails {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
 
     @Column(nullable = false)
@@ -57,6 +56,9 @@ public class User extends Auditable implements UserDetails {
     private Role role;
     private boolean isEnabled = false;
 
+    @Column(unique = true)
+    private String stripeCustomerId;
+
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<VerificationToken> verificationTokens = new ArrayList<>();
 
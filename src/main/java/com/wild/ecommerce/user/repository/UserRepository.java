@@ -2,6 +2,9 @@ package com.wild.ecommerce.user.repository;
 
 import com.wild.ecommerce.user.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -11,4 +14,19 @@ import java.util.UUID;
 public interface UserRepository extends JpaRepository<User, UUID> {
 
     Optional<User> findByEmailIgnoreCase(String email);
+
+    @Query("SELECT u.stripeCustomerId FROM User u WHERE lower(u.email) = lower(:email)")
+    Optional<String> findStripeCustomerIdByEmail(@Param("email") String email);
+
+    /**
+     * Stores the customer ID unless the user already has one; returns 0 when another writer got there first.
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.stripeCustomerId = :customerId " +
+            "WHERE lower(u.email) = lower(:email) AND u.stripeCustomerId IS NULL")
+    int setStripeCustomerIdIfAbsent(@Param("email") String email, @Param("customerId") String customerId);
+
+    @Modifying
+    @Query("UPDATE User u SET u.stripeCustomerId = NULL WHERE u.stripeCustomerId = :customerId")
+    int clearStripeCustomerId(@Param("customerId") String customerId);
 }
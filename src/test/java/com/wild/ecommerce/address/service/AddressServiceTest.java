@@ -6,6 +6,7 @@ import com.wild.ecommerce.address.dto.UpdateAddressRequest;
 import com.wild.ecommerce.address.mapper.AddressMapper;
 import com.wild.ecommerce.address.model.Address;
 import com.wild.ecommerce.address.repository.AddressRepository;
+import com.wild.ecommerce.common.cache.CacheTagService;
 import com.wild.ecommerce.common.dto.PageResponse;
 import com.wild.ecommerce.common.exception.ResourceNotFoundException;
 import com.wild.ecommerce.user.model.User;
@@ -48,6 +49,9 @@ public class AddressServiceTest {
     @Mock
     private AddressMapper addressMapper;
 
+    @Mock
+    private CacheTagService cacheTagService;
+
     @InjectMocks
     private AddressServiceImpl addressService;
 
@@ -310,6 +314,7 @@ public class AddressServiceTest {
 
         // Assert
         verify(addressRepository).delete(address);
+        verify(cacheTagService).invalidate(CacheTagService.user(USER_EMAIL_TEST));
     }
 
     @Test
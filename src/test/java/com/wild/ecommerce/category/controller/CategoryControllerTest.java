@@ -16,6 +16,7 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
@@ -30,6 +31,7 @@ import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
@@ -38,6 +40,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -79,7 +82,8 @@ public class CategoryControllerTest {
         CategoryDTO categoryDTO = new CategoryDTO(
                 categoryId1,
                 "Test Category",
-                null
+                null,
+                0L
         );
 
         when(categoryService.createCategory(any(CreateCategoryRequest.class)))
@@ -116,8 +120,8 @@ public class CategoryControllerTest {
     void getAllCategories_WithDefaultParams_ReturnsPagedCategories() throws Exception {
         // Given
         List<CategoryDTO> categories = List.of(
-                new CategoryDTO(categoryId1, "Test Category 1", null),
-                new CategoryDTO(categoryId2, "Test Category 2", null)
+                new CategoryDTO(categoryId1, "Test Category 1", null, 0L),
+                new CategoryDTO(categoryId2, "Test Category 2", null, 0L)
         );
         PageImpl<CategoryDTO> page = new PageImpl<>(categories, PageRequest.of(0, 20), 2);
         PageResponse<CategoryDTO> pageResponse = new PageResponse<>(page);
@@ -170,7 +174,7 @@ public class CategoryControllerTest {
     @Test
     void getCategoryById_WhenExists_ReturnsCategory() throws Exception {
         // Given
-        CategoryDTO categoryDTO = new CategoryDTO(categoryId1, "Test Category", null);
+        CategoryDTO categoryDTO = new CategoryDTO(categoryId1, "Test Category", null, 0L);
 
         when(categoryService.getCategoryById(categoryId1)).thenReturn(categoryDTO);
 
@@ -181,6 +185,36 @@ public class CategoryControllerTest {
                 .andExpect(jsonPath("$.name").value("Test Category"));
     }
 
+    @Test
+    void getCategoryById_WithMatchingIfNoneMatch_ReturnsNotModified() throws Exception {
+        // Given
+        CategoryDTO categoryDTO = new CategoryDTO(categoryId1, "Test Category", null, 4L);
+
+        when(categoryService.getCategoryById(categoryId1)).thenReturn(categoryDTO);
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/categories/" + categoryId1)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"4\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+                .andExpect(header().string("Surrogate-Key", "category:" + categoryId1))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getAllCategories_WithCurrentGeneration_ReturnsNotModifiedWithoutLoadingPage() throws Exception {
+        // Given
+        when(categoryService.getCategoriesVersion()).thenReturn("g2");
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/categories")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"g2\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=60, public, s-maxage=300"));
+
+        verify(categoryService, never()).getAllCategories(any(), any());
+    }
+
     @Test
     void updateCategory_WithValidRequest_ReturnsUpdatedCategory() throws Exception {
         // Given
@@ -188,7 +222,7 @@ public class CategoryControllerTest {
                 "Updated Test Category",
                 "Description for test category"
         );
-        CategoryDTO updatedDTO = new CategoryDTO(categoryId1, "Updated Test Category", null);
+        CategoryDTO updatedDTO = new CategoryDTO(categoryId1, "Updated Test Category", null, 0L);
 
         when(categoryService.updateCategory(eq(categoryId1), any(UpdateCategoryRequest.class)))
                 .thenReturn(updatedDTO);
@@ -6,6 +6,7 @@ import com.wild.ecommerce.category.dto.CreateCategoryRequest;
 import com.wild.ecommerce.category.dto.UpdateCategoryRequest;
 import com.wild.ecommerce.category.model.Category;
 import com.wild.ecommerce.category.repository.CategoryRepository;
+import com.wild.ecommerce.common.cache.CacheTagService;
 import com.wild.ecommerce.common.dto.PageResponse;
 import com.wild.ecommerce.common.exception.ResourceAlreadyExistsException;
 import com.wild.ecommerce.common.exception.ResourceNotFoundException;
@@ -45,6 +46,9 @@ public class CategoryServiceTest {
     @Mock
     private CategoryMapper categoryMapper;
 
+    @Mock
+    private CacheTagService cacheTagService;
+
     @InjectMocks
     private CategoryServiceImpl categoryService;
 
@@ -64,7 +68,8 @@ public class CategoryServiceTest {
         categoryDTO = new CategoryDTO(
                 id,
                 "Category Test Name",
-                "Category Test description"
+                "Category Test description",
+                0L
         );
     }
 
@@ -196,7 +201,7 @@ public class CategoryServiceTest {
         );
 
         when(categoryRepository.findById(id)).thenReturn(Optional.of(category));
-        when(categoryRepository.save(category)).thenReturn(category);
+        when(categoryRepository.saveAndFlush(category)).thenReturn(category);
         when(categoryMapper.apply(category)).thenReturn(categoryDTO);
 
         // When
@@ -208,7 +213,7 @@ public class CategoryServiceTest {
 
         verify(categoryRepository).findById(id);
         verify(categoryRepository, never()).existsByNameIgnoreCase(anyString());
-        verify(categoryRepository).save(category);
+        verify(categoryRepository).saveAndFlush(category);
     }
 
     @Test
@@ -221,9 +226,9 @@ public class CategoryServiceTest {
 
         when(categoryRepository.findById(id)).thenReturn(Optional.of(category));
         when(categoryRepository.existsByNameIgnoreCase("Update Category Test Name")).thenReturn(false);
-        when(categoryRepository.save(category)).thenReturn(category);
+        when(categoryRepository.saveAndFlush(category)).thenReturn(category);
         when(categoryMapper.apply(category)).thenReturn(
-                new CategoryDTO(id, "Update Category Test Name", "Update Category Test description")
+                new CategoryDTO(id, "Update Category Test Name", "Update Category Test description", 0L)
         );
 
         // When
@@ -235,7 +240,7 @@ public class CategoryServiceTest {
 
         verify(categoryRepository).findById(id);
         verify(categoryRepository).existsByNameIgnoreCase("Update Category Test Name");
-        verify(categoryRepository).save(category);
+        verify(categoryRepository).saveAndFlush(category);
     }
 
     @Test
@@ -256,7 +261,7 @@ public class CategoryServiceTest {
 
         verify(categoryRepository).findById(id);
         verify(categoryRepository).existsByNameIgnoreCase("Update Category Test Name");
-        verify(categoryRepository, never()).save(any());
+        verify(categoryRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -276,7 +281,7 @@ public class CategoryServiceTest {
 
         verify(categoryRepository).findById(id);
         verify(categoryRepository, never()).existsByNameIgnoreCase(anyString());
-        verify(categoryRepository, never()).save(any());
+        verify(categoryRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -290,6 +295,9 @@ public class CategoryServiceTest {
         // Then
         verify(categoryRepository).findById(id);
         verify(categoryRepository).delete(category);
+        verify(cacheTagService).invalidate(
+                CacheTagService.CATEGORIES, CacheTagService.CATALOG, CacheTagService.category(id)
+        );
     }
 
     @Test
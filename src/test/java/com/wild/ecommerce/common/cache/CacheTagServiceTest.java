@@ -0,0 +1,109 @@
+package com.wild.ecommerce.common.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CacheTagServiceTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private CacheInvalidationPublisher invalidationPublisher;
+
+    private CacheTagService cacheTagService;
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        cacheTagService = new CacheTagService(redisTemplate, invalidationPublisher, Duration.ofMinutes(1), 100);
+    }
+
+    @Test
+    void version_WithUnknownTags_ShouldDefaultToGenerationZero() {
+        // Arrange
+        UUID categoryId = UUID.randomUUID();
+        when(valueOperations.multiGet(List.of("cache:tag:catalog", "cache:tag:category:" + categoryId)))
+                .thenReturn(Arrays.asList("4", null));
+
+        // Act
+        String version = cacheTagService.version(CacheTagService.CATALOG, CacheTagService.category(categoryId));
+
+        // Assert
+        assertEquals("g4.0", version);
+    }
+
+    @Test
+    void invalidate_WithDuplicateTags_ShouldIncrementEachTagOnce() {
+        // Act
+        cacheTagService.invalidate(CacheTagService.CATALOG, CacheTagService.CATALOG, CacheTagService.CATEGORIES);
+
+        // Assert
+        verify(valueOperations, times(1)).increment("cache:tag:catalog");
+        verify(valueOperations, times(1)).increment("cache:tag:categories");
+        verify(invalidationPublisher).publishEvict(CacheTagService.INVALIDATION_NAME, CacheTagService.CATALOG);
+    }
+
+    @Test
+    void version_WhenAskedAgain_ShouldServeGenerationsLocally() {
+        // Arrange
+        UUID categoryId = UUID.randomUUID();
+        when(valueOperations.multiGet(List.of("cache:tag:catalog"))).thenReturn(List.of("4"));
+        when(valueOperations.multiGet(List.of("cache:tag:category:" + categoryId))).thenReturn(List.of("2"));
+        cacheTagService.version(CacheTagService.CATALOG);
+
+        // Act
+        String version = cacheTagService.version(CacheTagService.CATALOG, CacheTagService.category(categoryId));
+
+        // Assert
+        assertEquals("g4.2", version);
+        verify(valueOperations, times(1)).multiGet(List.of("cache:tag:catalog"));
+    }
+
+    @Test
+    void invalidate_ShouldServeBumpedGenerationWithoutReadingRedis() {
+        // Arrange
+        when(valueOperations.multiGet(List.of("cache:tag:catalog"))).thenReturn(List.of("4"));
+        when(valueOperations.increment("cache:tag:catalog")).thenReturn(5L);
+        cacheTagService.version(CacheTagService.CATALOG);
+
+        // Act
+        cacheTagService.invalidate(CacheTagService.CATALOG);
+
+        // Assert
+        assertEquals("g5", cacheTagService.version(CacheTagService.CATALOG));
+        verify(valueOperations, times(1)).multiGet(List.of("cache:tag:catalog"));
+    }
+
+    @Test
+    void onEvict_FromOtherNodeBump_ShouldReloadGenerationFromRedis() {
+        // Arrange
+        when(valueOperations.multiGet(List.of("cache:tag:catalog"))).thenReturn(List.of("4"), List.of("6"));
+        cacheTagService.version(CacheTagService.CATALOG);
+
+        // Act
+        cacheTagService.onEvict(CacheTagService.CATALOG);
+
+        // Assert
+        assertEquals("g6", cacheTagService.version(CacheTagService.CATALOG));
+    }
+}
@@ -0,0 +1,202 @@
+package com.wild.ecommerce.common.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class TwoTierCacheManagerTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private ConcurrentMapCacheManager remoteCacheManager;
+    private MeterRegistry meterRegistry;
+    private TwoTierCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        remoteCacheManager = new ConcurrentMapCacheManager("product");
+        meterRegistry = new SimpleMeterRegistry();
+        cacheManager = new TwoTierCacheManager(
+                remoteCacheManager, redisTemplate, meterRegistry, null, true, 100, Duration.ofMinutes(1)
+        );
+    }
+
+    @Test
+    void get_AfterRemoteHit_ShouldServeFromLocalTier() {
+        // Arrange
+        UUID id = UUID.randomUUID();
+        remoteCacheManager.getCache("product").put(id, "shoe");
+        Cache cache = cacheManager.getCache("product");
+
+        // Act
+        cache.get(id);
+        remoteCacheManager.getCache("product").evict(id);
+        Cache.ValueWrapper result = cache.get(id);
+
+        // Assert
+        assertEquals("shoe", result.get());
+        assertEquals(1.0, count("l1", "hit"));
+        assertEquals(1.0, count("l1", "miss"));
+        assertEquals(1.0, count("l2", "hit"));
+    }
+
+    @Test
+    void evict_ShouldClearBothTiersAndBroadcast() {
+        // Arrange
+        UUID id = UUID.randomUUID();
+        Cache cache = cacheManager.getCache("product");
+        cache.put(id, "shoe");
+
+        // Act
+        cache.evict(id);
+
+        // Assert
+        assertNull(cache.get(id));
+        verify(redisTemplate).convertAndSend(
+                TwoTierCacheManager.CHANNEL, "evict|" + cacheManager.getNodeId() + "|product|" + id
+        );
+    }
+
+    @Test
+    void onMessage_FromOtherNode_ShouldDropLocalCopyOnly() {
+        // Arrange
+        UUID id = UUID.randomUUID();
+        Cache cache = cacheManager.getCache("product");
+        cache.put(id, "shoe");
+        remoteCacheManager.getCache("product").put(id, "boot");
+
+        // Act
+        cacheManager.onMessage(message("evict|other-node|product|" + id), null);
+
+        // Assert
+        assertEquals("boot", cache.get(id).get());
+    }
+
+    @Test
+    void onMessage_FromSameNode_ShouldBeIgnored() {
+        // Arrange
+        UUID id = UUID.randomUUID();
+        Cache cache = cacheManager.getCache("product");
+        cache.put(id, "shoe");
+        remoteCacheManager.getCache("product").put(id, "boot");
+
+        // Act
+        cacheManager.onMessage(message("clear|" + cacheManager.getNodeId() + "|product|"), null);
+
+        // Assert
+        assertEquals("shoe", cache.get(id).get());
+    }
+
+    @Test
+    void onMessage_ForSubscribedListener_ShouldRouteToIt() {
+        // Arrange
+        LocalInvalidationListener listener = mock(LocalInvalidationListener.class);
+        cacheManager.subscribe("search:products", listener);
+
+        // Act
+        cacheManager.onMessage(message("evict|other-node|search:products|42"), null);
+        cacheManager.onMessage(message("clear|other-node|search:products|"), null);
+
+        // Assert
+        verify(listener).onEvict("42");
+        verify(listener).onClear();
+    }
+
+    @Test
+    void getWithLoader_WithConcurrentMisses_ShouldRunLoaderOnce() throws Exception {
+        // Arrange
+        Cache cache = cacheManager.getCache("product");
+        AtomicInteger loaderCalls = new AtomicInteger();
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+        Callable<String> loader = () -> {
+            loaderCalls.incrementAndGet();
+            loaderStarted.countDown();
+            releaseLoader.await();
+            return "shoe";
+        };
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            // Act
+            Future<String> leader = executor.submit(() -> cache.get("page-0", loader));
+            loaderStarted.await();
+            List<Future<String>> followers = List.of(
+                    executor.submit(() -> cache.get("page-0", loader)),
+                    executor.submit(() -> cache.get("page-0", loader))
+            );
+            while (meterRegistry.get("cache.loads.coalesced").tag("scope", "local").counter().count() < 2) {
+                Thread.sleep(5);
+            }
+            releaseLoader.countDown();
+
+            // Assert
+            assertEquals("shoe", leader.get(5, TimeUnit.SECONDS));
+            for (Future<String> follower : followers) {
+                assertEquals("shoe", follower.get(5, TimeUnit.SECONDS));
+            }
+        }
+
+        assertEquals(1, loaderCalls.get());
+        assertEquals("shoe", remoteCacheManager.getCache("product").get("page-0").get());
+    }
+
+    @Test
+    void getWithLoader_WhenLoaderFails_ShouldPropagateAndNotCache() {
+        // Arrange
+        Cache cache = cacheManager.getCache("product");
+        Callable<String> loader = () -> {
+            throw new IllegalStateException("database down");
+        };
+
+        // Act & Assert
+        Cache.ValueRetrievalException exception =
+                assertThrows(Cache.ValueRetrievalException.class, () -> cache.get("page-0", loader));
+        assertInstanceOf(IllegalStateException.class, exception.getCause());
+        assertNull(cache.get("page-0"));
+    }
+
+    private double count(String tier, String result) {
+        return meterRegistry.get("cache.tier.gets")
+                .tag("cache", "product")
+                .tag("tier", tier)
+                .tag("result", result)
+                .counter()
+                .count();
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(
+                TwoTierCacheManager.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8)
+        );
+    }
+}
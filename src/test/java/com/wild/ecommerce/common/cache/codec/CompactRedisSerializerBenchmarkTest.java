@@ -0,0 +1,141 @@
+package com.wild.ecommerce.common.cache.codec;
+
+import com.wild.ecommerce.common.dto.PageResponse;
+import com.wild.ecommerce.product.dto.ProductDTO;
+import com.wild.ecommerce.product.dto.ProductSummaryDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the bytes written and the time spent serializing and deserializing the cached value types with the
+ * compact codecs and with the JSON serializer they replaced. Both serializers run in the same JVM with the same
+ * warm-up, so only the relative numbers are meaningful.
+ *
+ * <p>Excluded from {@code test}; run it with {@code ./gradlew benchmark}.</p>
+ */
+@Slf4j
+@Tag("benchmark")
+public class CompactRedisSerializerBenchmarkTest {
+
+    private static final int WARMUP_ROUNDS = 20_000;
+    private static final int MEASURED_ROUNDS = 100_000;
+
+    private final GenericJackson2JsonRedisSerializer jsonSerializer = new GenericJackson2JsonRedisSerializer();
+    private final CompactRedisSerializer compactSerializer = new CompactRedisSerializer(
+            List.of(
+                    new ProductDTOCodec(),
+                    new ProductSummaryDTOCodec(),
+                    new CategoryDTOCodec(),
+                    new AddressDTOCodec(),
+                    new PageResponseCodec()
+            ),
+            jsonSerializer,
+            true,
+            512
+    );
+
+    private long sink;
+
+    @Test
+    void compactSerializerShouldWriteFewerBytesInLessTime() {
+        Map<String, Object> payloads = new LinkedHashMap<>();
+        payloads.put("product", product(1));
+        payloads.put("list page of 20", summaryPage(20));
+        payloads.put("product page of 50", productPage(50));
+
+        payloads.forEach((name, value) -> {
+            Result json = measure(jsonSerializer, value);
+            Result compact = measure(compactSerializer, value);
+
+            log.info("{}: JSON {} bytes, {} ns write, {} ns read | compact {} bytes, {} ns write, {} ns read",
+                    name, json.bytes(), json.writeNanos(), json.readNanos(),
+                    compact.bytes(), compact.writeNanos(), compact.readNanos());
+
+            assertThat(compact.bytes()).isLessThan(json.bytes());
+            assertThat(compact.writeNanos() + compact.readNanos()).isLessThan(json.writeNanos() + json.readNanos());
+        });
+
+        log.debug("Sink {}", sink);
+    }
+
+    private Result measure(RedisSerializer<Object> serializer, Object value) {
+        byte[] bytes = serializer.serialize(value);
+        assertThat(serializer.deserialize(bytes)).isNotNull();
+
+        run(serializer, value, bytes, WARMUP_ROUNDS);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            sink += serializer.serialize(value).length;
+        }
+        long writeNanos = (System.nanoTime() - start) / MEASURED_ROUNDS;
+
+        start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            sink += serializer.deserialize(bytes).hashCode();
+        }
+        long readNanos = (System.nanoTime() - start) / MEASURED_ROUNDS;
+
+        return new Result(bytes.length, writeNanos, readNanos);
+    }
+
+    private void run(RedisSerializer<Object> serializer, Object value, byte[] bytes, int rounds) {
+        for (int i = 0; i < rounds; i++) {
+            sink += serializer.serialize(value).length;
+            sink += serializer.deserialize(bytes).hashCode();
+        }
+    }
+
+    private static PageResponse<ProductSummaryDTO> summaryPage(int size) {
+        List<ProductSummaryDTO> content = new ArrayList<>();
+
+        for (int i = 0; i < size; i++) {
+            ProductDTO product = product(i);
+            content.add(new ProductSummaryDTO(
+                    product.id(), product.name(), product.brand(), product.price(), product.stock(),
+                    product.imageUrl(), product.categoryName(), product.version()
+            ));
+        }
+
+        return new PageResponse<>(content, 0, size, size * 10L, 10);
+    }
+
+    private static PageResponse<ProductDTO> productPage(int size) {
+        List<ProductDTO> content = new ArrayList<>();
+
+        for (int i = 0; i < size; i++) {
+            content.add(product(i));
+        }
+
+        return new PageResponse<>(content, 0, size, size * 10L, 10);
+    }
+
+    private static ProductDTO product(int index) {
+        return new ProductDTO(
+                UUID.randomUUID(),
+                "Running Shoe " + index,
+                "Nike",
+                "Lightweight running shoe with breathable mesh upper",
+                BigDecimal.valueOf(11999, 2),
+                index * 3,
+                "https://cdn.example.com/products/running-shoe-" + index + ".png",
+                "Shoes",
+                0L
+        );
+    }
+
+    private record Result(int bytes, long writeNanos, long readNanos) {
+    }
+}
@@ -0,0 +1,133 @@
+package com.wild.ecommerce.common.cache.codec;
+
+import com.wild.ecommerce.address.dto.AddressDTO;
+import com.wild.ecommerce.category.dto.CategoryDTO;
+import com.wild.ecommerce.common.dto.PageResponse;
+import com.wild.ecommerce.product.dto.ProductDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CompactRedisSerializerTest {
+
+    private GenericJackson2JsonRedisSerializer jsonSerializer;
+    private CompactRedisSerializer serializer;
+
+    @BeforeEach
+    void setUp() {
+        jsonSerializer = new GenericJackson2JsonRedisSerializer();
+        serializer = new CompactRedisSerializer(
+                List.of(new ProductDTOCodec(), new CategoryDTOCodec(), new AddressDTOCodec(), new PageResponseCodec()),
+                jsonSerializer,
+                true,
+                512
+        );
+    }
+
+    @Test
+    void serialize_WithProduct_ShouldRoundTrip() {
+        // Arrange
+        ProductDTO product = product(1);
+
+        // Act
+        Object result = serializer.deserialize(serializer.serialize(product));
+
+        // Assert
+        assertEquals(product, result);
+    }
+
+    @Test
+    void serialize_WithNullFields_ShouldRoundTrip() {
+        // Arrange
+        CategoryDTO category = new CategoryDTO(UUID.randomUUID(), "Shoes", null, 0L);
+        AddressDTO address = new AddressDTO(UUID.randomUUID(), "Argentina", null, "Rosario", "Córdoba 1234", "2000");
+
+        // Act & Assert
+        assertEquals(category, serializer.deserialize(serializer.serialize(category)));
+        assertEquals(address, serializer.deserialize(serializer.serialize(address)));
+    }
+
+    @Test
+    void serialize_WithLargePage_ShouldCompressAndBeSmallerThanJson() {
+        // Arrange
+        List<ProductDTO> content = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            content.add(product(i));
+        }
+        PageResponse<ProductDTO> page = new PageResponse<>(content, 0, 50, 500, 10);
+
+        // Act
+        byte[] compact = serializer.serialize(page);
+        byte[] json = jsonSerializer.serialize(page);
+        PageResponse<?> result = (PageResponse<?>) serializer.deserialize(compact);
+
+        // Assert
+        assertEquals(CompactRedisSerializer.FLAG_COMPRESSED, compact[2] & CompactRedisSerializer.FLAG_COMPRESSED);
+        assertTrue(compact.length * 3 < json.length, compact.length + " vs " + json.length);
+        assertEquals(page, result);
+    }
+
+    @Test
+    void deserialize_WithLegacyJsonEntry_ShouldUseFallback() {
+        // Arrange
+        ProductDTO product = product(1);
+        byte[] legacy = jsonSerializer.serialize(product);
+
+        // Act
+        Object result = serializer.deserialize(legacy);
+
+        // Assert
+        assertEquals(product, result);
+    }
+
+    @Test
+    void deserialize_WithNewerFormatVersion_ShouldTreatAsMiss() {
+        // Arrange
+        byte[] bytes = serializer.serialize(product(1));
+        bytes[1] = CompactRedisSerializer.FORMAT_VERSION + 1;
+
+        // Act & Assert
+        assertNull(serializer.deserialize(bytes));
+    }
+
+    @Test
+    void serialize_WithPageOfUnregisteredType_ShouldFallBackToJson() {
+        // Arrange
+        Map<String, String> element = new HashMap<>();
+        element.put("key", "value");
+        PageResponse<Map<String, String>> page = new PageResponse<>(new ArrayList<>(List.of(element)), 0, 1, 1, 1);
+
+        // Act
+        byte[] bytes = serializer.serialize(page);
+
+        // Assert
+        assertNotEquals(CompactRedisSerializer.MAGIC, bytes[0]);
+        assertEquals(page, serializer.deserialize(bytes));
+    }
+
+    private static ProductDTO product(int index) {
+        return new ProductDTO(
+                UUID.randomUUID(),
+                "Running Shoe " + index,
+                "Nike",
+                "Lightweight running shoe with breathable mesh upper",
+                BigDecimal.valueOf(11999, 2),
+                index * 3,
+                "https://cdn.example.com/products/running-shoe-" + index + ".png",
+                "Shoes",
+                0L
+        );
+    }
+}
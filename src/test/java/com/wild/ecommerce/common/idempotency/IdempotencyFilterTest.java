@@ -0,0 +1,289 @@
+package com.wild.ecommerce.common.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class IdempotencyFilterTest {
+
+    private static final String SCOPE = "anonymous:POST:/api/v1/orders:key-1";
+
+    @Mock
+    private IdempotencyStore store;
+
+    private SimpleMeterRegistry meterRegistry;
+    private IdempotencyFilter filter;
+    private AtomicInteger executions;
+    private FilterChain chain;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new IdempotencyFilter(
+                store,
+                new ObjectMapper().registerModule(new JavaTimeModule()),
+                meterRegistry,
+                Duration.ofSeconds(1),
+                Duration.ofMinutes(1)
+        );
+
+        executions = new AtomicInteger();
+        chain = (_, response) -> {
+            executions.incrementAndGet();
+            HttpServletResponse httpResponse = (HttpServletResponse) response;
+            httpResponse.setStatus(201);
+            httpResponse.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            httpResponse.getOutputStream().write("\"order-1\"".getBytes(StandardCharsets.UTF_8));
+        };
+    }
+
+    @Test
+    void doFilter_WithNewKey_ShouldExecuteAndStoreResponse() throws Exception {
+        // Arrange
+        when(store.tryBegin(SCOPE)).thenReturn("token");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(request("key-1"), response, chain);
+
+        // Assert
+        assertEquals(1, executions.get());
+        assertEquals(201, response.getStatus());
+        assertEquals("\"order-1\"", response.getContentAsString());
+
+        ArgumentCaptor<StoredResponse> stored = ArgumentCaptor.forClass(StoredResponse.class);
+        verify(store).complete(anyString(), stored.capture());
+        assertEquals(201, stored.getValue().status());
+        assertEquals("\"order-1\"", new String(stored.getValue().body(), StandardCharsets.UTF_8));
+        verify(store, never()).abandon(anyString(), anyString());
+    }
+
+    @Test
+    void doFilter_WithCompletedKey_ShouldReplayWithoutExecuting() throws Exception {
+        // Arrange
+        when(store.tryBegin(SCOPE)).thenReturn(null);
+        when(store.find(SCOPE)).thenReturn(new StoredResponse(
+                201, MediaType.APPLICATION_JSON_VALUE, null, "\"order-1\"".getBytes(StandardCharsets.UTF_8), null
+        ));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(request("key-1"), response, chain);
+
+        // Assert
+        assertEquals(0, executions.get());
+        assertEquals(201, response.getStatus());
+        assertEquals("true", response.getHeader(IdempotencyFilter.IDEMPOTENT_REPLAYED));
+        assertEquals("\"order-1\"", response.getContentAsString());
+        assertEquals(1.0, meterRegistry.get("idempotency.requests").tag("outcome", "replayed").counter().count());
+    }
+
+    @Test
+    void doFilter_WithSameBodyAsStoredResponse_ShouldReplay() throws Exception {
+        // Arrange
+        when(store.tryBegin(SCOPE)).thenReturn("token").thenReturn(null);
+        filter.doFilter(request("key-1", "{\"quantity\":1}"), new MockHttpServletResponse(), chain);
+        ArgumentCaptor<StoredResponse> stored = ArgumentCaptor.forClass(StoredResponse.class);
+        verify(store).complete(anyString(), stored.capture());
+        when(store.find(SCOPE)).thenReturn(stored.getValue());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(request("key-1", "{\"quantity\":1}"), response, chain);
+
+        // Assert
+        assertEquals(1, executions.get());
+        assertEquals(201, response.getStatus());
+        assertEquals("true", response.getHeader(IdempotencyFilter.IDEMPOTENT_REPLAYED));
+    }
+
+    @Test
+    void doFilter_WithDifferentBodyThanStoredResponse_ShouldReturnUnprocessableEntity() throws Exception {
+        // Arrange
+        when(store.tryBegin(SCOPE)).thenReturn(null);
+        when(store.find(SCOPE)).thenReturn(new StoredResponse(201, null, null, new byte[0], "other-body"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(request("key-1", "{\"quantity\":2}"), response, chain);
+
+        // Assert
+        assertEquals(0, executions.get());
+        assertEquals(422, response.getStatus());
+        assertEquals(1.0, meterRegistry.get("idempotency.requests").tag("outcome", "mismatch").counter().count());
+    }
+
+    @Test
+    void doFilter_WithNewKey_ShouldPassReadBodyToHandler() throws Exception {
+        // Arrange
+        when(store.tryBegin(SCOPE)).thenReturn("token");
+        AtomicReference<String> received = new AtomicReference<>();
+        FilterChain echo = (request, _) -> received.set(new String(
+                request.getInputStream().readAllBytes(), StandardCharsets.UTF_8
+        ));
+
+        // Act
+        filter.doFilter(request("key-1", "{\"quantity\":1}"), new MockHttpServletResponse(), echo);
+
+        // Assert
+        assertEquals("{\"quantity\":1}", received.get());
+    }
+
+    @Test
+    void doFilter_WhileRequestRuns_ShouldRenewInFlightMarker() throws Exception {
+        // Arrange
+        filter = new IdempotencyFilter(
+                store,
+                new ObjectMapper().registerModule(new JavaTimeModule()),
+                meterRegistry,
+                Duration.ofSeconds(1),
+                Duration.ofMillis(10)
+        );
+        when(store.tryBegin(SCOPE)).thenReturn("token");
+        FilterChain slow = (_, _) -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        // Act
+        filter.doFilter(request("key-1"), new MockHttpServletResponse(), slow);
+
+        // Assert
+        verify(store, atLeastOnce()).renew(SCOPE, "token");
+    }
+
+    @Test
+    void doFilter_WhileFirstRequestIsInFlight_ShouldWaitForItsResponse() throws Exception {
+        // Arrange
+        when(store.tryBegin(SCOPE)).thenReturn(null);
+        when(store.find(SCOPE))
+                .thenReturn(null)
+                .thenReturn(new StoredResponse(201, null, null, new byte[0], null));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(request("key-1"), response, chain);
+
+        // Assert
+        assertEquals(0, executions.get());
+        assertEquals(201, response.getStatus());
+        assertEquals("true", response.getHeader(IdempotencyFilter.IDEMPOTENT_REPLAYED));
+    }
+
+    @Test
+    void doFilter_WhenInFlightRequestNeverFinishes_ShouldReturnConflict() throws Exception {
+        // Arrange
+        when(store.tryBegin(SCOPE)).thenReturn(null);
+        when(store.find(SCOPE)).thenReturn(null);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(request("key-1"), response, chain);
+
+        // Assert
+        assertEquals(0, executions.get());
+        assertEquals(409, response.getStatus());
+        assertEquals(1.0, meterRegistry.get("idempotency.requests").tag("outcome", "conflict").counter().count());
+    }
+
+    @Test
+    void doFilter_WhenResponseIsServerError_ShouldReleaseKey() throws Exception {
+        // Arrange
+        when(store.tryBegin(SCOPE)).thenReturn("token");
+        FilterChain failing = (_, response) -> ((HttpServletResponse) response).setStatus(503);
+
+        // Act
+        filter.doFilter(request("key-1"), new MockHttpServletResponse(), failing);
+
+        // Assert
+        verify(store).abandon(SCOPE, "token");
+        verify(store, never()).complete(anyString(), any());
+    }
+
+    @Test
+    void doFilter_WhenStoreIsUnavailable_ShouldExecuteUnguarded() throws Exception {
+        // Arrange
+        when(store.tryBegin(SCOPE)).thenThrow(new IllegalStateException("Redis down"));
+
+        // Act
+        filter.doFilter(request("key-1"), new MockHttpServletResponse(), chain);
+
+        // Assert
+        assertEquals(1, executions.get());
+        verify(store, never()).complete(anyString(), any());
+    }
+
+    @Test
+    void doFilter_WithoutKeyOrWithSafeMethod_ShouldPassThrough() throws Exception {
+        // Arrange
+        MockHttpServletRequest get = request("key-1");
+        get.setMethod("GET");
+
+        // Act
+        filter.doFilter(request(null), new MockHttpServletResponse(), chain);
+        filter.doFilter(get, new MockHttpServletResponse(), chain);
+
+        // Assert
+        assertEquals(2, executions.get());
+        verifyNoInteractions(store);
+    }
+
+    @Test
+    void doFilter_WithOverlongKey_ShouldReturnBadRequest() throws Exception {
+        // Arrange
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(request("k".repeat(256)), response, chain);
+
+        // Assert
+        assertEquals(400, response.getStatus());
+        assertEquals(0, executions.get());
+        verifyNoInteractions(store);
+    }
+
+    private static MockHttpServletRequest request(String key) {
+        return request(key, "");
+    }
+
+    private static MockHttpServletRequest request(String key, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/orders");
+        request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+
+        if (key != null) {
+            request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY, key);
+        }
+
+        return request;
+    }
+}
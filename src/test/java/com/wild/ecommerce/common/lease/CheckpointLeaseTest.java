@@ -0,0 +1,134 @@
+package com.wild.ecommerce.common.lease;
+
+import com.wild.ecommerce.payment.model.ReconciliationCheckpoint;
+import com.wild.ecommerce.payment.repository.ReconciliationCheckpointRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CheckpointLeaseTest {
+
+    private static final String NAME = "job";
+    private static final String OWNER = "node-1";
+
+    @Mock
+    private ReconciliationCheckpointRepository checkpointRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private CheckpointLease checkpointLease;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null)
+        );
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    void acquire_WhenCheckpointIsMissing_ShouldCreateAndLeaseIt() {
+        // Arrange
+        when(checkpointRepository.existsById(NAME)).thenReturn(false);
+        when(checkpointRepository.acquire(eq(NAME), eq(OWNER), any(), any())).thenReturn(1);
+
+        // Act
+        boolean acquired = checkpointLease.acquire(NAME, OWNER, Duration.ofMinutes(1));
+
+        // Assert
+        assertTrue(acquired);
+        verify(checkpointRepository).saveAndFlush(any(ReconciliationCheckpoint.class));
+    }
+
+    @Test
+    void acquire_WhenAnotherNodeCreatesCheckpointFirst_ShouldStillTryToLease() {
+        // Arrange
+        when(checkpointRepository.existsById(NAME)).thenReturn(false);
+        when(checkpointRepository.saveAndFlush(any(ReconciliationCheckpoint.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate"));
+        when(checkpointRepository.acquire(eq(NAME), eq(OWNER), any(), any())).thenReturn(0);
+
+        // Act
+        boolean acquired = checkpointLease.acquire(NAME, OWNER, Duration.ofMinutes(1));
+
+        // Assert
+        assertFalse(acquired);
+    }
+
+    @Test
+    void acquire_WhenCheckpointExists_ShouldNotCreateIt() {
+        // Arrange
+        when(checkpointRepository.existsById(NAME)).thenReturn(true);
+        when(checkpointRepository.acquire(eq(NAME), eq(OWNER), any(), any())).thenReturn(1);
+
+        // Act
+        checkpointLease.acquire(NAME, OWNER, Duration.ofMinutes(1));
+
+        // Assert
+        verify(checkpointRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void renew_ShouldExtendLeaseWithoutMovingPosition() {
+        // Arrange
+        when(checkpointRepository.renew(eq(NAME), eq(OWNER), any())).thenReturn(1);
+
+        // Act
+        boolean renewed = checkpointLease.renew(NAME, OWNER, Duration.ofMinutes(1));
+
+        // Assert
+        assertTrue(renewed);
+        verify(checkpointRepository, never()).advance(any(), any(), any(), any());
+    }
+
+    @Test
+    void renew_WhenLeasePassedToAnotherNode_ShouldReturnFalse() {
+        // Arrange
+        when(checkpointRepository.renew(eq(NAME), eq(OWNER), any())).thenReturn(0);
+
+        // Act
+        boolean renewed = checkpointLease.renew(NAME, OWNER, Duration.ofMinutes(1));
+
+        // Assert
+        assertFalse(renewed);
+    }
+
+    @Test
+    void advance_ShouldRecordPositionAndExtendLease() {
+        // Arrange
+        UUID lastOrderId = UUID.randomUUID();
+        when(checkpointRepository.advance(eq(NAME), eq(OWNER), eq(lastOrderId), any())).thenReturn(1);
+
+        // Act
+        boolean advanced = checkpointLease.advance(NAME, OWNER, lastOrderId, Duration.ofMinutes(1));
+
+        // Assert
+        assertTrue(advanced);
+    }
+}
@@ -0,0 +1,143 @@
+package com.wild.ecommerce.common.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares insert throughput into a {@code BINARY(16)} clustered primary key with random (v4) and time-ordered (v7)
+ * keys, on a row shaped like {@code order_items}. The buffer pool is kept small so the index outgrows it early, which
+ * is where random keys start paying for page splits and reads of cold pages.
+ *
+ * <p>Excluded from {@code test}; run it with {@code ./gradlew benchmark}. The row count defaults to
+ * {@link #DEFAULT_ROWS} and can be raised with the {@code UUID_BENCHMARK_ROWS} environment variable, e.g. to
+ * {@code 50000000} for a full-size run.</p>
+ */
+@Slf4j
+@Tag("benchmark")
+@JdbcTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class UuidV7InsertBenchmarkTest {
+
+    private static final long DEFAULT_ROWS = 2_000_000;
+    private static final int BATCH_SIZE = 1000;
+    private static final int REPORT_EVERY = 500;
+
+    @Container
+    @SuppressWarnings("resource")
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.4.0")
+            .withDatabaseName("testDB")
+            .withUsername("test")
+            .withPassword("test")
+            .withUrlParam("rewriteBatchedStatements", "true")
+            .withCommand("--innodb-buffer-pool-size=64M");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS uuid_v4_items");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS uuid_v7_items");
+    }
+
+    @Test
+    void timeOrderedKeysShouldInsertFasterThanRandomKeys() {
+        long rows = rows();
+
+        double random = measure("uuid_v4_items", rows, UUID::randomUUID);
+        double ordered = measure("uuid_v7_items", rows, UuidV7::randomUuid);
+
+        log.info("{} rows: random keys {} rows/s, time-ordered keys {} rows/s",
+                rows, String.format("%.0f", random), String.format("%.0f", ordered));
+
+        assertThat(ordered).isGreaterThan(random);
+    }
+
+    private double measure(String table, long rows, Supplier<UUID> keys) {
+        jdbcTemplate.execute("CREATE TABLE " + table + " (" +
+                "id BINARY(16) NOT NULL PRIMARY KEY, " +
+                "order_id BINARY(16) NOT NULL, " +
+                "product_id BINARY(16) NOT NULL, " +
+                "quantity INT NOT NULL, " +
+                "price DECIMAL(19, 2) NOT NULL, " +
+                "created_at DATETIME(6) NOT NULL)");
+
+        String sql = "INSERT INTO " + table +
+                " (id, order_id, product_id, quantity, price, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+        byte[] orderId = toBytes(UUID.randomUUID());
+        byte[] productId = toBytes(UUID.randomUUID());
+
+        long start = System.nanoTime();
+        long windowStart = start;
+        long inserted = 0;
+        int batches = 0;
+
+        while (inserted < rows) {
+            int size = (int) Math.min(BATCH_SIZE, rows - inserted);
+            Timestamp now = Timestamp.from(Instant.now());
+            List<Object[]> batch = new ArrayList<>(size);
+
+            for (int i = 0; i < size; i++) {
+                batch.add(new Object[]{toBytes(keys.get()), orderId, productId, 1, "9.99", now});
+            }
+
+            jdbcTemplate.batchUpdate(sql, batch);
+            inserted += size;
+
+            if (++batches % REPORT_EVERY == 0) {
+                long windowEnd = System.nanoTime();
+                log.info("{}: {} rows, {} rows/s over the last {}", table, inserted,
+                        String.format("%.0f", (double) REPORT_EVERY * BATCH_SIZE / ((windowEnd - windowStart) / 1e9)),
+                        REPORT_EVERY * BATCH_SIZE);
+                windowStart = windowEnd;
+            }
+        }
+
+        return inserted / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private static long rows() {
+        String rows = System.getenv("UUID_BENCHMARK_ROWS");
+
+        return rows != null ? Long.parseLong(rows) : DEFAULT_ROWS;
+    }
+
+    private static byte[] toBytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+}
@@ -0,0 +1,70 @@
+package com.wild.ecommerce.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class UuidV7Test {
+
+    @Test
+    void randomUuid_ShouldSetVersionAndVariant() {
+        // Act
+        UUID uuid = UuidV7.randomUuid();
+
+        // Assert
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+    }
+
+    @Test
+    void randomUuid_ShouldEmbedCurrentTime() {
+        // Arrange
+        Instant before = Instant.now();
+
+        // Act
+        UUID uuid = UuidV7.randomUuid();
+
+        // Assert
+        assertThat(UuidV7.timestamp(uuid)).isBetween(before.minusMillis(1), Instant.now().plus(Duration.ofSeconds(1)));
+    }
+
+    @Test
+    void randomUuid_ShouldIncreaseInByteOrder() {
+        // Arrange
+        List<byte[]> keys = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 10_000; i++) {
+            keys.add(toBytes(UuidV7.randomUuid()));
+        }
+
+        // Assert
+        for (int i = 1; i < keys.size(); i++) {
+            assertThat(Arrays.compareUnsigned(keys.get(i - 1), keys.get(i))).isNegative();
+        }
+    }
+
+    @Test
+    void timestamp_WithRandomUuid_ShouldThrowException() {
+        // Act & Assert
+        assertThatThrownBy(() -> UuidV7.timestamp(UUID.randomUUID()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // Same layout Hibernate writes to a BINARY(16) column, which is what MySQL compares
+    private static byte[] toBytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+}
@@ -0,0 +1,77 @@
+package com.wild.ecommerce.inventory.controller;
+
+import com.wild.ecommerce.auth.service.JwtService;
+import com.wild.ecommerce.common.exception.ResourceNotFoundException;
+import com.wild.ecommerce.inventory.dto.InventoryDTO;
+import com.wild.ecommerce.inventory.service.InventoryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(InventoryController.class)
+@AutoConfigureMockMvc(addFilters = false)
+public class InventoryControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private InventoryService inventoryService;
+
+    @MockitoBean
+    private JwtService jwtService;
+
+    @MockitoBean
+    private UserDetailsService userDetailsService;
+
+    private final UUID productId = UUID.randomUUID();
+
+    @Test
+    void getAvailability_ShouldReturnStockReservedAndAvailable() throws Exception {
+        // Arrange
+        when(inventoryService.getAvailability(productId)).thenReturn(new InventoryDTO(productId, 10, 3));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/inventory/{productId}", productId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stock").value(10))
+                .andExpect(jsonPath("$.reserved").value(3))
+                .andExpect(jsonPath("$.available").value(7));
+    }
+
+    @Test
+    void getAvailability_WithUnknownProduct_ShouldReturnNotFound() throws Exception {
+        // Arrange
+        when(inventoryService.getAvailability(productId))
+                .thenThrow(new ResourceNotFoundException("Product with ID '" + productId + "' not found"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/inventory/{productId}", productId))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getAvailabilityByIds_ShouldReturnEveryKnownProduct() throws Exception {
+        // Arrange
+        when(inventoryService.getAvailability(List.of(productId)))
+                .thenReturn(List.of(new InventoryDTO(productId, 4, 0)));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/inventory").param("productIds", productId.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].productId").value(productId.toString()))
+                .andExpect(jsonPath("$[0].available").value(4));
+    }
+}
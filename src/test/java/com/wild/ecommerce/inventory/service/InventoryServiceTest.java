@@ -0,0 +1,311 @@
+package com.wild.ecommerce.inventory.service;
+
+import com.wild.ecommerce.common.exception.OutOfStockException;
+import com.wild.ecommerce.common.exception.ResourceNotFoundException;
+import com.wild.ecommerce.inventory.dto.InventoryDTO;
+import com.wild.ecommerce.inventory.model.ReservationStatus;
+import com.wild.ecommerce.inventory.model.StockReservation;
+import com.wild.ecommerce.inventory.repository.StockReservationRepository;
+import com.wild.ecommerce.product.service.ProductStockService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class InventoryServiceTest {
+
+    @Mock
+    private StockReservationRepository stockReservationRepository;
+
+    @Mock
+    private ProductStockService productStockService;
+
+    @Mock
+    private AvailabilityIndex availabilityIndex;
+
+    @InjectMocks
+    private InventoryServiceImpl inventoryService;
+
+    private final UUID orderId = UUID.randomUUID();
+    private final UUID productId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(inventoryService, "reservationTtl", Duration.ofMinutes(15));
+    }
+
+    @Test
+    void reserve_ShouldHoldStockAndRecordActiveReservations() {
+        // Arrange
+        LocalDateTime before = LocalDateTime.now();
+
+        // Act
+        inventoryService.reserve(orderId, Map.of(productId, 2));
+
+        // Assert
+        verify(productStockService).reserveStock(Map.of(productId, 2));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<StockReservation>> saved = ArgumentCaptor.forClass(List.class);
+        verify(stockReservationRepository).saveAll(saved.capture());
+        StockReservation reservation = saved.getValue().getFirst();
+        assertEquals(orderId, reservation.getOrderId());
+        assertEquals(2, reservation.getQuantity());
+        assertEquals(ReservationStatus.ACTIVE, reservation.getStatus());
+        assertTrue(reservation.getExpiresAt().isAfter(before.plusMinutes(14)));
+        verify(availabilityIndex).invalidate(List.of(productId));
+    }
+
+    @Test
+    void reserve_WhenStockIsShort_ShouldNotRecordReservations() {
+        // Arrange
+        doThrow(new OutOfStockException("Not enough stock"))
+                .when(productStockService).reserveStock(Map.of(productId, 2));
+
+        // Act & Assert
+        assertThrows(OutOfStockException.class, () -> inventoryService.reserve(orderId, Map.of(productId, 2)));
+
+        verify(stockReservationRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void commit_WithActiveReservations_ShouldCommitHeldStock() {
+        // Arrange
+        StockReservation first = reservation(2, ReservationStatus.ACTIVE);
+        StockReservation second = reservation(3, ReservationStatus.ACTIVE);
+        when(stockReservationRepository.findByOrderIdAndStatus(orderId, ReservationStatus.ACTIVE))
+                .thenReturn(List.of(first, second));
+
+        // Act
+        inventoryService.commit(orderId);
+
+        // Assert
+        verify(productStockService).commitReservedStock(Map.of(productId, 5));
+        verify(productStockService, never()).decrementAvailableStock(any());
+        assertEquals(ReservationStatus.COMMITTED, first.getStatus());
+        assertEquals(ReservationStatus.COMMITTED, second.getStatus());
+    }
+
+    @Test
+    void commit_WithBucketedReservation_ShouldOnlyCommitRowHoldsOnProductRow() {
+        // Arrange
+        UUID hotProductId = UUID.randomUUID();
+        StockReservation held = reservation(2, ReservationStatus.ACTIVE);
+        StockReservation bucketed = reservation(3, ReservationStatus.ACTIVE);
+        bucketed.setProductId(hotProductId);
+        bucketed.setBucketed(true);
+        when(stockReservationRepository.findByOrderIdAndStatus(orderId, ReservationStatus.ACTIVE))
+                .thenReturn(List.of(held, bucketed));
+        when(productStockService.commitReservedStock(Map.of(productId, 2))).thenReturn(List.of());
+
+        // Act
+        List<UUID> shortProducts = inventoryService.commit(orderId);
+
+        // Assert
+        assertTrue(shortProducts.isEmpty());
+        verify(productStockService).commitBucketedStock(Map.of(hotProductId, 3));
+        assertEquals(ReservationStatus.COMMITTED, held.getStatus());
+        assertEquals(ReservationStatus.COMMITTED, bucketed.getStatus());
+    }
+
+    @Test
+    void commit_AfterReservationsExpired_ShouldTakeRemainingStock() {
+        // Arrange
+        StockReservation released = reservation(2, ReservationStatus.RELEASED);
+        when(stockReservationRepository.findByOrderIdAndStatus(orderId, ReservationStatus.ACTIVE))
+                .thenReturn(List.of());
+        when(stockReservationRepository.findByOrderIdAndStatus(orderId, ReservationStatus.RELEASED))
+                .thenReturn(List.of(released));
+        when(productStockService.decrementAvailableStock(Map.of(productId, 2))).thenReturn(List.of());
+
+        // Act
+        List<UUID> shortProducts = inventoryService.commit(orderId);
+
+        // Assert
+        assertTrue(shortProducts.isEmpty());
+        verify(productStockService, never()).commitReservedStock(any());
+        assertEquals(ReservationStatus.COMMITTED, released.getStatus());
+    }
+
+    @Test
+    void commit_AfterReservationsExpiredAndStockSoldOut_ShouldReportShortageAndGiveBackTakenLines() {
+        // Arrange
+        UUID otherProductId = UUID.randomUUID();
+        StockReservation soldOut = reservation(2, ReservationStatus.RELEASED);
+        StockReservation available = reservation(1, ReservationStatus.RELEASED);
+        available.setProductId(otherProductId);
+        when(stockReservationRepository.findByOrderIdAndStatus(orderId, ReservationStatus.ACTIVE))
+                .thenReturn(List.of());
+        when(stockReservationRepository.findByOrderIdAndStatus(orderId, ReservationStatus.RELEASED))
+                .thenReturn(List.of(soldOut, available));
+        when(productStockService.decrementAvailableStock(Map.of(productId, 2, otherProductId, 1)))
+                .thenReturn(List.of(productId));
+
+        // Act
+        List<UUID> shortProducts = inventoryService.commit(orderId);
+
+        // Assert
+        assertEquals(List.of(productId), shortProducts);
+        verify(productStockService).incrementStock(Map.of(otherProductId, 1));
+        assertEquals(ReservationStatus.RELEASED, soldOut.getStatus());
+        assertEquals(ReservationStatus.RELEASED, available.getStatus());
+    }
+
+    @Test
+    void commit_WhenHeldUnitsAreNoLongerInStock_ShouldReportShortageAndReleaseEverything() {
+        // Arrange
+        UUID otherProductId = UUID.randomUUID();
+        UUID hotProductId = UUID.randomUUID();
+        StockReservation missing = reservation(2, ReservationStatus.ACTIVE);
+        StockReservation committed = reservation(1, ReservationStatus.ACTIVE);
+        committed.setProductId(otherProductId);
+        StockReservation bucketed = reservation(3, ReservationStatus.ACTIVE);
+        bucketed.setProductId(hotProductId);
+        bucketed.setBucketed(true);
+        when(stockReservationRepository.findByOrderIdAndStatus(orderId, ReservationStatus.ACTIVE))
+                .thenReturn(List.of(missing, committed, bucketed));
+        when(productStockService.commitReservedStock(Map.of(productId, 2, otherProductId, 1)))
+                .thenReturn(List.of(productId));
+
+        // Act
+        List<UUID> shortProducts = inventoryService.commit(orderId);
+
+        // Assert
+        assertEquals(List.of(productId), shortProducts);
+        verify(productStockService).incrementStock(Map.of(otherProductId, 1));
+        verify(productStockService).releaseReservedStock(Map.of(productId, 2));
+        verify(productStockService).releaseBucketedStock(Map.of(hotProductId, 3));
+        assertEquals(ReservationStatus.RELEASED, missing.getStatus());
+        assertEquals(ReservationStatus.RELEASED, committed.getStatus());
+        assertEquals(ReservationStatus.RELEASED, bucketed.getStatus());
+    }
+
+    @Test
+    void release_ShouldReturnBucketedUnitsToBucketsAndOthersToProductRow() {
+        // Arrange
+        UUID hotProductId = UUID.randomUUID();
+        StockReservation held = reservation(2, ReservationStatus.ACTIVE);
+        StockReservation bucketed = reservation(1, ReservationStatus.ACTIVE);
+        bucketed.setProductId(hotProductId);
+        bucketed.setBucketed(true);
+        when(stockReservationRepository.findByOrderIdAndStatus(orderId, ReservationStatus.ACTIVE))
+                .thenReturn(List.of(held, bucketed));
+
+        // Act
+        inventoryService.release(orderId);
+
+        // Assert
+        verify(productStockService).releaseReservedStock(Map.of(productId, 2));
+        verify(productStockService).releaseBucketedStock(Map.of(hotProductId, 1));
+        assertEquals(ReservationStatus.RELEASED, bucketed.getStatus());
+    }
+
+    @Test
+    void release_WithoutActiveReservations_ShouldDoNothing() {
+        // Arrange
+        when(stockReservationRepository.findByOrderIdAndStatus(orderId, ReservationStatus.ACTIVE))
+                .thenReturn(List.of());
+
+        // Act
+        inventoryService.release(orderId);
+
+        // Assert
+        verify(productStockService, never()).releaseReservedStock(any());
+        verify(stockReservationRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void returnStock_ShouldReleaseActiveHoldsAndRestockCommittedOnes() {
+        // Arrange
+        StockReservation active = reservation(2, ReservationStatus.ACTIVE);
+        StockReservation committed = reservation(3, ReservationStatus.COMMITTED);
+        when(stockReservationRepository.findByOrderIdAndStatus(orderId, ReservationStatus.ACTIVE))
+                .thenReturn(List.of(active));
+        when(stockReservationRepository.findByOrderIdAndStatus(orderId, ReservationStatus.COMMITTED))
+                .thenReturn(List.of(committed));
+
+        // Act
+        inventoryService.returnStock(orderId);
+
+        // Assert
+        verify(productStockService).releaseReservedStock(Map.of(productId, 2));
+        verify(productStockService).incrementStock(Map.of(productId, 3));
+        assertEquals(ReservationStatus.RELEASED, active.getStatus());
+        assertEquals(ReservationStatus.RELEASED, committed.getStatus());
+    }
+
+    @Test
+    void releaseExpired_ShouldReleaseOnlyRowsThatCouldBeLocked() {
+        // Arrange
+        StockReservation locked = reservation(4, ReservationStatus.ACTIVE);
+        UUID skipped = UUID.randomUUID();
+        when(stockReservationRepository.findExpiredIds(any(LocalDateTime.class), any(Limit.class)))
+                .thenReturn(List.of(locked.getId(), skipped));
+        when(stockReservationRepository.lockByIdInAndStatus(List.of(locked.getId(), skipped), ReservationStatus.ACTIVE))
+                .thenReturn(List.of(locked));
+
+        // Act
+        int released = inventoryService.releaseExpired(10);
+
+        // Assert
+        assertEquals(1, released);
+        verify(productStockService).releaseReservedStock(Map.of(productId, 4));
+        assertEquals(ReservationStatus.RELEASED, locked.getStatus());
+    }
+
+    @Test
+    void getAvailability_WithUnknownProduct_ShouldThrowResourceNotFoundException() {
+        // Arrange
+        when(availabilityIndex.get(productId)).thenReturn(null);
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> inventoryService.getAvailability(productId));
+    }
+
+    @Test
+    void getAvailability_ShouldSubtractHeldUnitsFromStock() {
+        // Arrange
+        when(availabilityIndex.getAll(List.of(productId)))
+                .thenReturn(Map.of(productId, new InventoryDTO(productId, 5, 7)));
+
+        // Act
+        List<InventoryDTO> result = inventoryService.getAvailability(List.of(productId));
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals(0, result.getFirst().available());
+    }
+
+    private StockReservation reservation(int quantity, ReservationStatus status) {
+        StockReservation reservation = new StockReservation();
+        reservation.setId(UUID.randomUUID());
+        reservation.setProductId(productId);
+        reservation.setOrderId(orderId);
+        reservation.setQuantity(quantity);
+        reservation.setStatus(status);
+        reservation.setExpiresAt(LocalDateTime.now());
+        return reservation;
+    }
+}
@@ -0,0 +1,187 @@
+package com.wild.ecommerce.order.admission;
+
+import com.wild.ecommerce.order.admission.CheckoutAdmissionQueue.Admission;
+import com.wild.ecommerce.order.admission.CheckoutAdmissionQueue.Outcome;
+import com.wild.ecommerce.order.dto.AdmissionTicketDTO;
+import com.wild.ecommerce.order.model.AdmissionStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CheckoutAdmissionQueueTest {
+
+    private static final String ALICE = "alice@example.com";
+    private static final String BOB = "bob@example.com";
+
+    @Mock
+    private Clock clock;
+
+    @Mock
+    private GlobalCheckoutLimiter globalLimiter;
+
+    private Instant now = Instant.parse("2026-01-01T10:00:00Z");
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(clock.instant()).thenAnswer(_ -> now);
+    }
+
+    @Test
+    void enter_BeyondConcurrencyCap_ShouldQueueInArrivalOrder() {
+        // Arrange
+        CheckoutAdmissionQueue queue = queue(1, 10, null);
+
+        // Act
+        Admission first = queue.enter(null, ALICE);
+        Admission second = queue.enter(null, BOB);
+        Admission third = queue.enter(null, ALICE);
+
+        // Assert
+        assertEquals(Outcome.ADMITTED, first.outcome());
+        assertEquals(Outcome.QUEUED, second.outcome());
+        assertEquals(1, second.ticket().position());
+        assertEquals(2, third.ticket().position());
+        assertEquals(1, queue.activeCount());
+        assertEquals(2, queue.queueSize());
+    }
+
+    @Test
+    void release_ShouldHoldFreedSlotForHeadOfQueue() {
+        // Arrange
+        CheckoutAdmissionQueue queue = queue(1, 10, null);
+        Admission first = queue.enter(null, ALICE);
+        String token = queue.enter(null, BOB).ticket().token();
+
+        // Act
+        queue.release(first.permit());
+        Admission newcomer = queue.enter(null, ALICE);
+        AdmissionTicketDTO ticket = queue.status(token, BOB);
+        Admission redeemed = queue.enter(token, BOB);
+
+        // Assert
+        assertEquals(Outcome.QUEUED, newcomer.outcome());
+        assertEquals(AdmissionStatus.ADMITTED, ticket.status());
+        assertEquals(Outcome.ADMITTED, redeemed.outcome());
+        assertEquals(1, queue.activeCount());
+    }
+
+    @Test
+    void enter_WithSomeoneElsesToken_ShouldNotRedeemIt() {
+        // Arrange
+        CheckoutAdmissionQueue queue = queue(1, 10, null);
+        Admission first = queue.enter(null, ALICE);
+        String token = queue.enter(null, BOB).ticket().token();
+        queue.release(first.permit());
+
+        // Act
+        Admission stolen = queue.enter(token, ALICE);
+
+        // Assert
+        assertEquals(Outcome.QUEUED, stolen.outcome());
+        assertEquals(AdmissionStatus.EXPIRED, queue.status(token, ALICE).status());
+    }
+
+    @Test
+    void enter_WithFullQueue_ShouldRejectWithRetryAfter() {
+        // Arrange
+        CheckoutAdmissionQueue queue = queue(1, 1, null);
+        queue.enter(null, ALICE);
+        queue.enter(null, BOB);
+
+        // Act
+        Admission rejected = queue.enter(null, ALICE);
+
+        // Assert
+        assertEquals(Outcome.REJECTED, rejected.outcome());
+        assertEquals(1, rejected.retryAfterSeconds());
+    }
+
+    @Test
+    void status_AfterTicketsGoStale_ShouldExpireThemAndFreeTheSlot() {
+        // Arrange
+        CheckoutAdmissionQueue queue = queue(1, 10, null);
+        Admission first = queue.enter(null, ALICE);
+        String admittedToken = queue.enter(null, BOB).ticket().token();
+        String waitingToken = queue.enter(null, ALICE).ticket().token();
+        queue.release(first.permit());
+
+        // Act
+        now = now.plusSeconds(31);
+        AdmissionTicketDTO admitted = queue.status(admittedToken, BOB);
+        AdmissionTicketDTO waiting = queue.status(waitingToken, ALICE);
+
+        // Assert
+        assertEquals(AdmissionStatus.EXPIRED, admitted.status());
+        assertEquals(AdmissionStatus.EXPIRED, waiting.status());
+        assertEquals(0, queue.activeCount());
+        assertEquals(Outcome.ADMITTED, queue.enter(null, BOB).outcome());
+    }
+
+    @Test
+    void enter_WhenClusterIsAtCap_ShouldQueueAndNotTakeLocalSlot() {
+        // Arrange
+        CheckoutAdmissionQueue queue = queue(4, 10, globalLimiter);
+        when(globalLimiter.tryAcquire()).thenReturn("lease-1").thenReturn(null);
+
+        // Act
+        Admission first = queue.enter(null, ALICE);
+        Admission second = queue.enter(null, BOB);
+        queue.release(first.permit());
+
+        // Assert
+        assertEquals(Outcome.ADMITTED, first.outcome());
+        assertEquals(Outcome.QUEUED, second.outcome());
+        assertEquals(0, queue.activeCount());
+        verify(globalLimiter).release("lease-1");
+        verify(globalLimiter, never()).release(GlobalCheckoutLimiter.UNTRACKED);
+    }
+
+    @Test
+    void enterAndRelease_ShouldCallRedisOutsideTheMonitor() {
+        // Arrange
+        CheckoutAdmissionQueue queue = queue(1, 10, globalLimiter);
+        when(globalLimiter.tryAcquire()).thenAnswer(_ -> Thread.holdsLock(queue) ? null : "lease-1");
+        doAnswer(_ -> {
+            assertFalse(Thread.holdsLock(queue));
+            return null;
+        }).when(globalLimiter).release(any());
+
+        // Act
+        Admission admission = queue.enter(null, ALICE);
+        queue.release(admission.permit());
+
+        // Assert
+        assertEquals(Outcome.ADMITTED, admission.outcome());
+        assertEquals(0, queue.activeCount());
+        verify(globalLimiter).release("lease-1");
+    }
+
+    private CheckoutAdmissionQueue queue(int maxConcurrent, int capacity, GlobalCheckoutLimiter limiter) {
+        return new CheckoutAdmissionQueue(
+                maxConcurrent,
+                capacity,
+                Duration.ofSeconds(30),
+                Duration.ofSeconds(15),
+                limiter,
+                clock,
+                new SimpleMeterRegistry()
+        );
+    }
+}
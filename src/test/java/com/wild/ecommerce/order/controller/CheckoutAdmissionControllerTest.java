@@ -0,0 +1,81 @@
+package com.wild.ecommerce.order.controller;
+
+import com.wild.ecommerce.auth.service.JwtService;
+import com.wild.ecommerce.order.admission.CheckoutAdmissionQueue;
+import com.wild.ecommerce.order.dto.AdmissionTicketDTO;
+import com.wild.ecommerce.order.model.AdmissionStatus;
+import com.wild.ecommerce.user.model.Role;
+import com.wild.ecommerce.user.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(CheckoutAdmissionController.class)
+public class CheckoutAdmissionControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private CheckoutAdmissionQueue checkoutAdmissionQueue;
+
+    @MockitoBean
+    private JwtService jwtService;
+
+    @MockitoBean
+    private UserDetailsService userDetailsService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setId(UUID.randomUUID());
+        user.setEmail("test@example.com");
+        user.setPassword("Pass@word123");
+        user.setRole(Role.USER);
+    }
+
+    @Test
+    @WithMockUser
+    void getTicket_WhileWaiting_ShouldReturnPositionAndRetryAfter() throws Exception {
+        // Arrange
+        when(checkoutAdmissionQueue.status("token-1", user.getEmail()))
+                .thenReturn(new AdmissionTicketDTO("token-1", AdmissionStatus.WAITING, 12, 3));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/orders/admission/{token}", "token-1").with(user(user)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Retry-After", "3"))
+                .andExpect(jsonPath("$.status").value("WAITING"))
+                .andExpect(jsonPath("$.position").value(12));
+    }
+
+    @Test
+    @WithMockUser
+    void getTicket_WhenAdmitted_ShouldNotAskClientToWait() throws Exception {
+        // Arrange
+        when(checkoutAdmissionQueue.status("token-1", user.getEmail()))
+                .thenReturn(new AdmissionTicketDTO("token-1", AdmissionStatus.ADMITTED, 0, 0));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/orders/admission/{token}", "token-1").with(user(user)))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Retry-After"))
+                .andExpect(jsonPath("$.status").value("ADMITTED"));
+    }
+}
@@ -6,8 +6,10 @@ import com.wild.ecommerce.auth.service.JwtService;
 import com.wild.ecommerce.common.dto.PageResponse;
 import com.wild.ecommerce.order.dto.CreateOrderRequest;
 import com.wild.ecommerce.order.dto.OrderDTO;
+import com.wild.ecommerce.order.dto.OrderSummaryDTO;
 import com.wild.ecommerce.order.dto.UpdateOrderRequest;
 import com.wild.ecommerce.order.model.Status;
+import com.wild.ecommerce.order.service.OrderExportService;
 import com.wild.ecommerce.order.service.OrderService;
 import com.wild.ecommerce.payment.dto.PaymentDTO;
 import com.wild.ecommerce.payment.model.PaymentMethod;
@@ -55,6 +57,9 @@ public class OrderControllerTest {
     @MockitoBean
     private OrderService orderService;
 
+    @MockitoBean
+    private OrderExportService orderExportService;
+
     @MockitoBean
     private JwtService jwtService;
 
@@ -65,6 +70,7 @@ public class OrderControllerTest {
     private UUID orderId;
     private UUID addressId;
     private OrderDTO orderDTO;
+    private OrderSummaryDTO orderSummaryDTO;
 
     @BeforeEach
     void setUp() {
@@ -105,6 +111,20 @@ public class OrderControllerTest {
                 paymentDTO,
                 addressDTO
         );
+
+        orderSummaryDTO = new OrderSummaryDTO(
+                orderId,
+                Status.PENDING,
+                BigDecimal.valueOf(99.99),
+                LocalDateTime.now(),
+                1,
+                "Test Product",
+                PaymentMethod.STRIPE,
+                null,
+                null,
+                null,
+                null
+        );
     }
 
     @Test
@@ -147,8 +167,8 @@ public class OrderControllerTest {
     @WithMockUser
     void getAllOrders_ShouldReturnPagedOrders() throws Exception {
         // Arrange
-        PageResponse<OrderDTO> pageResponse = new PageResponse<>(
-                List.of(orderDTO),
+        PageResponse<OrderSummaryDTO> pageResponse = new PageResponse<>(
+                List.of(orderSummaryDTO),
                 0,
                 10,
                 1L,
@@ -169,7 +189,8 @@ public class OrderControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.page.number").value(0))
                 .andExpect(jsonPath("$.page.size").value(10))
-                .andExpect(jsonPath("$.page.totalElements").value(1));
+                .andExpect(jsonPath("$.page.totalElements").value(1))
+                .andExpect(jsonPath("$.content[0].itemsPreview").value("Test Product"));
 
         verify(orderService).getAllOrders(any(Pageable.class), eq(user.getEmail()));
     }
@@ -178,8 +199,8 @@ public class OrderControllerTest {
     @WithMockUser
     void getAllOrders_WithDescendingSort_ShouldReturnSortedOrders() throws Exception {
         // Arrange
-        PageResponse<OrderDTO> pageResponse = new PageResponse<>(
-                List.of(orderDTO),
+        PageResponse<OrderSummaryDTO> pageResponse = new PageResponse<>(
+                List.of(orderSummaryDTO),
                 0,
                 10,
                 1L,
@@ -218,6 +239,36 @@ public class OrderControllerTest {
         verify(orderService).getOrderById(orderId, user.getEmail());
     }
 
+    @Test
+    @WithMockUser
+    void getPayment_WhilePaymentIntentIsPending_ShouldReturnAccepted() throws Exception {
+        // Arrange
+        PaymentDTO pending = new PaymentDTO(UUID.randomUUID(), null, null, null, null, "STRIPE");
+        when(orderService.getPayment(orderId, user.getEmail())).thenReturn(pending);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/orders/{id}/payment", orderId)
+                        .with(user(user))
+                        .with(csrf()))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.paymentMethod").value("STRIPE"));
+    }
+
+    @Test
+    @WithMockUser
+    void getPayment_WithPaymentIntent_ShouldReturnOk() throws Exception {
+        // Arrange
+        PaymentDTO created = new PaymentDTO(UUID.randomUUID(), "pi_123", null, "requires_payment_method", null, "STRIPE");
+        when(orderService.getPayment(orderId, user.getEmail())).thenReturn(created);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/orders/{id}/payment", orderId)
+                        .with(user(user))
+                        .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stripePaymentId").value("pi_123"));
+    }
+
     @Test
     @WithMockUser
     void updateOrder_ShouldReturnUpdatedOrder() throws Exception {
@@ -0,0 +1,205 @@
+package com.wild.ecommerce.order.repository;
+
+import com.wild.ecommerce.address.model.Address;
+import com.wild.ecommerce.address.repository.AddressRepository;
+import com.wild.ecommerce.order.model.Order;
+import com.wild.ecommerce.order.model.OrderItem;
+import com.wild.ecommerce.order.model.Status;
+import com.wild.ecommerce.order.service.OrderArchiveService;
+import com.wild.ecommerce.order.service.OrderArchiveServiceImpl;
+import com.wild.ecommerce.product.model.Product;
+import com.wild.ecommerce.product.repository.ProductRepository;
+import com.wild.ecommerce.util.TestAuditorConfiguration;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures the latency of a user's first order-history page on the live {@code orders} table before and after
+ * archiving. Most seeded orders are delivered more than a year ago, like a mature shop's history.
+ *
+ * <p>Excluded from {@code test}; run it with {@code ./gradlew benchmark}.</p>
+ */
+@Slf4j
+@Tag("benchmark")
+@DataJpaTest
+@Testcontainers
+@Import({TestAuditorConfiguration.class, OrderArchiveServiceImpl.class})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class OrderArchiveBenchmarkTest {
+
+    private static final int USERS = 50;
+    private static final int ORDERS_PER_USER = 400;
+    private static final int RECENT_ORDERS_PER_USER = 20;
+    private static final int QUERIES = 500;
+    private static final int ARCHIVE_BATCH_SIZE = 500;
+
+    @Container
+    @SuppressWarnings("resource")
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.4.0")
+            .withDatabaseName("testDB")
+            .withUsername("test")
+            .withPassword("test")
+            .withUrlParam("rewriteBatchedStatements", "true");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+        registry.add("spring.jpa.show-sql", () -> "false");
+    }
+
+    @MockitoBean
+    @SuppressWarnings("unused")
+    private CacheManager cacheManager;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(_ -> {
+            orderRepository.deleteAll();
+            archivedOrderRepository.deleteAll();
+        });
+        productRepository.deleteAll();
+        addressRepository.deleteAll();
+    }
+
+    @Test
+    void historyPageShouldGetFasterAfterArchiving() {
+        seed();
+
+        double before = measure();
+
+        LocalDateTime cutoff = LocalDateTime.now().minusYears(1);
+        int archived = 0;
+        int batch;
+
+        do {
+            batch = orderArchiveService.archive(cutoff, ARCHIVE_BATCH_SIZE);
+            archived += batch;
+        } while (batch == ARCHIVE_BATCH_SIZE);
+
+        double after = measure();
+
+        log.info("{} orders, {} archived: history page {} ms before, {} ms after",
+                USERS * ORDERS_PER_USER, archived, String.format("%.2f", before), String.format("%.2f", after));
+
+        assertThat(orderRepository.count()).isEqualTo((long) USERS * RECENT_ORDERS_PER_USER);
+        assertThat(after).isLessThan(before);
+    }
+
+    /**
+     * Returns the mean latency in milliseconds of the first history page, including its count query.
+     */
+    private double measure() {
+        Pageable pageable = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "orderDate"));
+
+        // Warm up the buffer pool and the statement cache
+        for (int i = 0; i < USERS; i++) {
+            orderRepository.findByEmail(pageable, email(i));
+        }
+
+        long start = System.nanoTime();
+
+        for (int i = 0; i < QUERIES; i++) {
+            orderRepository.findByEmail(pageable, email(i % USERS));
+        }
+
+        return (System.nanoTime() - start) / 1_000_000.0 / QUERIES;
+    }
+
+    private void seed() {
+        Address address = new Address();
+        address.setCountry("USA");
+        address.setState("California");
+        address.setCity("San Francisco");
+        address.setStreet("123 Main St");
+        address.setPostalCode("94102");
+        address = addressRepository.save(address);
+
+        Product product = new Product();
+        product.setName("Benchmark Product");
+        product.setBrand("Benchmark Brand");
+        product.setPrice(new BigDecimal("9.99"));
+        product.setStock(0);
+        product = productRepository.save(product);
+
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int user = 0; user < USERS; user++) {
+            List<Order> orders = new ArrayList<>(ORDERS_PER_USER);
+
+            for (int i = 0; i < ORDERS_PER_USER; i++) {
+                boolean recent = i < RECENT_ORDERS_PER_USER;
+
+                Order order = new Order();
+                order.setEmail(email(user));
+                order.setTotalAmount(new BigDecimal("19.98"));
+                order.setStatus(recent ? Status.CONFIRMED : Status.DELIVERED);
+                order.setOrderDate(recent ? now.minusDays(i) : now.minusDays(400L + i * 3L));
+                order.setAddress(address);
+
+                OrderItem item = new OrderItem();
+                item.setOrder(order);
+                item.setProduct(product);
+                item.setQuantity(2);
+                item.setPrice(new BigDecimal("9.99"));
+                order.getOrderItems().add(item);
+
+                orders.add(order);
+            }
+
+            orderRepository.saveAll(orders);
+        }
+    }
+
+    private static String email(int user) {
+        return "user" + user + "@example.com";
+    }
+}
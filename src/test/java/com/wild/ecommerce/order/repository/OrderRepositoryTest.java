@@ -13,9 +13,13 @@ import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabas
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.testcontainers.containers.MySQLContainer;
@@ -24,6 +28,8 @@ import org.testcontainers.junit.jupiter.Testcontainers;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -228,6 +234,40 @@ public class OrderRepositoryTest {
         assertThat(firstPage.hasNext()).isTrue();
     }
 
+    @Test
+    void givenManyOrdersForEmail_whenScrollByEmail_thenEveryOrderIsVisitedOnceInOrder() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            Order order = new Order();
+            order.setEmail("keyset@example.com");
+            order.setTotalAmount(new BigDecimal("100.00"));
+            order.setStatus(Status.PENDING);
+            order.setOrderDate(LocalDateTime.now().minusDays(i % 2));
+            order.setAddress(address);
+            orderRepository.save(order);
+        }
+        entityManager.flush();
+
+        Sort sort = Sort.by(Sort.Direction.DESC, "orderDate").and(Sort.by(Sort.Direction.DESC, "id"));
+        List<UUID> visited = new ArrayList<>();
+
+        // When
+        Window<Order> window = orderRepository.findByEmail(
+                "keyset@example.com", ScrollPosition.keyset(), sort, Limit.of(2)
+        );
+        window.forEach(o -> visited.add(o.getId()));
+
+        while (window.hasNext()) {
+            window = orderRepository.findByEmail(
+                    "keyset@example.com", window.positionAt(window.size() - 1), sort, Limit.of(2)
+            );
+            window.forEach(o -> visited.add(o.getId()));
+        }
+
+        // Then
+        assertThat(visited).hasSize(5).doesNotHaveDuplicates();
+    }
+
     @Test
     void givenOrderWithItems_whenSaveOrder_thenItemsAreAlsoSavedViaCascade() {
         // Given
@@ -0,0 +1,84 @@
+package com.wild.ecommerce.order.service;
+
+import com.wild.ecommerce.order.model.Status;
+import com.wild.ecommerce.order.repository.ArchivedOrderRepository;
+import com.wild.ecommerce.order.repository.OrderRepository;
+import com.wild.ecommerce.payment.repository.PaymentRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderArchiveServiceTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @InjectMocks
+    private OrderArchiveServiceImpl orderArchiveService;
+
+    private final LocalDateTime cutoff = LocalDateTime.now().minusYears(1);
+
+    @Test
+    void archive_ShouldCopyBeforeDeletingTerminalOrders() {
+        // Arrange
+        List<UUID> ids = List.of(UUID.randomUUID(), UUID.randomUUID());
+        List<UUID> paymentIds = List.of(UUID.randomUUID());
+
+        when(orderRepository.findArchivableIds(
+                EnumSet.of(Status.DELIVERED, Status.CANCELLED, Status.FAILED), cutoff, Limit.of(100)
+        )).thenReturn(ids);
+        when(orderRepository.findPaymentIdsByIdIn(ids)).thenReturn(paymentIds);
+        when(archivedOrderRepository.copyOrders(ids)).thenReturn(2);
+        when(archivedOrderRepository.copyItems(ids)).thenReturn(5);
+
+        // Act
+        int archived = orderArchiveService.archive(cutoff, 100);
+
+        // Assert
+        assertThat(archived).isEqualTo(2);
+
+        InOrder order = inOrder(archivedOrderRepository, orderRepository, paymentRepository);
+        order.verify(archivedOrderRepository).copyOrders(ids);
+        order.verify(archivedOrderRepository).copyItems(ids);
+        order.verify(orderRepository).deleteItemsByOrderIdIn(ids);
+        order.verify(orderRepository).deleteAllByIdInBatch(ids);
+        order.verify(paymentRepository).deleteAllByIdInBatch(paymentIds);
+    }
+
+    @Test
+    void archive_WhenNothingIsOldEnough_ShouldReturnZero() {
+        // Arrange
+        when(orderRepository.findArchivableIds(any(), any(), any())).thenReturn(List.of());
+
+        // Act
+        int archived = orderArchiveService.archive(cutoff, 100);
+
+        // Assert
+        assertThat(archived).isZero();
+        verify(archivedOrderRepository, never()).copyOrders(any());
+        verify(orderRepository, never()).deleteAllByIdInBatch(any());
+    }
+}
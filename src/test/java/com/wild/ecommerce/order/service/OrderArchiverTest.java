@@ -0,0 +1,97 @@
+package com.wild.ecommerce.order.service;
+
+import com.wild.ecommerce.common.lease.CheckpointLease;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderArchiverTest {
+
+    @Mock
+    private OrderArchiveService orderArchiveService;
+
+    @Mock
+    private CheckpointLease checkpointLease;
+
+    @InjectMocks
+    private OrderArchiver orderArchiver;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(orderArchiver, "enabled", true);
+        ReflectionTestUtils.setField(orderArchiver, "minAge", Duration.ofDays(365));
+        ReflectionTestUtils.setField(orderArchiver, "batchSize", 2);
+        ReflectionTestUtils.setField(orderArchiver, "lease", Duration.ofMinutes(5));
+    }
+
+    @Test
+    void archive_ShouldArchiveBatchesUntilShortOneAndReleaseLease() {
+        // Arrange
+        when(checkpointLease.acquire(eq(OrderArchiver.CHECKPOINT), anyString(), any())).thenReturn(true);
+        when(checkpointLease.renew(eq(OrderArchiver.CHECKPOINT), anyString(), any())).thenReturn(true);
+        when(orderArchiveService.archive(any(), eq(2))).thenReturn(2, 2, 1);
+
+        // Act
+        orderArchiver.archive();
+
+        // Assert
+        verify(orderArchiveService, times(3)).archive(any(), eq(2));
+        verify(checkpointLease).release(eq(OrderArchiver.CHECKPOINT), anyString());
+    }
+
+    @Test
+    void archive_WhenLeaseIsLost_ShouldStopArchiving() {
+        // Arrange
+        when(checkpointLease.acquire(eq(OrderArchiver.CHECKPOINT), anyString(), any())).thenReturn(true);
+        when(checkpointLease.renew(eq(OrderArchiver.CHECKPOINT), anyString(), any())).thenReturn(false);
+        when(orderArchiveService.archive(any(), eq(2))).thenReturn(2);
+
+        // Act
+        orderArchiver.archive();
+
+        // Assert
+        verify(orderArchiveService).archive(any(), eq(2));
+    }
+
+    @Test
+    void archive_WhenAnotherNodeHoldsLease_ShouldNotArchive() {
+        // Arrange
+        when(checkpointLease.acquire(eq(OrderArchiver.CHECKPOINT), anyString(), any())).thenReturn(false);
+
+        // Act
+        orderArchiver.archive();
+
+        // Assert
+        verify(orderArchiveService, never()).archive(any(), anyInt());
+        verify(checkpointLease, never()).release(any(), any());
+    }
+
+    @Test
+    void archive_WhenCopyViolatesConstraint_ShouldReleaseLeaseAndRethrow() {
+        // Arrange
+        when(checkpointLease.acquire(eq(OrderArchiver.CHECKPOINT), anyString(), any())).thenReturn(true);
+        when(orderArchiveService.archive(any(), eq(2))).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        // Act & Assert
+        assertThrows(DataIntegrityViolationException.class, () -> orderArchiver.archive());
+        verify(checkpointLease).release(eq(OrderArchiver.CHECKPOINT), anyString());
+    }
+}
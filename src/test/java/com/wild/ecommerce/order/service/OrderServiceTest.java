@@ -1,31 +1,42 @@
 package com.wild.ecommerce.order.service;
 
-import com.stripe.exception.StripeException;
-import com.stripe.model.PaymentIntent;
-import com.wild.ecommerce.address.mapper.AddressMapper;
 import com.wild.ecommerce.address.model.Address;
 import com.wild.ecommerce.address.repository.AddressRepository;
 import com.wild.ecommerce.cart.model.Cart;
 import com.wild.ecommerce.cart.model.CartItem;
 import com.wild.ecommerce.cart.repository.CartRepository;
 import com.wild.ecommerce.common.dto.PageResponse;
-import com.wild.ecommerce.common.exception.PaymentProcessingException;
+import com.wild.ecommerce.common.exception.InvalidSortException;
+import com.wild.ecommerce.common.exception.OutOfStockException;
 import com.wild.ecommerce.common.exception.ResourceNotFoundException;
+import com.wild.ecommerce.inventory.service.InventoryService;
 import com.wild.ecommerce.order.dto.CreateOrderRequest;
 import com.wild.ecommerce.order.dto.OrderDTO;
+import com.wild.ecommerce.order.dto.OrderSummaryDTO;
 import com.wild.ecommerce.order.dto.UpdateOrderRequest;
+import com.wild.ecommerce.order.mapper.ArchivedOrderMapper;
 import com.wild.ecommerce.order.mapper.OrderMapper;
+import com.wild.ecommerce.order.mapper.OrderSummaryMapper;
+import com.wild.ecommerce.order.model.ArchivedOrder;
 import com.wild.ecommerce.order.model.Order;
 import com.wild.ecommerce.order.model.OrderItem;
+import com.wild.ecommerce.order.model.OrderSummary;
 import com.wild.ecommerce.order.model.Status;
+import com.wild.ecommerce.order.repository.ArchivedOrderRepository;
 import com.wild.ecommerce.order.repository.OrderRepository;
-import com.wild.ecommerce.payment.dto.StripePaymentDTO;
+import com.wild.ecommerce.order.repository.OrderSummaryRepository;
+import com.wild.ecommerce.payment.dto.PaymentDTO;
+import com.wild.ecommerce.payment.mapper.PaymentMapper;
+import com.wild.ecommerce.payment.model.Payment;
 import com.wild.ecommerce.payment.model.PaymentMethod;
-import com.wild.ecommerce.payment.service.StripeService;
+import com.wild.ecommerce.payment.service.PaymentOutboxDispatcher;
+import com.wild.ecommerce.payment.service.PaymentOutboxService;
 import com.wild.ecommerce.product.model.Product;
-import com.wild.ecommerce.product.repository.ProductRepository;
+import com.wild.ecommerce.product.service.ProductStockService;
 import com.wild.ecommerce.user.model.User;
 import com.wild.ecommerce.user.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -33,24 +44,27 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -66,7 +80,25 @@ public class OrderServiceTest {
     private OrderMapper orderMapper;
 
     @Mock
-    private ProductRepository productRepository;
+    private OrderSummaryRepository orderSummaryRepository;
+
+    @Mock
+    private OrderSummaryMapper orderSummaryMapper;
+
+    @Mock
+    private OrderSummaryService orderSummaryService;
+
+    @Mock
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Mock
+    private ArchivedOrderMapper archivedOrderMapper;
+
+    @Mock
+    private ProductStockService productStockService;
+
+    @Mock
+    private InventoryService inventoryService;
 
     @Mock
     private CartRepository cartRepository;
@@ -78,11 +110,16 @@ public class OrderServiceTest {
     private AddressRepository addressRepository;
 
     @Mock
-    @SuppressWarnings("unused")
-    private AddressMapper addressMapper;
+    private PaymentMapper paymentMapper;
 
     @Mock
-    private StripeService stripeService;
+    private PaymentOutboxService paymentOutboxService;
+
+    @Mock
+    private PaymentOutboxDispatcher paymentOutboxDispatcher;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     @InjectMocks
     private OrderServiceImpl orderService;
@@ -90,9 +127,6 @@ public class OrderServiceTest {
     @Captor
     private ArgumentCaptor<Order> orderCaptor;
 
-    @Captor
-    private ArgumentCaptor<Product> productCaptor;
-
     private User user;
     private Cart cart;
     private Product product;
@@ -141,7 +175,7 @@ public class OrderServiceTest {
     }
 
     @Test
-    void givenValidUserCartAndAddress_WhenPlaceOrder_ThenOrderIsCreatedAndPaymentIntentGenerated() throws StripeException {
+    void givenValidUserCartAndAddress_WhenPlaceOrder_ThenOrderIsCreatedAndPaymentQueued() {
         // Given
         when(userRepository.findByEmailIgnoreCase(userEmail)).thenReturn(Optional.of(user));
         when(cartRepository.findByUserId(user.getId())).thenReturn(Optional.of(cart));
@@ -155,9 +189,8 @@ public class OrderServiceTest {
 
         when(orderRepository.save(any(Order.class))).thenReturn(savedOrder);
 
-        PaymentIntent paymentIntent = mock(PaymentIntent.class);
-        when(paymentIntent.getId()).thenReturn("pi_test_123");
-        when(stripeService.paymentIntent(any(StripePaymentDTO.class))).thenReturn(paymentIntent);
+        UUID outboxId = UUID.randomUUID();
+        when(paymentOutboxService.enqueue(orderId)).thenReturn(outboxId);
 
         OrderDTO expectedOrderDTO = new OrderDTO(
                 orderId, userEmail, BigDecimal.valueOf(200.00),
@@ -173,15 +206,18 @@ public class OrderServiceTest {
         assertThat(result.id()).isEqualTo(orderId);
         assertThat(result.email()).isEqualTo(userEmail);
 
-        verify(orderRepository, times(2)).save(orderCaptor.capture());
-        verify(productRepository).save(productCaptor.capture());
+        verify(orderRepository).save(orderCaptor.capture());
+        verify(orderSummaryService).record(any(Order.class));
+        verify(inventoryService).reserve(orderId, Map.of(product.getId(), 2));
+        verify(paymentOutboxService).enqueue(orderId);
+        verify(paymentOutboxDispatcher).dispatch(outboxId);
         verify(cartRepository).save(cart);
-        verify(stripeService).paymentIntent(any(StripePaymentDTO.class));
-
-        Product savedProduct = productCaptor.getValue();
-        assertThat(savedProduct.getStock()).isEqualTo(8);
 
+        Payment payment = orderCaptor.getValue().getPayment();
+        assertThat(payment.getPaymentMethod()).isEqualTo(PaymentMethod.STRIPE);
+        assertThat(payment.getStripePaymentId()).isNull();
         assertThat(cart.getItems()).isEmpty();
+        assertThat(meterRegistry.get("checkout.transaction").timer().count()).isEqualTo(1);
     }
 
     @Test
@@ -261,71 +297,109 @@ public class OrderServiceTest {
     }
 
     @Test
-    void givenInsufficientProductStock_WhenPlaceOrder_ThenThrowIllegalStateException() {
+    void givenInsufficientProductStock_WhenPlaceOrder_ThenThrowOutOfStockException() {
         // Given
-        product.setStock(1);
-
         when(userRepository.findByEmailIgnoreCase(userEmail)).thenReturn(Optional.of(user));
         when(cartRepository.findByUserId(user.getId())).thenReturn(Optional.of(cart));
         when(addressRepository.findById(addressId)).thenReturn(Optional.of(address));
 
+        Order savedOrder = new Order();
+        savedOrder.setId(orderId);
+        when(orderRepository.save(any(Order.class))).thenReturn(savedOrder);
+
+        doThrow(new OutOfStockException("Not enough stock for product with ID '" + product.getId() + "'"))
+                .when(inventoryService).reserve(orderId, Map.of(product.getId(), 2));
+
         // When & Then
         assertThatThrownBy(() -> orderService.placeOrder(createOrderRequest, userEmail))
-                .isInstanceOf(IllegalStateException.class)
+                .isInstanceOf(OutOfStockException.class)
                 .hasMessageContaining("Not enough stock for product");
 
-        verify(orderRepository, never()).save(any());
+        verify(orderRepository).save(any(Order.class));
+        verify(paymentOutboxService, never()).enqueue(any());
+        verify(paymentOutboxDispatcher, never()).dispatch(any());
     }
 
     @Test
-    void givenValidOrder_WhenStripePaymentFails_ThenThrowPaymentProcessingException() throws StripeException {
+    void givenOrderWithPayment_WhenGetPayment_ThenReturnPaymentDTO() {
         // Given
-        when(userRepository.findByEmailIgnoreCase(userEmail)).thenReturn(Optional.of(user));
-        when(cartRepository.findByUserId(user.getId())).thenReturn(Optional.of(cart));
-        when(addressRepository.findById(addressId)).thenReturn(Optional.of(address));
+        Payment payment = new Payment();
+        payment.setPaymentMethod(PaymentMethod.STRIPE);
 
-        Order savedOrder = new Order();
-        savedOrder.setId(orderId);
-        when(orderRepository.save(any(Order.class))).thenReturn(savedOrder);
+        Order order = new Order();
+        order.setId(orderId);
+        order.setEmail(userEmail);
+        order.setPayment(payment);
+
+        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+
+        PaymentDTO paymentDTO = new PaymentDTO(UUID.randomUUID(), null, null, null, null, "STRIPE");
+        when(paymentMapper.apply(payment)).thenReturn(paymentDTO);
+
+        // When
+        PaymentDTO result = orderService.getPayment(orderId, userEmail);
+
+        // Then
+        assertThat(result).isEqualTo(paymentDTO);
+    }
 
-        when(stripeService.paymentIntent(any(StripePaymentDTO.class)))
-                .thenThrow(new StripeException("Payment failed", "request_id", "code", 400) {
-                });
+    @Test
+    void givenOrderNotOwnedByUser_WhenGetPayment_ThenThrowIllegalStateException() {
+        // Given
+        Order order = new Order();
+        order.setId(orderId);
+        order.setEmail("different@example.com");
+
+        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
 
         // When & Then
-        assertThatThrownBy(() -> orderService.placeOrder(createOrderRequest, userEmail))
-                .isInstanceOf(PaymentProcessingException.class)
-                .hasMessage("Failed to create Stripe PaymentIntent");
+        assertThatThrownBy(() -> orderService.getPayment(orderId, userEmail))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Order does not belong to the user");
 
-        verify(orderRepository).save(any(Order.class));
+        verify(paymentMapper, never()).apply(any());
     }
 
     @Test
-    void givenExistingOrders_WhenGetAllOrders_ThenReturnOrderPage() {
+    void givenExistingOrders_WhenGetAllOrders_ThenReturnSummaryPage() {
         // Given
         Pageable pageable = PageRequest.of(0, 10);
-        Order order1 = new Order();
-        order1.setId(UUID.randomUUID());
-        order1.setEmail(userEmail);
+        OrderSummary summary = new OrderSummary();
+        summary.setId(UUID.randomUUID());
+        summary.setEmail(userEmail);
 
-        Page<Order> orderPage = new PageImpl<>(List.of(order1));
-        when(orderRepository.findByEmail(pageable, userEmail)).thenReturn(orderPage);
+        Page<OrderSummary> summaryPage = new PageImpl<>(List.of(summary));
+        when(orderSummaryRepository.findByEmail(userEmail, pageable)).thenReturn(summaryPage);
 
-        OrderDTO orderDTO = new OrderDTO(
-                order1.getId(), userEmail, BigDecimal.valueOf(100.00),
-                Status.PENDING, LocalDateTime.now(), List.of(), null, null
+        OrderSummaryDTO summaryDTO = new OrderSummaryDTO(
+                summary.getId(), Status.PENDING, BigDecimal.valueOf(100.00), LocalDateTime.now(),
+                2, "Test Product", PaymentMethod.STRIPE, null, null, null, null
         );
-        when(orderMapper.apply(order1)).thenReturn(orderDTO);
+        when(orderSummaryMapper.apply(summary)).thenReturn(summaryDTO);
 
         // When
-        PageResponse<OrderDTO> result = orderService.getAllOrders(pageable, userEmail);
+        PageResponse<OrderSummaryDTO> result = orderService.getAllOrders(pageable, userEmail);
 
         // Then
         assertThat(result).isNotNull();
         assertThat(result.getContent()).hasSize(1);
-        assertThat(result.getContent().getFirst().email()).isEqualTo(userEmail);
+        assertThat(result.getContent().getFirst().itemsPreview()).isEqualTo("Test Product");
 
-        verify(orderRepository).findByEmail(pageable, userEmail);
+        verify(orderSummaryRepository).findByEmail(userEmail, pageable);
+        verify(orderRepository, never()).findByEmail(any(Pageable.class), any());
+    }
+
+    @Test
+    void givenUnknownSortProperty_WhenGetAllOrders_ThenThrowInvalidSort() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("payment"));
+
+        // When & Then
+        assertThatThrownBy(() -> orderService.getAllOrders(pageable, userEmail))
+                .isInstanceOf(InvalidSortException.class)
+                .hasMessage("Orders cannot be sorted by 'payment'");
+
+        verify(orderSummaryRepository, never()).findByEmail(any(), any(Pageable.class));
     }
 
     @Test
@@ -368,6 +442,49 @@ public class OrderServiceTest {
         verify(orderRepository).findByIdWithItems(orderId);
     }
 
+    @Test
+    void givenArchivedOrder_WhenGetOrderById_ThenReturnOrderFromArchive() {
+        // Given
+        ArchivedOrder archivedOrder = new ArchivedOrder();
+        archivedOrder.setId(orderId);
+        archivedOrder.setEmail(userEmail);
+        archivedOrder.setStatus(Status.DELIVERED);
+
+        when(orderRepository.findByIdWithItems(orderId)).thenReturn(Optional.empty());
+        when(archivedOrderRepository.findByIdWithItems(orderId)).thenReturn(Optional.of(archivedOrder));
+
+        OrderDTO orderDTO = new OrderDTO(
+                orderId, userEmail, BigDecimal.valueOf(100.00),
+                Status.DELIVERED, LocalDateTime.now().minusYears(2), List.of(), null, null
+        );
+        when(archivedOrderMapper.apply(archivedOrder)).thenReturn(orderDTO);
+
+        // When
+        OrderDTO result = orderService.getOrderById(orderId, userEmail);
+
+        // Then
+        assertThat(result.id()).isEqualTo(orderId);
+        assertThat(result.status()).isEqualTo(Status.DELIVERED);
+    }
+
+    @Test
+    void givenArchivedOrderNotOwnedByUser_WhenGetOrderById_ThenThrowIllegalStateException() {
+        // Given
+        ArchivedOrder archivedOrder = new ArchivedOrder();
+        archivedOrder.setId(orderId);
+        archivedOrder.setEmail("different@example.com");
+
+        when(orderRepository.findByIdWithItems(orderId)).thenReturn(Optional.empty());
+        when(archivedOrderRepository.findByIdWithItems(orderId)).thenReturn(Optional.of(archivedOrder));
+
+        // When & Then
+        assertThatThrownBy(() -> orderService.getOrderById(orderId, userEmail))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Order does not belong to the user");
+
+        verify(archivedOrderMapper, never()).apply(any());
+    }
+
     @Test
     void givenOrderNotOwnedByUser_WhenGetOrderById_ThenThrowIllegalStateException() {
         // Given
@@ -411,6 +528,7 @@ public class OrderServiceTest {
 
         verify(orderRepository).save(orderCaptor.capture());
         assertThat(orderCaptor.getValue().getStatus()).isEqualTo(Status.CONFIRMED);
+        verify(orderSummaryService).updateStatus(any(Order.class));
     }
 
     @Test
@@ -463,8 +581,6 @@ public class OrderServiceTest {
 
         order.setOrderItems(List.of(orderItem));
 
-        int initialStock = product.getStock();
-
         when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
 
         // When
@@ -472,10 +588,28 @@ public class OrderServiceTest {
 
         // Then
         verify(orderRepository).delete(order);
-        verify(productRepository).save(productCaptor.capture());
+        verify(orderSummaryService).delete(orderId);
+        verify(productStockService).incrementStock(Map.of(product.getId(), 2));
+    }
 
-        Product restoredProduct = productCaptor.getValue();
-        assertThat(restoredProduct.getStock()).isEqualTo(initialStock + 2);
+    @Test
+    void givenPendingOrderWithReservations_WhenDeleteOrder_ThenReleaseReservations() {
+        // Given
+        Order order = new Order();
+        order.setId(orderId);
+        order.setEmail(userEmail);
+        order.setStatus(Status.PENDING);
+
+        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+        when(inventoryService.hasReservations(orderId)).thenReturn(true);
+
+        // When
+        orderService.deleteOrder(orderId, userEmail);
+
+        // Then
+        verify(inventoryService).returnStock(orderId);
+        verify(productStockService, never()).incrementStock(any());
+        verify(orderRepository).delete(order);
     }
 
     @Test
@@ -496,6 +630,20 @@ public class OrderServiceTest {
         verify(orderRepository, never()).delete(any());
     }
 
+    @Test
+    void givenArchivedOrder_WhenDeleteOrder_ThenThrowIllegalStateException() {
+        // Given
+        when(orderRepository.findById(orderId)).thenReturn(Optional.empty());
+        when(archivedOrderRepository.existsById(orderId)).thenReturn(true);
+
+        // When & Then
+        assertThatThrownBy(() -> orderService.deleteOrder(orderId, userEmail))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Archived orders cannot be changed");
+
+        verify(orderRepository, never()).delete(any());
+    }
+
     @Test
     void givenCancelledOrder_WhenDeleteOrder_ThenRemoveOrder() {
         // Given
@@ -0,0 +1,69 @@
+package com.wild.ecommerce.order.service;
+
+import com.wild.ecommerce.common.lease.CheckpointLease;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderSummaryBackfillTest {
+
+    @Mock
+    private OrderSummaryService orderSummaryService;
+
+    @Mock
+    private CheckpointLease checkpointLease;
+
+    @InjectMocks
+    private OrderSummaryBackfill orderSummaryBackfill;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(orderSummaryBackfill, "enabled", true);
+        ReflectionTestUtils.setField(orderSummaryBackfill, "batchSize", 500);
+        ReflectionTestUtils.setField(orderSummaryBackfill, "lease", Duration.ofMinutes(1));
+    }
+
+    @Test
+    void backfill_WhenAnotherNodeHoldsLease_ShouldSkipRun() {
+        // Arrange
+        when(checkpointLease.acquire(eq(OrderSummaryBackfill.CHECKPOINT), anyString(), any())).thenReturn(false);
+
+        // Act
+        orderSummaryBackfill.backfill();
+
+        // Assert
+        verify(orderSummaryService, never()).backfill(anyInt());
+        verify(checkpointLease, never()).release(any(), any());
+    }
+
+    @Test
+    void backfill_WhenNothingIsLeft_ShouldReleaseLeaseAndStopPolling() {
+        // Arrange
+        when(checkpointLease.acquire(eq(OrderSummaryBackfill.CHECKPOINT), anyString(), any())).thenReturn(true);
+        when(orderSummaryService.backfill(500)).thenReturn(0);
+
+        // Act
+        orderSummaryBackfill.backfill();
+        orderSummaryBackfill.backfill();
+
+        // Assert
+        verify(orderSummaryService, times(1)).backfill(500);
+        verify(checkpointLease).release(eq(OrderSummaryBackfill.CHECKPOINT), anyString());
+    }
+}
@@ -0,0 +1,184 @@
+package com.wild.ecommerce.order.service;
+
+import com.wild.ecommerce.order.model.Order;
+import com.wild.ecommerce.order.model.OrderItem;
+import com.wild.ecommerce.order.model.OrderSummary;
+import com.wild.ecommerce.order.model.Status;
+import com.wild.ecommerce.order.repository.OrderRepository;
+import com.wild.ecommerce.order.repository.OrderSummaryRepository;
+import com.wild.ecommerce.payment.model.Payment;
+import com.wild.ecommerce.payment.model.PaymentMethod;
+import com.wild.ecommerce.product.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderSummaryServiceTest {
+
+    @Mock
+    private OrderSummaryRepository orderSummaryRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @InjectMocks
+    private OrderSummaryServiceImpl orderSummaryService;
+
+    @Captor
+    private ArgumentCaptor<OrderSummary> summaryCaptor;
+
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        order = new Order();
+        order.setId(UUID.randomUUID());
+        order.setEmail("test@example.com");
+        order.setStatus(Status.PENDING);
+        order.setTotalAmount(BigDecimal.valueOf(150.00));
+        order.setOrderDate(LocalDateTime.now());
+        order.setOrderItems(new ArrayList<>());
+
+        Payment payment = new Payment();
+        payment.setPaymentMethod(PaymentMethod.STRIPE);
+        order.setPayment(payment);
+    }
+
+    @Test
+    void record_ShouldSaveSummaryWithItemCountAndPreview() {
+        // Arrange
+        addItem("Keyboard", 2);
+        addItem("Mouse", 1);
+        addItem("Keyboard", 1);
+
+        // Act
+        orderSummaryService.record(order);
+
+        // Assert
+        verify(orderSummaryRepository).save(summaryCaptor.capture());
+        OrderSummary summary = summaryCaptor.getValue();
+
+        assertThat(summary.getId()).isEqualTo(order.getId());
+        assertThat(summary.getEmail()).isEqualTo("test@example.com");
+        assertThat(summary.getStatus()).isEqualTo(Status.PENDING);
+        assertThat(summary.getItemCount()).isEqualTo(4);
+        assertThat(summary.getItemsPreview()).isEqualTo("Keyboard, Mouse");
+        assertThat(summary.getPaymentMethod()).isEqualTo(PaymentMethod.STRIPE);
+    }
+
+    @Test
+    void record_WithManyProducts_ShouldAbbreviatePreview() {
+        // Arrange
+        addItem("Keyboard", 1);
+        addItem("Mouse", 1);
+        addItem("Monitor", 1);
+        addItem("Cable", 1);
+        addItem("Stand", 1);
+
+        // Act
+        orderSummaryService.record(order);
+
+        // Assert
+        verify(orderSummaryRepository).save(summaryCaptor.capture());
+        assertThat(summaryCaptor.getValue().getItemsPreview()).isEqualTo("Keyboard, Mouse, Monitor and 2 more");
+    }
+
+    @Test
+    void updateStatus_WhenSummaryExists_ShouldUpdateInPlace() {
+        // Arrange
+        order.setStatus(Status.SHIPPED);
+        order.setTrackingNumber("TRACK123");
+        order.setCarrier("FedEx");
+
+        when(orderSummaryRepository.updateStatus(
+                order.getId(), Status.SHIPPED, "TRACK123", "FedEx", null, null
+        )).thenReturn(1);
+
+        // Act
+        orderSummaryService.updateStatus(order);
+
+        // Assert
+        verify(orderSummaryRepository, never()).save(any());
+    }
+
+    @Test
+    void updateStatus_WhenSummaryIsMissing_ShouldSaveFullSummary() {
+        // Arrange
+        order.setStatus(Status.CONFIRMED);
+        addItem("Keyboard", 1);
+
+        when(orderSummaryRepository.updateStatus(
+                order.getId(), Status.CONFIRMED, null, null, null, null
+        )).thenReturn(0);
+
+        // Act
+        orderSummaryService.updateStatus(order);
+
+        // Assert
+        verify(orderSummaryRepository).save(summaryCaptor.capture());
+        assertThat(summaryCaptor.getValue().getStatus()).isEqualTo(Status.CONFIRMED);
+        assertThat(summaryCaptor.getValue().getItemsPreview()).isEqualTo("Keyboard");
+    }
+
+    @Test
+    void backfill_ShouldSummarizeOrdersWithoutSummary() {
+        // Arrange
+        addItem("Keyboard", 3);
+
+        when(orderRepository.findIdsWithoutSummary(Limit.of(100))).thenReturn(List.of(order.getId()));
+        when(orderRepository.findAllWithItemsByIdIn(List.of(order.getId()))).thenReturn(List.of(order));
+
+        // Act
+        int backfilled = orderSummaryService.backfill(100);
+
+        // Assert
+        assertThat(backfilled).isEqualTo(1);
+        verify(orderSummaryRepository).saveAll(anyList());
+    }
+
+    @Test
+    void backfill_WhenNothingIsMissing_ShouldReturnZero() {
+        // Arrange
+        when(orderRepository.findIdsWithoutSummary(Limit.of(100))).thenReturn(List.of());
+
+        // Act
+        int backfilled = orderSummaryService.backfill(100);
+
+        // Assert
+        assertThat(backfilled).isZero();
+        verify(orderRepository, never()).findAllWithItemsByIdIn(any());
+        verify(orderSummaryRepository, never()).saveAll(anyList());
+    }
+
+    private void addItem(String productName, int quantity) {
+        Product product = new Product();
+        product.setName(productName);
+
+        OrderItem item = new OrderItem();
+        item.setProduct(product);
+        item.setQuantity(quantity);
+        item.setOrder(order);
+
+        order.getOrderItems().add(item);
+    }
+}
@@ -0,0 +1,178 @@
+package com.wild.ecommerce.payment.client;
+
+import com.wild.ecommerce.payment.client.CircuitBreaker.State;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+public class CircuitBreakerTest {
+
+    @Mock
+    private Clock clock;
+
+    private Instant now = Instant.parse("2026-01-01T10:00:00Z");
+
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(clock.instant()).thenAnswer(_ -> now);
+
+        circuitBreaker = new CircuitBreaker(
+                "test",
+                4,
+                4,
+                50,
+                Duration.ofSeconds(30),
+                2,
+                clock,
+                new SimpleMeterRegistry()
+        );
+    }
+
+    @Test
+    void onFailure_BelowMinimumCalls_ShouldStayClosed() {
+        // Act
+        call(false);
+        call(false);
+        call(false);
+
+        // Assert
+        assertEquals(State.CLOSED, circuitBreaker.state());
+    }
+
+    @Test
+    void onFailure_AtFailureRateThreshold_ShouldOpenAndRejectCalls() {
+        // Act
+        call(true);
+        call(true);
+        call(false);
+        call(false);
+
+        // Assert
+        assertEquals(State.OPEN, circuitBreaker.state());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+    }
+
+    @Test
+    void onFailure_ShouldOnlyCountLastWindowSizeCalls() {
+        // Arrange
+        CircuitBreaker breaker = new CircuitBreaker(
+                "test", 4, 4, 75, Duration.ofSeconds(30), 2, clock, new SimpleMeterRegistry()
+        );
+
+        for (int i = 0; i < 4; i++) {
+            record(breaker, false);
+        }
+
+        // Act
+        record(breaker, true);
+        record(breaker, true);
+        State afterTwoFailures = breaker.state();
+        record(breaker, true);
+
+        // Assert: three of the last four failed, though only three of all seven did
+        assertEquals(State.CLOSED, afterTwoFailures);
+        assertEquals(State.OPEN, breaker.state());
+    }
+
+    @Test
+    void tryAcquirePermission_AfterOpenDuration_ShouldAllowLimitedTrialCalls() {
+        // Arrange
+        open();
+        now = now.plusSeconds(31);
+
+        // Act
+        boolean first = circuitBreaker.tryAcquirePermission();
+        boolean second = circuitBreaker.tryAcquirePermission();
+        boolean third = circuitBreaker.tryAcquirePermission();
+
+        // Assert
+        assertTrue(first);
+        assertTrue(second);
+        assertFalse(third);
+        assertEquals(State.HALF_OPEN, circuitBreaker.state());
+    }
+
+    @Test
+    void onSuccess_WhenAllTrialCallsSucceed_ShouldClose() {
+        // Arrange
+        open();
+        now = now.plusSeconds(31);
+        circuitBreaker.tryAcquirePermission();
+        circuitBreaker.tryAcquirePermission();
+
+        // Act
+        circuitBreaker.onSuccess();
+        circuitBreaker.onSuccess();
+
+        // Assert
+        assertEquals(State.CLOSED, circuitBreaker.state());
+        assertTrue(circuitBreaker.tryAcquirePermission());
+    }
+
+    @Test
+    void onFailure_DuringTrial_ShouldOpenAgain() {
+        // Arrange
+        open();
+        now = now.plusSeconds(31);
+        circuitBreaker.tryAcquirePermission();
+
+        // Act
+        circuitBreaker.onFailure();
+
+        // Assert
+        assertEquals(State.OPEN, circuitBreaker.state());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+    }
+
+    @Test
+    void releasePermission_DuringTrial_ShouldReturnTrialSlot() {
+        // Arrange
+        open();
+        now = now.plusSeconds(31);
+        circuitBreaker.tryAcquirePermission();
+        circuitBreaker.tryAcquirePermission();
+
+        // Act
+        circuitBreaker.releasePermission();
+
+        // Assert
+        assertTrue(circuitBreaker.tryAcquirePermission());
+    }
+
+    private void open() {
+        for (int i = 0; i < 4; i++) {
+            call(true);
+        }
+
+        assertEquals(State.OPEN, circuitBreaker.state());
+    }
+
+    private void call(boolean failure) {
+        record(circuitBreaker, failure);
+    }
+
+    private static void record(CircuitBreaker breaker, boolean failure) {
+        assertTrue(breaker.tryAcquirePermission());
+
+        if (failure) {
+            breaker.onFailure();
+        } else {
+            breaker.onSuccess();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.wild.ecommerce.payment.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class RateLimiterTest {
+
+    @Test
+    void acquire_WithinBurst_ShouldNotWait() throws InterruptedException {
+        // Arrange
+        RateLimiter rateLimiter = new RateLimiter(10, 5);
+        long start = System.nanoTime();
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            rateLimiter.acquire();
+        }
+
+        // Assert
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(50));
+    }
+
+    @Test
+    void acquire_BeyondBurst_ShouldSpaceCallsToRate() throws InterruptedException {
+        // Arrange
+        RateLimiter rateLimiter = new RateLimiter(20, 1);
+        long start = System.nanoTime();
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            rateLimiter.acquire();
+        }
+
+        // Assert
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(190));
+    }
+
+    @Test
+    void constructor_WithoutPositiveRate_ShouldThrowException() {
+        // Act & Assert
+        assertThatThrownBy(() -> new RateLimiter(0, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
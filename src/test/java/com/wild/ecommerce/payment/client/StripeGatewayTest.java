@@ -0,0 +1,213 @@
+package com.wild.ecommerce.payment.client;
+
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.ApiException;
+import com.stripe.exception.CardException;
+import com.stripe.exception.IdempotencyException;
+import com.stripe.model.PaymentIntent;
+import com.stripe.param.PaymentIntentCreateParams;
+import com.wild.ecommerce.util.FakeStripeServer;
+import com.wild.ecommerce.util.FakeStripeServer.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Drives {@link StripeGateway} against a fake Stripe server that fails, stalls or answers slowly on purpose.
+ */
+public class StripeGatewayTest {
+
+    private static final String PAYMENT_INTENTS = "POST /v1/payment_intents";
+    private static final String PAYMENT_INTENT = "{\"id\": \"pi_fake\", \"object\": \"payment_intent\", "
+            + "\"status\": \"requires_payment_method\"}";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private FakeStripeServer stripe;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stripe = FakeStripeServer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stripe.close();
+    }
+
+    @Test
+    void execute_WhenStripeFailsTransiently_ShouldRetryWithSameIdempotencyKey() throws Exception {
+        // Arrange
+        stripe.route(PAYMENT_INTENTS, (call, _) -> call < 3
+                ? Response.error(500, "api_error", "Something went wrong")
+                : Response.ok(PAYMENT_INTENT));
+        StripeGateway gateway = gateway(3, Duration.ofSeconds(1), Duration.ofSeconds(5), 16, 100);
+
+        // Act
+        PaymentIntent paymentIntent = createPaymentIntent(gateway);
+
+        // Assert
+        assertThat(paymentIntent.getId()).isEqualTo("pi_fake");
+        assertThat(stripe.calls(PAYMENT_INTENTS)).isEqualTo(3);
+        assertThat(stripe.idempotencyKeys(PAYMENT_INTENTS)).containsOnly("order-123");
+        assertThat(meterRegistry.get("stripe.client.retries").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void execute_WhenStripeDeclinesRequest_ShouldNotRetry() {
+        // Arrange
+        stripe.route(PAYMENT_INTENTS, (_, _) -> Response.error(402, "card_error", "Your card was declined."));
+        StripeGateway gateway = gateway(3, Duration.ofSeconds(1), Duration.ofSeconds(5), 16, 100);
+
+        // Act & Assert
+        assertThatThrownBy(() -> createPaymentIntent(gateway)).isInstanceOf(CardException.class);
+        assertThat(stripe.calls(PAYMENT_INTENTS)).isEqualTo(1);
+    }
+
+    @Test
+    void execute_WhenIdempotencyKeyIsReusedWithOtherParameters_ShouldNotRetry() {
+        // Arrange
+        stripe.route(PAYMENT_INTENTS, (_, _) -> Response.error(400, "idempotency_error",
+                "Keys for idempotent requests can only be used with the same parameters they were first used with."));
+        StripeGateway gateway = gateway(3, Duration.ofSeconds(1), Duration.ofSeconds(5), 16, 100);
+
+        // Act & Assert
+        assertThatThrownBy(() -> createPaymentIntent(gateway)).isInstanceOf(IdempotencyException.class);
+        assertThat(stripe.calls(PAYMENT_INTENTS)).isEqualTo(1);
+    }
+
+    @Test
+    void execute_WhenIdempotencyKeyIsInUse_ShouldRetryUntilFirstRequestFinishes() throws Exception {
+        // Arrange
+        stripe.route(PAYMENT_INTENTS, (call, _) -> call < 2
+                ? Response.error(409, "idempotency_error", "There is currently another in-progress request using "
+                + "this Stripe-Idempotency-Key.")
+                : Response.ok(PAYMENT_INTENT));
+        StripeGateway gateway = gateway(3, Duration.ofSeconds(1), Duration.ofSeconds(5), 16, 100);
+
+        // Act
+        PaymentIntent paymentIntent = createPaymentIntent(gateway);
+
+        // Assert
+        assertThat(paymentIntent.getId()).isEqualTo("pi_fake");
+        assertThat(stripe.calls(PAYMENT_INTENTS)).isEqualTo(2);
+    }
+
+    @Test
+    void execute_WhenStripeStalls_ShouldGiveUpWithinDeadline() {
+        // Arrange
+        stripe.route(PAYMENT_INTENTS, (_, _) -> Response.ok(PAYMENT_INTENT).after(Duration.ofSeconds(5)));
+        StripeGateway gateway = gateway(5, Duration.ofMillis(200), Duration.ofMillis(700), 16, 100);
+
+        long start = System.nanoTime();
+
+        // Act & Assert
+        assertThatThrownBy(() -> createPaymentIntent(gateway)).isInstanceOf(ApiConnectionException.class);
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        assertThat(elapsed).isLessThan(Duration.ofSeconds(2));
+        assertThat(stripe.calls(PAYMENT_INTENTS)).isBetween(2, 4);
+    }
+
+    @Test
+    void execute_WhenStripeKeepsFailing_ShouldOpenCircuitAndFailFast() {
+        // Arrange
+        stripe.route(PAYMENT_INTENTS, (_, _) -> Response.error(503, "api_error", "Service unavailable"));
+        StripeGateway gateway = gateway(1, Duration.ofSeconds(1), Duration.ofSeconds(5), 16, 100);
+
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> createPaymentIntent(gateway)).isInstanceOf(ApiException.class);
+        }
+
+        // Act & Assert
+        assertThatThrownBy(() -> createPaymentIntent(gateway)).isInstanceOf(StripeGateway.Rejected.class);
+        assertThat(stripe.calls(PAYMENT_INTENTS)).isEqualTo(4);
+        assertThat(meterRegistry.get("stripe.client.rejections").tag("reason", "circuit_open").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void execute_BeyondBulkhead_ShouldRejectWithoutCallingStripe() throws Exception {
+        // Arrange
+        stripe.route(PAYMENT_INTENTS, (_, _) -> Response.ok(PAYMENT_INTENT).after(Duration.ofMillis(500)));
+        StripeGateway gateway = gateway(1, Duration.ofSeconds(2), Duration.ofSeconds(5), 2, 10);
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<PaymentIntent>> results = new ArrayList<>();
+        int succeeded = 0;
+        int rejected = 0;
+
+        // Act
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            for (int i = 0; i < 4; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return createPaymentIntent(gateway);
+                }));
+            }
+
+            start.countDown();
+
+            for (Future<PaymentIntent> result : results) {
+                try {
+                    result.get();
+                    succeeded++;
+                } catch (ExecutionException e) {
+                    assertThat(e.getCause()).isInstanceOf(StripeGateway.Rejected.class);
+                    rejected++;
+                }
+            }
+        }
+
+        // Assert
+        assertThat(succeeded).isEqualTo(2);
+        assertThat(rejected).isEqualTo(2);
+        assertThat(stripe.calls(PAYMENT_INTENTS)).isEqualTo(2);
+    }
+
+    private StripeGateway gateway(
+            int maxAttempts,
+            Duration readTimeout,
+            Duration deadline,
+            int maxConcurrent,
+            long bulkheadMaxWaitMillis
+    ) {
+        return new StripeGateway(
+                new CircuitBreaker("stripe", 10, 4, 50, Duration.ofSeconds(30), 1, Clock.systemUTC(), meterRegistry),
+                new Bulkhead("stripe", maxConcurrent, Duration.ofMillis(bulkheadMaxWaitMillis), meterRegistry),
+                meterRegistry,
+                Duration.ofSeconds(1),
+                readTimeout,
+                deadline,
+                maxAttempts,
+                Duration.ofMillis(10),
+                Duration.ofMillis(50)
+        );
+    }
+
+    private static PaymentIntent createPaymentIntent(StripeGateway gateway) throws Exception {
+        PaymentIntentCreateParams params = PaymentIntentCreateParams.builder()
+                .setAmount(1999L)
+                .setCurrency("usd")
+                .build();
+
+        return gateway.execute("payment_intent.create", "order-123", options ->
+                PaymentIntent.create(params, options)
+        );
+    }
+}
@@ -2,14 +2,10 @@ package com.wild.ecommerce.payment.controller;
 
 import com.stripe.exception.SignatureVerificationException;
 import com.stripe.model.Event;
-import com.stripe.model.EventDataObjectDeserializer;
-import com.stripe.model.PaymentIntent;
 import com.stripe.net.Webhook;
 import com.wild.ecommerce.auth.service.JwtService;
-import com.wild.ecommerce.order.model.Order;
-import com.wild.ecommerce.order.model.Status;
-import com.wild.ecommerce.order.repository.OrderRepository;
-import com.wild.ecommerce.shipment.service.ShipmentService;
+import com.wild.ecommerce.payment.service.StripeWebhookDispatcher;
+import com.wild.ecommerce.payment.service.StripeWebhookService;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -23,15 +19,11 @@ import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
-import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.argThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.verify;
@@ -52,22 +44,21 @@ public class StripeWebhookControllerTest {
     private MockMvc mockMvc;
 
     @MockitoBean
-    private OrderRepository orderRepository;
+    private StripeWebhookService stripeWebhookService;
 
     @MockitoBean
-    private JwtService jwtService;
+    private StripeWebhookDispatcher stripeWebhookDispatcher;
 
     @MockitoBean
-    private UserDetailsService userDetailsService;
+    private JwtService jwtService;
 
     @MockitoBean
-    private ShipmentService shippingService;
+    private UserDetailsService userDetailsService;
 
     private MockedStatic<Webhook> webhookMock;
     private static final String WEBHOOK_SECRET = "test_webhook_secret";
     private static final String VALID_SIGNATURE = "valid_signature";
     private static final String INVALID_SIGNATURE = "invalid_signature";
-    private static final UUID ORDER_ID = UUID.randomUUID();
 
     @BeforeEach
     void setUp() {
@@ -95,52 +86,19 @@ public class StripeWebhookControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(content().string("Invalid signature"));
 
-        verifyNoInteractions(orderRepository);
+        verifyNoInteractions(stripeWebhookService);
     }
 
     @Test
-    void givenPaymentIntentSucceeded_WhenWebhookReceived_ThenConfirmOrder() throws Exception {
+    void givenValidEvent_WhenWebhookReceived_ThenStoreAndDispatchIt() throws Exception {
         // Given
         String payload = createWebhookPayload("payment_intent.succeeded");
-        Event event = createMockEvent("payment_intent.succeeded", ORDER_ID);
-
-        webhookMock.when(() -> Webhook.constructEvent(eq(payload), eq(VALID_SIGNATURE), anyString()))
-                .thenReturn(event);
-
-        Order order = new Order();
-        order.setId(ORDER_ID);
-        order.setStatus(Status.PENDING);
-
-        when(orderRepository.findById(ORDER_ID)).thenReturn(Optional.of(order));
-        when(orderRepository.save(any(Order.class))).thenReturn(order);
-
-        // When & Then
-        mockMvc.perform(post("/api/v1/stripe/webhooks")
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .header("Stripe-Signature", VALID_SIGNATURE)
-                        .content(payload))
-                .andExpect(status().isOk())
-                .andExpect(content().string("Webhook received"));
-
-        verify(orderRepository).findById(ORDER_ID);
-        verify(orderRepository).save(argThat(o -> o.getStatus() == Status.CONFIRMED));
-    }
-
-    @Test
-    void givenPaymentIntentFailed_WhenWebhookReceived_ThenMarkOrderAsFailed() throws Exception {
-        // Given
-        String payload = createWebhookPayload("payment_intent.payment_failed");
-        Event event = createMockEvent("payment_intent.payment_failed", ORDER_ID);
+        Event event = mock(Event.class);
+        UUID storedId = UUID.randomUUID();
 
         webhookMock.when(() -> Webhook.constructEvent(eq(payload), eq(VALID_SIGNATURE), anyString()))
                 .thenReturn(event);
-
-        Order order = new Order();
-        order.setId(ORDER_ID);
-        order.setStatus(Status.PENDING);
-
-        when(orderRepository.findById(ORDER_ID)).thenReturn(Optional.of(order));
-        when(orderRepository.save(any(Order.class))).thenReturn(order);
+        when(stripeWebhookService.receive(event, payload)).thenReturn(Optional.of(storedId));
 
         // When & Then
         mockMvc.perform(post("/api/v1/stripe/webhooks")
@@ -150,24 +108,19 @@ public class StripeWebhookControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().string("Webhook received"));
 
-        verify(orderRepository).save(argThat(o -> o.getStatus() == Status.FAILED));
+        verify(stripeWebhookService).receive(event, payload);
+        verify(stripeWebhookDispatcher).dispatch(storedId);
     }
 
     @Test
-    void givenPaymentIntentCanceled_WhenWebhookReceived_ThenMarkOrderAsCancelled() throws Exception {
+    void givenDuplicateEvent_WhenWebhookReceived_ThenAcknowledgeWithoutDispatching() throws Exception {
         // Given
-        String payload = createWebhookPayload("payment_intent.canceled");
-        Event event = createMockEvent("payment_intent.canceled", ORDER_ID);
+        String payload = createWebhookPayload("payment_intent.succeeded");
+        Event event = mock(Event.class);
 
         webhookMock.when(() -> Webhook.constructEvent(eq(payload), eq(VALID_SIGNATURE), anyString()))
                 .thenReturn(event);
-
-        Order order = new Order();
-        order.setId(ORDER_ID);
-        order.setStatus(Status.PENDING);
-
-        when(orderRepository.findById(ORDER_ID)).thenReturn(Optional.of(order));
-        when(orderRepository.save(any(Order.class))).thenReturn(order);
+        when(stripeWebhookService.receive(event, payload)).thenReturn(Optional.empty());
 
         // When & Then
         mockMvc.perform(post("/api/v1/stripe/webhooks")
@@ -177,7 +130,7 @@ public class StripeWebhookControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().string("Webhook received"));
 
-        verify(orderRepository).save(argThat(o -> o.getStatus() == Status.CANCELLED));
+        verifyNoInteractions(stripeWebhookDispatcher);
     }
 
     @Test
@@ -189,46 +142,6 @@ public class StripeWebhookControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
-    @Test
-    void givenUnknownEventType_WhenWebhookReceived_ThenDoNotUpdateOrder() throws Exception {
-        // Given
-        String payload = createWebhookPayload("unknown.event");
-        Event event = createMockEvent("unknown.event", ORDER_ID);
-
-        webhookMock.when(() -> Webhook.constructEvent(eq(payload), eq(VALID_SIGNATURE), anyString()))
-                .thenReturn(event);
-
-        // When & Then
-        mockMvc.perform(post("/api/v1/stripe/webhooks")
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .header("Stripe-Signature", VALID_SIGNATURE)
-                        .content(payload))
-                .andExpect(status().isOk())
-                .andExpect(content().string("Webhook received"));
-
-        verifyNoInteractions(orderRepository);
-    }
-
-    @Test
-    void givenMissingOrderIdInMetadata_WhenWebhookReceived_ThenIgnoreEvent() throws Exception {
-        // Given
-        String payload = createWebhookPayload("payment_intent.succeeded");
-        Event event = createMockEvent("payment_intent.succeeded", null);
-
-        webhookMock.when(() -> Webhook.constructEvent(eq(payload), eq(VALID_SIGNATURE), anyString()))
-                .thenReturn(event);
-
-        // When & Then
-        mockMvc.perform(post("/api/v1/stripe/webhooks")
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .header("Stripe-Signature", VALID_SIGNATURE)
-                        .content(payload))
-                .andExpect(status().isOk())
-                .andExpect(content().string("Webhook received"));
-
-        verifyNoInteractions(orderRepository);
-    }
-
     @Test
     void givenWrongHttpMethod_WhenRequestSent_ThenReturnMethodNotAllowed() throws Exception {
         // When & Then
@@ -240,24 +153,4 @@ public class StripeWebhookControllerTest {
     private String createWebhookPayload(String eventType) {
         return String.format("{\"type\":\"%s\",\"data\":{\"object\":{}}}", eventType);
     }
-
-    private Event createMockEvent(String eventType, UUID orderId) {
-        Event event = mock(Event.class);
-        Event.Data eventData = mock(Event.Data.class);
-        EventDataObjectDeserializer deserializer = mock(EventDataObjectDeserializer.class);
-        PaymentIntent paymentIntent = mock(PaymentIntent.class);
-
-        Map<String, String> metadata = new HashMap<>();
-        if (orderId != null) {
-            metadata.put("orderId", orderId.toString());
-        }
-
-        when(event.getType()).thenReturn(eventType);
-        when(event.getData()).thenReturn(eventData);
-        when(event.getDataObjectDeserializer()).thenReturn(deserializer);
-        when(deserializer.getObject()).thenReturn(Optional.of(paymentIntent));
-        when(paymentIntent.getMetadata()).thenReturn(metadata);
-
-        return event;
-    }
 }
@@ -0,0 +1,194 @@
+package com.wild.ecommerce.payment.service;
+
+import com.stripe.exception.StripeException;
+import com.stripe.model.PaymentIntent;
+import com.wild.ecommerce.address.mapper.AddressMapper;
+import com.wild.ecommerce.inventory.service.InventoryService;
+import com.wild.ecommerce.order.model.Order;
+import com.wild.ecommerce.order.model.Status;
+import com.wild.ecommerce.order.repository.OrderRepository;
+import com.wild.ecommerce.order.service.OrderSummaryService;
+import com.wild.ecommerce.payment.dto.StripePaymentDTO;
+import com.wild.ecommerce.payment.model.OutboxStatus;
+import com.wild.ecommerce.payment.model.Payment;
+import com.wild.ecommerce.payment.model.PaymentMethod;
+import com.wild.ecommerce.payment.model.PaymentOutbox;
+import com.wild.ecommerce.payment.repository.PaymentOutboxRepository;
+import com.wild.ecommerce.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class PaymentOutboxServiceTest {
+
+    @Mock
+    private PaymentOutboxRepository paymentOutboxRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private AddressMapper addressMapper;
+
+    @Mock
+    private StripeService stripeService;
+
+    @Mock
+    private InventoryService inventoryService;
+
+    @Mock
+    private OrderSummaryService orderSummaryService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private PaymentOutboxServiceImpl paymentOutboxService;
+
+    private PaymentOutbox outbox;
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        paymentOutboxService = new PaymentOutboxServiceImpl(
+                paymentOutboxRepository,
+                orderRepository,
+                userRepository,
+                addressMapper,
+                stripeService,
+                inventoryService,
+                orderSummaryService,
+                transactionTemplate
+        );
+        ReflectionTestUtils.setField(paymentOutboxService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(paymentOutboxService, "lease", Duration.ofSeconds(60));
+        ReflectionTestUtils.setField(paymentOutboxService, "retryBackoff", Duration.ofSeconds(30));
+
+        Payment payment = new Payment();
+        payment.setPaymentMethod(PaymentMethod.STRIPE);
+
+        order = new Order();
+        order.setId(UUID.randomUUID());
+        order.setEmail("test@example.com");
+        order.setStatus(Status.PENDING);
+        order.setTotalAmount(new BigDecimal("19.99"));
+        order.setPayment(payment);
+
+        outbox = new PaymentOutbox();
+        outbox.setId(UUID.randomUUID());
+        outbox.setOrderId(order.getId());
+        outbox.setStatus(OutboxStatus.PENDING);
+        outbox.setAttempts(1);
+
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null)
+        );
+        lenient().when(paymentOutboxRepository.findById(outbox.getId())).thenReturn(Optional.of(outbox));
+        lenient().when(orderRepository.findById(order.getId())).thenReturn(Optional.of(order));
+        lenient().when(userRepository.findByEmailIgnoreCase(order.getEmail())).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void process_WhenStripeSucceeds_ShouldRecordPaymentIntent() throws StripeException {
+        // Arrange
+        when(paymentOutboxRepository.claim(eq(outbox.getId()), any(), any())).thenReturn(1);
+
+        PaymentIntent paymentIntent = mock(PaymentIntent.class);
+        when(paymentIntent.getId()).thenReturn("pi_123");
+        when(paymentIntent.getStatus()).thenReturn("requires_payment_method");
+        when(stripeService.paymentIntent(any(StripePaymentDTO.class), eq(outbox.getId().toString())))
+                .thenReturn(paymentIntent);
+
+        // Act
+        paymentOutboxService.process(outbox.getId());
+
+        // Assert
+        ArgumentCaptor<StripePaymentDTO> request = ArgumentCaptor.forClass(StripePaymentDTO.class);
+        verify(stripeService).paymentIntent(request.capture(), anyString());
+        assertEquals(1999L, request.getValue().amountInCents());
+
+        assertEquals(OutboxStatus.SENT, outbox.getStatus());
+        assertEquals("pi_123", order.getPayment().getStripePaymentId());
+        assertEquals("requires_payment_method", order.getPayment().getStripeStatus());
+    }
+
+    @Test
+    void process_WhenStripeFailsBeforeLastAttempt_ShouldScheduleRetry() throws StripeException {
+        // Arrange
+        when(paymentOutboxRepository.claim(eq(outbox.getId()), any(), any())).thenReturn(1);
+        when(stripeService.paymentIntent(any(StripePaymentDTO.class), anyString()))
+                .thenThrow(new StripeException("Timeout", "request_id", "code", 500) {
+                });
+
+        // Act
+        paymentOutboxService.process(outbox.getId());
+
+        // Assert
+        assertEquals(OutboxStatus.PENDING, outbox.getStatus());
+        assertTrue(outbox.getLastError().startsWith("Timeout"));
+        assertTrue(outbox.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(20)));
+        assertEquals(Status.PENDING, order.getStatus());
+        verify(inventoryService, never()).release(any());
+    }
+
+    @Test
+    void process_WhenStripeFailsOnLastAttempt_ShouldFailOrderAndReleaseStock() throws StripeException {
+        // Arrange
+        outbox.setAttempts(3);
+        when(paymentOutboxRepository.claim(eq(outbox.getId()), any(), any())).thenReturn(1);
+        when(stripeService.paymentIntent(any(StripePaymentDTO.class), anyString()))
+                .thenThrow(new StripeException("Card declined", "request_id", "code", 402) {
+                });
+
+        // Act
+        paymentOutboxService.process(outbox.getId());
+
+        // Assert
+        assertEquals(OutboxStatus.FAILED, outbox.getStatus());
+        assertEquals(Status.FAILED, order.getStatus());
+        assertTrue(order.getPayment().getStripeResponseMessage().startsWith("Card declined"));
+        assertNull(order.getPayment().getStripePaymentId());
+        verify(inventoryService).release(order.getId());
+        verify(orderSummaryService).updateStatus(order);
+    }
+
+    @Test
+    void process_WhenClaimIsLost_ShouldNotCallStripe() throws StripeException {
+        // Arrange
+        when(paymentOutboxRepository.claim(eq(outbox.getId()), any(), any())).thenReturn(0);
+
+        // Act
+        paymentOutboxService.process(outbox.getId());
+
+        // Assert
+        verify(stripeService, never()).paymentIntent(any(StripePaymentDTO.class), anyString());
+        verify(paymentOutboxRepository, never()).findById(any());
+    }
+}
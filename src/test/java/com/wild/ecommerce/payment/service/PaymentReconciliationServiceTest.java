@@ -0,0 +1,235 @@
+package com.wild.ecommerce.payment.service;
+
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.model.PaymentIntent;
+import com.stripe.model.StripeError;
+import com.wild.ecommerce.common.lease.CheckpointLease;
+import com.wild.ecommerce.order.dto.PendingPaymentRow;
+import com.wild.ecommerce.order.repository.OrderRepository;
+import com.wild.ecommerce.payment.client.StripeGateway;
+import com.wild.ecommerce.payment.model.ReconciliationCheckpoint;
+import com.wild.ecommerce.payment.repository.ReconciliationCheckpointRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class PaymentReconciliationServiceTest {
+
+    private static final String CHECKPOINT = PaymentReconciliationServiceImpl.CHECKPOINT;
+    private static final UUID FIRST_ORDER_ID = new UUID(0, 0);
+    private static final UUID ORDER_1 = UUID.randomUUID();
+    private static final UUID ORDER_2 = UUID.randomUUID();
+    private static final UUID ORDER_3 = UUID.randomUUID();
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private ReconciliationCheckpointRepository checkpointRepository;
+
+    @Mock
+    private StripeWebhookProcessor stripeWebhookProcessor;
+
+    @Mock
+    private StripeGateway stripeGateway;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private PaymentReconciliationServiceImpl paymentReconciliationService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null)
+        );
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        paymentReconciliationService = new PaymentReconciliationServiceImpl(
+                orderRepository,
+                new CheckpointLease(checkpointRepository, transactionTemplate),
+                stripeWebhookProcessor,
+                stripeGateway,
+                transactionTemplate,
+                Runnable::run,
+                new SimpleMeterRegistry(),
+                1000
+        );
+        ReflectionTestUtils.setField(paymentReconciliationService, "minAge", Duration.ofMinutes(30));
+        ReflectionTestUtils.setField(paymentReconciliationService, "batchSize", 2);
+        ReflectionTestUtils.setField(paymentReconciliationService, "lease", Duration.ofMinutes(5));
+    }
+
+    @Test
+    void reconcile_WhenAnotherNodeHoldsTheLease_ShouldDoNothing() {
+        // Arrange
+        when(checkpointRepository.existsById(CHECKPOINT)).thenReturn(true);
+        when(checkpointRepository.acquire(eq(CHECKPOINT), anyString(), any(), any())).thenReturn(0);
+
+        // Act
+        int settled = paymentReconciliationService.reconcile();
+
+        // Assert
+        assertEquals(0, settled);
+        verifyNoInteractions(orderRepository, stripeGateway, stripeWebhookProcessor);
+        verify(checkpointRepository, never()).release(anyString(), anyString());
+    }
+
+    @Test
+    void reconcile_ShouldSettleOrdersPageByPageAndResetCheckpoint() throws Exception {
+        // Arrange
+        holdLease(null);
+        when(orderRepository.findPendingPaymentsAfter(eq(FIRST_ORDER_ID), any(), any())).thenReturn(List.of(
+                new PendingPaymentRow(ORDER_1, "pi_1"),
+                new PendingPaymentRow(ORDER_2, "pi_2")
+        ));
+        when(orderRepository.findPendingPaymentsAfter(eq(ORDER_2), any(), any())).thenReturn(List.of(
+                new PendingPaymentRow(ORDER_3, "pi_3")
+        ));
+        when(stripeGateway.execute(eq("payment_intent.retrieve"), any())).thenReturn(
+                paymentIntent("succeeded"),
+                paymentIntent("processing"),
+                paymentIntent("canceled")
+        );
+        when(stripeWebhookProcessor.apply(anyString(), any())).thenReturn(true);
+
+        // Act
+        int settled = paymentReconciliationService.reconcile();
+
+        // Assert
+        assertEquals(2, settled);
+        verify(stripeWebhookProcessor).apply(StripeWebhookProcessor.PAYMENT_INTENT_SUCCEEDED, ORDER_1);
+        verify(stripeWebhookProcessor).apply(StripeWebhookProcessor.PAYMENT_INTENT_CANCELED, ORDER_3);
+        verify(stripeWebhookProcessor, never()).apply(anyString(), eq(ORDER_2));
+        verify(checkpointRepository).advance(eq(CHECKPOINT), anyString(), eq(ORDER_2), any());
+        verify(checkpointRepository).advance(eq(CHECKPOINT), anyString(), isNull(), any());
+        verify(checkpointRepository).release(eq(CHECKPOINT), anyString());
+    }
+
+    @Test
+    void reconcile_WhenPassWasInterrupted_ShouldResumeFromCheckpoint() {
+        // Arrange
+        holdLease(ORDER_2);
+        when(orderRepository.findPendingPaymentsAfter(eq(ORDER_2), any(), any())).thenReturn(List.of());
+
+        // Act
+        paymentReconciliationService.reconcile();
+
+        // Assert
+        verify(orderRepository, times(1)).findPendingPaymentsAfter(any(), any(), any());
+        verify(checkpointRepository).advance(eq(CHECKPOINT), anyString(), isNull(), any());
+    }
+
+    @Test
+    void reconcile_WhenLeaseIsLost_ShouldStopAfterCurrentPage() throws Exception {
+        // Arrange
+        when(checkpointRepository.existsById(CHECKPOINT)).thenReturn(true);
+        when(checkpointRepository.acquire(eq(CHECKPOINT), anyString(), any(), any())).thenReturn(1);
+        when(checkpointRepository.advance(eq(CHECKPOINT), anyString(), any(), any())).thenReturn(0);
+        when(orderRepository.findPendingPaymentsAfter(eq(FIRST_ORDER_ID), any(), any())).thenReturn(List.of(
+                new PendingPaymentRow(ORDER_1, "pi_1"),
+                new PendingPaymentRow(ORDER_2, "pi_2")
+        ));
+        when(stripeGateway.execute(eq("payment_intent.retrieve"), any())).thenReturn(paymentIntent("processing"));
+
+        // Act
+        paymentReconciliationService.reconcile();
+
+        // Assert
+        verify(orderRepository, times(1)).findPendingPaymentsAfter(any(), any(), any());
+    }
+
+    @Test
+    void reconcile_WhenStripeFailsForOneOrder_ShouldCarryOnWithTheRest() throws Exception {
+        // Arrange
+        holdLease(null);
+        when(orderRepository.findPendingPaymentsAfter(eq(FIRST_ORDER_ID), any(), any())).thenReturn(List.of(
+                new PendingPaymentRow(ORDER_1, "pi_1")
+        ));
+        when(orderRepository.findPendingPaymentsAfter(eq(ORDER_1), any(), any())).thenReturn(List.of(
+                new PendingPaymentRow(ORDER_2, "pi_2")
+        ));
+        ReflectionTestUtils.setField(paymentReconciliationService, "batchSize", 1);
+        when(stripeGateway.execute(eq("payment_intent.retrieve"), any()))
+                .thenThrow(new ApiConnectionException("Stripe is down"))
+                .thenReturn(paymentIntent("succeeded"));
+        when(stripeWebhookProcessor.apply(StripeWebhookProcessor.PAYMENT_INTENT_SUCCEEDED, ORDER_2)).thenReturn(true);
+
+        // Act
+        int settled = paymentReconciliationService.reconcile();
+
+        // Assert
+        assertEquals(1, settled);
+        verify(stripeWebhookProcessor, never()).apply(anyString(), eq(ORDER_1));
+    }
+
+    @Test
+    void reconcile_WhenCheckpointIsMissing_ShouldCreateIt() {
+        // Arrange
+        when(checkpointRepository.existsById(CHECKPOINT)).thenReturn(false);
+        when(checkpointRepository.acquire(eq(CHECKPOINT), anyString(), any(), any())).thenReturn(0);
+
+        // Act
+        paymentReconciliationService.reconcile();
+
+        // Assert
+        verify(checkpointRepository).saveAndFlush(any(ReconciliationCheckpoint.class));
+    }
+
+    @Test
+    void eventType_ShouldMapPaymentIntentStatusToWebhookEvent() {
+        PaymentIntent declined = paymentIntent("requires_payment_method");
+        declined.setLastPaymentError(new StripeError());
+
+        assertEquals(StripeWebhookProcessor.PAYMENT_INTENT_SUCCEEDED,
+                PaymentReconciliationServiceImpl.eventType(paymentIntent("succeeded")));
+        assertEquals(StripeWebhookProcessor.PAYMENT_INTENT_CANCELED,
+                PaymentReconciliationServiceImpl.eventType(paymentIntent("canceled")));
+        assertNull(PaymentReconciliationServiceImpl.eventType(declined));
+        assertNull(PaymentReconciliationServiceImpl.eventType(paymentIntent("requires_payment_method")));
+        assertNull(PaymentReconciliationServiceImpl.eventType(paymentIntent("processing")));
+    }
+
+    private void holdLease(UUID lastOrderId) {
+        when(checkpointRepository.existsById(CHECKPOINT)).thenReturn(true);
+        when(checkpointRepository.acquire(eq(CHECKPOINT), anyString(), any(), any())).thenReturn(1);
+        when(checkpointRepository.findLastOrderId(CHECKPOINT)).thenReturn(lastOrderId);
+        when(checkpointRepository.advance(eq(CHECKPOINT), anyString(), any(), any())).thenReturn(1);
+    }
+
+    private static PaymentIntent paymentIntent(String status) {
+        PaymentIntent paymentIntent = new PaymentIntent();
+        paymentIntent.setStatus(status);
+
+        return paymentIntent;
+    }
+}
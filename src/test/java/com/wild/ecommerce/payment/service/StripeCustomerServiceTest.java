@@ -0,0 +1,251 @@
+package com.wild.ecommerce.payment.service;
+
+import com.stripe.exception.StripeException;
+import com.stripe.model.Customer;
+import com.stripe.model.CustomerSearchResult;
+import com.stripe.param.CustomerCreateParams;
+import com.stripe.param.CustomerSearchParams;
+import com.stripe.net.RequestOptions;
+import com.wild.ecommerce.address.dto.AddressDTO;
+import com.wild.ecommerce.payment.client.StripeCall;
+import com.wild.ecommerce.payment.client.StripeGateway;
+import com.wild.ecommerce.payment.dto.StripePaymentDTO;
+import com.wild.ecommerce.user.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class StripeCustomerServiceTest {
+
+    private static final String EMAIL = "john.doe@example.com";
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private StripeGateway stripeGateway;
+
+    private StripeCustomerServiceImpl stripeCustomerService;
+    private StripePaymentDTO paymentDTO;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null)
+        );
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        lenient().when(stripeGateway.execute(anyString(), any())).thenAnswer(invocation ->
+                invocation.<StripeCall<?>>getArgument(1).call(RequestOptions.getDefault())
+        );
+        lenient().when(stripeGateway.execute(anyString(), anyString(), any())).thenAnswer(invocation ->
+                invocation.<StripeCall<?>>getArgument(2).call(
+                        RequestOptions.builder().setIdempotencyKey(invocation.getArgument(1)).build()
+                )
+        );
+
+        stripeCustomerService = new StripeCustomerServiceImpl(
+                userRepository,
+                transactionTemplate,
+                stripeGateway,
+                new SimpleMeterRegistry(),
+                1000,
+                Duration.ofHours(1)
+        );
+
+        AddressDTO addressDTO = new AddressDTO(
+                UUID.randomUUID(),
+                "US",
+                "California",
+                "San Francisco",
+                "123 Main St",
+                "94105"
+        );
+
+        paymentDTO = new StripePaymentDTO(
+                10000L,
+                "usd",
+                "John Doe",
+                EMAIL,
+                "Test payment",
+                addressDTO,
+                Map.of("orderId", "12345")
+        );
+    }
+
+    @Test
+    void resolveCustomerId_WhenStoredOnUser_ShouldNotCallStripe() throws StripeException {
+        try (MockedStatic<Customer> customerMock = mockStatic(Customer.class)) {
+
+            // Arrange
+            when(userRepository.findStripeCustomerIdByEmail(EMAIL)).thenReturn(Optional.of("cus_stored"));
+
+            // Act
+            String customerId = stripeCustomerService.resolveCustomerId(paymentDTO);
+
+            // Assert
+            assertEquals("cus_stored", customerId);
+            customerMock.verifyNoInteractions();
+        }
+    }
+
+    @Test
+    void resolveCustomerId_WhenCached_ShouldNotReadDatabaseAgain() throws StripeException {
+        // Arrange
+        when(userRepository.findStripeCustomerIdByEmail(EMAIL)).thenReturn(Optional.of("cus_stored"));
+
+        // Act
+        stripeCustomerService.resolveCustomerId(paymentDTO);
+        String customerId = stripeCustomerService.resolveCustomerId(paymentDTO);
+
+        // Assert
+        assertEquals("cus_stored", customerId);
+        verify(userRepository, times(1)).findStripeCustomerIdByEmail(EMAIL);
+    }
+
+    @Test
+    void resolveCustomerId_WhenCustomerExistsInStripe_ShouldStoreIt() throws StripeException {
+        try (MockedStatic<Customer> customerMock = mockStatic(Customer.class)) {
+
+            // Arrange
+            Customer customer = mock(Customer.class);
+            when(customer.getId()).thenReturn("cus_legacy");
+
+            CustomerSearchResult searchResult = mock(CustomerSearchResult.class);
+            when(searchResult.getData()).thenReturn(List.of(customer));
+
+            when(userRepository.findStripeCustomerIdByEmail(EMAIL)).thenReturn(Optional.empty());
+            when(userRepository.setStripeCustomerIdIfAbsent(EMAIL, "cus_legacy")).thenReturn(1);
+            customerMock.when(() -> Customer.search(any(CustomerSearchParams.class), any(RequestOptions.class))).thenReturn(searchResult);
+
+            // Act
+            String customerId = stripeCustomerService.resolveCustomerId(paymentDTO);
+
+            // Assert
+            assertEquals("cus_legacy", customerId);
+            customerMock.verify(() -> Customer.create(any(CustomerCreateParams.class), any(RequestOptions.class)), never());
+        }
+    }
+
+    @Test
+    void resolveCustomerId_WhenCustomerDoesNotExist_ShouldCreateAndStoreIt() throws StripeException {
+        try (MockedStatic<Customer> customerMock = mockStatic(Customer.class)) {
+
+            // Arrange
+            Customer customer = mock(Customer.class);
+            when(customer.getId()).thenReturn("cus_new");
+
+            CustomerSearchResult searchResult = mock(CustomerSearchResult.class);
+            when(searchResult.getData()).thenReturn(List.of());
+
+            when(userRepository.findStripeCustomerIdByEmail(EMAIL)).thenReturn(Optional.empty());
+            when(userRepository.setStripeCustomerIdIfAbsent(EMAIL, "cus_new")).thenReturn(1);
+            customerMock.when(() -> Customer.search(any(CustomerSearchParams.class), any(RequestOptions.class))).thenReturn(searchResult);
+            customerMock.when(() -> Customer.create(any(CustomerCreateParams.class), any(RequestOptions.class))).thenAnswer(invocation -> {
+                CustomerCreateParams params = invocation.getArgument(0);
+                assertEquals(EMAIL, params.getEmail());
+                assertEquals("John Doe", params.getName());
+                return customer;
+            });
+
+            // Act
+            String customerId = stripeCustomerService.resolveCustomerId(paymentDTO);
+
+            // Assert
+            assertEquals("cus_new", customerId);
+            verify(userRepository).setStripeCustomerIdIfAbsent(EMAIL, "cus_new");
+        }
+    }
+
+    @Test
+    void resolveCustomerId_WhenAnotherNodeStoredFirst_ShouldUseItsCustomerAndDeleteOwn() throws StripeException {
+        try (MockedStatic<Customer> customerMock = mockStatic(Customer.class)) {
+
+            // Arrange
+            Customer customer = mock(Customer.class);
+            when(customer.getId()).thenReturn("cus_duplicate");
+
+            CustomerSearchResult searchResult = mock(CustomerSearchResult.class);
+            when(searchResult.getData()).thenReturn(List.of());
+
+            when(userRepository.findStripeCustomerIdByEmail(EMAIL))
+                    .thenReturn(Optional.empty())
+                    .thenReturn(Optional.of("cus_winner"));
+            when(userRepository.setStripeCustomerIdIfAbsent(EMAIL, "cus_duplicate")).thenReturn(0);
+            customerMock.when(() -> Customer.search(any(CustomerSearchParams.class), any(RequestOptions.class))).thenReturn(searchResult);
+            customerMock.when(() -> Customer.create(any(CustomerCreateParams.class), any(RequestOptions.class))).thenReturn(customer);
+
+            // Act
+            String customerId = stripeCustomerService.resolveCustomerId(paymentDTO);
+
+            // Assert
+            assertEquals("cus_winner", customerId);
+            verify(customer).delete(any(RequestOptions.class));
+        }
+    }
+
+    @Test
+    void resolveCustomerId_WhenStripeFails_ShouldNotCacheAnything() {
+        try (MockedStatic<Customer> customerMock = mockStatic(Customer.class)) {
+
+            // Arrange
+            when(userRepository.findStripeCustomerIdByEmail(EMAIL)).thenReturn(Optional.empty());
+            customerMock.when(() -> Customer.search(any(CustomerSearchParams.class), any(RequestOptions.class))).thenThrow(
+                    new StripeException("Stripe API error", "request_id", "code", 500) {
+                    }
+            );
+
+            // Act & Assert
+            assertThrows(StripeException.class, () -> stripeCustomerService.resolveCustomerId(paymentDTO));
+            assertThrows(StripeException.class, () -> stripeCustomerService.resolveCustomerId(paymentDTO));
+            verify(userRepository, times(2)).findStripeCustomerIdByEmail(EMAIL);
+        }
+    }
+
+    @Test
+    void forget_ShouldEvictCacheAndClearStoredCustomer() throws StripeException {
+        // Arrange
+        when(userRepository.findStripeCustomerIdByEmail(EMAIL)).thenReturn(Optional.of("cus_deleted"));
+        stripeCustomerService.resolveCustomerId(paymentDTO);
+
+        // Act
+        stripeCustomerService.forget(EMAIL, "cus_deleted");
+        stripeCustomerService.resolveCustomerId(paymentDTO);
+
+        // Assert
+        verify(userRepository).clearStripeCustomerId("cus_deleted");
+        verify(userRepository, times(2)).findStripeCustomerIdByEmail(EMAIL);
+    }
+}
@@ -0,0 +1,185 @@
+package com.wild.ecommerce.payment.service;
+
+import com.stripe.exception.StripeException;
+import com.wild.ecommerce.address.dto.AddressDTO;
+import com.wild.ecommerce.payment.client.Bulkhead;
+import com.wild.ecommerce.payment.client.CircuitBreaker;
+import com.wild.ecommerce.payment.client.StripeGateway;
+import com.wild.ecommerce.payment.dto.StripePaymentDTO;
+import com.wild.ecommerce.user.repository.UserRepository;
+import com.wild.ecommerce.util.FakeStripeServer;
+import com.wild.ecommerce.util.FakeStripeServer.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs checkouts against a fake Stripe server that answers with a fixed delay per call, and logs how much of that a
+ * repeat buyer no longer waits for.
+ */
+@Slf4j
+public class StripeCustomerStubServerTest {
+
+    private static final Duration STRIPE_LATENCY = Duration.ofMillis(40);
+    private static final int REPEAT_CHECKOUTS = 10;
+    private static final int CONCURRENT_CHECKOUTS = 8;
+
+    private final Map<String, String> storedCustomerIds = new ConcurrentHashMap<>();
+
+    private FakeStripeServer stripe;
+    private StripeServiceImpl stripeService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stripe = FakeStripeServer.start()
+                .route("GET /v1/customers/search", (_, _) -> Response.ok(
+                        "{\"object\": \"search_result\", \"url\": \"/v1/customers/search\", \"has_more\": false, "
+                                + "\"data\": []}"
+                ).after(STRIPE_LATENCY))
+                .route("POST /v1/customers", (call, _) -> Response.ok(
+                        "{\"id\": \"cus_stub_" + call + "\", \"object\": \"customer\"}"
+                ).after(STRIPE_LATENCY))
+                .route("POST /v1/payment_intents", (call, form) -> Response.ok(
+                        "{\"id\": \"pi_stub_" + call + "\", \"object\": \"payment_intent\", "
+                                + "\"customer\": \"" + form.replaceAll(".*(?:^|&)customer=([^&]*).*", "$1") + "\", "
+                                + "\"status\": \"requires_payment_method\"}"
+                ).after(STRIPE_LATENCY));
+
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findStripeCustomerIdByEmail(anyString())).thenAnswer(invocation ->
+                Optional.ofNullable(storedCustomerIds.get(invocation.<String>getArgument(0)))
+        );
+        when(userRepository.setStripeCustomerIdIfAbsent(anyString(), anyString())).thenAnswer(invocation ->
+                storedCustomerIds.putIfAbsent(invocation.getArgument(0), invocation.getArgument(1)) == null ? 1 : 0
+        );
+
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null)
+        );
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        StripeGateway stripeGateway = new StripeGateway(
+                new CircuitBreaker("stripe", 50, 10, 50, Duration.ofSeconds(30), 3, Clock.systemUTC(), meterRegistry),
+                new Bulkhead("stripe", 16, Duration.ofSeconds(1), meterRegistry),
+                meterRegistry,
+                Duration.ofSeconds(2),
+                Duration.ofSeconds(5),
+                Duration.ofSeconds(10),
+                1,
+                Duration.ZERO,
+                Duration.ZERO
+        );
+
+        StripeCustomerService stripeCustomerService = new StripeCustomerServiceImpl(
+                userRepository,
+                transactionTemplate,
+                stripeGateway,
+                meterRegistry,
+                1000,
+                Duration.ofHours(1)
+        );
+        stripeService = new StripeServiceImpl(stripeCustomerService, stripeGateway);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stripe.close();
+    }
+
+    @Test
+    void repeatCheckouts_ShouldOnlyCreatePaymentIntents() throws StripeException {
+        StripePaymentDTO paymentDTO = paymentDTO("repeat@example.com");
+
+        long start = System.nanoTime();
+        stripeService.paymentIntent(paymentDTO, UUID.randomUUID().toString());
+        double first = (System.nanoTime() - start) / 1_000_000.0;
+
+        start = System.nanoTime();
+
+        for (int i = 0; i < REPEAT_CHECKOUTS; i++) {
+            stripeService.paymentIntent(paymentDTO, UUID.randomUUID().toString());
+        }
+
+        double repeat = (System.nanoTime() - start) / 1_000_000.0 / REPEAT_CHECKOUTS;
+
+        log.info("Stripe latency {} ms per call: first checkout {} ms, repeat checkout {} ms",
+                STRIPE_LATENCY.toMillis(), String.format("%.2f", first), String.format("%.2f", repeat));
+
+        assertThat(stripe.calls("GET /v1/customers/search")).isEqualTo(1);
+        assertThat(stripe.calls("POST /v1/customers")).isEqualTo(1);
+        assertThat(stripe.calls("POST /v1/payment_intents")).isEqualTo(REPEAT_CHECKOUTS + 1);
+        assertThat(repeat).isLessThan(first);
+    }
+
+    @Test
+    void concurrentFirstCheckouts_ShouldCreateOneCustomer() throws Exception {
+        StripePaymentDTO paymentDTO = paymentDTO("concurrent@example.com");
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_CHECKOUTS)) {
+            for (int i = 0; i < CONCURRENT_CHECKOUTS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return stripeService.paymentIntent(paymentDTO, UUID.randomUUID().toString()).getCustomer();
+                }));
+            }
+
+            start.countDown();
+
+            for (Future<String> result : results) {
+                assertThat(result.get()).isEqualTo("cus_stub_1");
+            }
+        }
+
+        assertThat(stripe.calls("GET /v1/customers/search")).isEqualTo(1);
+        assertThat(stripe.calls("POST /v1/customers")).isEqualTo(1);
+        assertThat(stripe.calls("POST /v1/payment_intents")).isEqualTo(CONCURRENT_CHECKOUTS);
+    }
+
+    private static StripePaymentDTO paymentDTO(String email) {
+        AddressDTO addressDTO = new AddressDTO(
+                UUID.randomUUID(),
+                "US",
+                "California",
+                "San Francisco",
+                "123 Main St",
+                "94105"
+        );
+
+        return new StripePaymentDTO(
+                10000L,
+                "usd",
+                "John Doe",
+                email,
+                "Test payment",
+                addressDTO,
+                Map.of("orderId", "12345")
+        );
+    }
+}
@@ -1,23 +1,22 @@
 package com.wild.ecommerce.payment.service;
 
+import com.stripe.exception.InvalidRequestException;
 import com.stripe.exception.StripeException;
-import com.stripe.model.Customer;
-import com.stripe.model.CustomerSearchResult;
 import com.stripe.model.PaymentIntent;
-import com.stripe.param.CustomerCreateParams;
-import com.stripe.param.CustomerSearchParams;
+import com.stripe.net.RequestOptions;
 import com.stripe.param.PaymentIntentCreateParams;
 import com.wild.ecommerce.address.dto.AddressDTO;
+import com.wild.ecommerce.payment.client.StripeCall;
+import com.wild.ecommerce.payment.client.StripeGateway;
 import com.wild.ecommerce.payment.dto.StripePaymentDTO;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.util.Collections;
-import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -26,21 +25,30 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
-import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 public class StripeServiceTest {
 
+    private static final String IDEMPOTENCY_KEY = "outbox-123";
+
+    @Mock
+    private StripeCustomerService stripeCustomerService;
+
+    @Mock
+    private StripeGateway stripeGateway;
+
     @InjectMocks
     private StripeServiceImpl stripeService;
 
     private StripePaymentDTO paymentDTO;
-    private Customer mockCustomer;
     private PaymentIntent mockPaymentIntent;
 
     @BeforeEach
@@ -64,101 +72,111 @@ public class StripeServiceTest {
                 Map.of("orderId", "12345", "productId", "67890")
         );
 
-        mockCustomer = mock(Customer.class);
-        lenient().when(mockCustomer.getId()).thenReturn("cus_test123");
+        lenient().when(stripeGateway.execute(anyString(), any(), any())).thenAnswer(invocation ->
+                invocation.<StripeCall<?>>getArgument(2).call(
+                        RequestOptions.builder().setIdempotencyKey(invocation.getArgument(1)).build()
+                )
+        );
 
         mockPaymentIntent = mock(PaymentIntent.class);
         lenient().when(mockPaymentIntent.getId()).thenReturn("pi_test123");
     }
 
     @Test
-    void paymentIntent_WhenCustomerExists_ShouldUseExistingCustomer() throws StripeException {
-        try (MockedStatic<Customer> customerMock = mockStatic(Customer.class);
-             MockedStatic<PaymentIntent> paymentIntentMock = mockStatic(PaymentIntent.class)) {
+    void paymentIntent_ShouldUseResolvedCustomer() throws StripeException {
+        try (MockedStatic<PaymentIntent> paymentIntentMock = mockStatic(PaymentIntent.class)) {
 
             // Arrange
-            CustomerSearchResult searchResult = mock(CustomerSearchResult.class);
-            when(searchResult.getData()).thenReturn(List.of(mockCustomer));
-
-            customerMock.when(() -> Customer.search(any(CustomerSearchParams.class)))
-                    .thenReturn(searchResult);
+            when(stripeCustomerService.resolveCustomerId(paymentDTO)).thenReturn("cus_test123");
 
-            paymentIntentMock.when(() -> PaymentIntent.create(any(PaymentIntentCreateParams.class)))
+            paymentIntentMock.when(() -> PaymentIntent.create(
+                            any(PaymentIntentCreateParams.class), any(RequestOptions.class)
+                    ))
                     .thenReturn(mockPaymentIntent);
 
             // Act
-            PaymentIntent result = stripeService.paymentIntent(paymentDTO);
+            PaymentIntent result = stripeService.paymentIntent(paymentDTO, IDEMPOTENCY_KEY);
 
             // Assert
             assertNotNull(result);
             assertEquals("pi_test123", result.getId());
 
-            customerMock.verify(() -> Customer.search(any(CustomerSearchParams.class)), times(1));
-            customerMock.verify(() -> Customer.create(any(CustomerCreateParams.class)), never());
-            paymentIntentMock.verify(() -> PaymentIntent.create(any(PaymentIntentCreateParams.class)), times(1));
+            verify(stripeCustomerService).resolveCustomerId(paymentDTO);
+            verify(stripeGateway).execute(any(), any(), any());
+            paymentIntentMock.verify(() -> PaymentIntent.create(
+                    any(PaymentIntentCreateParams.class), any(RequestOptions.class)
+            ), times(1));
         }
     }
 
     @Test
-    void paymentIntent_WhenCustomerDoesNotExist_ShouldCreateNewCustomer() throws StripeException {
-        try (MockedStatic<Customer> customerMock = mockStatic(Customer.class);
-             MockedStatic<PaymentIntent> paymentIntentMock = mockStatic(PaymentIntent.class)) {
-
-            // Arrange
-            CustomerSearchResult searchResult = mock(CustomerSearchResult.class);
-            when(searchResult.getData()).thenReturn(Collections.emptyList());
+    void paymentIntent_WhenStripeThrowsException_ShouldPropagateException() throws StripeException {
+        // Arrange
+        when(stripeCustomerService.resolveCustomerId(paymentDTO)).thenThrow(
+                new StripeException("Stripe API error", "request_id", "code", 500) {
+                }
+        );
 
-            customerMock.when(() -> Customer.search(any(CustomerSearchParams.class)))
-                    .thenReturn(searchResult);
-            customerMock.when(() -> Customer.create(any(CustomerCreateParams.class)))
-                    .thenReturn(mockCustomer);
+        // Act & Assert
+        assertThrows(StripeException.class, () -> stripeService.paymentIntent(paymentDTO, IDEMPOTENCY_KEY));
+    }
 
-            paymentIntentMock.when(() -> PaymentIntent.create(any(PaymentIntentCreateParams.class)))
-                    .thenReturn(mockPaymentIntent);
+    @Test
+    void paymentIntent_WhenCustomerIsMissingInStripe_ShouldForgetCustomer() throws StripeException {
+        try (MockedStatic<PaymentIntent> paymentIntentMock = mockStatic(PaymentIntent.class)) {
 
-            // Act
-            PaymentIntent result = stripeService.paymentIntent(paymentDTO);
+            // Arrange
+            when(stripeCustomerService.resolveCustomerId(paymentDTO)).thenReturn("cus_deleted");
 
-            // Assert
-            assertNotNull(result);
-            assertEquals("pi_test123", result.getId());
+            paymentIntentMock.when(() -> PaymentIntent.create(
+                            any(PaymentIntentCreateParams.class), any(RequestOptions.class)
+                    ))
+                    .thenThrow(new InvalidRequestException(
+                            "No such customer: 'cus_deleted'", "customer", "request_id", "resource_missing", 400, null
+                    ));
 
-            customerMock.verify(() -> Customer.search(any(CustomerSearchParams.class)), times(1));
-            customerMock.verify(() -> Customer.create(any(CustomerCreateParams.class)), times(1));
-            paymentIntentMock.verify(() -> PaymentIntent.create(any(PaymentIntentCreateParams.class)), times(1));
+            // Act & Assert
+            assertThrows(InvalidRequestException.class, () -> stripeService.paymentIntent(paymentDTO, IDEMPOTENCY_KEY));
+            verify(stripeCustomerService).forget("john.doe@example.com", "cus_deleted");
         }
     }
 
     @Test
-    void paymentIntent_WhenStripeThrowsException_ShouldPropagateException() {
-        try (MockedStatic<Customer> customerMock = mockStatic(Customer.class)) {
+    void paymentIntent_AfterCustomerIsReplaced_ShouldRetryWithNewIdempotencyKey() throws StripeException {
+        try (MockedStatic<PaymentIntent> paymentIntentMock = mockStatic(PaymentIntent.class)) {
 
             // Arrange
-            customerMock.when(() -> Customer.search(any(CustomerSearchParams.class)))
-                    .thenThrow(
-                            new StripeException("Stripe API error", "request_id", "code", 500) {
-                            }
-                    );
+            when(stripeCustomerService.resolveCustomerId(paymentDTO)).thenReturn("cus_deleted", "cus_new");
+
+            paymentIntentMock.when(() -> PaymentIntent.create(
+                            any(PaymentIntentCreateParams.class), any(RequestOptions.class)
+                    ))
+                    .thenThrow(new InvalidRequestException(
+                            "No such customer: 'cus_deleted'", "customer", "request_id", "resource_missing", 400, null
+                    ))
+                    .thenReturn(mockPaymentIntent);
 
-            // Act & Assert
-            assertThrows(StripeException.class, () -> stripeService.paymentIntent(paymentDTO));
+            // Act
+            assertThrows(InvalidRequestException.class, () -> stripeService.paymentIntent(paymentDTO, IDEMPOTENCY_KEY));
+            stripeService.paymentIntent(paymentDTO, IDEMPOTENCY_KEY);
+
+            // Assert
+            verify(stripeGateway).execute(any(), eq(IDEMPOTENCY_KEY + "-cus_deleted"), any());
+            verify(stripeGateway).execute(any(), eq(IDEMPOTENCY_KEY + "-cus_new"), any());
         }
     }
 
     @Test
     void paymentIntent_ShouldSetCorrectPaymentIntentParameters() throws StripeException {
-        try (MockedStatic<Customer> customerMock = mockStatic(Customer.class);
-             MockedStatic<PaymentIntent> paymentIntentMock = mockStatic(PaymentIntent.class)) {
+        try (MockedStatic<PaymentIntent> paymentIntentMock = mockStatic(PaymentIntent.class)) {
 
             // Arrange
-            CustomerSearchResult searchResult = mock(CustomerSearchResult.class);
-            when(searchResult.getData()).thenReturn(List.of(mockCustomer));
-
-            customerMock.when(() -> Customer.search(any(CustomerSearchParams.class)))
-                    .thenReturn(searchResult);
+            when(stripeCustomerService.resolveCustomerId(paymentDTO)).thenReturn("cus_test123");
 
             // Act & Assert
-            paymentIntentMock.when(() -> PaymentIntent.create(any(PaymentIntentCreateParams.class)))
+            paymentIntentMock.when(() -> PaymentIntent.create(
+                            any(PaymentIntentCreateParams.class), any(RequestOptions.class)
+                    ))
                     .thenAnswer(invocation -> {
                         PaymentIntentCreateParams params = invocation.getArgument(0);
                         assertEquals(10000L, params.getAmount());
@@ -168,38 +186,16 @@ public class StripeServiceTest {
                         assertNotNull(params.getAutomaticPaymentMethods());
                         assertTrue(params.getAutomaticPaymentMethods().getEnabled());
                         assertEquals(2, params.getMetadata().size());
+                        RequestOptions options = invocation.getArgument(1);
+                        assertEquals(IDEMPOTENCY_KEY + "-cus_test123", options.getIdempotencyKey());
                         return mockPaymentIntent;
                     });
 
-            stripeService.paymentIntent(paymentDTO);
-
-            paymentIntentMock.verify(() -> PaymentIntent.create(any(PaymentIntentCreateParams.class)), times(1));
-        }
-    }
-
-    @Test
-    void paymentIntent_ShouldSearchCustomerByEmail() throws StripeException {
-        try (MockedStatic<Customer> customerMock = mockStatic(Customer.class);
-             MockedStatic<PaymentIntent> paymentIntentMock = mockStatic(PaymentIntent.class)) {
-
-            // Arrange
-            CustomerSearchResult searchResult = mock(CustomerSearchResult.class);
-            when(searchResult.getData()).thenReturn(List.of(mockCustomer));
-
-            // Act & Assert
-            customerMock.when(() -> Customer.search(any(CustomerSearchParams.class)))
-                    .thenAnswer(invocation -> {
-                        CustomerSearchParams params = invocation.getArgument(0);
-                        assertTrue(params.getQuery().contains("john.doe@example.com"));
-                        return searchResult;
-                    });
-
-            paymentIntentMock.when(() -> PaymentIntent.create(any(PaymentIntentCreateParams.class)))
-                    .thenReturn(mockPaymentIntent);
-
-            stripeService.paymentIntent(paymentDTO);
+            stripeService.paymentIntent(paymentDTO, IDEMPOTENCY_KEY);
 
-            customerMock.verify(() -> Customer.search(any(CustomerSearchParams.class)), times(1));
+            paymentIntentMock.verify(() -> PaymentIntent.create(
+                    any(PaymentIntentCreateParams.class), any(RequestOptions.class)
+            ), times(1));
         }
     }
 }
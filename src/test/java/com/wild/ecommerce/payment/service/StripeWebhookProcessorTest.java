@@ -0,0 +1,207 @@
+package com.wild.ecommerce.payment.service;
+
+import com.wild.ecommerce.common.exception.ResourceNotFoundException;
+import com.wild.ecommerce.inventory.service.InventoryService;
+import com.wild.ecommerce.order.model.Order;
+import com.wild.ecommerce.order.model.Status;
+import com.wild.ecommerce.order.repository.OrderRepository;
+import com.wild.ecommerce.order.service.OrderSummaryService;
+import com.wild.ecommerce.shipment.service.ShipmentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class StripeWebhookProcessorTest {
+
+    private static final UUID ORDER_ID = UUID.randomUUID();
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private ShipmentService shippingService;
+
+    @Mock
+    private InventoryService inventoryService;
+
+    @Mock
+    private OrderSummaryService orderSummaryService;
+
+    @InjectMocks
+    private StripeWebhookProcessor stripeWebhookProcessor;
+
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        order = new Order();
+        order.setId(ORDER_ID);
+        order.setStatus(Status.PENDING);
+    }
+
+    @Test
+    void apply_WhenPaymentIntentSucceeded_ShouldConfirmAndShipOrder() {
+        // Arrange
+        when(orderRepository.findByIdForUpdate(ORDER_ID)).thenReturn(Optional.of(order));
+
+        // Act
+        boolean applied = stripeWebhookProcessor.apply(StripeWebhookProcessor.PAYMENT_INTENT_SUCCEEDED, ORDER_ID);
+
+        // Assert
+        assertTrue(applied);
+        assertEquals(Status.CONFIRMED, order.getStatus());
+
+        InOrder inOrder = inOrder(inventoryService, orderRepository, orderSummaryService, shippingService);
+        inOrder.verify(inventoryService).commit(ORDER_ID);
+        inOrder.verify(orderRepository).save(order);
+        inOrder.verify(orderSummaryService).updateStatus(order);
+        inOrder.verify(shippingService).initiateShipping(ORDER_ID);
+    }
+
+    @Test
+    void apply_WhenPaidStockIsGone_ShouldFlagOrderForRefundInsteadOfShipping() {
+        // Arrange
+        when(orderRepository.findByIdForUpdate(ORDER_ID)).thenReturn(Optional.of(order));
+        when(inventoryService.commit(ORDER_ID)).thenReturn(List.of(UUID.randomUUID()));
+
+        // Act
+        boolean applied = stripeWebhookProcessor.apply(StripeWebhookProcessor.PAYMENT_INTENT_SUCCEEDED, ORDER_ID);
+
+        // Assert
+        assertTrue(applied);
+        assertEquals(Status.NEEDS_REFUND, order.getStatus());
+        verify(orderSummaryService).updateStatus(order);
+        verifyNoInteractions(shippingService);
+    }
+
+    @Test
+    void apply_WhenOrderNeedsRefund_ShouldIgnoreRepeatedSuccess() {
+        // Arrange
+        order.setStatus(Status.NEEDS_REFUND);
+        when(orderRepository.findByIdForUpdate(ORDER_ID)).thenReturn(Optional.of(order));
+
+        // Act
+        boolean applied = stripeWebhookProcessor.apply(StripeWebhookProcessor.PAYMENT_INTENT_SUCCEEDED, ORDER_ID);
+
+        // Assert
+        assertFalse(applied);
+        verifyNoInteractions(inventoryService, shippingService);
+    }
+
+    @Test
+    void apply_WhenPaymentIntentFailed_ShouldReleaseStockAndFailOrder() {
+        // Arrange
+        when(orderRepository.findByIdForUpdate(ORDER_ID)).thenReturn(Optional.of(order));
+
+        // Act
+        stripeWebhookProcessor.apply(StripeWebhookProcessor.PAYMENT_INTENT_FAILED, ORDER_ID);
+
+        // Assert
+        assertEquals(Status.FAILED, order.getStatus());
+        verify(inventoryService).release(ORDER_ID);
+        verify(orderRepository).save(order);
+        verifyNoInteractions(shippingService);
+    }
+
+    @Test
+    void apply_WhenPaymentIntentCanceled_ShouldReleaseStockAndCancelOrder() {
+        // Arrange
+        when(orderRepository.findByIdForUpdate(ORDER_ID)).thenReturn(Optional.of(order));
+
+        // Act
+        stripeWebhookProcessor.apply(StripeWebhookProcessor.PAYMENT_INTENT_CANCELED, ORDER_ID);
+
+        // Assert
+        assertEquals(Status.CANCELLED, order.getStatus());
+        verify(inventoryService).release(ORDER_ID);
+        verify(orderSummaryService).updateStatus(order);
+    }
+
+    @Test
+    void apply_WhenOrderAlreadySettled_ShouldLeaveItAlone() {
+        // Arrange
+        order.setStatus(Status.CONFIRMED);
+        when(orderRepository.findByIdForUpdate(ORDER_ID)).thenReturn(Optional.of(order));
+
+        // Act
+        boolean applied = stripeWebhookProcessor.apply(StripeWebhookProcessor.PAYMENT_INTENT_SUCCEEDED, ORDER_ID);
+
+        // Assert
+        assertFalse(applied);
+        assertEquals(Status.CONFIRMED, order.getStatus());
+        verify(orderRepository, never()).save(any());
+        verifyNoInteractions(inventoryService, shippingService, orderSummaryService);
+    }
+
+    @Test
+    void apply_WhenPaymentSucceedsAfterDecline_ShouldConfirmFailedOrder() {
+        // Arrange
+        when(orderRepository.findByIdForUpdate(ORDER_ID)).thenReturn(Optional.of(order));
+
+        // Act
+        stripeWebhookProcessor.apply(StripeWebhookProcessor.PAYMENT_INTENT_FAILED, ORDER_ID);
+        boolean applied = stripeWebhookProcessor.apply(StripeWebhookProcessor.PAYMENT_INTENT_SUCCEEDED, ORDER_ID);
+
+        // Assert
+        assertTrue(applied);
+        assertEquals(Status.CONFIRMED, order.getStatus());
+
+        InOrder inOrder = inOrder(inventoryService, shippingService);
+        inOrder.verify(inventoryService).release(ORDER_ID);
+        inOrder.verify(inventoryService).commit(ORDER_ID);
+        inOrder.verify(shippingService).initiateShipping(ORDER_ID);
+    }
+
+    @Test
+    void apply_WhenStockSoldOutBetweenDeclineAndSuccess_ShouldFlagOrderForRefund() {
+        // Arrange
+        UUID soldOutProduct = UUID.randomUUID();
+        when(orderRepository.findByIdForUpdate(ORDER_ID)).thenReturn(Optional.of(order));
+        when(inventoryService.commit(ORDER_ID)).thenReturn(List.of(soldOutProduct));
+
+        // Act
+        stripeWebhookProcessor.apply(StripeWebhookProcessor.PAYMENT_INTENT_FAILED, ORDER_ID);
+        boolean applied = stripeWebhookProcessor.apply(StripeWebhookProcessor.PAYMENT_INTENT_SUCCEEDED, ORDER_ID);
+
+        // Assert
+        assertTrue(applied);
+        assertEquals(Status.NEEDS_REFUND, order.getStatus());
+
+        InOrder inOrder = inOrder(inventoryService, orderSummaryService);
+        inOrder.verify(inventoryService).release(ORDER_ID);
+        inOrder.verify(inventoryService).commit(ORDER_ID);
+        inOrder.verify(orderSummaryService).updateStatus(order);
+        verifyNoInteractions(shippingService);
+    }
+
+    @Test
+    void apply_WhenOrderDoesNotExist_ShouldThrowException() {
+        // Arrange
+        when(orderRepository.findByIdForUpdate(ORDER_ID)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () ->
+                stripeWebhookProcessor.apply(StripeWebhookProcessor.PAYMENT_INTENT_FAILED, ORDER_ID)
+        );
+    }
+}
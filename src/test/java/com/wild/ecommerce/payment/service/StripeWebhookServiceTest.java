@@ -0,0 +1,285 @@
+package com.wild.ecommerce.payment.service;
+
+import com.stripe.model.Event;
+import com.stripe.model.EventDataObjectDeserializer;
+import com.stripe.model.PaymentIntent;
+import com.wild.ecommerce.payment.model.StripeWebhookEvent;
+import com.wild.ecommerce.payment.model.WebhookEventStatus;
+import com.wild.ecommerce.payment.repository.StripeWebhookEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class StripeWebhookServiceTest {
+
+    private static final String PAYLOAD = "{\"id\":\"evt_123\"}";
+    private static final UUID ORDER_ID = UUID.randomUUID();
+
+    @Mock
+    private StripeWebhookEventRepository stripeWebhookEventRepository;
+
+    @Mock
+    private StripeWebhookProcessor stripeWebhookProcessor;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private StripeWebhookServiceImpl stripeWebhookService;
+
+    private StripeWebhookEvent webhookEvent;
+
+    @BeforeEach
+    void setUp() {
+        stripeWebhookService = new StripeWebhookServiceImpl(
+                stripeWebhookEventRepository,
+                stripeWebhookProcessor,
+                transactionTemplate,
+                new SimpleMeterRegistry(),
+                1000,
+                Duration.ofHours(1)
+        );
+        ReflectionTestUtils.setField(stripeWebhookService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(stripeWebhookService, "lease", Duration.ofSeconds(60));
+        ReflectionTestUtils.setField(stripeWebhookService, "retryBackoff", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(stripeWebhookService, "maxBackoff", Duration.ofHours(1));
+
+        webhookEvent = new StripeWebhookEvent();
+        webhookEvent.setId(UUID.randomUUID());
+        webhookEvent.setEventId("evt_123");
+        webhookEvent.setType(StripeWebhookProcessor.PAYMENT_INTENT_SUCCEEDED);
+        webhookEvent.setOrderId(ORDER_ID);
+        webhookEvent.setPayload(PAYLOAD);
+        webhookEvent.setStatus(WebhookEventStatus.PENDING);
+        webhookEvent.setAttempts(0);
+
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null)
+        );
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        lenient().when(stripeWebhookEventRepository.findById(webhookEvent.getId()))
+                .thenReturn(Optional.of(webhookEvent));
+    }
+
+    @Test
+    void receive_WhenEventIsNew_ShouldStoreIt() {
+        // Arrange
+        Event event = createMockEvent("evt_123", StripeWebhookProcessor.PAYMENT_INTENT_SUCCEEDED, ORDER_ID);
+        when(stripeWebhookEventRepository.saveAndFlush(any(StripeWebhookEvent.class))).thenReturn(webhookEvent);
+
+        // Act
+        Optional<UUID> stored = stripeWebhookService.receive(event, PAYLOAD);
+
+        // Assert
+        assertEquals(Optional.of(webhookEvent.getId()), stored);
+
+        ArgumentCaptor<StripeWebhookEvent> captor = ArgumentCaptor.forClass(StripeWebhookEvent.class);
+        verify(stripeWebhookEventRepository).saveAndFlush(captor.capture());
+        assertEquals("evt_123", captor.getValue().getEventId());
+        assertEquals(ORDER_ID, captor.getValue().getOrderId());
+        assertEquals(PAYLOAD, captor.getValue().getPayload());
+        assertEquals(WebhookEventStatus.PENDING, captor.getValue().getStatus());
+    }
+
+    @Test
+    void receive_WhenEventWasSeenRecently_ShouldRejectWithoutTouchingDatabase() {
+        // Arrange
+        Event event = createMockEvent("evt_123", StripeWebhookProcessor.PAYMENT_INTENT_SUCCEEDED, ORDER_ID);
+        when(stripeWebhookEventRepository.saveAndFlush(any(StripeWebhookEvent.class))).thenReturn(webhookEvent);
+        stripeWebhookService.receive(event, PAYLOAD);
+
+        // Act
+        Optional<UUID> stored = stripeWebhookService.receive(event, PAYLOAD);
+
+        // Assert
+        assertTrue(stored.isEmpty());
+        verify(stripeWebhookEventRepository, times(1)).saveAndFlush(any(StripeWebhookEvent.class));
+    }
+
+    @Test
+    void receive_WhenEventIdAlreadyStored_ShouldRejectIt() {
+        // Arrange
+        Event event = createMockEvent("evt_123", StripeWebhookProcessor.PAYMENT_INTENT_SUCCEEDED, ORDER_ID);
+        when(stripeWebhookEventRepository.saveAndFlush(any(StripeWebhookEvent.class)))
+                .thenThrow(new DataIntegrityViolationException("Duplicate entry 'evt_123'"));
+
+        // Act
+        Optional<UUID> first = stripeWebhookService.receive(event, PAYLOAD);
+        Optional<UUID> second = stripeWebhookService.receive(event, PAYLOAD);
+
+        // Assert
+        assertTrue(first.isEmpty());
+        assertTrue(second.isEmpty());
+        verify(stripeWebhookEventRepository, times(1)).saveAndFlush(any(StripeWebhookEvent.class));
+    }
+
+    @Test
+    void receive_WhenEventTypeIsNotHandled_ShouldIgnoreIt() {
+        // Arrange
+        Event event = mock(Event.class);
+        when(event.getType()).thenReturn("customer.created");
+
+        // Act
+        Optional<UUID> stored = stripeWebhookService.receive(event, PAYLOAD);
+
+        // Assert
+        assertTrue(stored.isEmpty());
+        verifyNoInteractions(stripeWebhookEventRepository);
+    }
+
+    @Test
+    void receive_WhenOrderIdIsMissing_ShouldIgnoreIt() {
+        // Arrange
+        Event event = createMockEvent("evt_123", StripeWebhookProcessor.PAYMENT_INTENT_SUCCEEDED, null);
+
+        // Act
+        Optional<UUID> stored = stripeWebhookService.receive(event, PAYLOAD);
+
+        // Assert
+        assertTrue(stored.isEmpty());
+        verifyNoInteractions(stripeWebhookEventRepository);
+    }
+
+    @Test
+    void process_WhenClaimed_ShouldApplyEventAndContinueWithOrdersNextEvent() {
+        // Arrange
+        StripeWebhookEvent nextEvent = new StripeWebhookEvent();
+        nextEvent.setId(UUID.randomUUID());
+        nextEvent.setEventId("evt_456");
+        nextEvent.setType(StripeWebhookProcessor.PAYMENT_INTENT_CANCELED);
+        nextEvent.setOrderId(ORDER_ID);
+        nextEvent.setStatus(WebhookEventStatus.PENDING);
+
+        when(stripeWebhookEventRepository.findById(nextEvent.getId())).thenReturn(Optional.of(nextEvent));
+        when(stripeWebhookEventRepository.claim(any(), any(), any())).thenReturn(1);
+        when(stripeWebhookEventRepository.findDueIdsByOrderId(eq(ORDER_ID), any(), any()))
+                .thenReturn(List.of(nextEvent.getId()))
+                .thenReturn(List.of());
+
+        // Act
+        stripeWebhookService.process(webhookEvent.getId());
+
+        // Assert
+        verify(stripeWebhookProcessor).apply(StripeWebhookProcessor.PAYMENT_INTENT_SUCCEEDED, ORDER_ID);
+        verify(stripeWebhookProcessor).apply(StripeWebhookProcessor.PAYMENT_INTENT_CANCELED, ORDER_ID);
+        assertEquals(WebhookEventStatus.PROCESSED, webhookEvent.getStatus());
+        assertEquals(WebhookEventStatus.PROCESSED, nextEvent.getStatus());
+    }
+
+    @Test
+    void process_WhenEarlierEventForOrderIsPending_ShouldWait() {
+        // Arrange
+        when(stripeWebhookEventRepository.existsEarlierPending(ORDER_ID, webhookEvent.getId())).thenReturn(true);
+
+        // Act
+        stripeWebhookService.process(webhookEvent.getId());
+
+        // Assert
+        verify(stripeWebhookEventRepository, never()).claim(any(), any(), any());
+        verifyNoInteractions(stripeWebhookProcessor);
+        assertEquals(WebhookEventStatus.PENDING, webhookEvent.getStatus());
+    }
+
+    @Test
+    void process_WhenAlreadyProcessed_ShouldDoNothing() {
+        // Arrange
+        webhookEvent.setStatus(WebhookEventStatus.PROCESSED);
+
+        // Act
+        stripeWebhookService.process(webhookEvent.getId());
+
+        // Assert
+        verify(stripeWebhookEventRepository, never()).claim(any(), any(), any());
+        verifyNoInteractions(stripeWebhookProcessor);
+    }
+
+    @Test
+    void process_WhenProcessingFails_ShouldScheduleRetryWithBackoff() {
+        // Arrange
+        webhookEvent.setAttempts(1);
+        when(stripeWebhookEventRepository.claim(any(), any(), any())).thenReturn(1);
+        doThrow(new IllegalStateException("Lock wait timeout exceeded"))
+                .when(stripeWebhookProcessor).apply(StripeWebhookProcessor.PAYMENT_INTENT_SUCCEEDED, ORDER_ID);
+
+        LocalDateTime before = LocalDateTime.now();
+
+        // Act
+        stripeWebhookService.process(webhookEvent.getId());
+
+        // Assert: second attempt, so twice the base backoff
+        assertEquals(WebhookEventStatus.PENDING, webhookEvent.getStatus());
+        assertEquals("Lock wait timeout exceeded", webhookEvent.getLastError());
+        assertFalse(webhookEvent.getNextAttemptAt().isBefore(before.plusSeconds(10)));
+        verify(stripeWebhookEventRepository, never()).findDueIdsByOrderId(any(), any(), any());
+    }
+
+    @Test
+    void process_WhenAttemptsAreExhausted_ShouldMarkEventFailed() {
+        // Arrange
+        webhookEvent.setAttempts(2);
+        when(stripeWebhookEventRepository.claim(any(), any(), any())).thenReturn(1);
+        doThrow(new IllegalStateException("Order not found"))
+                .when(stripeWebhookProcessor).apply(StripeWebhookProcessor.PAYMENT_INTENT_SUCCEEDED, ORDER_ID);
+
+        // Act
+        stripeWebhookService.process(webhookEvent.getId());
+
+        // Assert
+        assertEquals(WebhookEventStatus.FAILED, webhookEvent.getStatus());
+        assertEquals("Order not found", webhookEvent.getLastError());
+    }
+
+    private Event createMockEvent(String eventId, String eventType, UUID orderId) {
+        Event event = mock(Event.class);
+        EventDataObjectDeserializer deserializer = mock(EventDataObjectDeserializer.class);
+        PaymentIntent paymentIntent = mock(PaymentIntent.class);
+
+        Map<String, String> metadata = new HashMap<>();
+        if (orderId != null) {
+            metadata.put("orderId", orderId.toString());
+        }
+
+        lenient().when(event.getId()).thenReturn(eventId);
+        when(event.getType()).thenReturn(eventType);
+        when(event.getDataObjectDeserializer()).thenReturn(deserializer);
+        when(deserializer.getObject()).thenReturn(Optional.of(paymentIntent));
+        when(paymentIntent.getMetadata()).thenReturn(metadata);
+
+        return event;
+    }
+}
@@ -1,12 +1,22 @@
 package com.wild.ecommerce.product.controller;
 
 import com.wild.ecommerce.auth.service.JwtService;
+import com.wild.ecommerce.common.dto.CursorPageResponse;
 import com.wild.ecommerce.common.dto.PageResponse;
+import com.wild.ecommerce.common.exception.PreconditionFailedException;
 import com.wild.ecommerce.common.exception.ResourceNotFoundException;
 import com.wild.ecommerce.product.dto.CreateProductRequest;
+import com.wild.ecommerce.common.model.DataFormat;
 import com.wild.ecommerce.product.dto.ProductDTO;
+import com.wild.ecommerce.product.dto.ProductImportError;
+import com.wild.ecommerce.product.dto.ProductImportResponse;
+import com.wild.ecommerce.product.dto.ProductSummaryDTO;
+import com.wild.ecommerce.product.dto.StockBucketsDTO;
 import com.wild.ecommerce.product.dto.UpdateProductRequest;
+import com.wild.ecommerce.product.service.ProductExportService;
+import com.wild.ecommerce.product.service.ProductImportService;
 import com.wild.ecommerce.product.service.ProductService;
+import com.wild.ecommerce.product.service.ProductStockService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,29 +26,41 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.UUID;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(ProductController.class)
@@ -51,6 +73,15 @@ public class ProductControllerTest {
     @MockitoBean
     private ProductService productService;
 
+    @MockitoBean
+    private ProductImportService productImportService;
+
+    @MockitoBean
+    private ProductExportService productExportService;
+
+    @MockitoBean
+    private ProductStockService productStockService;
+
     @MockitoBean
     private JwtService jwtService;
 
@@ -60,6 +91,7 @@ public class ProductControllerTest {
     private UUID productId;
     private UUID categoryId;
     private ProductDTO productDTO;
+    private ProductSummaryDTO productSummaryDTO;
     private MockMultipartFile imageFile;
 
     @BeforeEach
@@ -75,7 +107,19 @@ public class ProductControllerTest {
                 BigDecimal.valueOf(99.99),
                 10,
                 "https://example.com/image.jpg",
-                "Test Category"
+                "Test Category",
+                0L
+        );
+
+        productSummaryDTO = new ProductSummaryDTO(
+                productId,
+                "Test Product",
+                "Test Brand",
+                BigDecimal.valueOf(99.99),
+                10,
+                "https://example.com/image.jpg",
+                "Test Category",
+                0L
         );
 
         byte[] imageContent = new byte[51 * 1024];
@@ -172,11 +216,31 @@ public class ProductControllerTest {
         verify(productService, never()).createProduct(any(CreateProductRequest.class));
     }
 
+    @Test
+    void scrollProducts_WithCursor_ShouldReturnNextCursor() throws Exception {
+        // Arrange
+        CursorPageResponse<ProductDTO> response = new CursorPageResponse<>(List.of(productDTO), 1, true, "next");
+
+        when(productService.scrollProducts(
+                eq(10), eq(Sort.by(Sort.Direction.DESC, "price")), eq("abc"), eq(null), eq(null), eq(null)
+        )).thenReturn(response);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/products/scroll")
+                        .param("cursor", "abc")
+                        .param("sortBy", "price")
+                        .param("sortOrder", "DESC"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(productId.toString()))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
     @Test
     void getAllProducts_WithDefaultParameters_ShouldReturnPagedProducts() throws Exception {
         // Arrange
-        PageImpl<ProductDTO> page = new PageImpl<>(List.of(productDTO));
-        PageResponse<ProductDTO> pageResponse = new PageResponse<>(page);
+        PageImpl<ProductSummaryDTO> page = new PageImpl<>(List.of(productSummaryDTO));
+        PageResponse<ProductSummaryDTO> pageResponse = new PageResponse<>(page);
 
         when(productService.getAllProducts(any(), eq(null), eq(null), eq(null)))
                 .thenReturn(pageResponse);
@@ -200,8 +264,8 @@ public class ProductControllerTest {
     @Test
     void getAllProducts_WithCustomPagination_ShouldReturnPagedProducts() throws Exception {
         // Arrange
-        PageImpl<ProductDTO> page = new PageImpl<>(List.of(productDTO));
-        PageResponse<ProductDTO> pageResponse = new PageResponse<>(page);
+        PageImpl<ProductSummaryDTO> page = new PageImpl<>(List.of(productSummaryDTO));
+        PageResponse<ProductSummaryDTO> pageResponse = new PageResponse<>(page);
 
         when(productService.getAllProducts(any(), eq(null), eq(null), eq(null)))
                 .thenReturn(pageResponse);
@@ -224,8 +288,8 @@ public class ProductControllerTest {
     @Test
     void getAllProducts_WithFilters_ShouldApplyFilters() throws Exception {
         // Arrange
-        PageImpl<ProductDTO> page = new PageImpl<>(List.of(productDTO));
-        PageResponse<ProductDTO> pageResponse = new PageResponse<>(page);
+        PageImpl<ProductSummaryDTO> page = new PageImpl<>(List.of(productSummaryDTO));
+        PageResponse<ProductSummaryDTO> pageResponse = new PageResponse<>(page);
 
         when(productService.getAllProducts(any(), eq("Test"), eq("Brand"), eq(categoryId)))
                 .thenReturn(pageResponse);
@@ -247,8 +311,8 @@ public class ProductControllerTest {
     @Test
     void getAllProducts_WithInvalidSortOrder_ShouldDefaultToASC() throws Exception {
         // Arrange
-        PageImpl<ProductDTO> page = new PageImpl<>(List.of(productDTO));
-        PageResponse<ProductDTO> pageResponse = new PageResponse<>(page);
+        PageImpl<ProductSummaryDTO> page = new PageImpl<>(List.of(productSummaryDTO));
+        PageResponse<ProductSummaryDTO> pageResponse = new PageResponse<>(page);
 
         when(productService.getAllProducts(any(), eq(null), eq(null), eq(null)))
                 .thenReturn(pageResponse);
@@ -268,19 +332,19 @@ public class ProductControllerTest {
     void getAllProducts_WithMultipleProducts_ShouldReturnAll() throws Exception {
         // Arrange
         UUID product2Id = UUID.randomUUID();
-        ProductDTO product2 = new ProductDTO(
+        ProductSummaryDTO product2 = new ProductSummaryDTO(
                 product2Id,
                 "Product 2",
                 "Brand 2",
-                "Description 2",
                 BigDecimal.valueOf(199.99),
                 20,
                 "https://example.com/image2.jpg",
-                "Test Category 2"
+                "Test Category 2",
+                0L
         );
 
-        PageImpl<ProductDTO> page = new PageImpl<>(List.of(productDTO, product2));
-        PageResponse<ProductDTO> pageResponse = new PageResponse<>(page);
+        PageImpl<ProductSummaryDTO> page = new PageImpl<>(List.of(productSummaryDTO, product2));
+        PageResponse<ProductSummaryDTO> pageResponse = new PageResponse<>(page);
 
         // Act & Assert
         when(productService.getAllProducts(any(), eq(null), eq(null), eq(null)))
@@ -297,8 +361,8 @@ public class ProductControllerTest {
     @Test
     void getAllProducts_WithEmptyResult_ShouldReturnEmptyPage() throws Exception {
         // Arrange
-        Page<ProductDTO> emptyPage = new PageImpl<>(List.of(), PageRequest.of(0, 10), 0);
-        PageResponse<ProductDTO> pageResponse = new PageResponse<>(emptyPage);
+        Page<ProductSummaryDTO> emptyPage = new PageImpl<>(List.of(), PageRequest.of(0, 10), 0);
+        PageResponse<ProductSummaryDTO> pageResponse = new PageResponse<>(emptyPage);
 
         when(productService.getAllProducts(any(), eq(null), eq(null), eq(null)))
                 .thenReturn(pageResponse);
@@ -331,6 +395,111 @@ public class ProductControllerTest {
         verify(productService).getProductById(productId);
     }
 
+    @Test
+    void getProductById_ShouldReturnETagAndCacheHeaders() throws Exception {
+        // Arrange
+        when(productService.getProductById(productId)).thenReturn(productDTO);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/products/" + productId))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=60, public, s-maxage=300"))
+                .andExpect(header().string("Surrogate-Key", "product:" + productId));
+    }
+
+    @Test
+    void getProductById_WithMatchingIfNoneMatch_ShouldReturnNotModified() throws Exception {
+        // Arrange
+        when(productService.getProductById(productId)).thenReturn(productDTO);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/products/" + productId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getAllProducts_WithCurrentGeneration_ShouldReturnNotModifiedWithoutLoadingPage() throws Exception {
+        // Arrange
+        when(productService.getProductsVersion(categoryId)).thenReturn("g7");
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/products")
+                        .param("categoryId", categoryId.toString())
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"g7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("Surrogate-Key", "category:" + categoryId));
+
+        verify(productService, never()).getAllProducts(any(), any(), any(), any());
+    }
+
+    @Test
+    void importProducts_WithCsv_ShouldReturnImportSummary() throws Exception {
+        // Arrange
+        var response = new ProductImportResponse(2, 1, 0, 1, List.of(new ProductImportError(3, "Unknown category 'x'")));
+        when(productImportService.importProducts(any(), eq(DataFormat.CSV))).thenReturn(response);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/products/import")
+                        .contentType("text/csv")
+                        .content("name,brand,price,stock,category\nShoe,Nike,10,1,Shoes\nBoot,Nike,10,1,x\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(3));
+    }
+
+    @Test
+    void exportProducts_AsCsv_ShouldStreamAttachment() throws Exception {
+        // Arrange
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            out.write("id,name\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(productExportService).exportProducts(eq(DataFormat.CSV), any(OutputStream.class));
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/v1/products/export").param("format", "CSV"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"products.csv\""))
+                .andExpect(content().string("id,name\n"));
+    }
+
+    @Test
+    void getProductsByIds_WithIds_ShouldReturnProducts() throws Exception {
+        // Arrange
+        when(productService.getProductsByIds(List.of(productId))).thenReturn(List.of(productDTO));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/products").param("ids", productId.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(productId.toString()));
+
+        verify(productService).getProductsByIds(List.of(productId));
+    }
+
+    @Test
+    void getProductsByIds_WithTooManyIds_ShouldReturnBadRequest() throws Exception {
+        // Arrange
+        String[] ids = new String[101];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = UUID.randomUUID().toString();
+        }
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/products").param("ids", ids))
+                .andExpect(status().isBadRequest());
+
+        verify(productService, never()).getProductsByIds(any());
+    }
+
     @Test
     void getProductById_WithInvalidId_ShouldReturnNotFound() throws Exception {
         // Arrange
@@ -356,10 +525,11 @@ public class ProductControllerTest {
                 BigDecimal.valueOf(149.99),
                 20,
                 "https://example.com/new-image.jpg",
-                "Test Category"
+                "Test Category",
+                0L
         );
 
-        when(productService.updateProduct(eq(productId), any(UpdateProductRequest.class)))
+        when(productService.updateProduct(eq(productId), any(UpdateProductRequest.class), isNull()))
                 .thenReturn(updatedProduct);
 
         // Act & Assert
@@ -382,13 +552,13 @@ public class ProductControllerTest {
                 .andExpect(jsonPath("$.brand").value("Updated Brand"))
                 .andExpect(jsonPath("$.price").value(149.99));
 
-        verify(productService).updateProduct(eq(productId), any(UpdateProductRequest.class));
+        verify(productService).updateProduct(eq(productId), any(UpdateProductRequest.class), isNull());
     }
 
     @Test
     void updateProduct_WithPartialUpdate_ShouldReturnUpdatedProduct() throws Exception {
         // Arrange
-        when(productService.updateProduct(eq(productId), any(UpdateProductRequest.class)))
+        when(productService.updateProduct(eq(productId), any(UpdateProductRequest.class), isNull()))
                 .thenReturn(productDTO);
 
         // Act & Assert
@@ -406,14 +576,67 @@ public class ProductControllerTest {
                         }))
                 .andExpect(status().isOk());
 
-        verify(productService).updateProduct(eq(productId), any(UpdateProductRequest.class));
+        verify(productService).updateProduct(eq(productId), any(UpdateProductRequest.class), isNull());
+    }
+
+    @Test
+    void updateProduct_WithIfMatch_ShouldPassExpectedVersion() throws Exception {
+        // Arrange
+        when(productService.updateProduct(eq(productId), any(UpdateProductRequest.class), eq(3L)))
+                .thenReturn(productDTO);
+
+        // Act & Assert
+        mockMvc.perform(multipart("/api/v1/products/" + productId)
+                        .file(imageFile)
+                        .param("name", "Updated Name")
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .with(request -> {
+                            request.setMethod("PATCH");
+                            return request;
+                        }))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""));
+    }
+
+    @Test
+    void updateProduct_WithStaleIfMatch_ShouldReturnPreconditionFailed() throws Exception {
+        // Arrange
+        when(productService.updateProduct(eq(productId), any(UpdateProductRequest.class), eq(2L)))
+                .thenThrow(new PreconditionFailedException("Product has been modified"));
+
+        // Act & Assert
+        mockMvc.perform(multipart("/api/v1/products/" + productId)
+                        .file(imageFile)
+                        .param("name", "Updated Name")
+                        .header(HttpHeaders.IF_MATCH, "\"2\"")
+                        .with(request -> {
+                            request.setMethod("PATCH");
+                            return request;
+                        }))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void updateProduct_WithWeakIfMatch_ShouldReturnPreconditionFailed() throws Exception {
+        // Act & Assert
+        mockMvc.perform(multipart("/api/v1/products/" + productId)
+                        .file(imageFile)
+                        .param("name", "Updated Name")
+                        .header(HttpHeaders.IF_MATCH, "W/\"2\"")
+                        .with(request -> {
+                            request.setMethod("PATCH");
+                            return request;
+                        }))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(productService, never()).updateProduct(any(), any(), any());
     }
 
     @Test
     void updateProduct_WithInvalidId_ShouldReturnNotFound() throws Exception {
         // Arrange
         UUID invalidId = UUID.randomUUID();
-        when(productService.updateProduct(eq(invalidId), any(UpdateProductRequest.class)))
+        when(productService.updateProduct(eq(invalidId), any(UpdateProductRequest.class), isNull()))
                 .thenThrow(new ResourceNotFoundException("Product with ID " + invalidId + " not found"));
 
         // Act & Assert
@@ -458,4 +681,55 @@ public class ProductControllerTest {
 
         verify(productService).deleteProduct(invalidId);
     }
+
+    @Test
+    void configureStockBuckets_ShouldSpreadStockOverRequestedBuckets() throws Exception {
+        // Arrange
+        when(productStockService.configureStockBuckets(productId, 4))
+                .thenReturn(new StockBucketsDTO(productId, 2, 2, List.of(3, 3, 2, 2)));
+
+        // Act & Assert
+        mockMvc.perform(put("/api/v1/products/{id}/stock-buckets", productId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"buckets\":4}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stock").value(2))
+                .andExpect(jsonPath("$.buckets", hasSize(4)));
+    }
+
+    @Test
+    void configureStockBuckets_WithTooManyBuckets_ShouldReturnBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(put("/api/v1/products/{id}/stock-buckets", productId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"buckets\":65}"))
+                .andExpect(status().isBadRequest());
+
+        verify(productStockService, never()).configureStockBuckets(any(), anyInt());
+    }
+
+    @Test
+    void rebalanceStockBuckets_ShouldReturnNewDistribution() throws Exception {
+        // Arrange
+        when(productStockService.rebalanceStockBuckets(productId))
+                .thenReturn(new StockBucketsDTO(productId, 0, 0, List.of(5, 5)));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/products/{id}/stock-buckets/rebalance", productId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.buckets[0]").value(5));
+    }
+
+    @Test
+    void disableStockBuckets_ShouldMoveStockBackToProduct() throws Exception {
+        // Arrange
+        when(productStockService.configureStockBuckets(productId, 0))
+                .thenReturn(new StockBucketsDTO(productId, 10, 0, List.of()));
+
+        // Act & Assert
+        mockMvc.perform(delete("/api/v1/products/{id}/stock-buckets", productId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stock").value(10))
+                .andExpect(jsonPath("$.buckets", hasSize(0)));
+    }
 }
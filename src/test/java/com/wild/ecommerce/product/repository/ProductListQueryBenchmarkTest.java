@@ -0,0 +1,194 @@
+package com.wild.ecommerce.product.repository;
+
+import com.wild.ecommerce.category.model.Category;
+import com.wild.ecommerce.category.repository.CategoryRepository;
+import com.wild.ecommerce.common.util.UuidV7;
+import com.wild.ecommerce.product.mapper.ProductMapper;
+import com.wild.ecommerce.product.specification.ProductSpecification;
+import com.wild.ecommerce.util.TestAuditorConfiguration;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares one page of the product list loaded as managed {@code Product} entities and mapped to DTOs, the way the
+ * list used to be served, with the column projection of {@code findSummaries}. Reports the bytes allocated by the
+ * calling thread and the latency per page.
+ *
+ * <p>Excluded from {@code test}; run it with {@code ./gradlew benchmark}.</p>
+ */
+@Slf4j
+@Tag("benchmark")
+@DataJpaTest
+@Testcontainers
+@Import(TestAuditorConfiguration.class)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ProductListQueryBenchmarkTest {
+
+    private static final int PRODUCTS = 50_000;
+    private static final int CATEGORIES = 10;
+    private static final int BATCH_SIZE = 1000;
+    private static final int PAGES = 50;
+    private static final int ROUNDS = 10;
+    private static final int PAGE_SIZE = 20;
+
+    @Container
+    @SuppressWarnings("resource")
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.4.0")
+            .withDatabaseName("testDB")
+            .withUsername("test")
+            .withPassword("test")
+            .withUrlParam("rewriteBatchedStatements", "true");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+        registry.add("spring.jpa.show-sql", () -> "false");
+    }
+
+    @MockitoBean
+    @SuppressWarnings("unused")
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DELETE FROM products");
+        categoryRepository.deleteAll();
+    }
+
+    @Test
+    void projectionShouldAllocateLessAndAnswerFasterThanEntities() {
+        seed();
+        ProductMapper productMapper = new ProductMapper();
+
+        Result entities = measure(pageable -> productRepository.findAll(
+                ProductSpecification.filterBy(null, null, null), pageable
+        ).map(productMapper).getContent());
+        Result projection = measure(pageable -> productRepository.findSummaries(
+                ProductSpecification.filterBy(null, null, null), pageable
+        ).getContent());
+
+        log.info("{} products, pages of {}: entities {} KB and {} ms per page, projection {} KB and {} ms per page",
+                PRODUCTS, PAGE_SIZE,
+                entities.allocatedBytes() / 1024, String.format("%.2f", entities.millis()),
+                projection.allocatedBytes() / 1024, String.format("%.2f", projection.millis()));
+
+        assertThat(projection.allocatedBytes()).isLessThan(entities.allocatedBytes());
+        assertThat(projection.millis()).isLessThan(entities.millis());
+    }
+
+    /**
+     * Returns the mean bytes allocated by this thread and the mean latency in milliseconds per page.
+     */
+    private Result measure(Function<Pageable, List<?>> loadPage) {
+        // Warm up the buffer pool, the statement cache and the JIT
+        for (int page = 0; page < PAGES; page++) {
+            loadPage.apply(pageable(page));
+        }
+
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int page = 0; page < PAGES; page++) {
+                assertThat(loadPage.apply(pageable(page))).hasSize(PAGE_SIZE);
+            }
+        }
+
+        int pages = ROUNDS * PAGES;
+
+        return new Result(
+                (threads.getCurrentThreadAllocatedBytes() - allocatedBefore) / pages,
+                (System.nanoTime() - start) / 1_000_000.0 / pages
+        );
+    }
+
+    private static Pageable pageable(int page) {
+        return PageRequest.of(page, PAGE_SIZE, Sort.by("name"));
+    }
+
+    private void seed() {
+        List<byte[]> categoryIds = new ArrayList<>();
+
+        for (int i = 0; i < CATEGORIES; i++) {
+            Category category = new Category();
+            category.setName("Category " + i);
+            categoryIds.add(toBytes(categoryRepository.save(category).getId()));
+        }
+
+        String sql = "INSERT INTO products (id, name, brand, description, price, stock, image_url, category_id, " +
+                "version, created_by, created_at, updated_by, updated_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?, ?, ?)";
+        // List cards never show the description, so a full-length one is what the entity path pays for
+        String description = "x".repeat(1000);
+
+        for (int inserted = 0; inserted < PRODUCTS; inserted += BATCH_SIZE) {
+            Timestamp now = Timestamp.from(Instant.now());
+            List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+
+            for (int i = inserted; i < Math.min(PRODUCTS, inserted + BATCH_SIZE); i++) {
+                batch.add(new Object[]{
+                        toBytes(UuidV7.randomUuid()), "Product " + i, "Brand " + (i % 50), description, "49.99", 10,
+                        "https://cdn.example.com/products/" + i + ".png", categoryIds.get(i % CATEGORIES),
+                        "benchmark", now, "benchmark", now
+                });
+            }
+
+            jdbcTemplate.batchUpdate(sql, batch);
+        }
+    }
+
+    private static byte[] toBytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    private record Result(long allocatedBytes, double millis) {
+    }
+}
@@ -1,9 +1,11 @@
 package com.wild.ecommerce.product.repository;
 
 import com.wild.ecommerce.category.model.Category;
+import com.wild.ecommerce.product.dto.ProductSummaryDTO;
 import com.wild.ecommerce.product.model.Product;
 import com.wild.ecommerce.product.specification.ProductSpecification;
 import com.wild.ecommerce.util.TestAuditorConfiguration;
+import org.hibernate.Session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,6 +13,9 @@ import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabas
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
@@ -262,6 +267,54 @@ public class ProductRepositoryTest {
         assertThat(results.getFirst().getName()).isEqualTo("Test Product");
     }
 
+    @Test
+    void shouldPageSummariesWithCategoryNameWithoutLoadingEntities() {
+        // Arrange
+        Product product2 = new Product();
+        product2.setName("Test New Product");
+        product2.setBrand("Test New Brand");
+        product2.setDescription("Test new product description");
+        product2.setPrice(new BigDecimal("1299.99"));
+        product2.setStock(5);
+        product2.setCategory(category);
+
+        productRepository.save(product);
+        productRepository.save(product2);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        Specification<Product> spec = ProductSpecification.filterBy(null, "test", category.getId());
+        Page<ProductSummaryDTO> page = productRepository.findSummaries(
+                spec, PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "price"))
+        );
+
+        // Assert
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(page.getContent()).hasSize(1);
+        assertThat(page.getContent().getFirst().name()).isEqualTo("Test New Product");
+        assertThat(page.getContent().getFirst().categoryName()).isEqualTo("Test Category");
+        assertThat(entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+
+    @Test
+    void shouldFindSummariesByIds() {
+        // Arrange
+        Product savedProduct = productRepository.save(product);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        List<ProductSummaryDTO> summaries = productRepository.findSummariesByIdIn(
+                List.of(savedProduct.getId(), UUID.randomUUID())
+        );
+
+        // Assert
+        assertThat(summaries).hasSize(1);
+        assertThat(summaries.getFirst().id()).isEqualTo(savedProduct.getId());
+        assertThat(summaries.getFirst().categoryName()).isEqualTo("Test Category");
+    }
+
     @Test
     void shouldUpdateProductWhenChangesApplied() {
         // Arrange
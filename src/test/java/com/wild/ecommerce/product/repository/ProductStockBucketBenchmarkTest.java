@@ -0,0 +1,88 @@
+package com.wild.ecommerce.product.repository;
+
+import com.wild.ecommerce.common.exception.OutOfStockException;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures checkout throughput on one hot product with its stock on the product row and spread over a growing
+ * number of buckets. Each checkout keeps its transaction open for {@link #CHECKOUT_WORK} after taking stock, like
+ * {@code placeOrder} does while it saves the order and creates the payment intent.
+ *
+ * <p>Excluded from {@code test}; run it with {@code ./gradlew benchmark}.</p>
+ */
+@Slf4j
+@Tag("benchmark")
+public class ProductStockBucketBenchmarkTest extends StockConcurrencyTestSupport {
+
+    private static final int CHECKOUTS = 1000;
+    private static final Duration CHECKOUT_WORK = Duration.ofMillis(5);
+    private static final int[] BUCKET_COUNTS = {0, 1, 4, 16, 32};
+
+    @DynamicPropertySource
+    static void configurePool(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> String.valueOf(THREADS));
+    }
+
+    @Test
+    void checkoutThroughputShouldScaleWithBucketCount() throws Exception {
+        Map<Integer, Double> throughput = new LinkedHashMap<>();
+
+        for (int buckets : BUCKET_COUNTS) {
+            throughput.put(buckets, measure(buckets));
+        }
+
+        throughput.forEach((buckets, checkoutsPerSecond) -> log.info(
+                "{} -> {} checkouts/s",
+                buckets == 0 ? "product row" : buckets + " buckets",
+                String.format("%.0f", checkoutsPerSecond)
+        ));
+
+        assertThat(throughput.get(16)).isGreaterThan(throughput.get(0) * 4);
+    }
+
+    private double measure(int buckets) throws Exception {
+        UUID productId = createProduct("Hot SKU x" + buckets, CHECKOUTS);
+
+        if (buckets > 0) {
+            productStockService.configureStockBuckets(productId, buckets);
+        }
+
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        long start = System.nanoTime();
+
+        runConcurrently(CHECKOUTS, Duration.ofSeconds(120), _ -> {
+            try {
+                transactionTemplate.executeWithoutResult(_ -> {
+                    productStockService.reserveStock(Map.of(productId, 1));
+                    LockSupport.parkNanos(CHECKOUT_WORK.toNanos());
+                });
+                sold.incrementAndGet();
+            } catch (OutOfStockException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        // Every unit is sold exactly once, whichever bucket it came from
+        assertThat(sold.get()).isEqualTo(CHECKOUTS);
+        assertThat(rejected.get()).isZero();
+        assertThat(productStockService.getStockBuckets(productId).buckets()).allMatch(stock -> stock == 0);
+
+        return sold.get() / seconds;
+    }
+}
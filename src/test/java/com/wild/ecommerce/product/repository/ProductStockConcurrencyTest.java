@@ -0,0 +1,80 @@
+package com.wild.ecommerce.product.repository;
+
+import com.wild.ecommerce.common.exception.OutOfStockException;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ProductStockConcurrencyTest extends StockConcurrencyTestSupport {
+
+    private static final int CHECKOUTS = 500;
+    private static final Duration TIMEOUT = Duration.ofSeconds(60);
+
+    @DynamicPropertySource
+    static void configurePool(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> "32");
+    }
+
+    @Test
+    void shouldNeverOversellWhenCheckoutsRaceForOneProduct() throws Exception {
+        // Arrange
+        UUID productId = createProduct("Contended SKU", 100);
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        // Act
+        runConcurrently(CHECKOUTS, TIMEOUT, _ -> checkout(Map.of(productId, 1), sold, rejected));
+
+        // Assert
+        assertThat(sold.get()).isEqualTo(100);
+        assertThat(rejected.get()).isEqualTo(CHECKOUTS - 100);
+        assertThat(productRepository.findById(productId).orElseThrow().getStock()).isZero();
+    }
+
+    @Test
+    void shouldNotDeadlockWhenCheckoutsListProductsInOppositeOrder() throws Exception {
+        // Arrange
+        UUID first = createProduct("First SKU", CHECKOUTS);
+        UUID second = createProduct("Second SKU", CHECKOUTS);
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        // Act
+        runConcurrently(CHECKOUTS, TIMEOUT, index -> {
+            Map<UUID, Integer> lines = new LinkedHashMap<>();
+
+            if (index % 2 == 0) {
+                lines.put(first, 1);
+                lines.put(second, 1);
+            } else {
+                lines.put(second, 1);
+                lines.put(first, 1);
+            }
+
+            checkout(lines, sold, rejected);
+        });
+
+        // Assert
+        assertThat(sold.get()).isEqualTo(CHECKOUTS);
+        assertThat(rejected.get()).isZero();
+        assertThat(productRepository.findById(first).orElseThrow().getStock()).isZero();
+        assertThat(productRepository.findById(second).orElseThrow().getStock()).isZero();
+    }
+
+    private void checkout(Map<UUID, Integer> lines, AtomicInteger sold, AtomicInteger rejected) {
+        try {
+            transactionTemplate.executeWithoutResult(_ -> productStockService.decrementStock(lines));
+            sold.incrementAndGet();
+        } catch (OutOfStockException e) {
+            rejected.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.wild.ecommerce.product.repository;
+
+import com.wild.ecommerce.category.model.Category;
+import com.wild.ecommerce.category.repository.CategoryRepository;
+import com.wild.ecommerce.common.cache.CacheTagService;
+import com.wild.ecommerce.product.model.Product;
+import com.wild.ecommerce.product.service.ProductStockService;
+import com.wild.ecommerce.product.service.ProductStockServiceImpl;
+import com.wild.ecommerce.util.TestAuditorConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+/**
+ * Runs checkouts against a real MySQL without the test-managed transaction, so every checkout commits or rolls
+ * back on its own connection the way concurrent requests do.
+ */
+@DataJpaTest
+@Testcontainers
+@Import({TestAuditorConfiguration.class, ProductStockServiceImpl.class})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+abstract class StockConcurrencyTestSupport {
+
+    static final int THREADS = 64;
+
+    @Container
+    @SuppressWarnings("resource")
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.4.0")
+            .withDatabaseName("testDB")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+    }
+
+    @MockitoBean
+    @SuppressWarnings("unused")
+    private CacheManager cacheManager;
+
+    @MockitoBean
+    @SuppressWarnings("unused")
+    private CacheTagService cacheTagService;
+
+    @Autowired
+    protected ProductRepository productRepository;
+
+    @Autowired
+    protected ProductStockBucketRepository productStockBucketRepository;
+
+    @Autowired
+    protected CategoryRepository categoryRepository;
+
+    @Autowired
+    protected ProductStockService productStockService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    protected TransactionTemplate transactionTemplate;
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        category = new Category();
+        category.setName("Stress Category");
+        category = categoryRepository.save(category);
+    }
+
+    @AfterEach
+    void tearDown() {
+        productStockBucketRepository.deleteAll();
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+    }
+
+    protected UUID createProduct(String name, int stock) {
+        Product product = new Product();
+        product.setName(name);
+        product.setBrand("Stress Brand");
+        product.setPrice(new BigDecimal("9.99"));
+        product.setStock(stock);
+        product.setCategory(category);
+
+        return productRepository.save(product).getId();
+    }
+
+    /**
+     * Submits {@code tasks} tasks to {@link #THREADS} threads, releases them at once and waits for all of them.
+     */
+    protected static void runConcurrently(int tasks, Duration timeout, IntConsumer task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < tasks; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.accept(index);
+                    return null;
+                }));
+            }
+
+            start.countDown();
+
+            for (Future<?> future : futures) {
+                future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
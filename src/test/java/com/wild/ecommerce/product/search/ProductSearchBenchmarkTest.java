@@ -0,0 +1,191 @@
+package com.wild.ecommerce.product.search;
+
+import com.wild.ecommerce.common.cache.CacheInvalidationPublisher;
+import com.wild.ecommerce.common.util.UuidV7;
+import com.wild.ecommerce.product.dto.ProductSummaryDTO;
+import com.wild.ecommerce.product.repository.ProductRepository;
+import com.wild.ecommerce.product.specification.ProductSpecification;
+import com.wild.ecommerce.util.TestAuditorConfiguration;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Compares the latency of a catalog name search through the {@code LIKE '%x%'} specification with the same search
+ * answered by {@link ProductSearchIndex} and hydrated by ID, the two paths of {@code getAllProducts}.
+ *
+ * <p>Excluded from {@code test}; run it with {@code ./gradlew benchmark}. The catalog size defaults to
+ * {@link #DEFAULT_ROWS} and can be raised with the {@code SEARCH_BENCHMARK_ROWS} environment variable, e.g. to
+ * {@code 1000000} for a full-size run.</p>
+ */
+@Slf4j
+@Tag("benchmark")
+@DataJpaTest
+@Testcontainers
+@Import(TestAuditorConfiguration.class)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ProductSearchBenchmarkTest {
+
+    private static final int DEFAULT_ROWS = 200_000;
+    private static final int BATCH_SIZE = 1000;
+    private static final int QUERIES = 200;
+    private static final PageRequest FIRST_PAGE = PageRequest.of(0, 20, Sort.by("name"));
+
+    private static final String[] ADJECTIVES = {
+            "Trail", "Road", "Light", "Classic", "Urban", "Alpine", "Studio", "Rapid", "Coastal", "Summit"
+    };
+    private static final String[] NOUNS = {
+            "Running Shoe", "Jacket", "Backpack", "Hoodie", "Sneaker", "Vest", "Boot", "Legging", "Cap", "Glove"
+    };
+    private static final String[] BRANDS = {"Nike", "Adidas", "Puma", "Asics", "Salomon", "Patagonia", "Arcteryx"};
+    private static final List<String> SEARCHES = List.of("running shoe", "alpine jacket", "boot", "rapid hoodie 37");
+
+    @Container
+    @SuppressWarnings("resource")
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.4.0")
+            .withDatabaseName("testDB")
+            .withUsername("test")
+            .withPassword("test")
+            .withUrlParam("rewriteBatchedStatements", "true");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+        registry.add("spring.jpa.show-sql", () -> "false");
+    }
+
+    @MockitoBean
+    @SuppressWarnings("unused")
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DELETE FROM products");
+    }
+
+    @Test
+    void indexedSearchShouldBeatLikeScan() {
+        int rows = rows();
+        seed(rows);
+
+        ProductSearchIndex index = new ProductSearchIndex(productRepository, mock(CacheInvalidationPublisher.class));
+        ReflectionTestUtils.setField(index, "enabled", true);
+        ReflectionTestUtils.setField(index, "rebuildBatchSize", 5000);
+        index.rebuild();
+
+        double like = measure(query -> productRepository.findSummaries(
+                ProductSpecification.filterBy(query, null, null), FIRST_PAGE
+        ).getContent());
+        double indexed = measure(query -> searchIndex(index, query));
+
+        log.info("{} products: LIKE scan {} ms, search index {} ms per first page",
+                rows, String.format("%.2f", like), String.format("%.2f", indexed));
+
+        assertThat(indexed).isLessThan(like);
+    }
+
+    /**
+     * Returns the mean latency in milliseconds of the first result page over all {@link #SEARCHES}.
+     */
+    private double measure(Function<String, List<ProductSummaryDTO>> search) {
+        // Warm up the buffer pool, the statement cache and the JIT
+        SEARCHES.forEach(search::apply);
+
+        long start = System.nanoTime();
+
+        for (int i = 0; i < QUERIES; i++) {
+            assertThat(search.apply(SEARCHES.get(i % SEARCHES.size()))).isNotEmpty();
+        }
+
+        return (System.nanoTime() - start) / 1_000_000.0 / QUERIES;
+    }
+
+    /**
+     * Mirrors the index path of {@code ProductServiceImpl.getAllProducts}: rank and page in memory, then hydrate
+     * the page by ID.
+     */
+    private List<ProductSummaryDTO> searchIndex(ProductSearchIndex index, String query) {
+        Comparator<ProductSearchHit> comparator = ProductSearchIndex.comparatorFor(FIRST_PAGE.getSort()).orElseThrow();
+        List<UUID> pageIds = index.search(query, null, null).orElseThrow().stream()
+                .sorted(comparator)
+                .limit(FIRST_PAGE.getPageSize())
+                .map(ProductSearchHit::id)
+                .toList();
+
+        return productRepository.findSummariesByIdIn(pageIds);
+    }
+
+    private void seed(int rows) {
+        String sql = "INSERT INTO products (id, name, brand, description, price, stock, version, " +
+                "created_by, created_at, updated_by, updated_at) VALUES (?, ?, ?, ?, ?, ?, 0, ?, ?, ?, ?)";
+        String description = "Benchmark product ".repeat(20);
+
+        for (int inserted = 0; inserted < rows; inserted += BATCH_SIZE) {
+            Timestamp now = Timestamp.from(Instant.now());
+            List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+
+            for (int i = inserted; i < Math.min(rows, inserted + BATCH_SIZE); i++) {
+                String name = ADJECTIVES[i % ADJECTIVES.length] + " " + NOUNS[(i / ADJECTIVES.length) % NOUNS.length]
+                        + " " + (i % 1000);
+                batch.add(new Object[]{
+                        toBytes(UuidV7.randomUuid()), name, BRANDS[i % BRANDS.length], description, "49.99", 10,
+                        "benchmark", now, "benchmark", now
+                });
+            }
+
+            jdbcTemplate.batchUpdate(sql, batch);
+        }
+    }
+
+    private static int rows() {
+        String rows = System.getenv("SEARCH_BENCHMARK_ROWS");
+
+        return rows != null ? Integer.parseInt(rows) : DEFAULT_ROWS;
+    }
+
+    private static byte[] toBytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+}
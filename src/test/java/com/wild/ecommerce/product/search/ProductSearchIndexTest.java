@@ -0,0 +1,222 @@
+package com.wild.ecommerce.product.search;
+
+import com.wild.ecommerce.category.model.Category;
+import com.wild.ecommerce.common.cache.CacheInvalidationPublisher;
+import com.wild.ecommerce.product.model.Product;
+import com.wild.ecommerce.product.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductSearchIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CacheInvalidationPublisher invalidationPublisher;
+
+    @InjectMocks
+    private ProductSearchIndex productSearchIndex;
+
+    private UUID categoryId;
+    private Product runningShoe;
+    private Product trailRunner;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(productSearchIndex, "enabled", true);
+        ReflectionTestUtils.setField(productSearchIndex, "rebuildBatchSize", 100);
+
+        categoryId = UUID.randomUUID();
+        Category category = new Category();
+        category.setId(categoryId);
+
+        runningShoe = product("Running Shoe", "Nike", BigDecimal.valueOf(120), category);
+        trailRunner = product("Trail Runner", "Adidas", BigDecimal.valueOf(90), null);
+    }
+
+    @Test
+    void rebuild_ShouldLoadDocumentsFromRepository() {
+        // Arrange
+        ProductSearchDocument document = new ProductSearchDocument(
+                runningShoe.getId(), "Running Shoe", "Nike", BigDecimal.valueOf(120), categoryId
+        );
+        when(productRepository.findSearchDocuments(eq(null), any(Pageable.class))).thenReturn(List.of(document));
+
+        // Act
+        productSearchIndex.rebuild();
+
+        // Assert
+        assertTrue(productSearchIndex.isReady());
+        assertEquals(1, productSearchIndex.search("shoe", null, null).orElseThrow().size());
+    }
+
+    @Test
+    void search_BeforeRebuild_ShouldReturnEmpty() {
+        // Act
+        Optional<List<ProductSearchHit>> result = productSearchIndex.search("shoe", null, null);
+
+        // Assert
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void search_WithPrefix_ShouldMatchAllProductsSharingIt() {
+        // Arrange
+        buildIndex();
+
+        // Act
+        List<ProductSearchHit> hits = productSearchIndex.search("run", null, null).orElseThrow();
+
+        // Assert
+        assertEquals(2, hits.size());
+    }
+
+    @Test
+    void search_WithTypo_ShouldMatchSimilarTerm() {
+        // Arrange
+        buildIndex();
+
+        // Act
+        List<ProductSearchHit> hits = productSearchIndex.search("runing", null, null).orElseThrow();
+
+        // Assert
+        assertEquals(1, hits.size());
+        assertEquals(runningShoe.getId(), hits.getFirst().id());
+    }
+
+    @Test
+    void search_WithNameBrandAndCategory_ShouldRequireAllToMatch() {
+        // Arrange
+        buildIndex();
+
+        // Act
+        List<ProductSearchHit> byBrand = productSearchIndex.search("run", "nike", null).orElseThrow();
+        List<ProductSearchHit> byCategory = productSearchIndex.search("run", null, categoryId).orElseThrow();
+
+        // Assert
+        assertEquals(List.of(runningShoe.getId()), byBrand.stream().map(ProductSearchHit::id).toList());
+        assertEquals(List.of(runningShoe.getId()), byCategory.stream().map(ProductSearchHit::id).toList());
+    }
+
+    @Test
+    void remove_ShouldDropProductFromResults() {
+        // Arrange
+        buildIndex();
+
+        // Act
+        productSearchIndex.remove(runningShoe.getId());
+
+        // Assert
+        assertTrue(productSearchIndex.search("running", null, null).orElseThrow().isEmpty());
+    }
+
+    @Test
+    void index_WithRenamedProduct_ShouldReplacePreviousTerms() {
+        // Arrange
+        buildIndex();
+        runningShoe.setName("Walking Boot");
+
+        // Act
+        productSearchIndex.index(runningShoe);
+
+        // Assert
+        assertTrue(productSearchIndex.search("running", null, null).orElseThrow().isEmpty());
+        assertEquals(1, productSearchIndex.search("boot", null, null).orElseThrow().size());
+        verify(invalidationPublisher).publishEvict(
+                ProductSearchIndex.INVALIDATION_NAME, runningShoe.getId().toString()
+        );
+    }
+
+    @Test
+    void onEvict_WithProductChangedOnOtherNode_ShouldReloadIt() {
+        // Arrange
+        buildIndex();
+        when(productRepository.findSearchDocument(runningShoe.getId())).thenReturn(Optional.of(
+                new ProductSearchDocument(runningShoe.getId(), "Walking Boot", "Nike", BigDecimal.valueOf(120), null)
+        ));
+
+        // Act
+        productSearchIndex.onEvict(runningShoe.getId().toString());
+
+        // Assert
+        assertTrue(productSearchIndex.search("running", null, null).orElseThrow().isEmpty());
+        assertEquals(1, productSearchIndex.search("boot", null, null).orElseThrow().size());
+    }
+
+    @Test
+    void onEvict_WithProductDeletedOnOtherNode_ShouldDropIt() {
+        // Arrange
+        buildIndex();
+        when(productRepository.findSearchDocument(trailRunner.getId())).thenReturn(Optional.empty());
+
+        // Act
+        productSearchIndex.onEvict(trailRunner.getId().toString());
+
+        // Assert
+        assertEquals(List.of(runningShoe.getId()), productSearchIndex.search("run", null, null).orElseThrow().stream()
+                .map(ProductSearchHit::id)
+                .toList());
+    }
+
+    @Test
+    void comparatorFor_WithRelevance_ShouldRankCloserPrefixMatchFirst() {
+        // Arrange
+        buildIndex();
+        Comparator<ProductSearchHit> comparator =
+                ProductSearchIndex.comparatorFor(Sort.by(ProductSearchIndex.RELEVANCE)).orElseThrow();
+
+        // Act
+        List<ProductSearchHit> hits = productSearchIndex.search("run", null, null).orElseThrow().stream()
+                .sorted(comparator)
+                .toList();
+
+        // Assert
+        assertEquals(trailRunner.getId(), hits.getFirst().id());
+    }
+
+    @Test
+    void comparatorFor_WithUnsupportedProperty_ShouldReturnEmpty() {
+        // Act & Assert
+        assertTrue(ProductSearchIndex.comparatorFor(Sort.by("stock")).isEmpty());
+    }
+
+    private void buildIndex() {
+        when(productRepository.findSearchDocuments(eq(null), any(Pageable.class))).thenReturn(List.of());
+        productSearchIndex.rebuild();
+        productSearchIndex.index(runningShoe);
+        productSearchIndex.index(trailRunner);
+    }
+
+    private static Product product(String name, String brand, BigDecimal price, Category category) {
+        Product product = new Product();
+        product.setId(UUID.randomUUID());
+        product.setName(name);
+        product.setBrand(brand);
+        product.setPrice(price);
+        product.setCategory(category);
+
+        return product;
+    }
+}
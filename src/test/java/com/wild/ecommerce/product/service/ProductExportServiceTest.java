@@ -0,0 +1,82 @@
+package com.wild.ecommerce.product.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wild.ecommerce.common.model.DataFormat;
+import com.wild.ecommerce.product.dto.ProductDTO;
+import com.wild.ecommerce.product.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductExportServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private ProductExportServiceImpl productExportService;
+
+    private ProductDTO productDTO;
+
+    @BeforeEach
+    void setUp() {
+        productExportService = new ProductExportServiceImpl(productRepository, new ObjectMapper());
+
+        productDTO = new ProductDTO(
+                UUID.fromString("00000000-0000-0000-0000-000000000001"),
+                "Running Shoe",
+                "Nike",
+                "Light, \"breathable\"",
+                new BigDecimal("119.99"),
+                10,
+                null,
+                "Shoes",
+                0L
+        );
+    }
+
+    @Test
+    void exportProducts_AsCsv_ShouldWriteHeaderAndEscapedRows() throws IOException {
+        // Arrange
+        when(productRepository.streamAllForExport()).thenReturn(Stream.of(productDTO));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        productExportService.exportProducts(DataFormat.CSV, out);
+
+        // Assert
+        assertEquals(
+                "id,name,brand,description,price,stock,imageUrl,category\n" +
+                        "00000000-0000-0000-0000-000000000001,Running Shoe,Nike,\"Light, \"\"breathable\"\"\",119.99,10,,Shoes\n",
+                out.toString(StandardCharsets.UTF_8)
+        );
+    }
+
+    @Test
+    void exportProducts_AsNdjson_ShouldWriteOneObjectPerLine() throws IOException {
+        // Arrange
+        when(productRepository.streamAllForExport()).thenReturn(Stream.of(productDTO, productDTO));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        productExportService.exportProducts(DataFormat.NDJSON, out);
+
+        // Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertEquals(3, lines.length);
+        assertEquals("", lines[2]);
+        assertEquals("Running Shoe", new ObjectMapper().readTree(lines[0]).get("name").asText());
+    }
+}
@@ -0,0 +1,248 @@
+package com.wild.ecommerce.product.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wild.ecommerce.category.model.Category;
+import com.wild.ecommerce.category.repository.CategoryRepository;
+import com.wild.ecommerce.common.cache.CacheTagService;
+import com.wild.ecommerce.common.cache.TwoTierCache;
+import com.wild.ecommerce.common.model.DataFormat;
+import com.wild.ecommerce.product.dto.ProductImportResponse;
+import com.wild.ecommerce.product.model.Product;
+import com.wild.ecommerce.product.repository.ProductRepository;
+import com.wild.ecommerce.product.search.ProductSearchIndex;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductImportServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductStockService productStockService;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    @Mock
+    private CacheTagService cacheTagService;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private TwoTierCache productCache;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private ProductImportServiceImpl productImportService;
+
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        productImportService = new ProductImportServiceImpl(
+                productRepository,
+                productStockService,
+                categoryRepository,
+                productSearchIndex,
+                cacheTagService,
+                cacheManager,
+                transactionTemplate,
+                entityManager,
+                new ObjectMapper()
+        );
+        ReflectionTestUtils.setField(productImportService, "chunkSize", 2);
+        ReflectionTestUtils.setField(productImportService, "maxReportedErrors", 10);
+
+        category = new Category();
+        category.setId(UUID.randomUUID());
+        category.setName("Shoes");
+
+        when(categoryRepository.findAll()).thenReturn(List.of(category));
+        lenient().when(categoryRepository.getReferenceById(category.getId())).thenReturn(category);
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null)
+        );
+        lenient().when(cacheManager.getCache("product")).thenReturn(productCache);
+    }
+
+    @Test
+    void importProducts_WithCsv_ShouldUpsertValidRowsAndReportInvalidOnes() {
+        // Arrange
+        Product existing = new Product();
+        existing.setId(UUID.randomUUID());
+        existing.setName("Trail Runner");
+        existing.setBrand("Adidas");
+        existing.setCategory(category);
+        when(productRepository.findAllByBrandInAndNameIn(anyCollection(), anyCollection()))
+                .thenReturn(List.of(existing))
+                .thenReturn(List.of());
+
+        String csv = """
+                name,brand,description,price,stock,category
+                Running Shoe,Nike,"Light, breathable",119.99,10,shoes
+                trail runner,ADIDAS,,89.50,4,Shoes
+                Boot,Timberland,,not-a-price,1,Shoes
+                Sandal,Teva,,25,3,Unknown
+                Loafer,Clarks,,70,2,Shoes
+                """;
+
+        // Act
+        ProductImportResponse response = productImportService.importProducts(input(csv), DataFormat.CSV);
+
+        // Assert
+        assertEquals(5, response.processed());
+        assertEquals(2, response.created());
+        assertEquals(1, response.updated());
+        assertEquals(2, response.failed());
+        assertEquals(List.of(4L, 5L), response.errors().stream().map(error -> error.line()).toList());
+
+        assertEquals(new BigDecimal("89.50"), existing.getPrice());
+        assertEquals(4, existing.getStock());
+        verify(transactionTemplate, times(2)).execute(any());
+        verify(productSearchIndex, times(3)).index(any(Product.class));
+        verify(cacheTagService, times(1)).invalidate(any(String[].class));
+        verify(productCache).evictAll(List.of(existing.getId()));
+    }
+
+    @Test
+    void importProducts_WithNdjson_ShouldMergeDuplicateKeysIntoOneProduct() {
+        // Arrange
+        when(productRepository.findAllByBrandInAndNameIn(anyCollection(), anyCollection())).thenReturn(List.of());
+        String ndjson = """
+                {"name":"Running Shoe","brand":"Nike","price":100,"stock":1,"category":"Shoes"}
+
+                {"name":"Running Shoe","brand":"Nike","price":90,"stock":5,"category":"Shoes"}
+                {"name":
+                """;
+
+        // Act
+        ProductImportResponse response = productImportService.importProducts(input(ndjson), DataFormat.NDJSON);
+
+        // Assert
+        assertEquals(3, response.processed());
+        assertEquals(1, response.created());
+        assertEquals(1, response.failed());
+        assertEquals(4, response.errors().getFirst().line());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Product>> saved = ArgumentCaptor.forClass(List.class);
+        verify(productRepository).saveAll(saved.capture());
+        assertEquals(1, saved.getValue().size());
+        assertEquals(new BigDecimal("90"), saved.getValue().getFirst().getPrice());
+    }
+
+    @Test
+    void importProducts_ForBucketedProduct_ShouldAssignStockThroughStockService() {
+        // Arrange
+        Product existing = new Product();
+        existing.setId(UUID.randomUUID());
+        existing.setName("Running Shoe");
+        existing.setBrand("Nike");
+        existing.setCategory(category);
+        existing.setStockBuckets(4);
+        when(productRepository.findAllByBrandInAndNameIn(anyCollection(), anyCollection()))
+                .thenReturn(List.of(existing));
+
+        String csv = "name,brand,price,stock,category\nRunning Shoe,Nike,100,40,Shoes\n";
+
+        // Act
+        ProductImportResponse response = productImportService.importProducts(input(csv), DataFormat.CSV);
+
+        // Assert
+        assertEquals(1, response.updated());
+        verify(productStockService).assignStock(existing, 40);
+    }
+
+    @Test
+    void importProducts_WithStockBelowHeldUnits_ShouldReportRowAndKeepProduct() {
+        // Arrange
+        Product existing = new Product();
+        existing.setId(UUID.randomUUID());
+        existing.setName("Running Shoe");
+        existing.setBrand("Nike");
+        existing.setCategory(category);
+        existing.setStock(10);
+        when(productRepository.findAllByBrandInAndNameIn(anyCollection(), anyCollection()))
+                .thenReturn(List.of(existing));
+        when(productStockService.heldStock(existing)).thenReturn(6);
+
+        String csv = "name,brand,price,stock,category\nRunning Shoe,Nike,100,5,Shoes\n";
+
+        // Act
+        ProductImportResponse response = productImportService.importProducts(input(csv), DataFormat.CSV);
+
+        // Assert
+        assertEquals(1, response.failed());
+        assertEquals(0, response.updated());
+        assertEquals(10, existing.getStock());
+    }
+
+    @Test
+    void importProducts_WithOnlyInvalidRows_ShouldNotTouchCaches() {
+        // Arrange
+        String csv = "name,brand,price,stock,category\n,Nike,10,1,Shoes\n";
+
+        // Act
+        ProductImportResponse response = productImportService.importProducts(input(csv), DataFormat.CSV);
+
+        // Assert
+        assertEquals(1, response.failed());
+        verify(transactionTemplate, never()).execute(any());
+        verify(cacheTagService, never()).invalidate(any(String[].class));
+    }
+
+    @Test
+    void importProducts_WithValuesExceedingColumns_ShouldReportRowsInsteadOfWritingThem() {
+        // Arrange
+        String csv = "name,brand,description,price,stock,category\n"
+                + "Runner,Nike," + "x".repeat(1001) + ",10,1,Shoes\n"
+                + "Boot,Timberland,,19.999,1,Shoes\n"
+                + "Loafer,Clarks,,123456789.00,1,Shoes\n";
+
+        // Act
+        ProductImportResponse response = productImportService.importProducts(input(csv), DataFormat.CSV);
+
+        // Assert
+        assertEquals(3, response.failed());
+        assertEquals(List.of(2L, 3L, 4L), response.errors().stream().map(error -> error.line()).toList());
+        verify(transactionTemplate, never()).execute(any());
+    }
+
+    private static ByteArrayInputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
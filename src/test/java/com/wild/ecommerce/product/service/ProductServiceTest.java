@@ -2,14 +2,22 @@ package com.wild.ecommerce.product.service;
 
 import com.wild.ecommerce.category.model.Category;
 import com.wild.ecommerce.category.repository.CategoryRepository;
+import com.wild.ecommerce.common.cache.CacheTagService;
+import com.wild.ecommerce.common.cache.TwoTierCache;
 import com.wild.ecommerce.common.dto.PageResponse;
+import com.wild.ecommerce.common.exception.InvalidCursorException;
+import com.wild.ecommerce.common.exception.PreconditionFailedException;
 import com.wild.ecommerce.common.exception.ResourceNotFoundException;
 import com.wild.ecommerce.product.dto.CreateProductRequest;
 import com.wild.ecommerce.product.dto.ProductDTO;
+import com.wild.ecommerce.product.dto.ProductSummaryDTO;
 import com.wild.ecommerce.product.dto.UpdateProductRequest;
 import com.wild.ecommerce.product.mapper.ProductMapper;
 import com.wild.ecommerce.product.model.Product;
 import com.wild.ecommerce.product.repository.ProductRepository;
+import com.wild.ecommerce.product.search.ProductSearchDocument;
+import com.wild.ecommerce.product.search.ProductSearchHit;
+import com.wild.ecommerce.product.search.ProductSearchIndex;
 import com.wild.ecommerce.storage.service.MinioService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,14 +26,17 @@ import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -46,6 +57,9 @@ public class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private ProductStockService productStockService;
+
     @Mock
     private CategoryRepository categoryRepository;
 
@@ -55,6 +69,18 @@ public class ProductServiceTest {
     @Mock
     private MinioService minioService;
 
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    @Mock
+    private CacheTagService cacheTagService;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private TwoTierCache productCache;
+
     @InjectMocks
     private ProductServiceImpl productService;
 
@@ -63,6 +89,7 @@ public class ProductServiceTest {
     private UUID productId;
     private Product product;
     private ProductDTO productDTO;
+    private ProductSummaryDTO productSummaryDTO;
     private MultipartFile mockImage;
 
     @BeforeEach
@@ -92,7 +119,19 @@ public class ProductServiceTest {
                 BigDecimal.valueOf(99.99),
                 10,
                 "https://example.com/image.jpg",
-                "Test Category"
+                "Test Category",
+                0L
+        );
+
+        productSummaryDTO = new ProductSummaryDTO(
+                productId,
+                "Test Product",
+                "Test Brand",
+                BigDecimal.valueOf(99.99),
+                10,
+                "https://example.com/image.jpg",
+                "Test Category",
+                0L
         );
 
         mockImage = new MockMultipartFile(
@@ -132,6 +171,7 @@ public class ProductServiceTest {
         verify(minioService).uploadImage(mockImage);
         verify(productRepository).save(any(Product.class));
         verify(productMapper).apply(product);
+        verify(productSearchIndex).index(product);
     }
 
     @Test
@@ -190,15 +230,13 @@ public class ProductServiceTest {
     void getAllProducts_ShouldReturnPageOfProducts() {
         // Arrange
         PageRequest pageable = PageRequest.of(0, 10);
-        PageImpl<Product> productPage = new PageImpl<>(List.of(product));
+        PageImpl<ProductSummaryDTO> summaryPage = new PageImpl<>(List.of(productSummaryDTO));
 
-        when(productRepository.findAll(ArgumentMatchers.<Specification<Product>>any(), eq(pageable)))
-                .thenReturn(productPage);
-        when(productMapper.apply(product)).thenReturn(productDTO);
-        when(productMapper.apply(product)).thenReturn(productDTO);
+        when(productRepository.findSummaries(ArgumentMatchers.<Specification<Product>>any(), eq(pageable)))
+                .thenReturn(summaryPage);
 
         // Act
-        PageResponse<ProductDTO> result = productService.getAllProducts(
+        PageResponse<ProductSummaryDTO> result = productService.getAllProducts(
                 pageable, "Test", "Brand", categoryId
         );
 
@@ -206,7 +244,41 @@ public class ProductServiceTest {
         assertNotNull(result);
         assertEquals(1, result.getTotalElements());
 
-        verify(productRepository).findAll(ArgumentMatchers.<Specification<Product>>any(), eq(pageable));
+        verify(productRepository).findSummaries(ArgumentMatchers.<Specification<Product>>any(), eq(pageable));
+        verify(productRepository, never()).findAll(ArgumentMatchers.<Specification<Product>>any(), any(PageRequest.class));
+        verify(productMapper, never()).apply(any());
+    }
+
+    @Test
+    void getAllProducts_WithIndexReady_ShouldHydrateRankedPageFromIndex() {
+        // Arrange
+        PageRequest pageable = PageRequest.of(0, 10, Sort.by(ProductSearchIndex.RELEVANCE));
+        ProductSearchHit hit = new ProductSearchHit(
+                new ProductSearchDocument(productId, "Test Product", "Test Brand", BigDecimal.valueOf(99.99), categoryId),
+                1.0
+        );
+
+        when(productSearchIndex.search("Test", "Brand", categoryId)).thenReturn(Optional.of(List.of(hit)));
+        when(productRepository.findSummariesByIdIn(List.of(productId))).thenReturn(List.of(productSummaryDTO));
+
+        // Act
+        PageResponse<ProductSummaryDTO> result = productService.getAllProducts(
+                pageable, "Test", "Brand", categoryId
+        );
+
+        // Assert
+        assertEquals(1, result.getTotalElements());
+        assertEquals(productId, result.getContent().getFirst().id());
+
+        verify(productRepository, never()).findSummaries(ArgumentMatchers.<Specification<Product>>any(), any(PageRequest.class));
+    }
+
+    @Test
+    void scrollProducts_WithMalformedCursor_ShouldThrowException() {
+        // Act & Assert
+        assertThrows(InvalidCursorException.class, () ->
+                productService.scrollProducts(10, Sort.by("id"), "not a cursor", null, null, null)
+        );
     }
 
     @Test
@@ -226,6 +298,30 @@ public class ProductServiceTest {
         verify(productRepository).findById(productId);
     }
 
+    @Test
+    void getProductsByIds_ShouldLoadOnlyCacheMissesAndWriteThemBack() {
+        // Arrange
+        UUID missingId = UUID.randomUUID();
+        Product missingProduct = new Product();
+        missingProduct.setId(missingId);
+        ProductDTO missingDTO = new ProductDTO(
+                missingId, "Other Product", "Test Brand", null, BigDecimal.TEN, 1, null, "Test Category",
+                0L
+        );
+
+        when(cacheManager.getCache("product")).thenReturn(productCache);
+        when(productCache.getAll(List.of(missingId, productId))).thenReturn(Map.of(productId, productDTO));
+        when(productRepository.findAllById(List.of(missingId))).thenReturn(List.of(missingProduct));
+        when(productMapper.apply(missingProduct)).thenReturn(missingDTO);
+
+        // Act
+        List<ProductDTO> result = productService.getProductsByIds(List.of(missingId, productId, missingId));
+
+        // Assert
+        assertEquals(List.of(missingDTO, productDTO), result);
+        verify(productCache).putAll(Map.of(missingId, missingDTO));
+    }
+
     @Test
     void getProductById_WithInvalidId_ShouldThrowException() {
         // Arrange
@@ -254,18 +350,18 @@ public class ProductServiceTest {
 
         when(productRepository.findById(productId)).thenReturn(Optional.of(product));
         when(minioService.uploadImage(mockImage)).thenReturn("https://s3.amazonaws.com/new-image.jpg");
-        when(productRepository.save(any(Product.class))).thenReturn(product);
+        when(productRepository.saveAndFlush(any(Product.class))).thenReturn(product);
         when(productMapper.apply(product)).thenReturn(productDTO);
 
         // Act
-        ProductDTO result = productService.updateProduct(productId, request);
+        ProductDTO result = productService.updateProduct(productId, request, null);
 
         // Assert
         assertNotNull(result);
 
         verify(minioService).deleteImage("https://s3.amazonaws.com/old-image.jpg");
         verify(minioService).uploadImage(mockImage);
-        verify(productRepository).save(any(Product.class));
+        verify(productRepository).saveAndFlush(any(Product.class));
     }
 
     @Test
@@ -285,17 +381,36 @@ public class ProductServiceTest {
 
         when(productRepository.findById(productId)).thenReturn(Optional.of(product));
         when(minioService.uploadImage(mockImage)).thenReturn("https://s3.amazonaws.com/new-image.jpg");
-        when(productRepository.save(any(Product.class))).thenReturn(product);
+        when(productRepository.saveAndFlush(any(Product.class))).thenReturn(product);
         when(productMapper.apply(product)).thenReturn(productDTO);
 
         // Act
-        productService.updateProduct(productId, request);
+        productService.updateProduct(productId, request, null);
 
         // Assert
         verify(minioService, never()).deleteImage(anyString());
         verify(minioService).uploadImage(mockImage);
     }
 
+    @Test
+    void updateProduct_WithStockOfBucketedProduct_ShouldAssignItThroughStockService() {
+        // Arrange
+        UpdateProductRequest request = new UpdateProductRequest(null, null, null, null, 40, mockImage, null);
+
+        product.setStockBuckets(4);
+
+        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(minioService.uploadImage(mockImage)).thenReturn("https://s3.amazonaws.com/new-image.jpg");
+        when(productRepository.saveAndFlush(any(Product.class))).thenReturn(product);
+        when(productMapper.apply(product)).thenReturn(productDTO);
+
+        // Act
+        productService.updateProduct(productId, request, null);
+
+        // Assert
+        verify(productStockService).assignStock(product, 40);
+    }
+
     @Test
     void updateProduct_WithNewCategory_ShouldUpdateCategory() {
         // Arrange
@@ -317,15 +432,41 @@ public class ProductServiceTest {
         when(productRepository.findById(productId)).thenReturn(Optional.of(product));
         when(categoryRepository.findById(id)).thenReturn(Optional.of(newCategory));
         when(minioService.uploadImage(mockImage)).thenReturn("https://s3.amazonaws.com/image.jpg");
-        when(productRepository.save(any(Product.class))).thenReturn(product);
+        when(productRepository.saveAndFlush(any(Product.class))).thenReturn(product);
         when(productMapper.apply(product)).thenReturn(productDTO);
 
         // Act
-        productService.updateProduct(productId, request);
+        productService.updateProduct(productId, request, null);
 
         // Assert
         verify(categoryRepository).findById(id);
-        verify(productRepository).save(argThat(p -> p.getCategory().getId().equals(id)));
+        verify(productRepository).saveAndFlush(argThat(p -> p.getCategory().getId().equals(id)));
+    }
+
+    @Test
+    void updateProduct_WithStaleVersion_ShouldThrowPreconditionFailed() {
+        // Arrange
+        UpdateProductRequest request = new UpdateProductRequest(
+                "Updated Product",
+                null,
+                null,
+                null,
+                0,
+                mockImage,
+                null
+        );
+
+        product.setVersion(3L);
+
+        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+
+        // Act & Assert
+        assertThrows(PreconditionFailedException.class, () ->
+                productService.updateProduct(productId, request, 2L)
+        );
+
+        verify(productRepository, never()).saveAndFlush(any());
+        verify(minioService, never()).uploadImage(any());
     }
 
     @Test
@@ -340,6 +481,8 @@ public class ProductServiceTest {
         // Assert
         verify(minioService).deleteImage("https://s3.amazonaws.com/image.jpg");
         verify(productRepository).delete(product);
+        verify(productSearchIndex).remove(productId);
+        verify(cacheTagService).invalidate(CacheTagService.CATALOG, CacheTagService.category(categoryId));
     }
 
     @Test
@@ -0,0 +1,359 @@
+package com.wild.ecommerce.product.service;
+
+import com.wild.ecommerce.common.cache.CacheTagService;
+import com.wild.ecommerce.common.cache.TwoTierCache;
+import com.wild.ecommerce.common.exception.OutOfStockException;
+import com.wild.ecommerce.common.exception.StockConflictException;
+import com.wild.ecommerce.product.dto.StockBucketCountDTO;
+import com.wild.ecommerce.product.dto.StockBucketsDTO;
+import com.wild.ecommerce.product.model.Product;
+import com.wild.ecommerce.product.model.ProductStockBucket;
+import com.wild.ecommerce.product.repository.ProductRepository;
+import com.wild.ecommerce.product.repository.ProductStockBucketRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductStockServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductStockBucketRepository productStockBucketRepository;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private TwoTierCache productCache;
+
+    @Mock
+    private CacheTagService cacheTagService;
+
+    @InjectMocks
+    private ProductStockServiceImpl productStockService;
+
+    private final UUID first = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private final UUID second = UUID.fromString("00000000-0000-0000-0000-000000000002");
+    private final UUID third = UUID.fromString("00000000-0000-0000-0000-000000000003");
+
+    @Test
+    void decrementStock_ShouldUpdateProductsInIdOrderAndEvictThem() {
+        // Arrange
+        when(productRepository.decrementStock(eq(first), anyInt())).thenReturn(1);
+        when(productRepository.decrementStock(eq(second), anyInt())).thenReturn(1);
+        when(productRepository.decrementStock(eq(third), anyInt())).thenReturn(1);
+        when(cacheManager.getCache("product")).thenReturn(productCache);
+        UUID categoryId = UUID.randomUUID();
+        when(productRepository.findCategoryIdsByIdIn(List.of(first, second, third))).thenReturn(List.of(categoryId));
+
+        // Act
+        productStockService.decrementStock(Map.of(third, 3, first, 1, second, 2));
+
+        // Assert
+        InOrder order = inOrder(productRepository);
+        order.verify(productRepository).decrementStock(first, 1);
+        order.verify(productRepository).decrementStock(second, 2);
+        order.verify(productRepository).decrementStock(third, 3);
+        verify(productCache).evictAll(List.of(first, second, third));
+        verify(cacheTagService).invalidate(CacheTagService.category(categoryId));
+    }
+
+    @Test
+    void decrementStock_WhenOneProductIsShort_ShouldStopAndThrow() {
+        // Arrange
+        when(productRepository.decrementStock(first, 1)).thenReturn(1);
+        when(productRepository.decrementStock(second, 5)).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(OutOfStockException.class, () ->
+                productStockService.decrementStock(Map.of(first, 1, second, 5, third, 1))
+        );
+
+        verify(productRepository, never()).decrementStock(eq(third), anyInt());
+        verify(cacheManager, never()).getCache("product");
+    }
+
+    @Test
+    void incrementStock_ShouldRestoreProductsInIdOrder() {
+        // Arrange
+        when(cacheManager.getCache("product")).thenReturn(productCache);
+
+        // Act
+        productStockService.incrementStock(Map.of(second, 2, first, 1));
+
+        // Assert
+        InOrder order = inOrder(productRepository);
+        order.verify(productRepository).incrementStock(first, 1);
+        order.verify(productRepository).incrementStock(second, 2);
+        verify(productCache).evictAll(List.of(first, second));
+    }
+
+    @Test
+    void reserveStock_WhenOneProductIsShort_ShouldStopAndThrow() {
+        // Arrange
+        when(productRepository.reserveStock(first, 1)).thenReturn(1);
+        when(productRepository.reserveStock(second, 5)).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(OutOfStockException.class, () ->
+                productStockService.reserveStock(Map.of(first, 1, second, 5, third, 1))
+        );
+
+        verify(productRepository, never()).reserveStock(eq(third), anyInt());
+    }
+
+    @Test
+    void commitReservedStock_WhenHeldUnitsAreGone_ShouldReportShortProducts() {
+        // Arrange
+        when(productRepository.commitReservedStock(first, 1)).thenReturn(1);
+        when(productRepository.commitReservedStock(second, 5)).thenReturn(0);
+        when(cacheManager.getCache("product")).thenReturn(productCache);
+
+        // Act
+        List<UUID> shortProducts = productStockService.commitReservedStock(Map.of(first, 1, second, 5));
+
+        // Assert
+        assertEquals(List.of(second), shortProducts);
+    }
+
+    @Test
+    void releaseReservedStock_WhenCounterIsBelowHolds_ShouldRecountItFromLedger() {
+        // Arrange
+        when(productRepository.releaseReservedStock(first, 3)).thenReturn(0);
+
+        // Act
+        productStockService.releaseReservedStock(Map.of(first, 3));
+
+        // Assert
+        verify(productRepository).recountReservedStock(first);
+    }
+
+    @Test
+    void decrementAvailableStock_ShouldTakeWhatIsLeftAndReportShortProducts() {
+        // Arrange
+        when(productRepository.decrementStock(first, 1)).thenReturn(0);
+        when(productRepository.decrementStock(second, 2)).thenReturn(1);
+        when(cacheManager.getCache("product")).thenReturn(productCache);
+
+        // Act
+        List<UUID> shortProducts = productStockService.decrementAvailableStock(Map.of(first, 1, second, 2));
+
+        // Assert
+        assertEquals(List.of(first), shortProducts);
+        verify(productCache).evictAll(List.of(first, second));
+    }
+
+    @Test
+    void reserveStock_ForBucketedProduct_ShouldTakeFromOneBucketWithoutTouchingProductRow() {
+        // Arrange
+        ProductStockBucket bucket = new ProductStockBucket(UUID.randomUUID(), first, 2, 5);
+        when(productRepository.findStockBucketCounts(any())).thenReturn(List.of(new StockBucketCountDTO(first, 4)));
+        when(productStockBucketRepository.lockAvailableFrom(eq(first), eq(2), anyInt(), any(Limit.class)))
+                .thenReturn(List.of(bucket));
+        when(productRepository.reserveStock(second, 1)).thenReturn(1);
+
+        // Act
+        Set<UUID> bucketed = productStockService.reserveStock(Map.of(first, 2, second, 1));
+
+        // Assert
+        assertEquals(Set.of(first), bucketed);
+        assertEquals(3, bucket.getStock());
+        verify(productRepository, never()).reserveStock(eq(first), anyInt());
+    }
+
+    @Test
+    void reserveStock_WhenNoSingleBucketCoversLine_ShouldDrainSeveralBuckets() {
+        // Arrange
+        ProductStockBucket firstBucket = new ProductStockBucket(UUID.randomUUID(), first, 0, 1);
+        ProductStockBucket secondBucket = new ProductStockBucket(UUID.randomUUID(), first, 1, 2);
+        when(productRepository.findStockBucketCounts(any())).thenReturn(List.of(new StockBucketCountDTO(first, 2)));
+        when(productStockBucketRepository.lockAvailableFrom(eq(first), eq(3), anyInt(), any(Limit.class)))
+                .thenReturn(List.of());
+        when(productStockBucketRepository.lockAvailableBefore(eq(first), eq(3), anyInt(), any(Limit.class)))
+                .thenReturn(List.of());
+        when(productStockBucketRepository.findStockByProductId(first)).thenReturn(List.of(1, 2));
+        when(productStockBucketRepository.findByProductIdOrderByBucketNo(first))
+                .thenReturn(List.of(firstBucket, secondBucket));
+
+        // Act
+        productStockService.reserveStock(Map.of(first, 3));
+
+        // Assert
+        assertEquals(0, firstBucket.getStock());
+        assertEquals(0, secondBucket.getStock());
+    }
+
+    @Test
+    void reserveStock_WhenBucketsAreSoldOut_ShouldThrowWithoutLockingThem() {
+        // Arrange
+        when(productRepository.findStockBucketCounts(any())).thenReturn(List.of(new StockBucketCountDTO(first, 2)));
+        when(productStockBucketRepository.findStockByProductId(first)).thenReturn(List.of(0, 0));
+
+        // Act & Assert
+        assertThrows(OutOfStockException.class, () -> productStockService.reserveStock(Map.of(first, 1)));
+
+        verify(productStockBucketRepository, never()).findByProductIdOrderByBucketNo(first);
+    }
+
+    @Test
+    void releaseBucketedStock_WhenProductLeftHotMode_ShouldReturnUnitsToProductRow() {
+        // Act
+        productStockService.releaseBucketedStock(Map.of(first, 2));
+
+        // Assert
+        verify(productRepository).incrementStock(first, 2);
+        verifyNoInteractions(cacheManager, cacheTagService);
+    }
+
+    @Test
+    void commitBucketedStock_ShouldEvictProductsWithoutTouchingStock() {
+        // Arrange
+        when(cacheManager.getCache("product")).thenReturn(productCache);
+
+        // Act
+        productStockService.commitBucketedStock(Map.of(second, 1, first, 2));
+
+        // Assert
+        verify(productCache).evictAll(List.of(first, second));
+        verifyNoInteractions(productStockBucketRepository);
+    }
+
+    @Test
+    void configureStockBuckets_ShouldSpreadFreeStockEvenly() {
+        // Arrange
+        Product product = new Product();
+        product.setId(first);
+        product.setStock(10);
+        product.setReserved(2);
+        when(productRepository.findByIdForUpdate(first)).thenReturn(Optional.of(product));
+        when(productStockBucketRepository.findByProductIdOrderByBucketNo(first)).thenReturn(List.of());
+        when(cacheManager.getCache("product")).thenReturn(productCache);
+
+        // Act
+        StockBucketsDTO result = productStockService.configureStockBuckets(first, 3);
+
+        // Assert
+        assertEquals(List.of(3, 3, 2), result.buckets());
+        assertEquals(2, result.stock());
+        verify(productRepository).updateStockBuckets(first, -8, 3);
+    }
+
+    @Test
+    void configureStockBuckets_WithZeroBuckets_ShouldMoveStockBackToProductRow() {
+        // Arrange
+        Product product = new Product();
+        product.setId(first);
+        List<ProductStockBucket> existing = List.of(
+                new ProductStockBucket(UUID.randomUUID(), first, 0, 4),
+                new ProductStockBucket(UUID.randomUUID(), first, 1, 3)
+        );
+        when(productRepository.findByIdForUpdate(first)).thenReturn(Optional.of(product));
+        when(productStockBucketRepository.findByProductIdOrderByBucketNo(first)).thenReturn(existing);
+        when(cacheManager.getCache("product")).thenReturn(productCache);
+
+        // Act
+        StockBucketsDTO result = productStockService.configureStockBuckets(first, 0);
+
+        // Assert
+        assertEquals(7, result.stock());
+        verify(productStockBucketRepository).deleteAll(existing);
+        verify(productRepository).updateStockBuckets(first, 7, 0);
+    }
+
+    @Test
+    void assignStock_BelowHeldUnits_ShouldThrowConflict() {
+        // Arrange
+        Product product = new Product();
+        product.setId(first);
+        product.setStock(5);
+        product.setReserved(4);
+
+        // Act & Assert
+        assertThrows(StockConflictException.class, () -> productStockService.assignStock(product, 3));
+
+        assertEquals(5, product.getStock());
+    }
+
+    @Test
+    void assignStock_WithBucketHolds_ShouldCountThemAsHeld() {
+        // Arrange
+        Product product = new Product();
+        product.setId(first);
+        product.setStock(2);
+        product.setReserved(2);
+        product.setBucketHeld(3);
+
+        // Act & Assert
+        assertThrows(StockConflictException.class, () -> productStockService.assignStock(product, 4));
+
+        productStockService.assignStock(product, 8);
+        assertEquals(5, product.getStock());
+    }
+
+    @Test
+    void assignStock_ForBucketedProductWithBucketHolds_ShouldSpreadOnlyFreeUnits() {
+        // Arrange
+        Product product = new Product();
+        product.setId(first);
+        product.setStock(1);
+        product.setReserved(1);
+        product.setBucketHeld(4);
+        product.setStockBuckets(1);
+        ProductStockBucket bucket = new ProductStockBucket(UUID.randomUUID(), first, 0, 2);
+        when(productStockBucketRepository.findByProductIdOrderByBucketNo(first)).thenReturn(List.of(bucket));
+
+        // Act
+        productStockService.assignStock(product, 10);
+
+        // Assert
+        assertEquals(1, product.getStock());
+        assertEquals(5, bucket.getStock());
+        assertEquals(5, product.getBucketStock());
+    }
+
+    @Test
+    void assignStock_ForBucketedProduct_ShouldKeepHeldUnitsOnRowAndSpreadTheRest() {
+        // Arrange
+        Product product = new Product();
+        product.setId(first);
+        product.setStock(3);
+        product.setReserved(3);
+        product.setStockBuckets(2);
+        ProductStockBucket bucket = new ProductStockBucket(UUID.randomUUID(), first, 0, 9);
+        when(productStockBucketRepository.findByProductIdOrderByBucketNo(first)).thenReturn(List.of(bucket));
+
+        // Act
+        productStockService.assignStock(product, 10);
+
+        // Assert
+        assertEquals(3, product.getStock());
+        assertEquals(7, product.getBucketStock());
+        assertEquals(4, bucket.getStock());
+        verify(productStockBucketRepository).saveAll(any());
+    }
+}
@@ -3,8 +3,14 @@ package com.wild.ecommerce.shipment.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.wild.ecommerce.auth.service.JwtService;
 import com.wild.ecommerce.order.model.Status;
+import com.wild.ecommerce.shipment.dto.BulkDeliverRequest;
+import com.wild.ecommerce.shipment.dto.BulkShipItem;
+import com.wild.ecommerce.shipment.dto.BulkShipRequest;
+import com.wild.ecommerce.shipment.dto.BulkShipmentResponse;
+import com.wild.ecommerce.shipment.dto.BulkShipmentResultDTO;
 import com.wild.ecommerce.shipment.dto.ShipOrderRequest;
 import com.wild.ecommerce.shipment.dto.ShipmentInfoDTO;
+import com.wild.ecommerce.shipment.dto.ShipmentOutcome;
 import com.wild.ecommerce.shipment.dto.TrackingInfoDTO;
 import com.wild.ecommerce.shipment.service.ShipmentService;
 import com.wild.ecommerce.user.model.Role;
@@ -20,11 +26,13 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
@@ -201,6 +209,68 @@ public class ShipmentControllerTest {
                 .andExpect(status().isUnauthorized());
     }
 
+    @Test
+    void shipOrders_ShouldReturnResultPerOrder_WhenAdmin() throws Exception {
+        // Given
+        UUID missingOrderId = UUID.randomUUID();
+        BulkShipRequest request = new BulkShipRequest(List.of(
+                new BulkShipItem(orderId, "FedEx", "TRACK123456"),
+                new BulkShipItem(missingOrderId, "FedEx", null)
+        ));
+        BulkShipmentResponse response = new BulkShipmentResponse(1, 1, List.of(
+                new BulkShipmentResultDTO(orderId, ShipmentOutcome.UPDATED, "TRACK123456", null),
+                new BulkShipmentResultDTO(missingOrderId, ShipmentOutcome.NOT_FOUND, null, "Order not found")
+        ));
+
+        when(shippingService.shipOrders(any(BulkShipRequest.class))).thenReturn(response);
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/shipments/bulk")
+                        .with(user(adminUser()))
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.results[0].outcome").value("UPDATED"))
+                .andExpect(jsonPath("$.results[1].outcome").value("NOT_FOUND"));
+    }
+
+    @Test
+    void shipOrders_ShouldReturnBadRequest_WhenManifestIsEmpty() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/api/v1/shipments/bulk")
+                        .with(user(adminUser()))
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BulkShipRequest(List.of()))))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(shippingService);
+    }
+
+    @Test
+    void markAsDelivered_ShouldReturnResultPerOrder_WhenBulkRequest() throws Exception {
+        // Given
+        BulkDeliverRequest request = new BulkDeliverRequest(List.of(orderId));
+        BulkShipmentResponse response = new BulkShipmentResponse(1, 0, List.of(
+                new BulkShipmentResultDTO(orderId, ShipmentOutcome.UPDATED, null, null)
+        ));
+
+        when(shippingService.markAsDelivered(any(BulkDeliverRequest.class))).thenReturn(response);
+
+        // When & Then
+        mockMvc.perform(patch("/api/v1/shipments/bulk")
+                        .with(user(adminUser()))
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(1))
+                .andExpect(jsonPath("$.results[0].orderId").value(orderId.toString()));
+    }
+
     @Test
     @WithMockUser
     void shipOrder_ShouldHandleServiceException_WhenOrderNotFound() throws Exception {
@@ -216,4 +286,13 @@ public class ShipmentControllerTest {
                         .content(objectMapper.writeValueAsString(shipOrderRequest)))
                 .andExpect(status().is5xxServerError());
     }
+
+    private static User adminUser() {
+        User admin = new User();
+        admin.setId(UUID.randomUUID());
+        admin.setEmail("warehouse@example.com");
+        admin.setRole(Role.ADMIN);
+
+        return admin;
+    }
 }
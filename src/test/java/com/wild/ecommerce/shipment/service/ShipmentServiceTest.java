@@ -1,12 +1,23 @@
 package com.wild.ecommerce.shipment.service;
 
 import com.wild.ecommerce.common.exception.ResourceNotFoundException;
+import com.wild.ecommerce.order.dto.OrderShipmentRow;
+import com.wild.ecommerce.order.dto.OrderStatusRow;
 import com.wild.ecommerce.order.mapper.ShipmentInfoMapper;
 import com.wild.ecommerce.order.model.Order;
 import com.wild.ecommerce.order.model.Status;
 import com.wild.ecommerce.order.repository.OrderRepository;
+import com.wild.ecommerce.order.repository.OrderShipmentBatchRepository;
+import com.wild.ecommerce.order.repository.OrderSummaryRepository;
+import com.wild.ecommerce.order.service.OrderSummaryService;
+import com.wild.ecommerce.shipment.dto.BulkDeliverRequest;
+import com.wild.ecommerce.shipment.dto.BulkShipItem;
+import com.wild.ecommerce.shipment.dto.BulkShipRequest;
+import com.wild.ecommerce.shipment.dto.BulkShipmentResponse;
+import com.wild.ecommerce.shipment.dto.BulkShipmentResultDTO;
 import com.wild.ecommerce.shipment.dto.ShipOrderRequest;
 import com.wild.ecommerce.shipment.dto.ShipmentInfoDTO;
+import com.wild.ecommerce.shipment.dto.ShipmentOutcome;
 import com.wild.ecommerce.shipment.dto.TrackingInfoDTO;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,17 +25,24 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -37,6 +55,18 @@ public class ShipmentServiceTest {
     @Mock
     private ShipmentInfoMapper shippingInfoMapper;
 
+    @Mock
+    private OrderSummaryService orderSummaryService;
+
+    @Mock
+    private OrderSummaryRepository orderSummaryRepository;
+
+    @Mock
+    private OrderShipmentBatchRepository orderShipmentBatchRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     @InjectMocks
     private ShipmentServiceImpl shipmentService;
 
@@ -54,6 +84,12 @@ public class ShipmentServiceTest {
         order.setEmail(userEmail);
         order.setStatus(Status.CONFIRMED);
         order.setOrderDate(LocalDateTime.now());
+
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        ReflectionTestUtils.setField(shipmentService, "chunkSize", 1000);
     }
 
     @Test
@@ -68,6 +104,7 @@ public class ShipmentServiceTest {
         // Then
         verify(orderRepository).findById(orderId);
         verify(orderRepository).save(order);
+        verify(orderSummaryService).updateStatus(order);
         assertThat(order.getStatus()).isEqualTo(Status.SHIPPED);
     }
 
@@ -130,6 +167,7 @@ public class ShipmentServiceTest {
 
         verify(orderRepository).findById(orderId);
         verify(orderRepository).save(order);
+        verify(orderSummaryService).updateStatus(order);
         verify(shippingInfoMapper).apply(order, "TRACK123", "FedEx");
     }
 
@@ -160,6 +198,7 @@ public class ShipmentServiceTest {
         assertThat(order.getTrackingNumber()).startsWith("TRK");
 
         verify(orderRepository).save(order);
+        verify(orderSummaryService).updateStatus(order);
     }
 
     @Test
@@ -229,6 +268,7 @@ public class ShipmentServiceTest {
         assertThat(order.getShippedDate()).isNotNull();
 
         verify(orderRepository).save(order);
+        verify(orderSummaryService).updateStatus(order);
     }
 
     @Test
@@ -322,4 +362,129 @@ public class ShipmentServiceTest {
                 .isInstanceOf(IllegalStateException.class)
                 .hasMessage("Order does not belong to the user");
     }
+
+    @Test
+    void shipOrders_shouldShipConfirmedOrdersAndReportTheRest() {
+        // Given
+        UUID pendingOrderId = UUID.randomUUID();
+        UUID missingOrderId = UUID.randomUUID();
+        BulkShipRequest request = new BulkShipRequest(List.of(
+                new BulkShipItem(orderId, "FedEx", "TRACK123"),
+                new BulkShipItem(pendingOrderId, "FedEx", null),
+                new BulkShipItem(missingOrderId, "UPS", null),
+                new BulkShipItem(orderId, "FedEx", "TRACK123")
+        ));
+
+        when(orderRepository.findStatusesByIdIn(List.of(orderId, pendingOrderId, missingOrderId))).thenReturn(List.of(
+                new OrderStatusRow(orderId, Status.CONFIRMED),
+                new OrderStatusRow(pendingOrderId, Status.PENDING)
+        ));
+        when(orderShipmentBatchRepository.markShipped(any(), any())).thenReturn(new int[]{1});
+
+        // When
+        BulkShipmentResponse response = shipmentService.shipOrders(request);
+
+        // Then
+        assertThat(response.updated()).isEqualTo(1);
+        assertThat(response.rejected()).isEqualTo(3);
+        assertThat(response.results()).extracting(BulkShipmentResultDTO::outcome).containsExactly(
+                ShipmentOutcome.UPDATED,
+                ShipmentOutcome.INVALID_STATUS,
+                ShipmentOutcome.NOT_FOUND,
+                ShipmentOutcome.DUPLICATE
+        );
+        assertThat(response.results().getFirst().trackingNumber()).isEqualTo("TRACK123");
+
+        List<OrderShipmentRow> shipped = List.of(new OrderShipmentRow(orderId, "FedEx", "TRACK123"));
+        verify(orderShipmentBatchRepository).markShipped(eq(shipped), any(LocalDateTime.class));
+        verify(orderShipmentBatchRepository).markSummariesShipped(eq(shipped), any(LocalDateTime.class));
+        verify(orderRepository, never()).save(any());
+    }
+
+    @Test
+    void shipOrders_shouldRejectOrder_whenStatusChangedBeforeUpdate() {
+        // Given
+        BulkShipRequest request = new BulkShipRequest(List.of(new BulkShipItem(orderId, "FedEx", null)));
+
+        when(orderRepository.findStatusesByIdIn(List.of(orderId)))
+                .thenReturn(List.of(new OrderStatusRow(orderId, Status.CONFIRMED)));
+        when(orderShipmentBatchRepository.markShipped(any(), any())).thenReturn(new int[]{0});
+
+        // When
+        BulkShipmentResponse response = shipmentService.shipOrders(request);
+
+        // Then
+        assertThat(response.updated()).isZero();
+        assertThat(response.results().getFirst().outcome()).isEqualTo(ShipmentOutcome.INVALID_STATUS);
+        verify(orderShipmentBatchRepository, never()).markSummariesShipped(any(), any());
+    }
+
+    @Test
+    void shipOrders_shouldValidateEachChunkWithOneQuery() {
+        // Given
+        ReflectionTestUtils.setField(shipmentService, "chunkSize", 2);
+        BulkShipRequest request = new BulkShipRequest(List.of(
+                new BulkShipItem(UUID.randomUUID(), "FedEx", null),
+                new BulkShipItem(UUID.randomUUID(), "FedEx", null),
+                new BulkShipItem(UUID.randomUUID(), "FedEx", null)
+        ));
+
+        when(orderRepository.findStatusesByIdIn(any())).thenReturn(List.of());
+
+        // When
+        BulkShipmentResponse response = shipmentService.shipOrders(request);
+
+        // Then
+        assertThat(response.rejected()).isEqualTo(3);
+        verify(orderRepository, times(2)).findStatusesByIdIn(any());
+        verify(transactionTemplate, times(2)).executeWithoutResult(any());
+    }
+
+    @Test
+    void markAsDelivered_shouldDeliverShippedOrdersInOneUpdate() {
+        // Given
+        UUID confirmedOrderId = UUID.randomUUID();
+        BulkDeliverRequest request = new BulkDeliverRequest(List.of(orderId, confirmedOrderId));
+
+        when(orderRepository.findStatusesByIdIn(List.of(orderId, confirmedOrderId))).thenReturn(List.of(
+                new OrderStatusRow(orderId, Status.SHIPPED),
+                new OrderStatusRow(confirmedOrderId, Status.CONFIRMED)
+        ));
+        when(orderRepository.markDelivered(eq(List.of(orderId)), any(LocalDateTime.class))).thenReturn(1);
+
+        // When
+        BulkShipmentResponse response = shipmentService.markAsDelivered(request);
+
+        // Then
+        assertThat(response.updated()).isEqualTo(1);
+        assertThat(response.results()).extracting(BulkShipmentResultDTO::outcome)
+                .containsExactly(ShipmentOutcome.UPDATED, ShipmentOutcome.INVALID_STATUS);
+        verify(orderSummaryRepository).markDelivered(eq(List.of(orderId)), any(LocalDateTime.class));
+    }
+
+    @Test
+    void markAsDelivered_shouldRejectOrders_whenStatusChangedBeforeUpdate() {
+        // Given
+        UUID cancelledOrderId = UUID.randomUUID();
+        BulkDeliverRequest request = new BulkDeliverRequest(List.of(orderId, cancelledOrderId));
+
+        when(orderRepository.findStatusesByIdIn(List.of(orderId, cancelledOrderId)))
+                .thenReturn(List.of(
+                        new OrderStatusRow(orderId, Status.SHIPPED),
+                        new OrderStatusRow(cancelledOrderId, Status.SHIPPED)
+                ))
+                .thenReturn(List.of(
+                        new OrderStatusRow(orderId, Status.DELIVERED),
+                        new OrderStatusRow(cancelledOrderId, Status.CANCELLED)
+                ));
+        when(orderRepository.markDelivered(any(), any())).thenReturn(1);
+
+        // When
+        BulkShipmentResponse response = shipmentService.markAsDelivered(request);
+
+        // Then
+        assertThat(response.results()).extracting(BulkShipmentResultDTO::outcome)
+                .containsExactly(ShipmentOutcome.UPDATED, ShipmentOutcome.INVALID_STATUS);
+        verify(orderSummaryRepository).markDelivered(eq(List.of(orderId)), any(LocalDateTime.class));
+    }
 }
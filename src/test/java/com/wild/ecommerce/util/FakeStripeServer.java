@@ -0,0 +1,138 @@
+package com.wild.ecommerce.util;
+
+import com.stripe.Stripe;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A local HTTP server the Stripe SDK is pointed at while it runs. Each route ({@code "POST /v1/payment_intents"})
+ * answers through a {@link Responder}, which can delay or fail calls to inject faults.
+ *
+ * <p>Static Stripe mocks only apply to the thread that created them, so tests that call Stripe from several threads
+ * need this instead.</p>
+ */
+public final class FakeStripeServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final String previousApiKey;
+    private final Map<String, Responder> routes = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+    private final Map<String, List<String>> idempotencyKeys = new ConcurrentHashMap<>();
+
+    private FakeStripeServer() throws IOException {
+        executor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/v1/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+
+        previousApiKey = Stripe.apiKey;
+        Stripe.apiKey = "sk_test_fake";
+        Stripe.overrideApiBase("http://localhost:" + server.getAddress().getPort());
+    }
+
+    public static FakeStripeServer start() throws IOException {
+        return new FakeStripeServer();
+    }
+
+    public FakeStripeServer route(String route, Responder responder) {
+        routes.put(route, responder);
+        return this;
+    }
+
+    public int calls(String route) {
+        AtomicInteger count = calls.get(route);
+
+        return count != null ? count.get() : 0;
+    }
+
+    /**
+     * The {@code Idempotency-Key} headers the route received, in arrival order.
+     */
+    public List<String> idempotencyKeys(String route) {
+        return List.copyOf(idempotencyKeys.getOrDefault(route, List.of()));
+    }
+
+    @Override
+    public void close() {
+        Stripe.overrideApiBase(Stripe.LIVE_API_BASE);
+        Stripe.apiKey = previousApiKey;
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String route = exchange.getRequestMethod() + " " + exchange.getRequestURI().getPath();
+        int call = calls.computeIfAbsent(route, _ -> new AtomicInteger()).incrementAndGet();
+        String requestBody = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        String idempotencyKey = exchange.getRequestHeaders().getFirst("Idempotency-Key");
+
+        if (idempotencyKey != null) {
+            idempotencyKeys.computeIfAbsent(route, _ -> new CopyOnWriteArrayList<>()).add(idempotencyKey);
+        }
+
+        Responder responder = routes.get(route);
+        Response response = responder != null
+                ? responder.respond(call, requestBody)
+                : Response.error(404, "invalid_request_error", "Unrecognized request URL");
+
+        try {
+            Thread.sleep(response.delay());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            exchange.close();
+            return;
+        }
+
+        byte[] body = response.body().getBytes(StandardCharsets.UTF_8);
+
+        try {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.getResponseHeaders().add("Request-Id", "req_fake_" + call);
+            exchange.sendResponseHeaders(response.status(), body.length);
+            exchange.getResponseBody().write(body);
+        } catch (IOException e) {
+            // The client gave up waiting
+        } finally {
+            exchange.close();
+        }
+    }
+
+    @FunctionalInterface
+    public interface Responder {
+
+        /**
+         * Answers the {@code call}-th request (from 1) to the route.
+         */
+        Response respond(int call, String requestBody);
+    }
+
+    public record Response(int status, String body, Duration delay) {
+
+        public static Response ok(String body) {
+            return new Response(200, body, Duration.ZERO);
+        }
+
+        public static Response error(int status, String type, String message) {
+            return new Response(status,
+                    "{\"error\": {\"type\": \"" + type + "\", \"message\": \"" + message + "\"}}", Duration.ZERO);
+        }
+
+        public Response after(Duration delay) {
+            return new Response(status, body, delay);
+        }
+    }
+}